@@ -0,0 +1,32 @@
+package com.deliverytech.delivery_api.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.UUID;
+
+@Configuration
+public class CacheSegundoNivelConfig {
+
+    /**
+     * Entrega ao Hibernate um CacheManager próprio desta SessionFactory. O CachingProvider do
+     * Caffeine mantém um CacheManager por URI; com uma URI única, contextos que apontam para
+     * bancos diferentes na mesma JVM (como nos testes) não enxergam as entidades uns dos outros.
+     * As regiões vêm de application.conf, que o Caffeine carrega para URIs que não são arquivos.
+     * O Hibernate fecha o CacheManager junto com a SessionFactory.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer cacheManagerPorSessionFactory() {
+        return propriedades -> {
+            CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+            URI uri = URI.create("delivery-api:cache-segundo-nivel:" + UUID.randomUUID());
+            propriedades.put(ConfigSettings.CACHE_MANAGER, provider.getCacheManager(uri, provider.getDefaultClassLoader()));
+        };
+    }
+}
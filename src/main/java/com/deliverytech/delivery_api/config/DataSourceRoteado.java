@@ -0,0 +1,117 @@
+package com.deliverytech.delivery_api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Escolhe o pool de cada conexão. Só vai para a réplica o que roda dentro de uma transação
+ * @Transactional(readOnly = true) (ou TransactionTemplate readOnly) aberta pela aplicação; o
+ * resto (escritas e acessos sem transação) vai para o primário. Uma leitura volta ao primário
+ * quando está em LeituraNoPrimario ou quando a sessão do cliente escreveu há pouco
+ * (LeituraAposEscrita).
+ *
+ * Fora de transação, os métodos herdados dos repositórios (findById, findAll, count...) abrem
+ * uma transação readOnly própria, e as consultas declaradas nos repositórios não abrem nenhuma.
+ * As duas ficam no primário: a transação padrão do Spring Data é reconhecida pelo nome.
+ *
+ * A escolha acontece quando a conexão é obtida; por isso o DataSource da aplicação é um
+ * LazyConnectionDataSourceProxy em volta deste, que só pede a conexão no primeiro comando,
+ * quando o readOnly da transação já está marcado em TransactionSynchronizationManager.
+ */
+public class DataSourceRoteado extends AbstractRoutingDataSource implements Closeable {
+
+    public enum Destino { PRIMARIO, REPLICA }
+
+    // Transações abertas pelos próprios repositórios (SimpleJpaRepository é @Transactional(readOnly = true))
+    private static final String TRANSACAO_DE_REPOSITORIO = "org.springframework.data.";
+
+    private final HikariDataSource primario;
+    private final HikariDataSource replica;
+    private final LeituraAposEscrita leituraAposEscrita;
+
+    private final Map<Destino, LongAdder> conexoesLeitura = new EnumMap<>(Destino.class);
+    private final Map<Destino, LongAdder> conexoesEscrita = new EnumMap<>(Destino.class);
+
+    public DataSourceRoteado(HikariDataSource primario, HikariDataSource replica, LeituraAposEscrita leituraAposEscrita) {
+        this.primario = primario;
+        this.replica = replica;
+        this.leituraAposEscrita = leituraAposEscrita;
+        for (Destino destino : Destino.values()) {
+            conexoesLeitura.put(destino, new LongAdder());
+            conexoesEscrita.put(destino, new LongAdder());
+        }
+        setTargetDataSources(Map.of(Destino.PRIMARIO, primario, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primario);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            Destino destino = destinoDaLeitura(TransactionSynchronizationManager.getCurrentTransactionName());
+            conexoesLeitura.get(destino).increment();
+            return destino;
+        }
+        conexoesEscrita.get(Destino.PRIMARIO).increment();
+        registrarEscrita();
+        return Destino.PRIMARIO;
+    }
+
+    /**
+     * Para onde vai a transação somente leitura com este nome, aberta agora nesta thread.
+     */
+    public Destino destinoDaLeitura(String transacao) {
+        boolean daAplicacao = transacao == null || !transacao.startsWith(TRANSACAO_DE_REPOSITORIO);
+        return daAplicacao && !LeituraNoPrimario.ativa() && !leituraAposEscrita.dentroDaJanela()
+                ? Destino.REPLICA : Destino.PRIMARIO;
+    }
+
+    public HikariDataSource pool(Destino destino) {
+        return destino == Destino.PRIMARIO ? primario : replica;
+    }
+
+    /**
+     * Conexões entregues pelo pool em transações somente leitura.
+     */
+    public long conexoesLeitura(Destino destino) {
+        return conexoesLeitura.get(destino).sum();
+    }
+
+    /**
+     * Conexões entregues pelo pool em transações de escrita ou fora de transação.
+     */
+    public long conexoesEscrita(Destino destino) {
+        return conexoesEscrita.get(destino).sum();
+    }
+
+    @Override
+    public void close() {
+        replica.close();
+        primario.close();
+    }
+
+    // =================== AUXILIARES ===================
+
+    // A janela da sessão começa no commit: antes dele a réplica nem teria o que copiar.
+    // Sem transação não há como separar leitura de escrita, e a conexão já é do primário.
+    private void registrarEscrita() {
+        if (!leituraAposEscrita.sessaoAtiva() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        String sessao = leituraAposEscrita.sessaoAtual();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                leituraAposEscrita.registrarEscrita(sessao);
+            }
+        });
+    }
+}
@@ -31,6 +31,9 @@ public class DatabaseLoader implements CommandLineRunner {
         r1.setAtivo(true);
         r1.setAvaliacao(4.5);
         r1.setTaxaEntrega(new BigDecimal("5.00"));
+        r1.setCep("30130010");
+        r1.setLatitude(-19.9227);
+        r1.setLongitude(-43.9451);
 
         Restaurante r2 = new Restaurante();
         r2.setNome("Sushi Master");
@@ -38,6 +41,9 @@ public class DatabaseLoader implements CommandLineRunner {
         r2.setAtivo(true);
         r2.setAvaliacao(4.8);
         r2.setTaxaEntrega(new BigDecimal("10.00"));
+        r2.setCep("01310100");
+        r2.setLatitude(-23.5614);
+        r2.setLongitude(-46.6559);
 
         restauranteRepository.saveAll(Arrays.asList(r1, r2));
 
@@ -0,0 +1,35 @@
+package com.deliverytech.delivery_api.config;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Nas transações somente leitura que vão para a réplica, a sessão do Hibernate não usa o cache
+ * de segundo nível (CacheMode.IGNORE). A réplica pode estar atrasada: uma consulta em cache
+ * montada com ela ficaria antiga até a próxima escrita nas tabelas. CacheMode.GET não basta,
+ * porque o cache de consultas guarda o resultado de uma falha mesmo assim.
+ *
+ * O modo precisa valer desde o início da transação, porque as consultas guardam o modo da
+ * sessão quando são criadas, antes de a primeira conexão ser pedida ao DataSourceRoteado.
+ */
+public class JpaTransactionManagerRoteado extends JpaTransactionManager {
+
+    private final DataSourceRoteado dataSourceRoteado;
+
+    public JpaTransactionManagerRoteado(DataSourceRoteado dataSourceRoteado) {
+        this.dataSourceRoteado = dataSourceRoteado;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        if (definition.isReadOnly() && dataSourceRoteado.destinoDaLeitura(definition.getName()) == DataSourceRoteado.Destino.REPLICA) {
+            EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+            holder.getEntityManager().unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.deliverytech.delivery_api.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Leitura das próprias escritas com réplica atrasada. O cliente que quiser a garantia manda o
+ * cabeçalho X-Sessao-Cliente (um identificador qualquer, o mesmo em todas as suas requisições);
+ * depois de um commit de escrita feito por essa sessão, as leituras dela vão para o primário
+ * durante a janela (delivery.datasource.replica.janela-leitura-propria). Sem o cabeçalho, ou
+ * com janela zero, as leituras seguem para a réplica.
+ *
+ * A sessão da requisição fica na thread enquanto a requisição é atendida; o que roda em outras
+ * threads (jobs, partições paralelas) não herda a sessão.
+ */
+public class LeituraAposEscrita extends OncePerRequestFilter {
+
+    public static final String CABECALHO = "X-Sessao-Cliente";
+    public static final int TAMANHO_MAXIMO_SESSAO = 128;
+
+    private static final ThreadLocal<String> SESSAO = new ThreadLocal<>();
+
+    // Instante (nanoTime) do último commit de escrita de cada sessão; some quando a janela passa
+    private final Cache<String, Long> ultimasEscritas;
+    private final long janelaNanos;
+
+    public LeituraAposEscrita(Duration janela, long maximoSessoes) {
+        this.janelaNanos = janela.toNanos();
+        this.ultimasEscritas = janela.isZero() ? null
+                : Caffeine.newBuilder().expireAfterWrite(janela).maximumSize(maximoSessoes).build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String sessao = request.getHeader(CABECALHO);
+        if (sessao == null || sessao.isBlank() || sessao.length() > TAMANHO_MAXIMO_SESSAO) {
+            chain.doFilter(request, response);
+            return;
+        }
+        SESSAO.set(sessao);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SESSAO.remove();
+        }
+    }
+
+    /**
+     * Executa a ação como se fosse uma requisição da sessão (fora do filtro, como nos testes).
+     */
+    public <T> T executarNaSessao(String sessao, Supplier<T> acao) {
+        String anterior = SESSAO.get();
+        SESSAO.set(sessao);
+        try {
+            return acao.get();
+        } finally {
+            if (anterior == null) {
+                SESSAO.remove();
+            } else {
+                SESSAO.set(anterior);
+            }
+        }
+    }
+
+    public boolean sessaoAtiva() {
+        return ultimasEscritas != null && SESSAO.get() != null;
+    }
+
+    public String sessaoAtual() {
+        return SESSAO.get();
+    }
+
+    public void registrarEscrita(String sessao) {
+        if (ultimasEscritas != null) {
+            ultimasEscritas.put(sessao, System.nanoTime());
+        }
+    }
+
+    /**
+     * A sessão da thread fez um commit de escrita há menos que a janela?
+     */
+    public boolean dentroDaJanela() {
+        if (!sessaoAtiva()) {
+            return false;
+        }
+        Long escrita = ultimasEscritas.getIfPresent(SESSAO.get());
+        return escrita != null && System.nanoTime() - escrita < janelaNanos;
+    }
+
+    public long sessoesNaJanela() {
+        if (ultimasEscritas == null) {
+            return 0;
+        }
+        ultimasEscritas.cleanUp();
+        return ultimasEscritas.estimatedSize();
+    }
+}
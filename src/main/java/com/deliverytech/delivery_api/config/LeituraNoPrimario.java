@@ -0,0 +1,41 @@
+package com.deliverytech.delivery_api.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Marca as leituras que precisam ir ao banco primário mesmo em transação somente leitura.
+ * Com réplica configurada (ver DataSourceRoteado), as transações readOnly vão para ela; os
+ * caches e índices em memória, porém, são montados logo depois de um commit e guardam o que
+ * leram até a próxima invalidação. Lidos de uma réplica atrasada, ficariam com dados antigos.
+ * A marca vale para as conexões obtidas dentro da ação, na thread corrente.
+ */
+public final class LeituraNoPrimario {
+
+    private static final ThreadLocal<Boolean> ATIVA = new ThreadLocal<>();
+
+    private LeituraNoPrimario() {
+    }
+
+    public static <T> T executar(Supplier<T> acao) {
+        Boolean anterior = ATIVA.get();
+        ATIVA.set(Boolean.TRUE);
+        try {
+            return acao.get();
+        } finally {
+            if (anterior == null) {
+                ATIVA.remove();
+            }
+        }
+    }
+
+    public static void executar(Runnable acao) {
+        executar(() -> {
+            acao.run();
+            return null;
+        });
+    }
+
+    public static boolean ativa() {
+        return ATIVA.get() != null;
+    }
+}
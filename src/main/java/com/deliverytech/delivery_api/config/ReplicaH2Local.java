@@ -0,0 +1,180 @@
+package com.deliverytech.delivery_api.config;
+
+import com.deliverytech.delivery_api.dto.SincronizacaoReplicaDTO;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Réplica para desenvolvimento e testes: um segundo H2 alimentado pelo primário, com atraso
+ * controlado. O H2 não replica sozinho; esta classe faz o papel do processo de replicação.
+ *
+ * Na primeira cópia a estrutura do primário (SCRIPT NODATA) é recriada na réplica, sem as
+ * chaves estrangeiras, e cada tabela ganha uma LINKED TABLE no esquema ORIGEM apontando para
+ * o primário. Cada cópia troca o conteúdo de todas as tabelas em uma única transação da
+ * réplica: quem lê a réplica enxerga a cópia anterior até o commit. As tabelas do primário são
+ * lidas uma a uma, sem um instantâneo único entre elas.
+ *
+ * Se o usuário do pool da réplica for outro que não o da cópia, ele é criado só com SELECT no
+ * esquema PUBLIC: uma escrita roteada por engano para a réplica falha, como falharia em uma
+ * réplica de verdade, em vez de sumir na próxima cópia.
+ */
+public class ReplicaH2Local implements Closeable {
+
+    public static final String ESQUEMA_ORIGEM = "ORIGEM";
+
+    private static final Pattern IDENTIFICADOR = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private final DataSource primario;
+    private final String urlPrimario;
+    private final String usuarioPrimario;
+    private final String senhaPrimario;
+    private final String usuarioLeitura;
+    private final String senhaLeitura;
+    // Conexão da cópia, aberta enquanto a aplicação roda: mantém vivos os bancos em memória
+    private final Connection replica;
+    private final ScheduledExecutorService agendador;
+
+    private List<String> tabelas;
+    private volatile SincronizacaoReplicaDTO ultima;
+
+    public ReplicaH2Local(DataSource primario, String urlPrimario, String usuarioPrimario, String senhaPrimario,
+                          String urlReplica, String usuarioCopia, String senhaCopia,
+                          String usuarioLeitura, String senhaLeitura, Duration intervalo) {
+        this.primario = primario;
+        this.urlPrimario = urlPrimario;
+        this.usuarioPrimario = usuarioPrimario;
+        this.senhaPrimario = senhaPrimario == null ? "" : senhaPrimario;
+        this.usuarioLeitura = usuarioLeitura.equalsIgnoreCase(usuarioCopia) ? null : usuarioLeitura;
+        this.senhaLeitura = senhaLeitura == null ? "" : senhaLeitura;
+        if (this.usuarioLeitura != null && !IDENTIFICADOR.matcher(this.usuarioLeitura).matches()) {
+            throw new IllegalStateException("Usuário da réplica inválido: " + usuarioLeitura);
+        }
+        try {
+            this.replica = DriverManager.getConnection(urlReplica, usuarioCopia, senhaCopia == null ? "" : senhaCopia);
+            this.replica.setAutoCommit(false);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha ao abrir a réplica " + urlReplica, e);
+        }
+        if (intervalo.isZero()) {
+            this.agendador = null;
+        } else {
+            this.agendador = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("replica-h2").daemon().factory());
+            this.agendador.scheduleWithFixedDelay(this::sincronizarAgendado, intervalo.toMillis(), intervalo.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Depois dos CommandLineRunner (DatabaseLoader) e antes das outras cargas da subida
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void copiarAoIniciar() {
+        sincronizar();
+    }
+
+    /**
+     * Copia o primário inteiro para a réplica (criando a estrutura na primeira vez).
+     */
+    public synchronized SincronizacaoReplicaDTO sincronizar() {
+        long inicio = System.nanoTime();
+        try {
+            if (tabelas == null) {
+                tabelas = criarEstrutura();
+            }
+            long linhas = 0;
+            try (Statement comando = replica.createStatement()) {
+                for (String tabela : tabelas) {
+                    comando.executeUpdate("DELETE FROM \"" + tabela + "\"");
+                    linhas += comando.executeUpdate("INSERT INTO \"" + tabela + "\" SELECT * FROM " + ESQUEMA_ORIGEM + ".\"" + tabela + "\"");
+                }
+                replica.commit();
+            } catch (SQLException e) {
+                replica.rollback();
+                throw e;
+            }
+            ultima = new SincronizacaoReplicaDTO(tabelas.size(), linhas, (System.nanoTime() - inicio) / 1_000_000, LocalDateTime.now());
+            return ultima;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha ao copiar o primário para a réplica", e);
+        }
+    }
+
+    public SincronizacaoReplicaDTO ultimaSincronizacao() {
+        return ultima;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (agendador != null) {
+            agendador.shutdownNow();
+        }
+        try {
+            replica.close();
+        } catch (SQLException e) {
+            // O banco em memória some junto com a aplicação
+        }
+    }
+
+    // =================== AUXILIARES ===================
+
+    private List<String> criarEstrutura() throws SQLException {
+        List<String> nomes = new ArrayList<>();
+        try (Connection origem = primario.getConnection(); Statement consulta = origem.createStatement()) {
+            try (Statement destino = replica.createStatement();
+                 ResultSet script = consulta.executeQuery("SCRIPT NODATA NOPASSWORDS NOSETTINGS")) {
+                while (script.next()) {
+                    String sql = script.getString(1);
+                    // Comentários, usuários do primário e chaves estrangeiras (a cópia é tabela a tabela) ficam de fora
+                    if (!sql.startsWith("--") && !sql.startsWith("CREATE USER") && !sql.contains(" FOREIGN KEY(")) {
+                        destino.execute(sql);
+                    }
+                }
+            }
+            try (ResultSet resultado = consulta.executeQuery("SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES "
+                    + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE' ORDER BY TABLE_NAME")) {
+                while (resultado.next()) {
+                    nomes.add(resultado.getString(1));
+                }
+            }
+        }
+        try (Statement destino = replica.createStatement()) {
+            destino.execute("CREATE SCHEMA IF NOT EXISTS " + ESQUEMA_ORIGEM);
+            for (String tabela : nomes) {
+                destino.execute("CREATE LINKED TABLE " + ESQUEMA_ORIGEM + ".\"" + tabela + "\"('org.h2.Driver', "
+                        + texto(urlPrimario) + ", " + texto(usuarioPrimario) + ", " + texto(senhaPrimario) + ", 'PUBLIC', "
+                        + texto(tabela) + ") READONLY");
+            }
+            if (usuarioLeitura != null) {
+                destino.execute("CREATE USER IF NOT EXISTS " + usuarioLeitura + " PASSWORD " + texto(senhaLeitura));
+                destino.execute("GRANT SELECT ON SCHEMA PUBLIC TO " + usuarioLeitura);
+            }
+            replica.commit();
+        }
+        return nomes;
+    }
+
+    // Na cópia agendada a falha fica para a próxima rodada; a réplica segue com a cópia anterior
+    private void sincronizarAgendado() {
+        try {
+            sincronizar();
+        } catch (RuntimeException e) {
+            // Próxima rodada
+        }
+    }
+
+    private static String texto(String valor) {
+        return "'" + valor.replace("'", "''") + "'";
+    }
+}
@@ -0,0 +1,109 @@
+package com.deliverytech.delivery_api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Primário e réplica, ativado por delivery.datasource.replica.url. Sem essa propriedade o
+ * Spring Boot monta o DataSource único de sempre, a partir de spring.datasource.*.
+ *
+ * O primário usa spring.datasource.* e spring.datasource.hikari.maximum-pool-size; a réplica,
+ * delivery.datasource.replica.*. Para testar localmente com dois H2 em memória, ligue
+ * delivery.datasource.replica.copiar-do-primario (ver ReplicaH2Local). A conexão da cópia
+ * mantém a réplica em memória aberta; DB_CLOSE_DELAY na URL exigiria um usuário administrador.
+ *
+ *   delivery.datasource.replica.url=jdbc:h2:mem:deliverydb-replica
+ *   delivery.datasource.replica.username=leitura
+ *   delivery.datasource.replica.copiar-do-primario=true
+ *   delivery.datasource.replica.intervalo-copia=PT2S
+ */
+@Configuration
+@ConditionalOnProperty("delivery.datasource.replica.url")
+public class RoteamentoDataSourceConfig {
+
+    @Bean
+    public LeituraAposEscrita leituraAposEscrita(
+            @Value("${delivery.datasource.replica.janela-leitura-propria:PT5S}") Duration janela,
+            @Value("${delivery.datasource.replica.maximo-sessoes:100000}") long maximoSessoes) {
+        return new LeituraAposEscrita(janela, maximoSessoes);
+    }
+
+    // Também é um DataSource; quem pede DataSource recebe o proxy abaixo (@Primary)
+    @Bean
+    public DataSourceRoteado dataSourceRoteado(
+            DataSourceProperties primario,
+            LeituraAposEscrita leituraAposEscrita,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximoPrimario,
+            @Value("${delivery.datasource.replica.url}") String url,
+            @Value("${delivery.datasource.replica.username:sa}") String usuario,
+            @Value("${delivery.datasource.replica.password:}") String senha,
+            @Value("${delivery.datasource.replica.driver-class-name:}") String driver,
+            @Value("${delivery.datasource.replica.maximum-pool-size:10}") int maximoReplica) {
+        HikariDataSource poolPrimario = primario.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        poolPrimario.setPoolName("primario");
+        poolPrimario.setMaximumPoolSize(maximoPrimario);
+
+        DataSourceBuilder<HikariDataSource> construtor = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(usuario).password(senha);
+        if (!driver.isBlank()) {
+            construtor.driverClassName(driver);
+        }
+        HikariDataSource poolReplica = construtor.build();
+        poolReplica.setPoolName("replica");
+        poolReplica.setMaximumPoolSize(maximoReplica);
+        // A réplica nunca recebe escrita; a sessão fica somente leitura também para o driver
+        poolReplica.setReadOnly(true);
+        return new DataSourceRoteado(poolPrimario, poolReplica, leituraAposEscrita);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceRoteado dataSourceRoteado) {
+        return new LazyConnectionDataSourceProxy(dataSourceRoteado);
+    }
+
+    // No lugar do JpaTransactionManager do Spring Boot, com os mesmos customizadores
+    @Bean
+    public PlatformTransactionManager transactionManager(DataSourceRoteado dataSourceRoteado,
+                                                         ObjectProvider<TransactionManagerCustomizers> customizadores) {
+        JpaTransactionManager transactionManager = new JpaTransactionManagerRoteado(dataSourceRoteado);
+        customizadores.ifAvailable(customizador -> customizador.customize(transactionManager));
+        return transactionManager;
+    }
+
+    // Depois da EntityManagerFactory, para que o esquema do primário já exista
+    @Bean
+    @DependsOn("entityManagerFactory")
+    @ConditionalOnProperty("delivery.datasource.replica.copiar-do-primario")
+    public ReplicaH2Local replicaH2Local(
+            DataSourceRoteado dataSourceRoteado,
+            DataSourceProperties primario,
+            @Value("${delivery.datasource.replica.url}") String url,
+            @Value("${delivery.datasource.replica.username:sa}") String usuario,
+            @Value("${delivery.datasource.replica.password:}") String senha,
+            @Value("${delivery.datasource.replica.usuario-copia:sa}") String usuarioCopia,
+            @Value("${delivery.datasource.replica.senha-copia:}") String senhaCopia,
+            @Value("${delivery.datasource.replica.intervalo-copia:PT0S}") Duration intervalo) {
+        ReplicaH2Local replica = new ReplicaH2Local(dataSourceRoteado.pool(DataSourceRoteado.Destino.PRIMARIO),
+                primario.determineUrl(), primario.determineUsername(), primario.determinePassword(),
+                url, usuarioCopia, senhaCopia, usuario, senha, intervalo);
+        // Estrutura pronta antes da primeira leitura pela réplica
+        replica.sincronizar();
+        return replica;
+    }
+}
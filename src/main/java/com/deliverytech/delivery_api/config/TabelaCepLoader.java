@@ -0,0 +1,67 @@
+package com.deliverytech.delivery_api.config;
+
+import com.deliverytech.delivery_api.entity.CepCoordenada;
+import com.deliverytech.delivery_api.repository.CepCoordenadaRepository;
+import com.deliverytech.delivery_api.service.CepService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Carrega a tabela local de CEPs (ceps.csv) quando ela está vazia.
+ * Roda em todos os perfis e antes do DatabaseLoader, que já cadastra restaurantes com CEP.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Component
+public class TabelaCepLoader implements ApplicationRunner {
+
+    private static final String ARQUIVO = "ceps.csv";
+
+    private final CepCoordenadaRepository cepCoordenadaRepository;
+    private final CepService cepService;
+
+    public TabelaCepLoader(CepCoordenadaRepository cepCoordenadaRepository, CepService cepService) {
+        this.cepCoordenadaRepository = cepCoordenadaRepository;
+        this.cepService = cepService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        // Sem transação, no primário: é ele que recebe a carga, e a réplica pode ainda não ter cópia nenhuma
+        if (cepCoordenadaRepository.count() == 0) {
+            cepCoordenadaRepository.saveAll(ler());
+        }
+        cepService.recarregar();
+    }
+
+    // Formato: cep;latitude;longitude;localidade (linhas com # são comentários; a primeira é o cabeçalho)
+    private List<CepCoordenada> ler() throws IOException {
+        List<CepCoordenada> linhas = new ArrayList<>();
+        try (BufferedReader leitor = new BufferedReader(new InputStreamReader(
+                new ClassPathResource(ARQUIVO).getInputStream(), StandardCharsets.UTF_8))) {
+            boolean cabecalho = true;
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                if (linha.isBlank() || linha.startsWith("#")) continue;
+                if (cabecalho) {
+                    cabecalho = false;
+                    continue;
+                }
+                String[] campos = linha.split(";", -1);
+                linhas.add(new CepCoordenada(campos[0].trim(), Double.parseDouble(campos[1]),
+                        Double.parseDouble(campos[2]), campos[3].trim()));
+            }
+        }
+        return linhas;
+    }
+}
@@ -0,0 +1,62 @@
+package com.deliverytech.delivery_api.controller;
+
+import com.deliverytech.delivery_api.dto.EstatisticaCacheDTO;
+import com.deliverytech.delivery_api.dto.EstatisticaRelatorioCacheDTO;
+import com.deliverytech.delivery_api.service.CacheService;
+import com.deliverytech.delivery_api.service.RelatorioCacheService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Tag(name = "Cache", description = "Estatísticas do cache de segundo nível e do cache de relatórios")
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    private final CacheService cacheService;
+    private final RelatorioCacheService relatorioCacheService;
+
+    public CacheController(CacheService cacheService, RelatorioCacheService relatorioCacheService) {
+        this.cacheService = cacheService;
+        this.relatorioCacheService = relatorioCacheService;
+    }
+
+    /**
+     * GET /api/cache/estatisticas - Acertos/falhas por região (restaurantes, produtos, consultas...)
+     */
+    @Operation(summary = "Estatísticas do cache de segundo nível", description = "Acertos, falhas e inclusões por região.")
+    @GetMapping("/estatisticas")
+    public ResponseEntity<List<EstatisticaCacheDTO>> estatisticas() {
+        return ResponseEntity.ok(cacheService.estatisticas());
+    }
+
+    /**
+     * DELETE /api/cache/estatisticas - Zera os contadores (não esvazia o cache)
+     */
+    @DeleteMapping("/estatisticas")
+    public ResponseEntity<Void> zerarEstatisticas() {
+        cacheService.zerarEstatisticas();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * GET /api/cache/relatorios - Acertos, falhas e tempo de carga de cada relatório em cache
+     */
+    @Operation(summary = "Estatísticas do cache de relatórios", description = "Taxa de acerto, cargas e tempo médio de carga por relatório.")
+    @GetMapping("/relatorios")
+    public ResponseEntity<List<EstatisticaRelatorioCacheDTO>> estatisticasRelatorios() {
+        return ResponseEntity.ok(relatorioCacheService.estatisticas());
+    }
+
+    /**
+     * DELETE /api/cache/relatorios - Descarta os relatórios em cache (a próxima leitura de cada um vai ao banco)
+     */
+    @DeleteMapping("/relatorios")
+    public ResponseEntity<Void> invalidarRelatorios() {
+        relatorioCacheService.invalidarTodos();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.deliverytech.delivery_api.controller;
+
+import com.deliverytech.delivery_api.dto.EstatisticaPoolDTO;
+import com.deliverytech.delivery_api.dto.SincronizacaoReplicaDTO;
+import com.deliverytech.delivery_api.service.PoolConexaoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Tag(name = "DataSource", description = "Pools de conexão do primário e da réplica")
+@RestController
+@RequestMapping("/api/datasource")
+public class DataSourceController {
+
+    private final PoolConexaoService poolConexaoService;
+
+    public DataSourceController(PoolConexaoService poolConexaoService) {
+        this.poolConexaoService = poolConexaoService;
+    }
+
+    /**
+     * GET /api/datasource/pools - Conexões ativas/ociosas/aguardando e conexões roteadas por pool
+     */
+    @Operation(summary = "Métricas dos pools de conexão",
+            description = "Por pool (primário e réplica): conexões ativas, ociosas, totais, threads à espera e conexões entregues para leitura e escrita.")
+    @GetMapping("/pools")
+    public ResponseEntity<List<EstatisticaPoolDTO>> pools() {
+        return ResponseEntity.ok(poolConexaoService.estatisticas());
+    }
+
+    /**
+     * POST /api/datasource/replica/sincronizar - Copia o primário para a réplica H2 local agora
+     */
+    @Operation(summary = "Sincronizar a réplica local", description = "Só com delivery.datasource.replica.copiar-do-primario.")
+    @PostMapping("/replica/sincronizar")
+    public ResponseEntity<SincronizacaoReplicaDTO> sincronizarReplica() {
+        return ResponseEntity.ok(poolConexaoService.sincronizarReplica());
+    }
+}
@@ -1,16 +1,22 @@
 package com.deliverytech.delivery_api.controller;
 
 import com.deliverytech.delivery_api.dto.ItemPedidoRequestDTO;
-import com.deliverytech.delivery_api.dto.ItemPedidoResponseDTO;
+import com.deliverytech.delivery_api.dto.PaginaCursorDTO;
+import com.deliverytech.delivery_api.dto.PedidoLoteResultadoDTO;
 import com.deliverytech.delivery_api.dto.PedidoRequestDTO;
 import com.deliverytech.delivery_api.dto.PedidoResponseDTO;
-import com.deliverytech.delivery_api.entity.ItemPedido;
 import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.service.ExportacaoPedidoService;
+import com.deliverytech.delivery_api.service.IdempotenciaService;
+import com.deliverytech.delivery_api.service.PedidoLoteService;
 import com.deliverytech.delivery_api.service.PedidoService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.math.BigDecimal; // Importação necessária
 import java.time.LocalDateTime; // Importação necessária
 import java.util.List;
@@ -23,32 +29,50 @@ import java.util.stream.Collectors;
 public class PedidoController {
 
     private final PedidoService pedidoService;
-
-    public PedidoController(PedidoService pedidoService) {
+    private final PedidoLoteService pedidoLoteService;
+    private final IdempotenciaService idempotenciaService;
+    private final ExportacaoPedidoService exportacaoPedidoService;
+
+    public PedidoController(PedidoService pedidoService,
+                            PedidoLoteService pedidoLoteService,
+                            IdempotenciaService idempotenciaService,
+                            ExportacaoPedidoService exportacaoPedidoService) {
         this.pedidoService = pedidoService;
+        this.pedidoLoteService = pedidoLoteService;
+        this.idempotenciaService = idempotenciaService;
+        this.exportacaoPedidoService = exportacaoPedidoService;
     }
 
     // =================== CREATE ===================
     /**
      * POST /api/pedidos - Criar pedido
+     * Com o header Idempotency-Key, repetições da mesma requisição devolvem o pedido
+     * já criado (sem acessar o banco) em vez de criar um novo.
      */
     @PostMapping
-    public ResponseEntity<PedidoResponseDTO> criarPedido(@RequestBody PedidoRequestDTO dto) {
+    public ResponseEntity<PedidoResponseDTO> criarPedido(
+            @RequestBody PedidoRequestDTO dto,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
 
-        // Conversão de DTO de Itens para o Map que o Service espera
-        Map<Long, Integer> itensMap = dto.getItens().stream()
-                .collect(Collectors.toMap(
-                        ItemPedidoRequestDTO::getProdutoId,
-                        ItemPedidoRequestDTO::getQuantidade
-                ));
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(criarPedido(dto));
+        }
 
-        Pedido pedido = pedidoService.criarPedido(
-                dto.getClienteId(),
-                dto.getRestauranteId(),
-                itensMap
-        );
+        IdempotenciaService.Resultado<PedidoResponseDTO> resultado =
+                idempotenciaService.executar(idempotencyKey, dto, () -> criarPedido(dto));
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(pedido));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Idempotent-Replayed", String.valueOf(resultado.repetido()))
+                .body(resultado.valor());
+    }
+
+    /**
+     * POST /api/pedidos/lote - Criar vários pedidos de uma vez (integrações de parceiros)
+     * Retorna um resultado por pedido (ID criado ou erro de validação), na ordem enviada.
+     */
+    @PostMapping("/lote")
+    public ResponseEntity<List<PedidoLoteResultadoDTO>> criarPedidosEmLote(@RequestBody List<PedidoRequestDTO> dtos) {
+        return ResponseEntity.ok(pedidoLoteService.criarPedidos(dtos));
     }
 
     /**
@@ -76,28 +100,41 @@ public class PedidoController {
     // =================== READ ===================
     /**
      * GET /api/pedidos/{id} - Buscar pedido completo
+     * Leitura por projeção: não carrega as entidades Pedido/ItemPedido/Produto.
      */
     @GetMapping("/{id}")
     public ResponseEntity<PedidoResponseDTO> buscarPorId(@PathVariable Long id) {
-        Pedido pedido = pedidoService.buscarPorIdCompleto(id);
-        return ResponseEntity.ok(toResponse(pedido));
+        return ResponseEntity.ok(pedidoService.buscarResumoPorId(id));
     }
 
     /**
      * GET /api/pedidos - Listar com filtros (status, data)
-     * Adicionado para filtros dinâmicos
+     * Paginado por cursor: envie o nextCursor recebido para obter a próxima página.
      */
     @GetMapping
-    public ResponseEntity<List<PedidoResponseDTO>> listarComFiltros(
+    public ResponseEntity<PaginaCursorDTO<PedidoResponseDTO>> listarComFiltros(
             @RequestParam(required = false) String status,
             @RequestParam(required = false) @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataInicio,
-            @RequestParam(required = false) @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim) {
+            @RequestParam(required = false) @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limite) {
 
-        List<Pedido> pedidos = pedidoService.listarComFiltros(status, dataInicio, dataFim);
-        List<PedidoResponseDTO> dtos = pedidos.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+        return ResponseEntity.ok(pedidoService.listarComFiltros(status, dataInicio, dataFim, cursor, limite));
+    }
+
+    /**
+     * GET /api/pedidos com Accept: application/x-ndjson - Exportação em streaming
+     * Sem paginação: cada pedido é escrito na resposta à medida que é lido do banco.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportarComFiltros(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataInicio,
+            @RequestParam(required = false) @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim,
+            HttpServletResponse response) throws IOException {
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        exportacaoPedidoService.exportarPedidos(status, dataInicio, dataFim, response.getOutputStream());
     }
 
     /**
@@ -105,13 +142,11 @@ public class PedidoController {
      * NOTA: Mapeamento em /api/pedidos/cliente/{clienteId}
      */
     @GetMapping("/clientes/{clienteId}")
-    public ResponseEntity<List<PedidoResponseDTO>> listarPorCliente(@PathVariable Long clienteId) {
-        // Método já existente
-        List<Pedido> pedidos = pedidoService.buscarPorCliente(clienteId);
-        List<PedidoResponseDTO> dtos = pedidos.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<PaginaCursorDTO<PedidoResponseDTO>> listarPorCliente(
+            @PathVariable Long clienteId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limite) {
+        return ResponseEntity.ok(pedidoService.buscarPorCliente(clienteId, cursor, limite));
     }
 
     /**
@@ -119,12 +154,11 @@ public class PedidoController {
      * NOVO ENDPOINT
      */
     @GetMapping("/restaurantes/{restauranteId}")
-    public ResponseEntity<List<PedidoResponseDTO>> listarPorRestaurante(@PathVariable Long restauranteId) {
-        List<Pedido> pedidos = pedidoService.buscarPorRestaurante(restauranteId);
-        List<PedidoResponseDTO> dtos = pedidos.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<PaginaCursorDTO<PedidoResponseDTO>> listarPorRestaurante(
+            @PathVariable Long restauranteId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limite) {
+        return ResponseEntity.ok(pedidoService.buscarPorRestaurante(restauranteId, cursor, limite));
     }
 
     // =================== UPDATE ===================
@@ -136,7 +170,7 @@ public class PedidoController {
     public ResponseEntity<PedidoResponseDTO> atualizarStatus(@PathVariable Long id,
                                                              @RequestParam String status) {
         Pedido atualizado = pedidoService.atualizarStatus(id, status);
-        return ResponseEntity.ok(toResponse(atualizado));
+        return ResponseEntity.ok(PedidoResponseDTO.de(atualizado));
     }
 
     // =================== DELETE ===================
@@ -150,36 +184,19 @@ public class PedidoController {
         return ResponseEntity.noContent().build();
     }
 
-    // =================== CONVERSOR ===================
-    // Métodos toResponse e mapItemToResponse permanecem os mesmos
-    private PedidoResponseDTO toResponse(Pedido pedido) {
-        // ... (lógica de conversão DTO) ...
-        PedidoResponseDTO dto = new PedidoResponseDTO();
-        dto.setId(pedido.getId());
-        dto.setClienteId(pedido.getCliente().getId());
-        dto.setClienteNome(pedido.getCliente().getNome());
-        dto.setRestauranteId(pedido.getRestaurante().getId());
-        dto.setRestauranteNome(pedido.getRestaurante().getNome());
-        dto.setTotal(pedido.getTotal());
-        dto.setStatus(pedido.getStatus());
-        dto.setDataPedido(pedido.getDataPedido());
-
-        List<ItemPedidoResponseDTO> itensDto = pedido.getItens().stream()
-                .map(this::mapItemToResponse)
-                .collect(Collectors.toList());
-
-        dto.setItens(itensDto);
-
-        return dto;
-    }
+    private PedidoResponseDTO criarPedido(PedidoRequestDTO dto) {
+        // Conversão de DTO de Itens para o Map que o Service espera
+        Map<Long, Integer> itensMap = dto.getItens().stream()
+                .collect(Collectors.toMap(
+                        ItemPedidoRequestDTO::getProdutoId,
+                        ItemPedidoRequestDTO::getQuantidade
+                ));
 
-    private ItemPedidoResponseDTO mapItemToResponse(ItemPedido item) {
-        // ... (lógica de conversão DTO) ...
-        ItemPedidoResponseDTO dto = new ItemPedidoResponseDTO();
-        dto.setNomeProduto(item.getProduto().getNome());
-        dto.setQuantidade(item.getQuantidade());
-        dto.setPrecoUnitario(item.getPrecoUnitario());
-        dto.setSubtotal(item.getSubtotal());
-        return dto;
+        Pedido pedido = pedidoService.criarPedido(
+                dto.getClienteId(),
+                dto.getRestauranteId(),
+                itensMap
+        );
+        return PedidoResponseDTO.de(pedido);
     }
-}
\ No newline at end of file
+}
@@ -3,7 +3,9 @@ package com.deliverytech.delivery_api.controller;
 import com.deliverytech.delivery_api.dto.ProdutoRequestDTO;
 import com.deliverytech.delivery_api.dto.ProdutoResponseDTO;
 import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.service.CardapioCacheService;
 import com.deliverytech.delivery_api.service.ProdutoService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,9 +19,12 @@ import java.util.stream.Collectors;
 public class ProdutoController {
 
     private final ProdutoService produtoService;
+    private final CardapioCacheService cardapioCacheService;
 
-    public ProdutoController(ProdutoService produtoService) {
+    public ProdutoController(ProdutoService produtoService,
+                             CardapioCacheService cardapioCacheService) {
         this.produtoService = produtoService;
+        this.cardapioCacheService = cardapioCacheService;
     }
 
     // =================== CREATE ===================
@@ -59,14 +64,15 @@ public class ProdutoController {
      * NOTA: Este endpoint deve ser mapeado no RestauranteController ou ter um RequestMapping específico.
      * Como o requisito colocou este path na lista de ProdutoController, vamos mapeá-lo aqui
      * com o path completo, assumindo que ele não está no RestauranteController.
+     * O corpo é a mesma List<ProdutoResponseDTO> de antes, servida do CardapioCacheService.
      */
     @GetMapping("/restaurantes/{restauranteId}/produtos")
-    public ResponseEntity<List<ProdutoResponseDTO>> buscarPorRestaurante(@PathVariable Long restauranteId) {
-        List<Produto> produtos = produtoService.buscarPorRestaurante(restauranteId);
-        List<ProdutoResponseDTO> dtos = produtos.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<byte[]> buscarPorRestaurante(
+            @PathVariable Long restauranteId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Cardápio pré-serializado (JSON/gzip) com ETag; 304 sem consulta ao banco
+        return RespostaSerializadaHttp.responder(cardapioCacheService.cardapio(restauranteId), ifNoneMatch, acceptEncoding);
     }
 
     /**
@@ -82,11 +88,13 @@ public class ProdutoController {
     }
 
     /**
-     * GET /api/produtos/buscar?nome={nome} - Busca por nome
+     * GET /api/produtos/buscar?nome={nome}&limite={limite} - Busca por nome e descrição
+     * Resultados por relevância; limite entre 1 e 100 (padrão 20).
      */
     @GetMapping("/buscar")
-    public ResponseEntity<List<ProdutoResponseDTO>> buscarPorNome(@RequestParam String nome) {
-        List<Produto> produtos = produtoService.buscarPorNome(nome);
+    public ResponseEntity<List<ProdutoResponseDTO>> buscarPorNome(@RequestParam String nome,
+                                                                  @RequestParam(defaultValue = "20") int limite) {
+        List<Produto> produtos = produtoService.buscarPorNome(nome, limite);
         List<ProdutoResponseDTO> dtos = produtos.stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
@@ -133,14 +141,6 @@ public class ProdutoController {
 
     // =================== CONVERSOR ===================
     private ProdutoResponseDTO toResponse(Produto produto) {
-        ProdutoResponseDTO dto = new ProdutoResponseDTO();
-        dto.setId(produto.getId());
-        dto.setNome(produto.getNome());
-        dto.setDescricao(produto.getDescricao());
-        dto.setPreco(produto.getPreco());
-        dto.setAtivo(produto.isAtivo());
-        dto.setRestauranteId(produto.getRestaurante().getId());
-        dto.setRestauranteNome(produto.getRestaurante().getNome());
-        return dto;
+        return ProdutoResponseDTO.de(produto);
     }
-}
\ No newline at end of file
+}
@@ -4,23 +4,75 @@ import com.deliverytech.delivery_api.dto.projection.RelatorioFaturamentoCategori
 import com.deliverytech.delivery_api.dto.projection.RelatorioProdutosMaisVendidos; // Importação necessária
 import com.deliverytech.delivery_api.dto.projection.RelatorioRankingClientes; // Importação necessária
 import com.deliverytech.delivery_api.dto.projection.RelatorioVendasRestaurante; // Importação necessária
-import com.deliverytech.delivery_api.entity.Pedido; // Importação para o endpoint de período
+import com.deliverytech.delivery_api.dto.ClientesDistintosDTO;
+import com.deliverytech.delivery_api.dto.ConsultaPedidosDTO;
+import com.deliverytech.delivery_api.dto.ExportacaoColunarDTO;
+import com.deliverytech.delivery_api.dto.PedidoResponseDTO;
+import com.deliverytech.delivery_api.dto.PedidosRestauranteDTO;
+import com.deliverytech.delivery_api.dto.ProdutosEmAltaDTO;
+import com.deliverytech.delivery_api.dto.ReconstrucaoAgregadosDTO;
+import com.deliverytech.delivery_api.dto.RelatorioJobDTO;
+import com.deliverytech.delivery_api.dto.RelatorioJobRequestDTO;
+import com.deliverytech.delivery_api.dto.SerieTemporalDTO;
+import com.deliverytech.delivery_api.dto.VendasPeriodoDTO;
+import com.deliverytech.delivery_api.enums.DimensaoConsulta;
+import com.deliverytech.delivery_api.enums.GranularidadeSerie;
+import com.deliverytech.delivery_api.enums.MetricaConsulta;
+import com.deliverytech.delivery_api.enums.TipoRelatorioJob;
+import com.deliverytech.delivery_api.service.AnalisePedidosService;
+import com.deliverytech.delivery_api.service.ClientesDistintosService;
+import com.deliverytech.delivery_api.service.ExportacaoColunarService;
+import com.deliverytech.delivery_api.service.ExportacaoPedidoService;
+import com.deliverytech.delivery_api.service.ProdutosEmAltaService;
+import com.deliverytech.delivery_api.service.RelatorioJobService;
 import com.deliverytech.delivery_api.service.RelatorioService;
+import com.deliverytech.delivery_api.service.SerieTemporalService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/relatorios")
 public class RelatorioController {
 
     private final RelatorioService relatorioService;
+    private final ExportacaoPedidoService exportacaoPedidoService;
+    private final SerieTemporalService serieTemporalService;
+    private final ProdutosEmAltaService produtosEmAltaService;
+    private final ClientesDistintosService clientesDistintosService;
+    private final AnalisePedidosService analisePedidosService;
+    private final RelatorioJobService relatorioJobService;
+    private final ExportacaoColunarService exportacaoColunarService;
 
-    public RelatorioController(RelatorioService relatorioService) {
+    public RelatorioController(RelatorioService relatorioService,
+                               ExportacaoPedidoService exportacaoPedidoService,
+                               SerieTemporalService serieTemporalService,
+                               ProdutosEmAltaService produtosEmAltaService,
+                               ClientesDistintosService clientesDistintosService,
+                               AnalisePedidosService analisePedidosService,
+                               RelatorioJobService relatorioJobService,
+                               ExportacaoColunarService exportacaoColunarService) {
         this.relatorioService = relatorioService;
+        this.exportacaoPedidoService = exportacaoPedidoService;
+        this.serieTemporalService = serieTemporalService;
+        this.produtosEmAltaService = produtosEmAltaService;
+        this.clientesDistintosService = clientesDistintosService;
+        this.analisePedidosService = analisePedidosService;
+        this.relatorioJobService = relatorioJobService;
+        this.exportacaoColunarService = exportacaoColunarService;
     }
 
     /**
@@ -33,6 +85,20 @@ public class RelatorioController {
         return ResponseEntity.ok(relatorio);
     }
 
+    /**
+     * GET /api/relatorios/vendas-por-periodo
+     * Pedidos e faturamento por restaurante em [inicio, fim), lidos dos pedidos; com paralelo=true
+     * o período é dividido em trechos somados em paralelo
+     */
+    @GetMapping("/vendas-por-periodo")
+    public ResponseEntity<VendasPeriodoDTO> getVendasPorPeriodo(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "true") boolean paralelo) {
+        return ResponseEntity.ok(relatorioService.getVendasPorPeriodo(inicio, fim, status, paralelo));
+    }
+
     /**
      * GET /api/relatorios/produtos-mais-vendidos
      * Top produtos mais vendidos (usando Projeção RelatorioProdutosMaisVendidos)
@@ -43,6 +109,19 @@ public class RelatorioController {
         return ResponseEntity.ok(relatorio);
     }
 
+    /**
+     * GET /api/relatorios/produtos-em-alta
+     * Produtos mais pedidos nos últimos minutos (todos os restaurantes ou um só), estimados em
+     * memória, com o erro máximo de cada quantidade
+     */
+    @GetMapping("/produtos-em-alta")
+    public ResponseEntity<ProdutosEmAltaDTO> getProdutosEmAlta(
+            @RequestParam(defaultValue = "" + ProdutosEmAltaService.JANELA_PADRAO_MINUTOS) int minutos,
+            @RequestParam(defaultValue = "10") int limite,
+            @RequestParam(required = false) Long restauranteId) {
+        return ResponseEntity.ok(produtosEmAltaService.emAlta(restauranteId, minutos, limite));
+    }
+
     /**
      * GET /api/relatorios/clientes-ativos
      * Ranking de clientes (usando Projeção RelatorioRankingClientes)
@@ -53,18 +132,196 @@ public class RelatorioController {
         return ResponseEntity.ok(relatorio);
     }
 
+    /**
+     * POST /api/relatorios/agregados/reconstruir
+     * Recalcula os agregados de vendas a partir dos pedidos, corrige e lista as divergências
+     */
+    @PostMapping("/agregados/reconstruir")
+    public ResponseEntity<ReconstrucaoAgregadosDTO> reconstruirAgregados() {
+        return ResponseEntity.ok(relatorioService.reconstruirAgregados());
+    }
+
+    /**
+     * GET /api/relatorios/serie-temporal
+     * Pedidos, faturamento e itens por hora ou dia em [inicio, fim), pronto para gráfico
+     */
+    @GetMapping("/serie-temporal")
+    public ResponseEntity<SerieTemporalDTO> getSerieTemporal(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(defaultValue = "DIA") GranularidadeSerie granularidade,
+            @RequestParam(required = false) Long restauranteId,
+            @RequestParam(required = false) String status) {
+        return ResponseEntity.ok(serieTemporalService.serie(granularidade, inicio, fim, restauranteId, status));
+    }
+
+    /**
+     * GET /api/relatorios/pedidos-por-restaurante
+     * Pedidos, faturamento e itens por restaurante em [inicio, fim), do que mais vendeu para o que
+     * menos, a partir dos mesmos resumos da série temporal
+     */
+    @GetMapping("/pedidos-por-restaurante")
+    public ResponseEntity<List<PedidosRestauranteDTO>> getPedidosPorRestaurante(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(required = false) String status) {
+        return ResponseEntity.ok(serieTemporalService.pedidosPorRestaurante(inicio, fim, status));
+    }
+
+    /**
+     * POST /api/relatorios/serie-temporal/reconstruir
+     * Recalcula os resumos por hora e por dia a partir dos pedidos
+     */
+    @PostMapping("/serie-temporal/reconstruir")
+    public ResponseEntity<Integer> reconstruirSerieTemporal() {
+        return ResponseEntity.ok(serieTemporalService.reconstruir());
+    }
+
+    /**
+     * GET /api/relatorios/clientes-distintos
+     * Clientes distintos entre os dias inicio e fim (inclusive), nos restaurantes informados ou em
+     * todos, estimados pela união dos resumos diários em memória
+     */
+    @GetMapping("/clientes-distintos")
+    public ResponseEntity<ClientesDistintosDTO> getClientesDistintos(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+            @RequestParam(required = false) List<Long> restauranteIds) {
+        return ResponseEntity.ok(clientesDistintosService.contar(inicio, fim, restauranteIds));
+    }
+
+    /**
+     * POST /api/relatorios/clientes-distintos/reconstruir
+     * Recalcula os resumos de clientes distintos por restaurante e dia a partir dos pedidos
+     */
+    @PostMapping("/clientes-distintos/reconstruir")
+    public ResponseEntity<Integer> reconstruirClientesDistintos() {
+        return ResponseEntity.ok(clientesDistintosService.reconstruir());
+    }
+
+    /**
+     * GET /api/relatorios/consulta
+     * Consulta livre: pedidos, faturamento e itens agrupados por até duas dimensões, com filtros
+     * opcionais de período [inicio, fim), restaurantes, clientes e status, calculada em memória
+     */
+    @GetMapping("/consulta")
+    public ResponseEntity<ConsultaPedidosDTO> consultar(
+            @RequestParam(required = false) List<DimensaoConsulta> agruparPor,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(required = false) List<Long> restauranteIds,
+            @RequestParam(required = false) List<Long> clienteIds,
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(defaultValue = "PEDIDOS") MetricaConsulta ordenarPor,
+            @RequestParam(defaultValue = "100") int limite) {
+        return ResponseEntity.ok(analisePedidosService.consultar(agruparPor, inicio, fim, restauranteIds, clienteIds,
+                status, ordenarPor, limite));
+    }
+
+    /**
+     * POST /api/relatorios/consulta/reconstruir
+     * Recarrega dos pedidos as colunas em memória usadas pela consulta livre
+     */
+    @PostMapping("/consulta/reconstruir")
+    public ResponseEntity<Integer> reconstruirConsulta() {
+        return ResponseEntity.ok(analisePedidosService.reconstruir());
+    }
+
     /**
      * GET /api/relatorios/pedidos-por-periodo
      * Pedidos criados em um determinado período
      * * NOTA: Este é o único endpoint que exige a criação do método correspondente no Service e Repository.
      */
     @GetMapping("/pedidos-por-periodo")
-    public ResponseEntity<List<Pedido>> getPedidosPorPeriodo(
+    public ResponseEntity<List<PedidoResponseDTO>> getPedidosPorPeriodo(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataInicio,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim) {
 
-        // Assumindo que o Service retorna a lista completa de Pedidos (Entidade) para este relatório
-        List<Pedido> pedidos = relatorioService.getPedidosPorPeriodo(dataInicio, dataFim);
+        // O Service retorna as entidades com o grafo completo; a resposta é o mesmo DTO de /api/pedidos
+        List<PedidoResponseDTO> pedidos = relatorioService.getPedidosPorPeriodo(dataInicio, dataFim).stream()
+                .map(PedidoResponseDTO::de)
+                .collect(Collectors.toList());
         return ResponseEntity.ok(pedidos);
     }
-}
\ No newline at end of file
+
+    /**
+     * GET /api/relatorios/pedidos-por-periodo com Accept: application/x-ndjson
+     * Versão em streaming: um pedido (com itens) por linha, com memória constante.
+     */
+    @GetMapping(value = "/pedidos-por-periodo", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportarPedidosPorPeriodo(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim,
+            HttpServletResponse response) throws IOException {
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        exportacaoPedidoService.exportarPedidosPorPeriodo(dataInicio, dataFim, response.getOutputStream());
+    }
+
+    /**
+     * POST /api/relatorios/exportacao-colunar
+     * Exporta pedidos e itens dos dias inicio a fim (inclusive, só dias encerrados) para arquivos
+     * colunares, um por dia. Repetida, pula os dias já exportados (a não ser com refazer=true)
+     */
+    @PostMapping("/exportacao-colunar")
+    public ResponseEntity<ExportacaoColunarDTO> exportarColunar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+            @RequestParam(defaultValue = "false") boolean refazer) {
+        return ResponseEntity.ok(exportacaoColunarService.exportar(inicio, fim, refazer));
+    }
+
+    /**
+     * GET /api/relatorios/exportacao-colunar/{dia}
+     * Arquivo colunar de um dia já exportado (formato descrito em ArquivoColunarPedidos)
+     */
+    @GetMapping("/exportacao-colunar/{dia}")
+    public ResponseEntity<Resource> baixarExportacaoColunar(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dia) {
+        Resource arquivo = new FileSystemResource(exportacaoColunarService.buscarArquivo(dia));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + ExportacaoColunarService.nomeArquivo(dia) + "\"")
+                .body(arquivo);
+    }
+
+    // =================== JOBS ===================
+
+    /**
+     * POST /api/relatorios/jobs
+     * Coloca um relatório longo na fila e responde na hora (202) com o job a acompanhar; um pedido
+     * igual a um job ainda em andamento recebe esse mesmo job
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<RelatorioJobDTO> submeterJob(@RequestBody RelatorioJobRequestDTO dto) {
+        RelatorioJobDTO job = relatorioJobService.submeter(dto);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/relatorios/jobs/" + job.getId()))
+                .body(job);
+    }
+
+    /**
+     * GET /api/relatorios/jobs/{id}
+     * Situação do job: na fila, executando, concluído (com o tamanho do resultado) ou com falha
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<RelatorioJobDTO> buscarJob(@PathVariable String id) {
+        return ResponseEntity.ok(relatorioJobService.buscar(id));
+    }
+
+    /**
+     * GET /api/relatorios/jobs/{id}/resultado
+     * Resultado de um job concluído, enviado como está em disco (Content-Encoding: gzip)
+     */
+    @GetMapping("/jobs/{id}/resultado")
+    public ResponseEntity<Resource> baixarResultadoJob(@PathVariable String id) {
+        RelatorioJobDTO job = relatorioJobService.buscar(id);
+        Resource resultado = new FileSystemResource(relatorioJobService.buscarResultado(id));
+        TipoRelatorioJob tipo = job.getEspecificacao().getTipo();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(tipo.getTipoConteudo()))
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"relatorio-" + id + "." + tipo.getExtensao() + "\"")
+                .body(resultado);
+    }
+}
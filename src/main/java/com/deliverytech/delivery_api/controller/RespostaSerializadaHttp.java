@@ -0,0 +1,77 @@
+package com.deliverytech.delivery_api.controller;
+
+import com.deliverytech.delivery_api.service.CardapioCacheService.RespostaSerializada;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Monta a resposta HTTP de um conteúdo já serializado: 304 quando o If-None-Match bate com o
+ * ETag, corpo gzip quando o cliente aceita, JSON puro nos demais casos.
+ * Cache-Control: no-cache faz o cliente revalidar sempre (barato, pois o 304 não toca no banco).
+ */
+final class RespostaSerializadaHttp {
+
+    private RespostaSerializadaHttp() {
+    }
+
+    static ResponseEntity<byte[]> responder(RespostaSerializada resposta, String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = aceitaGzip(acceptEncoding);
+        String etag = gzip ? resposta.etagGzip() : resposta.etag();
+
+        if (corresponde(ifNoneMatch, etag)) {
+            return cabecalhos(ResponseEntity.status(HttpStatus.NOT_MODIFIED), etag).build();
+        }
+
+        ResponseEntity.BodyBuilder builder = cabecalhos(ResponseEntity.ok(), etag).contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(gzip ? resposta.gzip() : resposta.json());
+    }
+
+    private static ResponseEntity.BodyBuilder cabecalhos(ResponseEntity.BodyBuilder builder, String etag) {
+        return builder.eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    // If-None-Match usa comparação fraca: "W/" é ignorado; aceita lista e "*"
+    private static boolean corresponde(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean aceitaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String codificacao : acceptEncoding.split(",")) {
+            String[] partes = codificacao.trim().split(";");
+            if (!partes[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            // "gzip;q=0" recusa explicitamente
+            for (int i = 1; i < partes.length; i++) {
+                if (partes[i].replace(" ", "").matches("q=0(\\.0{0,3})?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
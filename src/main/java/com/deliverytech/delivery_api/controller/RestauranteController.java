@@ -1,20 +1,28 @@
 package com.deliverytech.delivery_api.controller;
 
-import com.deliverytech.delivery_api.dto.ProdutoResponseDTO;
+import com.deliverytech.delivery_api.dto.CotacaoTaxaDTO;
+import com.deliverytech.delivery_api.dto.PaginaCursorDTO;
+import com.deliverytech.delivery_api.dto.RegraTaxaEntregaRequestDTO;
+import com.deliverytech.delivery_api.dto.RegraTaxaEntregaResponseDTO;
+import com.deliverytech.delivery_api.dto.RestauranteProximoDTO;
 import com.deliverytech.delivery_api.dto.RestauranteRequestDTO;
 import com.deliverytech.delivery_api.dto.RestauranteResponseDTO;
-import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.dto.RestauranteResumoDTO;
+import com.deliverytech.delivery_api.entity.RegraTaxaEntrega;
 import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.service.CardapioCacheService;
 import com.deliverytech.delivery_api.service.RestauranteService;
+import com.deliverytech.delivery_api.service.TaxaEntregaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal; // Necessário para a taxa de entrega
-import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,9 +32,15 @@ import java.util.stream.Collectors;
 public class RestauranteController {
 
     private final RestauranteService restauranteService;
+    private final CardapioCacheService cardapioCacheService;
+    private final TaxaEntregaService taxaEntregaService;
 
-    public RestauranteController(RestauranteService restauranteService) {
+    public RestauranteController(RestauranteService restauranteService,
+                                 CardapioCacheService cardapioCacheService,
+                                 TaxaEntregaService taxaEntregaService) {
         this.restauranteService = restauranteService;
+        this.cardapioCacheService = cardapioCacheService;
+        this.taxaEntregaService = taxaEntregaService;
     }
 
     // =================== CREATE ===================
@@ -44,6 +58,10 @@ public class RestauranteController {
         restaurante.setEndereco(dto.getEndereco());
         restaurante.setTelefone(dto.getTelefone());
         restaurante.setCategoria(dto.getCategoria());
+        restaurante.setTaxaEntrega(dto.getTaxaEntrega());
+        restaurante.setCep(dto.getCep());
+        restaurante.setLatitude(dto.getLatitude());
+        restaurante.setLongitude(dto.getLongitude());
 
         Restaurante salvo = restauranteService.cadastrar(restaurante);
         return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(salvo));
@@ -53,19 +71,24 @@ public class RestauranteController {
     /**
      * GET /api/restaurantes - Listar com filtros (categoria, ativo)
      * Modificado para aceitar filtros como @RequestParam
+     * Paginado por cursor: envie o nextCursor recebido para obter a próxima página.
+     * Por padrão traz o resumo (nome, categoria, avaliação e taxa); include=produtos traz o cardápio.
      */
-    @Operation(summary = "Lista restaurantes com filtros opcionais")
+    @Operation(summary = "Lista restaurantes com filtros opcionais (resumo; include=produtos para o cardápio)")
     @GetMapping
-    public ResponseEntity<List<RestauranteResponseDTO>> listarComFiltros(
+    public ResponseEntity<PaginaCursorDTO<?>> listarComFiltros(
             @RequestParam(required = false) String categoria,
-            @RequestParam(required = false) Boolean ativo) {
-
-        List<Restaurante> restaurantes = restauranteService.listarComFiltros(categoria, ativo);
-
-        List<RestauranteResponseDTO> dtos = restaurantes.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+            @RequestParam(required = false) Boolean ativo,
+            @RequestParam(required = false) String include,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limite) {
+        if (include == null || include.isBlank()) {
+            return ResponseEntity.ok(restauranteService.listarComFiltros(categoria, ativo, cursor, limite));
+        }
+        if (!include.equalsIgnoreCase("produtos")) {
+            throw new RegraNegocioException("Valor de include não suportado: " + include);
+        }
+        return ResponseEntity.ok(restauranteService.listarComProdutos(categoria, ativo, cursor, limite));
     }
 
     /**
@@ -74,29 +97,32 @@ public class RestauranteController {
     @Operation(summary = "Busca um restaurante por ID")
     @ApiResponse(responseCode = "200", description = "Retorna o restaurante encontrado")
     @ApiResponse(responseCode = "404", description = "Restaurante não encontrado para o ID informado")
+    @ApiResponse(responseCode = "304", description = "O ETag informado em If-None-Match continua válido")
     @GetMapping("/{id}")
-    public ResponseEntity<RestauranteResponseDTO> buscarPorId(@PathVariable Long id) {
-        Restaurante restaurante = restauranteService.buscarPorId(id);
-        return ResponseEntity.ok(toResponse(restaurante));
+    public ResponseEntity<byte[]> buscarPorId(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // RestauranteResponseDTO (com o cardápio) pré-serializado, com ETag
+        return RespostaSerializadaHttp.responder(cardapioCacheService.detalhe(id), ifNoneMatch, acceptEncoding);
     }
 
     /**
      * GET /api/restaurantes/categoria/{categoria} - Por categoria
      * Mantido o endpoint original
+     * Resumos por projeção, sem o cardápio.
      */
     @GetMapping("/categoria/{categoria}")
-    public ResponseEntity<List<RestauranteResponseDTO>> buscarPorCategoria(@PathVariable String categoria) {
-        List<Restaurante> restaurantes = restauranteService.buscarPorCategoria(categoria);
-        List<RestauranteResponseDTO> dtos = restaurantes.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<List<RestauranteResumoDTO>> buscarPorCategoria(@PathVariable String categoria) {
+        return ResponseEntity.ok(restauranteService.buscarPorCategoria(categoria));
     }
 
     /**
      * GET /api/restaurantes/{id}/taxa-entrega/{cep} - Calcular taxa
      * NOVO ENDPOINT
+     * Pelas regras do restaurante; RegraNegocioException quando ele não entrega no CEP.
      */
+    @Operation(summary = "Calcula a taxa de entrega do restaurante para um CEP")
     @GetMapping("/{id}/taxa-entrega/{cep}")
     public ResponseEntity<BigDecimal> calcularTaxaEntrega(
             @PathVariable Long id,
@@ -107,16 +133,41 @@ public class RestauranteController {
     }
 
     /**
-     * GET /api/restaurantes/proximos/{cep} - Restaurantes próximos
-     * NOVO ENDPOINT
+     * GET /api/restaurantes/taxa-entrega/{cep}?restauranteIds=1,2,3 - Cotação em lote
+     * Um CEP para até 500 restaurantes; os desconhecidos ficam fora da resposta.
      */
+    @Operation(summary = "Cota a taxa de entrega de um CEP para vários restaurantes")
+    @GetMapping("/taxa-entrega/{cep}")
+    public ResponseEntity<List<CotacaoTaxaDTO>> cotarTaxaEntrega(
+            @PathVariable String cep,
+            @RequestParam List<Long> restauranteIds) {
+        return ResponseEntity.ok(taxaEntregaService.cotar(cep, restauranteIds));
+    }
+
+    /**
+     * GET /api/restaurantes/{id}/regras-taxa - Regras de taxa de entrega do restaurante
+     */
+    @Operation(summary = "Lista as regras de taxa de entrega do restaurante")
+    @GetMapping("/{id}/regras-taxa")
+    public ResponseEntity<List<RegraTaxaEntregaResponseDTO>> listarRegrasTaxa(@PathVariable Long id) {
+        return ResponseEntity.ok(taxaEntregaService.listarRegras(id).stream()
+                .map(RegraTaxaEntregaResponseDTO::de)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * GET /api/restaurantes/proximos/{cep} - Restaurantes próximos, do mais perto para o mais longe
+     * Filtros opcionais: raioKm, ativo e categoria; limite entre 1 e 100 (padrão 10).
+     */
+    @Operation(summary = "Lista os restaurantes mais próximos de um CEP, com a distância em km")
     @GetMapping("/proximos/{cep}")
-    public ResponseEntity<List<RestauranteResponseDTO>> buscarProximos(@PathVariable String cep) {
-        List<Restaurante> restaurantes = restauranteService.buscarProximos(cep);
-        List<RestauranteResponseDTO> dtos = restaurantes.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<List<RestauranteProximoDTO>> buscarProximos(
+            @PathVariable String cep,
+            @RequestParam(defaultValue = "10") int limite,
+            @RequestParam(required = false) Double raioKm,
+            @RequestParam(required = false) Boolean ativo,
+            @RequestParam(required = false) String categoria) {
+        return ResponseEntity.ok(restauranteService.buscarProximos(cep, limite, raioKm, ativo, categoria));
     }
 
 
@@ -136,11 +187,42 @@ public class RestauranteController {
         restauranteAtualizado.setEndereco(dto.getEndereco());
         restauranteAtualizado.setTelefone(dto.getTelefone());
         restauranteAtualizado.setCategoria(dto.getCategoria());
+        restauranteAtualizado.setTaxaEntrega(dto.getTaxaEntrega());
+        restauranteAtualizado.setCep(dto.getCep());
+        restauranteAtualizado.setLatitude(dto.getLatitude());
+        restauranteAtualizado.setLongitude(dto.getLongitude());
 
         Restaurante atualizado = restauranteService.atualizar(id, restauranteAtualizado);
         return ResponseEntity.ok(toResponse(atualizado));
     }
 
+    /**
+     * PUT /api/restaurantes/{id}/regras-taxa - Substitui todas as regras de taxa do restaurante
+     * Faixas de CEP não podem se sobrepor; a lista vazia deixa só a taxa base.
+     */
+    @Operation(summary = "Substitui as regras de taxa de entrega do restaurante")
+    @ApiResponse(responseCode = "200", description = "Regras gravadas; valem para as cotações depois do commit")
+    @ApiResponse(responseCode = "400", description = "Regra incompleta, valor negativo ou faixas de CEP sobrepostas")
+    @PutMapping("/{id}/regras-taxa")
+    public ResponseEntity<List<RegraTaxaEntregaResponseDTO>> substituirRegrasTaxa(
+            @PathVariable Long id,
+            @RequestBody List<RegraTaxaEntregaRequestDTO> dtos) {
+        List<RegraTaxaEntrega> regras = dtos.stream()
+                .map(dto -> {
+                    RegraTaxaEntrega regra = new RegraTaxaEntrega();
+                    regra.setTipo(dto.getTipo());
+                    regra.setLimiteKm(dto.getLimiteKm());
+                    regra.setCepInicial(dto.getCepInicial());
+                    regra.setCepFinal(dto.getCepFinal());
+                    regra.setValor(dto.getValor());
+                    return regra;
+                })
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(taxaEntregaService.substituirRegras(id, regras).stream()
+                .map(RegraTaxaEntregaResponseDTO::de)
+                .collect(Collectors.toList()));
+    }
+
     /**
      * PATCH /api/restaurantes/{id}/status - Ativar/desativar
      * NOVO ENDPOINT
@@ -156,39 +238,6 @@ public class RestauranteController {
 
     // =================== CONVERSOR ===================
     public RestauranteResponseDTO toResponse(Restaurante restaurante) {
-        RestauranteResponseDTO dto = new RestauranteResponseDTO();
-        dto.setId(restaurante.getId());
-        dto.setNome(restaurante.getNome());
-        dto.setCnpj(restaurante.getCnpj());
-        dto.setEndereco(restaurante.getEndereco());
-        dto.setTelefone(restaurante.getTelefone());
-        dto.setCategoria(restaurante.getCategoria());
-        dto.setAvaliacao(restaurante.getAvaliacao());
-        dto.setDataCadastro(restaurante.getDataCadastro());
-        dto.setAtivo(restaurante.isAtivo());
-
-        // Mapeamento da lista de produtos
-        List<ProdutoResponseDTO> produtosDto = restaurante.getProdutos() != null ?
-                restaurante.getProdutos().stream()
-                        .map(this::mapProdutoToResponse)
-                        .collect(Collectors.toList()) :
-                Collections.emptyList();
-
-        dto.setProdutos(produtosDto);
-
-        return dto;
-    }
-
-    // Conversor auxiliar de Produto
-    private ProdutoResponseDTO mapProdutoToResponse(Produto produto) {
-        ProdutoResponseDTO dto = new ProdutoResponseDTO();
-        dto.setId(produto.getId());
-        dto.setNome(produto.getNome());
-        dto.setDescricao(produto.getDescricao());
-        dto.setPreco(produto.getPreco());
-        dto.setAtivo(produto.isAtivo());
-        dto.setRestauranteId(produto.getRestaurante().getId());
-        dto.setRestauranteNome(produto.getRestaurante().getNome());
-        return dto;
+        return RestauranteResponseDTO.de(restaurante);
     }
-}
\ No newline at end of file
+}
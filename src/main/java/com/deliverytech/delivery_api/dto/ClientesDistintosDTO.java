@@ -0,0 +1,23 @@
+package com.deliverytech.delivery_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientesDistintosDTO {
+    private LocalDate inicio;
+    private LocalDate fim;
+    // Clientes distintos no conjunto de restaurantes (quem pediu em mais de um conta uma vez)
+    private Long clientesEstimados;
+    // Erro padrão relativo da estimativa (~1,6%: 95% das estimativas ficam a até 2x disso)
+    private Double erroPadrao;
+    // Só os restaurantes com pedidos no período
+    private List<ClientesDistintosRestauranteDTO> restaurantes;
+    private Long tempoCalculoMicros;
+}
@@ -0,0 +1,13 @@
+package com.deliverytech.delivery_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientesDistintosRestauranteDTO {
+    private Long restauranteId;
+    private Long clientesEstimados;
+}
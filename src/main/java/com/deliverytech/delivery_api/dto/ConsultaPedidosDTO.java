@@ -0,0 +1,25 @@
+package com.deliverytech.delivery_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de GET /api/relatorios/consulta: os grupos em ordem decrescente da métrica pedida,
+ * até o limite, e quantas linhas a consulta leu e aceitou.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsultaPedidosDTO {
+    private List<String> agruparPor;
+    private String ordenarPor;
+    private Long linhasAnalisadas;
+    private Long linhasFiltradas;
+    // Grupos encontrados antes do limite
+    private Integer gruposEncontrados;
+    private Long tempoMicros;
+    private List<GrupoConsultaDTO> grupos;
+}
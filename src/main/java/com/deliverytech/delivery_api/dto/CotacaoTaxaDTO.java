@@ -0,0 +1,25 @@
+package com.deliverytech.delivery_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Taxa de entrega de um restaurante para um CEP (GET /api/restaurantes/taxa-entrega/{cep}).
+ * Quando o restaurante não entrega no CEP, atende é false e taxa e regra ficam nulas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CotacaoTaxaDTO {
+    private Long restauranteId;
+    private String cep;
+    private Boolean atende;
+    private BigDecimal taxa;
+    // BASE, FAIXA_DISTANCIA ou FAIXA_CEP
+    private String regra;
+    // Em linha reta, arredondada em metros; nula quando o CEP ou o restaurante não têm coordenadas
+    private Double distanciaKm;
+}
@@ -0,0 +1,24 @@
+package com.deliverytech.delivery_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Agregado de vendas que não batia com o recalculado a partir dos pedidos.
+ * Para restaurantes a quantidade é de pedidos; para produtos, de unidades vendidas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DivergenciaAgregadoDTO {
+    // RESTAURANTE ou PRODUTO
+    private String tipo;
+    private Long id;
+    private Long quantidadeAgregada;
+    private Long quantidadeCalculada;
+    private BigDecimal totalAgregado;
+    private BigDecimal totalCalculado;
+}
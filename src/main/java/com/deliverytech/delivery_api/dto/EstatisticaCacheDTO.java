@@ -0,0 +1,17 @@
+package com.deliverytech.delivery_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstatisticaCacheDTO {
+    private String regiao;
+    private Long acertos;
+    private Long falhas;
+    private Long inclusoes;
+    // Acertos / (acertos + falhas); nulo enquanto a região não foi consultada
+    private Double taxaAcerto;
+}
@@ -0,0 +1,22 @@
+package com.deliverytech.delivery_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstatisticaPoolDTO {
+    private String pool;
+    private String url;
+    // Nulos enquanto o pool ainda não abriu a primeira conexão
+    private Integer conexoesAtivas;
+    private Integer conexoesOciosas;
+    private Integer conexoesTotais;
+    private Integer threadsAguardando;
+    private Integer maximoConexoes;
+    // Conexões entregues pelo roteamento (nulos sem réplica configurada)
+    private Long conexoesLeitura;
+    private Long conexoesEscrita;
+}
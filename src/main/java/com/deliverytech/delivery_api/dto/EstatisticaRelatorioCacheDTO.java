@@ -0,0 +1,24 @@
+package com.deliverytech.delivery_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstatisticaRelatorioCacheDTO {
+    private String relatorio;
+    private Long ttlSegundos;
+    // Leituras servidas da memória, inclusive as desatualizadas que dispararam uma revalidação
+    private Long acertos;
+    private Long falhas;
+    // Acertos / (acertos + falhas); nulo enquanto o relatório não foi consultado
+    private Double taxaAcerto;
+    // Consultas ao banco: falhas (com a leitura esperando) e revalidações em segundo plano
+    private Long cargas;
+    private Long falhasCarga;
+    private Double tempoMedioCargaMs;
+    private Double tempoTotalCargaMs;
+    private Long invalidacoes;
+}
@@ -0,0 +1,24 @@
+package com.deliverytech.delivery_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Resposta de POST /api/relatorios/exportacao-colunar: um arquivo por dia de [inicio, fim],
+ * baixado depois em GET /api/relatorios/exportacao-colunar/{dia}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportacaoColunarDTO {
+    private LocalDate inicio;
+    private LocalDate fim;
+    private Integer particoesGeradas;
+    private Integer particoesExistentes;
+    private Long tempoMillis;
+    private List<ParticaoExportacaoDTO> particoes;
+}
@@ -0,0 +1,20 @@
+package com.deliverytech.delivery_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GrupoConsultaDTO {
+    // Valor de cada dimensão agrupada (vazio quando a consulta não agrupa)
+    private Map<String, Object> chave;
+    private Long pedidos;
+    private BigDecimal faturamento;
+    private Long itens;
+    private BigDecimal ticketMedio;
+}
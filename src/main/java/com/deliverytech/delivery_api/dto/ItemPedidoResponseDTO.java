@@ -1,5 +1,6 @@
 package com.deliverytech.delivery_api.dto;
 
+import com.deliverytech.delivery_api.entity.ItemPedido;
 import lombok.Data;
 import java.math.BigDecimal;
 
@@ -9,4 +10,13 @@ public class ItemPedidoResponseDTO {
     private Integer quantidade;
     private BigDecimal precoUnitario;
     private BigDecimal subtotal;
-}
\ No newline at end of file
+
+    public static ItemPedidoResponseDTO de(ItemPedido item) {
+        ItemPedidoResponseDTO dto = new ItemPedidoResponseDTO();
+        dto.setNomeProduto(item.getProduto().getNome());
+        dto.setQuantidade(item.getQuantidade());
+        dto.setPrecoUnitario(item.getPrecoUnitario());
+        dto.setSubtotal(item.getSubtotal());
+        return dto;
+    }
+}
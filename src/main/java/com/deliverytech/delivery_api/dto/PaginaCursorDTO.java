@@ -0,0 +1,16 @@
+package com.deliverytech.delivery_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCursorDTO<T> {
+    private List<T> itens;
+    // Cursor opaco para a próxima página (null quando não há mais resultados)
+    private String nextCursor;
+}
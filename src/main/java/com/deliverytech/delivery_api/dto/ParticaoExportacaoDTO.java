@@ -0,0 +1,20 @@
+package com.deliverytech.delivery_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParticaoExportacaoDTO {
+    private LocalDate dia;
+    private String arquivo;
+    // GERADA nesta chamada ou EXISTENTE (de uma exportação anterior, não refeita)
+    private String situacao;
+    private Long pedidos;
+    private Long itens;
+    private Long tamanhoBytes;
+}
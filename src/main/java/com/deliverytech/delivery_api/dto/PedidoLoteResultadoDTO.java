@@ -0,0 +1,24 @@
+package com.deliverytech.delivery_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidoLoteResultadoDTO {
+    // Posição do pedido na lista enviada (base 0)
+    private Integer indice;
+    private Boolean sucesso;
+    private Long pedidoId;
+    private String erro;
+
+    public static PedidoLoteResultadoDTO criado(int indice, Long pedidoId) {
+        return new PedidoLoteResultadoDTO(indice, true, pedidoId, null);
+    }
+
+    public static PedidoLoteResultadoDTO falha(int indice, String erro) {
+        return new PedidoLoteResultadoDTO(indice, false, null, erro);
+    }
+}
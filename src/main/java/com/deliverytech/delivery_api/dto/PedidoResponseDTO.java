@@ -1,9 +1,11 @@
 package com.deliverytech.delivery_api.dto;
 
+import com.deliverytech.delivery_api.entity.Pedido;
 import lombok.Data;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Data
 public class PedidoResponseDTO {
@@ -16,4 +18,24 @@ public class PedidoResponseDTO {
     private String status;
     private LocalDateTime dataPedido;
     private List<ItemPedidoResponseDTO> itens;
-}
\ No newline at end of file
+
+    /**
+     * Converte um pedido carregado com o grafo completo (Pedido.GRAFO_COMPLETO).
+     * Com outro plano de carga, acessar cliente, restaurante ou itens fora da transação falha.
+     */
+    public static PedidoResponseDTO de(Pedido pedido) {
+        PedidoResponseDTO dto = new PedidoResponseDTO();
+        dto.setId(pedido.getId());
+        dto.setClienteId(pedido.getCliente().getId());
+        dto.setClienteNome(pedido.getCliente().getNome());
+        dto.setRestauranteId(pedido.getRestaurante().getId());
+        dto.setRestauranteNome(pedido.getRestaurante().getNome());
+        dto.setTotal(pedido.getTotal());
+        dto.setStatus(pedido.getStatus());
+        dto.setDataPedido(pedido.getDataPedido());
+        dto.setItens(pedido.getItens().stream()
+                .map(ItemPedidoResponseDTO::de)
+                .collect(Collectors.toList()));
+        return dto;
+    }
+}
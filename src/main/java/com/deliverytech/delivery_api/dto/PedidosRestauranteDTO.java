@@ -0,0 +1,18 @@
+package com.deliverytech.delivery_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidosRestauranteDTO {
+    private Long restauranteId;
+    private String restauranteNome;
+    private Long pedidos;
+    private BigDecimal faturamento;
+    private Long itens;
+}
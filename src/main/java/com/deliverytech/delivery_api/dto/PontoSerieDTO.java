@@ -0,0 +1,19 @@
+package com.deliverytech.delivery_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PontoSerieDTO {
+    // Início da hora ou do dia do ponto
+    private LocalDateTime inicio;
+    private Long pedidos;
+    private BigDecimal faturamento;
+    private Long itens;
+}
@@ -0,0 +1,20 @@
+package com.deliverytech.delivery_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProdutoEmAltaDTO {
+    private Long produtoId;
+    private String nomeProduto;
+    private Long restauranteId;
+    // A quantidade real na janela fica entre quantidadeMinima e quantidadeEstimada
+    private Long quantidadeEstimada;
+    private Long quantidadeMinima;
+    private Long erro;
+    // Com certeza entre os mais pedidos da janela, qualquer que seja o erro das estimativas
+    private Boolean garantido;
+}
@@ -1,5 +1,6 @@
 package com.deliverytech.delivery_api.dto;
 
+import com.deliverytech.delivery_api.entity.Produto;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 
@@ -29,4 +30,16 @@ public class ProdutoResponseDTO {
 
     @Schema(description = "Nome do restaurante", example = "Cantinho da Pizza")
     private String restauranteNome;
-}
\ No newline at end of file
+
+    public static ProdutoResponseDTO de(Produto produto) {
+        ProdutoResponseDTO dto = new ProdutoResponseDTO();
+        dto.setId(produto.getId());
+        dto.setNome(produto.getNome());
+        dto.setDescricao(produto.getDescricao());
+        dto.setPreco(produto.getPreco());
+        dto.setAtivo(produto.isAtivo());
+        dto.setRestauranteId(produto.getRestaurante().getId());
+        dto.setRestauranteNome(produto.getRestaurante().getNome());
+        return dto;
+    }
+}
@@ -0,0 +1,24 @@
+package com.deliverytech.delivery_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProdutosEmAltaDTO {
+    // Nulo = todos os restaurantes
+    private Long restauranteId;
+    private Integer janelaMinutos;
+    private LocalDateTime inicio;
+    private LocalDateTime fim;
+    // Itens pedidos na janela (soma das quantidades)
+    private Long totalItens;
+    // Nenhuma quantidade estimada passa da real em mais do que isso (no máximo totalItens / capacidade)
+    private Long erroMaximo;
+    private List<ProdutoEmAltaDTO> produtos;
+}
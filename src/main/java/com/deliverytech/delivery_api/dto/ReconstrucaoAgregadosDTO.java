@@ -0,0 +1,20 @@
+package com.deliverytech.delivery_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de POST /api/relatorios/agregados/reconstruir: quantos agregados foram gravados
+ * e quais divergiam do recalculado (lista vazia = não havia desvio).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconstrucaoAgregadosDTO {
+    private Integer restaurantes;
+    private Integer produtos;
+    private List<DivergenciaAgregadoDTO> divergencias;
+}
@@ -0,0 +1,28 @@
+package com.deliverytech.delivery_api.dto;
+
+import com.deliverytech.delivery_api.enums.TipoRegraTaxa;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Schema(name = "RegraTaxaEntregaRequest", description = "Regra de taxa de entrega: faixa de distância (limiteKm) ou faixa de CEP (cepInicial e cepFinal).")
+public class RegraTaxaEntregaRequestDTO {
+
+    @Schema(description = "Tipo da regra", example = "FAIXA_DISTANCIA", requiredMode = Schema.RequiredMode.REQUIRED)
+    private TipoRegraTaxa tipo;
+
+    @Schema(description = "FAIXA_DISTANCIA: distância máxima atendida pela faixa, em km", example = "5.0")
+    private Double limiteKm;
+
+    @Schema(description = "FAIXA_CEP: primeiro CEP da faixa", example = "30100-000")
+    private String cepInicial;
+
+    @Schema(description = "FAIXA_CEP: último CEP da faixa", example = "30199-999")
+    private String cepFinal;
+
+    @Schema(description = "FAIXA_DISTANCIA: acréscimo sobre a taxa base; FAIXA_CEP: taxa final", example = "3.50",
+            type = "number", format = "double", requiredMode = Schema.RequiredMode.REQUIRED)
+    private BigDecimal valor;
+}
@@ -0,0 +1,28 @@
+package com.deliverytech.delivery_api.dto;
+
+import com.deliverytech.delivery_api.entity.RegraTaxaEntrega;
+import com.deliverytech.delivery_api.enums.TipoRegraTaxa;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class RegraTaxaEntregaResponseDTO {
+    private Long id;
+    private TipoRegraTaxa tipo;
+    private Double limiteKm;
+    private String cepInicial;
+    private String cepFinal;
+    private BigDecimal valor;
+
+    public static RegraTaxaEntregaResponseDTO de(RegraTaxaEntrega regra) {
+        RegraTaxaEntregaResponseDTO dto = new RegraTaxaEntregaResponseDTO();
+        dto.setId(regra.getId());
+        dto.setTipo(regra.getTipo());
+        dto.setLimiteKm(regra.getLimiteKm());
+        dto.setCepInicial(regra.getCepInicial());
+        dto.setCepFinal(regra.getCepFinal());
+        dto.setValor(regra.getValor());
+        return dto;
+    }
+}
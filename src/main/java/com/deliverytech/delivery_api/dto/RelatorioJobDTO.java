@@ -0,0 +1,25 @@
+package com.deliverytech.delivery_api.dto;
+
+import com.deliverytech.delivery_api.enums.StatusJob;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatorioJobDTO {
+    private String id;
+    private RelatorioJobRequestDTO especificacao;
+    private StatusJob status;
+    private LocalDateTime criadoEm;
+    private LocalDateTime iniciadoEm;
+    private LocalDateTime concluidoEm;
+    // Depois disto o job e o resultado são descartados (só para jobs concluídos ou com falha)
+    private LocalDateTime expiraEm;
+    // Tamanho do resultado compactado
+    private Long tamanhoBytes;
+    private String erro;
+}
@@ -0,0 +1,23 @@
+package com.deliverytech.delivery_api.dto;
+
+import com.deliverytech.delivery_api.enums.GranularidadeSerie;
+import com.deliverytech.delivery_api.enums.TipoRelatorioJob;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Relatório pedido em POST /api/relatorios/jobs. Cada tipo usa só os campos que o seu endpoint
+ * síncrono aceita; os outros são ignorados.
+ */
+@Data
+public class RelatorioJobRequestDTO {
+    private TipoRelatorioJob tipo;
+    private LocalDateTime inicio;
+    private LocalDateTime fim;
+    // VENDAS_POR_PERIODO e SERIE_TEMPORAL
+    private String status;
+    // SERIE_TEMPORAL
+    private Long restauranteId;
+    private GranularidadeSerie granularidade;
+}
@@ -0,0 +1,28 @@
+package com.deliverytech.delivery_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Restaurante encontrado em GET /api/restaurantes/proximos/{cep}, com a distância até o CEP.
+ * Sem o cardápio: a busca por proximidade não toca no banco.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestauranteProximoDTO {
+    private Long id;
+    private String nome;
+    private String categoria;
+    private Double avaliacao;
+    private BigDecimal taxaEntrega;
+    private Boolean ativo;
+    private String cep;
+    private Double latitude;
+    private Double longitude;
+    // Em linha reta (haversine), arredondada em metros
+    private Double distanciaKm;
+}
@@ -5,6 +5,8 @@ import lombok.Data;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
+import java.math.BigDecimal;
+
 @Data
 // 2.3: @Schema - Documentar DTOs
 @Schema(name = "RestauranteRequest", description = "Dados de entrada para a criação ou atualização de um restaurante.")
@@ -26,4 +28,16 @@ public class RestauranteRequestDTO {
 
     @Schema(description = "Tipo de culinária do restaurante", example = "Pizzaria", requiredMode = Schema.RequiredMode.REQUIRED)
     private String categoria;
+
+    @Schema(description = "Taxa de entrega base; as regras de taxa (faixas de distância e de CEP) partem dela", example = "5.00", type = "number", format = "double")
+    private BigDecimal taxaEntrega;
+
+    @Schema(description = "CEP do restaurante; sem latitude/longitude, as coordenadas vêm da tabela local de CEPs", example = "30130-010")
+    private String cep;
+
+    @Schema(description = "Latitude (opcional)", example = "-19.9227")
+    private Double latitude;
+
+    @Schema(description = "Longitude (opcional)", example = "-43.9451")
+    private Double longitude;
 }
\ No newline at end of file
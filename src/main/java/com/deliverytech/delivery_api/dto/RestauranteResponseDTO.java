@@ -1,9 +1,13 @@
 package com.deliverytech.delivery_api.dto;
 
+import com.deliverytech.delivery_api.entity.Restaurante;
 import lombok.Data;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Data
 public class RestauranteResponseDTO {
@@ -16,5 +20,36 @@ public class RestauranteResponseDTO {
     private Double avaliacao;
     private LocalDateTime dataCadastro;
     private Boolean ativo;
+    private BigDecimal taxaEntrega;
+    private String cep;
+    private Double latitude;
+    private Double longitude;
     private List<ProdutoResponseDTO> produtos;
+
+    /**
+     * Converte o restaurante com seus produtos. Restaurante.produtos é LAZY:
+     * chame dentro da transação que carregou o restaurante.
+     */
+    public static RestauranteResponseDTO de(Restaurante restaurante) {
+        RestauranteResponseDTO dto = new RestauranteResponseDTO();
+        dto.setId(restaurante.getId());
+        dto.setNome(restaurante.getNome());
+        dto.setCnpj(restaurante.getCnpj());
+        dto.setEndereco(restaurante.getEndereco());
+        dto.setTelefone(restaurante.getTelefone());
+        dto.setCategoria(restaurante.getCategoria());
+        dto.setAvaliacao(restaurante.getAvaliacao());
+        dto.setDataCadastro(restaurante.getDataCadastro());
+        dto.setAtivo(restaurante.isAtivo());
+        dto.setTaxaEntrega(restaurante.getTaxaEntrega());
+        dto.setCep(restaurante.getCep());
+        dto.setLatitude(restaurante.getLatitude());
+        dto.setLongitude(restaurante.getLongitude());
+        dto.setProdutos(restaurante.getProdutos() != null ?
+                restaurante.getProdutos().stream()
+                        .map(ProdutoResponseDTO::de)
+                        .collect(Collectors.toList()) :
+                Collections.emptyList());
+        return dto;
+    }
 }
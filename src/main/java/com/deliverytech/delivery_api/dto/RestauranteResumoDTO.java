@@ -0,0 +1,41 @@
+package com.deliverytech.delivery_api.dto;
+
+import com.deliverytech.delivery_api.dto.projection.ResumoRestaurante;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Schema(name = "RestauranteResumo", description = "Restaurante nas listagens, sem o cardápio.")
+public class RestauranteResumoDTO {
+
+    @Schema(description = "ID único gerado pelo sistema", example = "1")
+    private Long id;
+
+    @Schema(description = "Nome fantasia do restaurante", example = "Cantinho da Pizza")
+    private String nome;
+
+    @Schema(description = "Tipo de culinária do restaurante", example = "Pizzaria")
+    private String categoria;
+
+    @Schema(description = "Avaliação média", example = "4.5")
+    private Double avaliacao;
+
+    @Schema(description = "Taxa de entrega base", example = "5.00", type = "number", format = "double")
+    private BigDecimal taxaEntrega;
+
+    @Schema(description = "Indica se o restaurante está aceitando pedidos", example = "true")
+    private Boolean ativo;
+
+    public static RestauranteResumoDTO de(ResumoRestaurante resumo) {
+        RestauranteResumoDTO dto = new RestauranteResumoDTO();
+        dto.setId(resumo.id());
+        dto.setNome(resumo.nome());
+        dto.setCategoria(resumo.categoria());
+        dto.setAvaliacao(resumo.avaliacao());
+        dto.setTaxaEntrega(resumo.taxaEntrega());
+        dto.setAtivo(resumo.ativo());
+        return dto;
+    }
+}
@@ -0,0 +1,26 @@
+package com.deliverytech.delivery_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Série de GET /api/relatorios/serie-temporal: um ponto por hora ou dia do intervalo [inicio, fim),
+ * em ordem e sem lacunas (períodos sem pedidos vêm zerados). O primeiro e o último ponto só
+ * contam os pedidos dentro do intervalo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SerieTemporalDTO {
+    private String granularidade;
+    private LocalDateTime inicio;
+    private LocalDateTime fim;
+    // Filtros aplicados (null = todos)
+    private Long restauranteId;
+    private String status;
+    private List<PontoSerieDTO> pontos;
+}
@@ -0,0 +1,17 @@
+package com.deliverytech.delivery_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SincronizacaoReplicaDTO {
+    private Integer tabelas;
+    private Long linhas;
+    private Long tempoMillis;
+    private LocalDateTime concluidaEm;
+}
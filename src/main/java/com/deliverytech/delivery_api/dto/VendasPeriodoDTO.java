@@ -0,0 +1,27 @@
+package com.deliverytech.delivery_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Resposta de GET /api/relatorios/vendas-por-periodo: pedidos e faturamento de cada restaurante
+ * em [inicio, fim), do maior faturamento para o menor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VendasPeriodoDTO {
+    private LocalDateTime inicio;
+    private LocalDateTime fim;
+    // Filtro aplicado (null = todos)
+    private String status;
+    // Consultas paralelas usadas (1 = uma consulta só, na thread da requisição)
+    private Integer paralelismo;
+    private Integer particoes;
+    private Long tempoMillis;
+    private List<VendasPeriodoRestauranteDTO> restaurantes;
+}
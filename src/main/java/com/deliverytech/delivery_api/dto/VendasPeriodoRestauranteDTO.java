@@ -0,0 +1,20 @@
+package com.deliverytech.delivery_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VendasPeriodoRestauranteDTO {
+    private Long restauranteId;
+    private Long pedidos;
+    private BigDecimal faturamento;
+    private BigDecimal ticketMedio;
+    private LocalDateTime primeiroPedido;
+    private LocalDateTime ultimoPedido;
+}
@@ -0,0 +1,18 @@
+package com.deliverytech.delivery_api.dto.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Dados de cabeçalho do pedido lidos por projeção (sem entidades gerenciadas).
+ */
+public record CabecalhoPedido(
+        Long id,
+        Long clienteId,
+        String clienteNome,
+        Long restauranteId,
+        String restauranteNome,
+        BigDecimal total,
+        String status,
+        LocalDateTime dataPedido
+) { }
@@ -0,0 +1,12 @@
+package com.deliverytech.delivery_api.dto.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Cliente que fez pedido no restaurante no dia (reconstrução dos resumos de clientes distintos).
+ */
+public record ClienteDiaPedido(
+        Long restauranteId,
+        LocalDate dia,
+        Long clienteId
+) { }
@@ -0,0 +1,17 @@
+package com.deliverytech.delivery_api.dto.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Pedido com a soma das quantidades dos seus itens, para carregar as colunas de ColunasPedidos.
+ */
+public record FatoPedido(
+        Long id,
+        Long restauranteId,
+        Long clienteId,
+        String status,
+        LocalDateTime dataPedido,
+        BigDecimal total,
+        Long itens
+) { }
@@ -0,0 +1,13 @@
+package com.deliverytech.delivery_api.dto.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Item de pedido lido por projeção, com o ID do pedido para agrupamento.
+ */
+public record ItemPedidoResumo(
+        Long pedidoId,
+        String nomeProduto,
+        Integer quantidade,
+        BigDecimal precoUnitario
+) { }
@@ -0,0 +1,22 @@
+package com.deliverytech.delivery_api.dto.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Uma linha do join pedido x item para a exportação colunar: só ids e valores, sem nomes.
+ * Pedidos sem itens aparecem uma vez, com os campos do item nulos.
+ */
+public record LinhaExportacaoPedido(
+        Long pedidoId,
+        LocalDateTime dataPedido,
+        Long clienteId,
+        Long restauranteId,
+        String categoria,
+        String status,
+        BigDecimal total,
+        Long itemId,
+        Long produtoId,
+        Integer quantidade,
+        BigDecimal precoUnitario
+) { }
@@ -0,0 +1,22 @@
+package com.deliverytech.delivery_api.dto.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Uma linha do join pedido x item (projeção por construtor, fora do contexto de persistência).
+ * Pedidos sem itens aparecem uma vez, com os campos do item nulos.
+ */
+public record LinhaPedidoItem(
+        Long pedidoId,
+        Long clienteId,
+        String clienteNome,
+        Long restauranteId,
+        String restauranteNome,
+        BigDecimal total,
+        String status,
+        LocalDateTime dataPedido,
+        String nomeProduto,
+        Integer quantidade,
+        BigDecimal precoUnitario
+) { }
@@ -0,0 +1,14 @@
+package com.deliverytech.delivery_api.dto.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Pedido lido direto da tabela de pedidos nas bordas de uma série temporal (trechos menores que uma hora).
+ */
+public record LinhaPeriodoPedido(
+        Long restauranteId,
+        LocalDateTime dataPedido,
+        BigDecimal total,
+        Long itens
+) { }
@@ -0,0 +1,15 @@
+package com.deliverytech.delivery_api.dto.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Campos do restaurante exibidos nas listagens, lidos por projeção (sem entidades nem produtos).
+ */
+public record ResumoRestaurante(
+        Long id,
+        String nome,
+        String categoria,
+        Double avaliacao,
+        BigDecimal taxaEntrega,
+        boolean ativo
+) { }
@@ -0,0 +1,6 @@
+package com.deliverytech.delivery_api.dto.projection;
+
+/**
+ * Campos de texto do produto usados na montagem do índice de busca.
+ */
+public record TextoProduto(Long id, String nome, String descricao) { }
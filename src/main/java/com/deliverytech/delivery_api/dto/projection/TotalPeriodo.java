@@ -0,0 +1,14 @@
+package com.deliverytech.delivery_api.dto.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Soma dos resumos de pedidos de um período (hora ou dia), para as séries temporais.
+ */
+public record TotalPeriodo(
+        LocalDateTime inicio,
+        Long pedidos,
+        BigDecimal faturamento,
+        Long itens
+) { }
@@ -0,0 +1,13 @@
+package com.deliverytech.delivery_api.dto.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Soma dos pedidos de um restaurante em um intervalo, a partir dos resumos por período.
+ */
+public record TotalRestaurante(
+        Long restauranteId,
+        Long pedidos,
+        BigDecimal faturamento,
+        Long itens
+) { }
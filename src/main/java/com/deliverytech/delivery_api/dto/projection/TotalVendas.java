@@ -0,0 +1,14 @@
+package com.deliverytech.delivery_api.dto.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Vendas de pedidos ENTREGUE somadas por restaurante ou produto, calculadas a partir dos pedidos
+ * (reconstrução dos agregados de vendas).
+ * @param quantidade pedidos do restaurante ou unidades vendidas do produto
+ */
+public record TotalVendas(
+        Long id,
+        Long quantidade,
+        BigDecimal total
+) { }
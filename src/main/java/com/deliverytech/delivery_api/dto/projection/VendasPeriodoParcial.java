@@ -0,0 +1,16 @@
+package com.deliverytech.delivery_api.dto.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Pedidos de um restaurante em um trecho do período: somas e extremos que se juntam com os dos
+ * outros trechos sem reler os pedidos.
+ */
+public record VendasPeriodoParcial(
+        Long restauranteId,
+        Long pedidos,
+        BigDecimal faturamento,
+        LocalDateTime primeiroPedido,
+        LocalDateTime ultimoPedido
+) { }
@@ -0,0 +1,31 @@
+package com.deliverytech.delivery_api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Tabela local de CEP -> coordenadas (centro aproximado da área do CEP).
+ * A chave pode ser o CEP completo (8 dígitos) ou um prefixo de 5 ou 3 dígitos,
+ * que vale para todos os CEPs da região; vence o prefixo mais longo (ver CepService).
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode(of = "cep")
+@Table(name = "cep_coordenadas")
+public class CepCoordenada {
+    @Id
+    @Column(length = 8)
+    private String cep;
+
+    @Column(nullable = false)
+    private double latitude;
+
+    @Column(nullable = false)
+    private double longitude;
+
+    private String localidade;
+}
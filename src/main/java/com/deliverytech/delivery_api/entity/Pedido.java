@@ -2,6 +2,7 @@ package com.deliverytech.delivery_api.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -13,21 +14,47 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(of = "id")
-@Table(name = "pedidos")
+@Table(name = "pedidos", indexes = {
+        // Listagens por status, restaurante ou cliente, em ordem de data (paginação por keyset)
+        @Index(name = "idx_pedidos_status_data", columnList = "status, data_pedido"),
+        @Index(name = "idx_pedidos_restaurante_data", columnList = "restaurante_id, data_pedido"),
+        @Index(name = "idx_pedidos_cliente_data", columnList = "cliente_id, data_pedido"),
+        // Bordas das séries temporais de todos os restaurantes (trechos curtos de período)
+        @Index(name = "idx_pedidos_data", columnList = "data_pedido")
+})
+@NamedEntityGraph(name = Pedido.GRAFO_CABECALHO, attributeNodes = {
+        @NamedAttributeNode("cliente"),
+        @NamedAttributeNode("restaurante")
+})
+@NamedEntityGraph(name = Pedido.GRAFO_COM_ITENS, attributeNodes = {
+        @NamedAttributeNode(value = "itens", subgraph = "itens")
+}, subgraphs = @NamedSubgraph(name = "itens", attributeNodes = @NamedAttributeNode("produto")))
+@NamedEntityGraph(name = Pedido.GRAFO_COMPLETO, attributeNodes = {
+        @NamedAttributeNode("cliente"),
+        @NamedAttributeNode("restaurante"),
+        @NamedAttributeNode(value = "itens", subgraph = "itens")
+}, subgraphs = @NamedSubgraph(name = "itens", attributeNodes = @NamedAttributeNode("produto")))
 public class Pedido {
+    // Planos de carga: todas as associações são LAZY e cada consulta escolhe o que trazer
+    public static final String GRAFO_CABECALHO = "Pedido.header";   // cliente + restaurante
+    public static final String GRAFO_COM_ITENS = "Pedido.withItems"; // itens + produto de cada item
+    public static final String GRAFO_COMPLETO = "Pedido.full";       // cabeçalho + itens + produtos
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedidos_seq")
+    @SequenceGenerator(name = "pedidos_seq", sequenceName = "pedidos_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_id")
     private Cliente cliente;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "restaurante_id")
     private Restaurante restaurante;
 
-    @OneToMany(mappedBy = "pedido", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "pedido", cascade = CascadeType.ALL)
+    @BatchSize(size = 100) // Fora dos grafos, os itens de vários pedidos vêm em um único SELECT
     @ToString.Exclude
     private List<ItemPedido> itens;
 
@@ -57,8 +84,9 @@ public class Pedido {
     public String toString() {
         return "Pedido{" +
                 "id=" + id +
-                ", cliente=" + (cliente != null ? cliente.getNome() : "null") +
-                ", restaurante=" + (restaurante != null ? restaurante.getNome() : "null") +
+                // Apenas os IDs: ler o nome inicializaria associações LAZY
+                ", clienteId=" + (cliente != null ? cliente.getId() : "null") +
+                ", restauranteId=" + (restaurante != null ? restaurante.getId() : "null") +
                 ", dataPedido=" + dataPedido +
                 ", total=" + total +
                 ", status='" + status + '\'' +
@@ -0,0 +1,28 @@
+package com.deliverytech.delivery_api.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Chave dos resumos de pedidos por período: restaurante, início do período (hora ou dia) e status.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PeriodoPedidoId implements Serializable {
+    @Column(name = "restaurante_id")
+    private Long restauranteId;
+
+    @Column(name = "inicio")
+    private LocalDateTime inicio;
+
+    @Column(name = "status")
+    private String status;
+}
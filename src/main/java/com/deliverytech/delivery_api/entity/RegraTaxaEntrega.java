@@ -0,0 +1,45 @@
+package com.deliverytech.delivery_api.entity;
+
+import com.deliverytech.delivery_api.enums.TipoRegraTaxa;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Regra de taxa de entrega de um restaurante, além da taxa base (Restaurante.taxaEntrega).
+ * FAIXA_DISTANCIA usa limiteKm e valor (acréscimo); FAIXA_CEP usa cepInicial, cepFinal e valor (taxa final).
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+@Table(name = "regras_taxa_entrega")
+public class RegraTaxaEntrega {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "regras_taxa_entrega_seq")
+    @SequenceGenerator(name = "regras_taxa_entrega_seq", sequenceName = "regras_taxa_entrega_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "restaurante_id", nullable = false)
+    @ToString.Exclude
+    private Restaurante restaurante;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoRegraTaxa tipo;
+
+    private Double limiteKm;
+
+    @Column(length = 8)
+    private String cepInicial;
+
+    @Column(length = 8)
+    private String cepFinal;
+
+    @Column(nullable = false)
+    private BigDecimal valor;
+}
@@ -2,21 +2,30 @@ package com.deliverytech.delivery_api.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
+import java.text.Normalizer;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 
 @Entity
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 @EqualsAndHashCode(of = "id")
-@Table(name = "restaurantes")
+@Table(name = "restaurantes", indexes = {
+        // Filtro por categoria na listagem, já na ordem do cursor (id)
+        @Index(name = "idx_restaurantes_categoria", columnList = "categoria_normalizada, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "restaurantes")
 public class Restaurante {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "restaurantes_seq")
+    @SequenceGenerator(name = "restaurantes_seq", sequenceName = "restaurantes_seq", allocationSize = 50)
     private Long id;
 
     private String nome;
@@ -24,6 +33,13 @@ public class Restaurante {
     private String endereco;
     private String telefone;
     private String categoria;
+
+    // Categoria sem acentos, em minúsculas: filtros comparam por igualdade e usam o índice.
+    // Só setCategoria escreve aqui (por isso não há construtor com todos os campos)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "categoria_normalizada")
+    private String categoriaNormalizada;
+
     private Double avaliacao;
 
     @Column(name = "data_cadastro")
@@ -34,14 +50,40 @@ public class Restaurante {
 
     private BigDecimal taxaEntrega;
 
+    // Localização: o CEP resolve as coordenadas pela tabela cep_coordenadas quando elas não são informadas
+    @Column(length = 8)
+    private String cep;
+    private Double latitude;
+    private Double longitude;
+
     @OneToMany(mappedBy = "restaurante", cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "restaurantes-produtos")
     @ToString.Exclude
     private List<Produto> produtos;
 
+    public void setCategoria(String categoria) {
+        this.categoria = categoria;
+        this.categoriaNormalizada = normalizarCategoria(categoria);
+    }
+
     public void inativar() {
         this.ativo = false;
     }
 
+    /**
+     * Forma usada em categoria_normalizada: sem acentos, em minúsculas e com espaços simples.
+     */
+    public static String normalizarCategoria(String categoria) {
+        if (categoria == null) {
+            return null;
+        }
+        return Normalizer.normalize(categoria, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .trim()
+                .replaceAll("\\s+", " ");
+    }
+
     @Override
     public String toString() {
         return "Restaurante{" +
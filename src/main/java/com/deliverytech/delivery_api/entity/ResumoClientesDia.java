@@ -0,0 +1,31 @@
+package com.deliverytech.delivery_api.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * HyperLogLog de clientes distintos de um restaurante em um dia, na forma compacta de
+ * ResumoCardinalidade.serializar(): esparsa (3 bytes por registrador preenchido) enquanto há
+ * poucos clientes, densa (um byte por registrador, 4097 bytes) depois.
+ * Mantido pelo ClientesDistintosService a cada pedido criado.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "resumo_clientes_dia")
+public class ResumoClientesDia {
+    @EmbeddedId
+    private ResumoClientesDiaId id;
+
+    // Tipo da representação + até 4096 registradores
+    @Column(nullable = false, length = 4097)
+    private byte[] registradores;
+}
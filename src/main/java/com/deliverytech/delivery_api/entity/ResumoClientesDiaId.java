@@ -0,0 +1,25 @@
+package com.deliverytech.delivery_api.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Chave do resumo de clientes distintos: restaurante e dia.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoClientesDiaId implements Serializable {
+    @Column(name = "restaurante_id")
+    private Long restauranteId;
+
+    @Column(name = "dia")
+    private LocalDate dia;
+}
@@ -0,0 +1,17 @@
+package com.deliverytech.delivery_api.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resumo de pedidos por dia (início do período truncado no dia de dataPedido).
+ * A chave primária começa pelo início do período; o índice atende as séries de um restaurante.
+ */
+@Entity
+@NoArgsConstructor
+@Table(name = "resumo_pedidos_dia", indexes =
+        @Index(name = "idx_resumo_pedidos_dia_restaurante", columnList = "restaurante_id, inicio"))
+public class ResumoPedidosDia extends ResumoPedidosPeriodo {
+}
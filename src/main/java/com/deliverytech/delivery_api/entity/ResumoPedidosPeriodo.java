@@ -0,0 +1,30 @@
+package com.deliverytech.delivery_api.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.MappedSuperclass;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Pedidos de um restaurante em um período e status: quantidade, faturamento e itens vendidos.
+ * Mantido pelo SerieTemporalService a cada pedido criado ou mudança de status.
+ */
+@MappedSuperclass
+@Getter
+@Setter
+public abstract class ResumoPedidosPeriodo {
+    @EmbeddedId
+    private PeriodoPedidoId id;
+
+    @Column(nullable = false)
+    private Long pedidos;
+
+    @Column(nullable = false)
+    private BigDecimal faturamento;
+
+    @Column(nullable = false)
+    private Long itens;
+}
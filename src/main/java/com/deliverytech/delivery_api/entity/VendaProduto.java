@@ -0,0 +1,28 @@
+package com.deliverytech.delivery_api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Vendas acumuladas de um produto (itens de pedidos ENTREGUE), mantidas pelo AgregadoVendasService.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "produtoId")
+@Table(name = "vendas_produto")
+public class VendaProduto {
+    @Id
+    @Column(name = "produto_id")
+    private Long produtoId;
+
+    @Column(name = "quantidade_vendida", nullable = false)
+    private Long quantidadeVendida;
+
+    @Column(name = "total_vendas", nullable = false)
+    private BigDecimal totalVendas;
+}
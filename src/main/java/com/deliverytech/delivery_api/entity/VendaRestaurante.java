@@ -0,0 +1,29 @@
+package com.deliverytech.delivery_api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Vendas acumuladas de um restaurante (pedidos ENTREGUE), mantidas pelo AgregadoVendasService
+ * a cada entrada ou saída de um pedido do status ENTREGUE.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "restauranteId")
+@Table(name = "vendas_restaurante")
+public class VendaRestaurante {
+    @Id
+    @Column(name = "restaurante_id")
+    private Long restauranteId;
+
+    @Column(nullable = false)
+    private Long pedidos;
+
+    @Column(name = "total_vendas", nullable = false)
+    private BigDecimal totalVendas;
+}
@@ -0,0 +1,27 @@
+package com.deliverytech.delivery_api.enums;
+
+/**
+ * Dimensões pelas quais GET /api/relatorios/consulta agrupa os pedidos.
+ * As de tempo usam a dataPedido como está gravada (sem conversão de fuso).
+ */
+public enum DimensaoConsulta {
+
+    RESTAURANTE("Restaurante"),
+    CLIENTE("Cliente"),
+    STATUS("Status"),
+    HORA("Hora"),
+    DIA("Dia"),
+    MES("Mês"),
+    DIA_DA_SEMANA("Dia da semana"),
+    HORA_DO_DIA("Hora do dia");
+
+    private final String descricao;
+
+    DimensaoConsulta(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+}
@@ -0,0 +1,38 @@
+package com.deliverytech.delivery_api.enums;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum GranularidadeSerie {
+
+    HORA("Hora", ChronoUnit.HOURS),
+    DIA("Dia", ChronoUnit.DAYS);
+
+    private final String descricao;
+    private final ChronoUnit unidade;
+
+    GranularidadeSerie(String descricao, ChronoUnit unidade) {
+        this.descricao = descricao;
+        this.unidade = unidade;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public Duration getDuracao() {
+        return unidade.getDuration();
+    }
+
+    // Início do período (hora ou dia) que contém o instante
+    public LocalDateTime truncar(LocalDateTime instante) {
+        return instante.truncatedTo(unidade);
+    }
+
+    // Primeiro início de período a partir do instante (o próprio instante, se já estiver alinhado)
+    public LocalDateTime arredondarParaCima(LocalDateTime instante) {
+        LocalDateTime truncado = truncar(instante);
+        return truncado.equals(instante) ? truncado : truncado.plus(1, unidade);
+    }
+}
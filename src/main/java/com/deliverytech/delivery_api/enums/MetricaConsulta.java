@@ -0,0 +1,21 @@
+package com.deliverytech.delivery_api.enums;
+
+/**
+ * Somas calculadas por grupo em GET /api/relatorios/consulta; a escolhida ordena os grupos.
+ */
+public enum MetricaConsulta {
+
+    PEDIDOS("Pedidos"),
+    FATURAMENTO("Faturamento"),
+    ITENS("Itens");
+
+    private final String descricao;
+
+    MetricaConsulta(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+}
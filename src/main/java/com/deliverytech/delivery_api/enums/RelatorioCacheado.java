@@ -0,0 +1,37 @@
+package com.deliverytech.delivery_api.enums;
+
+import java.time.Duration;
+
+/**
+ * Relatórios de GET /api/relatorios guardados pelo RelatorioCacheService.
+ * O TTL de cada um vem de delivery.relatorios.cache.{chave}.ttl (padrão abaixo).
+ */
+public enum RelatorioCacheado {
+
+    // Invalidados quando um pedido entra ou sai de ENTREGUE: o TTL só cobre o que muda por fora
+    VENDAS_POR_RESTAURANTE("vendas-por-restaurante", Duration.ofMinutes(5)),
+    PRODUTOS_MAIS_VENDIDOS("produtos-mais-vendidos", Duration.ofMinutes(5)),
+    FATURAMENTO_POR_CATEGORIA("faturamento-por-categoria", Duration.ofMinutes(5)),
+    // Conta todos os pedidos: muda a cada pedido criado e só se renova pelo TTL
+    CLIENTES_ATIVOS("clientes-ativos", Duration.ofMinutes(1));
+
+    private final String chave;
+    private final Duration ttlPadrao;
+
+    RelatorioCacheado(String chave, Duration ttlPadrao) {
+        this.chave = chave;
+        this.ttlPadrao = ttlPadrao;
+    }
+
+    public String getChave() {
+        return chave;
+    }
+
+    public Duration getTtlPadrao() {
+        return ttlPadrao;
+    }
+
+    public String getPropriedadeTtl() {
+        return "delivery.relatorios.cache." + chave + ".ttl";
+    }
+}
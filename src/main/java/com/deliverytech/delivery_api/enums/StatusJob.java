@@ -0,0 +1,23 @@
+package com.deliverytech.delivery_api.enums;
+
+public enum StatusJob {
+
+    NA_FILA("Na fila"),
+    EXECUTANDO("Executando"),
+    CONCLUIDO("Concluído"),
+    FALHOU("Falhou");
+
+    private final String descricao;
+
+    StatusJob(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public boolean isFinal() {
+        return this == CONCLUIDO || this == FALHOU;
+    }
+}
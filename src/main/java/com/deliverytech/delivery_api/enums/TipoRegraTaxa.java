@@ -0,0 +1,19 @@
+package com.deliverytech.delivery_api.enums;
+
+public enum TipoRegraTaxa {
+
+    // Acréscimo sobre a taxa base até a distância limite (em km)
+    FAIXA_DISTANCIA("Faixa de distância"),
+    // Taxa fixa para uma faixa de CEPs, no lugar da base e das faixas de distância
+    FAIXA_CEP("Faixa de CEP");
+
+    private final String descricao;
+
+    TipoRegraTaxa(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+}
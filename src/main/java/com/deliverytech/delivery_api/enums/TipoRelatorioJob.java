@@ -0,0 +1,31 @@
+package com.deliverytech.delivery_api.enums;
+
+/**
+ * Relatórios que podem ser pedidos em segundo plano (POST /api/relatorios/jobs), com o tipo de
+ * conteúdo do resultado. O resultado fica em disco compactado com gzip.
+ */
+public enum TipoRelatorioJob {
+
+    // VendasPeriodoDTO
+    VENDAS_POR_PERIODO("application/json", "json"),
+    // SerieTemporalDTO
+    SERIE_TEMPORAL("application/json", "json"),
+    // Um PedidoResponseDTO por linha, como em GET /api/relatorios/pedidos-por-periodo
+    PEDIDOS_POR_PERIODO("application/x-ndjson", "ndjson");
+
+    private final String tipoConteudo;
+    private final String extensao;
+
+    TipoRelatorioJob(String tipoConteudo, String extensao) {
+        this.tipoConteudo = tipoConteudo;
+        this.extensao = extensao;
+    }
+
+    public String getTipoConteudo() {
+        return tipoConteudo;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+}
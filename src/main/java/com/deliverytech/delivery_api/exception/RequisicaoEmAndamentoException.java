@@ -0,0 +1,15 @@
+package com.deliverytech.delivery_api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A requisição original com esta Idempotency-Key ainda não terminou: o cliente pode repetir
+ * a mesma requisição mais tarde.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class RequisicaoEmAndamentoException extends RuntimeException {
+    public RequisicaoEmAndamentoException(String message) {
+        super(message);
+    }
+}
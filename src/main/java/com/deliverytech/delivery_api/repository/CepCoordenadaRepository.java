@@ -0,0 +1,10 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.entity.CepCoordenada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+// A tabela é lida inteira pelo CepService, que resolve os CEPs em memória
+@Repository
+public interface CepCoordenadaRepository extends JpaRepository<CepCoordenada, String> {
+}
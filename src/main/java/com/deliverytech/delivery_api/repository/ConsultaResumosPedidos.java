@@ -0,0 +1,72 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.dto.projection.TotalPeriodo;
+import com.deliverytech.delivery_api.dto.projection.TotalRestaurante;
+import com.deliverytech.delivery_api.entity.PeriodoPedidoId;
+import com.deliverytech.delivery_api.entity.ResumoPedidosPeriodo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Somas sobre os resumos de pedidos por hora ou por dia, montadas com Criteria: o SQL só leva
+ * as condições dos filtros informados. Base das implementações de ResumoPedidosHoraRepositoryCustom
+ * e ResumoPedidosDiaRepositoryCustom.
+ */
+abstract class ConsultaResumosPedidos<E extends ResumoPedidosPeriodo> {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Class<E> entidade;
+
+    ConsultaResumosPedidos(Class<E> entidade) {
+        this.entidade = entidade;
+    }
+
+    public List<TotalPeriodo> somarPorPeriodo(LocalDateTime inicio, LocalDateTime fim, Long restauranteId, String status) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TotalPeriodo> query = cb.createQuery(TotalPeriodo.class);
+        Root<E> r = query.from(entidade);
+        Path<PeriodoPedidoId> id = r.get("id");
+
+        List<Predicate> condicoes = filtros(cb, id, inicio, fim, status);
+        if (restauranteId != null) {
+            condicoes.add(cb.equal(id.get("restauranteId"), restauranteId));
+        }
+        query.select(cb.construct(TotalPeriodo.class,
+                        id.get("inicio"), cb.sum(r.get("pedidos")), cb.sum(r.get("faturamento")), cb.sum(r.get("itens"))))
+                .where(condicoes.toArray(Predicate[]::new))
+                .groupBy(id.get("inicio"));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    public List<TotalRestaurante> somarPorRestaurante(LocalDateTime inicio, LocalDateTime fim, String status) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TotalRestaurante> query = cb.createQuery(TotalRestaurante.class);
+        Root<E> r = query.from(entidade);
+        Path<PeriodoPedidoId> id = r.get("id");
+
+        query.select(cb.construct(TotalRestaurante.class,
+                        id.get("restauranteId"), cb.sum(r.get("pedidos")), cb.sum(r.get("faturamento")), cb.sum(r.get("itens"))))
+                .where(filtros(cb, id, inicio, fim, status).toArray(Predicate[]::new))
+                .groupBy(id.get("restauranteId"));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    // Períodos que começam em [inicio, fim) e, se informado, o status
+    private static List<Predicate> filtros(CriteriaBuilder cb, Path<PeriodoPedidoId> id,
+                                           LocalDateTime inicio, LocalDateTime fim, String status) {
+        List<Predicate> condicoes = new ArrayList<>();
+        condicoes.add(cb.greaterThanOrEqualTo(id.get("inicio"), inicio));
+        condicoes.add(cb.lessThan(id.get("inicio"), fim));
+        if (status != null) {
+            condicoes.add(cb.equal(id.get("status"), status));
+        }
+        return condicoes;
+    }
+}
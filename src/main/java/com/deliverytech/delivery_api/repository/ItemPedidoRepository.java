@@ -1,25 +1,40 @@
 package com.deliverytech.delivery_api.repository;
 
-import com.deliverytech.delivery_api.dto.projection.RelatorioProdutosMaisVendidos;
+import com.deliverytech.delivery_api.dto.projection.ItemPedidoResumo;
+import com.deliverytech.delivery_api.dto.projection.TotalVendas;
 import com.deliverytech.delivery_api.entity.ItemPedido;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemPedidoRepository extends JpaRepository<ItemPedido, Long> {
 
     /**
-     * 3.2: Produtos mais vendidos (Usando Projeção 3.3)
-     * Isso é feito com JPQL, muito melhor que SQL Nativo!
+     * Unidades e valor vendidos por produto em pedidos ENTREGUE, calculados do zero.
+     * O relatório de produtos mais vendidos lê os agregados (VendaProdutoRepository); esta
+     * consulta só serve à reconstrução deles em AgregadoVendasService.
      */
-    @Query("SELECT ip.produto.nome AS nomeProduto, SUM(ip.quantidade) AS quantidadeVendida " +
+    @Query("SELECT new com.deliverytech.delivery_api.dto.projection.TotalVendas(" +
+            "ip.produto.id, SUM(ip.quantidade), COALESCE(SUM(ip.precoUnitario * ip.quantidade), 0)) " +
             "FROM ItemPedido ip " +
-            "JOIN ip.pedido p " + // Garante que o item pertence a um pedido
-            "WHERE p.status = 'ENTREGUE' " + // Boa prática: contar apenas pedidos concluídos
-            "GROUP BY ip.produto.nome " +
-            "ORDER BY quantidadeVendida DESC")
-    List<RelatorioProdutosMaisVendidos> getRelatorioProdutosMaisVendidos();
+            "JOIN ip.pedido p " +
+            "WHERE p.status = 'ENTREGUE' " +
+            "GROUP BY ip.produto.id")
+    List<TotalVendas> somarEntreguesPorProduto();
+
+    /**
+     * Itens (por projeção) de um conjunto de pedidos, em uma única consulta.
+     * Complementa os cabeçalhos lidos por PedidoRepository.findPagina*.
+     */
+    @Query("SELECT new com.deliverytech.delivery_api.dto.projection.ItemPedidoResumo(" +
+            "ip.pedido.id, pr.nome, ip.quantidade, ip.precoUnitario) " +
+            "FROM ItemPedido ip JOIN ip.produto pr " +
+            "WHERE ip.pedido.id IN :pedidoIds " +
+            "ORDER BY ip.id")
+    List<ItemPedidoResumo> findResumosPorPedidoIds(@Param("pedidoIds") Collection<Long> pedidoIds);
 }
\ No newline at end of file
@@ -1,36 +1,53 @@
 package com.deliverytech.delivery_api.repository;
 
-import com.deliverytech.delivery_api.dto.projection.RelatorioFaturamentoCategoria;
+import com.deliverytech.delivery_api.dto.projection.CabecalhoPedido;
+import com.deliverytech.delivery_api.dto.projection.ClienteDiaPedido;
+import com.deliverytech.delivery_api.dto.projection.FatoPedido;
+import com.deliverytech.delivery_api.dto.projection.LinhaExportacaoPedido;
 import com.deliverytech.delivery_api.dto.projection.RelatorioRankingClientes;
-import com.deliverytech.delivery_api.dto.projection.RelatorioVendasRestaurante;
+import com.deliverytech.delivery_api.dto.projection.TotalVendas;
 import com.deliverytech.delivery_api.entity.Pedido;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface PedidoRepository extends JpaRepository<Pedido, Long> {
+public interface PedidoRepository extends JpaRepository<Pedido, Long>, PedidoRepositoryCustom {
 
     // =========================================================
     // 1. BUSCAS SIMPLES (SPRING DATA JPA CONVENTION)
-    // Usadas para buscas rápidas que não necessitam dos detalhes do ItemPedido
+    // Usadas para buscas rápidas que não necessitam dos detalhes do ItemPedido.
+    // Trazem cliente e restaurante no mesmo SELECT (grafo de cabeçalho).
     // =========================================================
 
-    // Busca por ID de Cliente (usado para histórico, mas sem itens carregados por padrão)
+    // Busca por ID de Cliente (histórico: o cliente já é conhecido, os itens não)
+    @EntityGraph(Pedido.GRAFO_COM_ITENS)
     List<Pedido> findByClienteId(Long clienteId);
 
     // Busca por status
+    @EntityGraph(Pedido.GRAFO_CABECALHO)
     List<Pedido> findByStatus(String status);
 
     // Busca por data (período)
+    @EntityGraph(Pedido.GRAFO_CABECALHO)
     List<Pedido> findByDataPedidoBetween(LocalDateTime inicio, LocalDateTime fim);
 
     // Top 10 pedidos mais recentes
+    @EntityGraph(Pedido.GRAFO_CABECALHO)
     List<Pedido> findTop10ByOrderByDataPedidoDesc();
 
     // =========================================================
@@ -39,41 +56,73 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
     // =========================================================
 
     /**
-     * Busca um pedido completo por ID, carregando os itens.
+     * Busca um pedido completo por ID: cliente, restaurante, itens e produtos em um único SELECT.
      * Substitui: findByIdWithItens
      */
-    @Query("SELECT p FROM Pedido p LEFT JOIN FETCH p.itens WHERE p.id = :id")
+    @EntityGraph(Pedido.GRAFO_COMPLETO)
+    @Query("SELECT p FROM Pedido p WHERE p.id = :id")
     Pedido findByIdCompleto(@Param("id") Long id);
 
     /**
-     * Lista pedidos de um cliente, carregando os itens.
-     * Substitui: findByClienteWithItens
+     * Igual a findByIdCompleto, travando a linha do pedido até o fim da transação: duas mudanças
+     * de status simultâneas do mesmo pedido são aplicadas uma depois da outra, e cada uma vê o
+     * status deixado pela anterior (os agregados de vendas dependem disso).
      */
-    @Query("SELECT DISTINCT p FROM Pedido p " +
-            "LEFT JOIN FETCH p.itens " +
-            "WHERE p.cliente.id = :clienteId")
-    List<Pedido> findByClienteIdCompleto(@Param("clienteId") Long clienteId);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(Pedido.GRAFO_COMPLETO)
+    @Query("SELECT p FROM Pedido p WHERE p.id = :id")
+    Pedido findByIdCompletoParaAtualizacao(@Param("id") Long id);
 
     /**
-     * Lista pedidos de um restaurante, carregando os itens.
-     * Substitui: findByRestauranteIdWithItens
+     * Pedidos completos de um período, para respostas que listam os itens.
      */
-    @Query("SELECT DISTINCT p FROM Pedido p LEFT JOIN FETCH p.itens WHERE p.restaurante.id = :restauranteId")
-    List<Pedido> findByRestauranteIdCompleto(@Param("restauranteId") Long restauranteId);
+    @EntityGraph(Pedido.GRAFO_COMPLETO)
+    @Query("SELECT p FROM Pedido p WHERE p.dataPedido BETWEEN :inicio AND :fim ORDER BY p.dataPedido, p.id")
+    List<Pedido> findCompletosPorPeriodo(@Param("inicio") LocalDateTime inicio,
+                                         @Param("fim") LocalDateTime fim);
+
+    // =========================================================
+    // 2.1 LEITURA POR PROJEÇÃO (CABEÇALHOS) + LISTAGENS PAGINADAS
+    // Usadas pelos GETs: nenhuma entidade entra no contexto de persistência.
+    // Os itens vêm depois, de ItemPedidoRepository.findResumosPorPedidoIds.
+    // Paginação por keyset sobre (dataPedido, id), em ordem decrescente.
+    // =========================================================
+
+    String CABECALHO = "SELECT new com.deliverytech.delivery_api.dto.projection.CabecalhoPedido(" +
+            "p.id, c.id, c.nome, r.id, r.nome, p.total, p.status, p.dataPedido) " +
+            "FROM Pedido p JOIN p.cliente c JOIN p.restaurante r ";
+
+    String APOS_CURSOR = "AND (p.dataPedido < :cursorData OR (p.dataPedido = :cursorData AND p.id < :cursorId)) " +
+            "ORDER BY p.dataPedido DESC, p.id DESC";
+
+    @Query(CABECALHO + "WHERE p.id = :id")
+    Optional<CabecalhoPedido> findCabecalhoPorId(@Param("id") Long id);
+
+    /**
+     * Página de pedidos de um cliente, a partir da posição (cursorData, cursorId) exclusiva.
+     */
+    @Query(CABECALHO + "WHERE p.cliente.id = :clienteId " + APOS_CURSOR)
+    List<CabecalhoPedido> findPaginaPorCliente(@Param("clienteId") Long clienteId,
+                                               @Param("cursorData") LocalDateTime cursorData,
+                                               @Param("cursorId") Long cursorId,
+                                               Limit limite);
 
     /**
-     * Busca pedidos com filtros dinâmicos de status e período, carregando os itens.
-     * Unifica: findByPeriodoWithItens, findByStatusWithItens, listarComFiltros
+     * Página de pedidos de um restaurante.
      */
-    @Query("SELECT DISTINCT p FROM Pedido p LEFT JOIN FETCH p.itens " +
-            "WHERE (:status IS NULL OR p.status = :status) " +
-            "AND (:dataInicio IS NULL OR p.dataPedido >= :dataInicio) " +
-            "AND (:dataFim IS NULL OR p.dataPedido <= :dataFim) " +
-            "ORDER BY p.dataPedido DESC")
-    List<Pedido> listarComFiltrosCompleto(
-            @Param("status") String status,
-            @Param("dataInicio") LocalDateTime dataInicio,
-            @Param("dataFim") LocalDateTime dataFim);
+    @Query(CABECALHO + "WHERE p.restaurante.id = :restauranteId " + APOS_CURSOR)
+    List<CabecalhoPedido> findPaginaPorRestaurante(@Param("restauranteId") Long restauranteId,
+                                                   @Param("cursorData") LocalDateTime cursorData,
+                                                   @Param("cursorId") Long cursorId,
+                                                   Limit limite);
+
+    // A página com filtros opcionais de status e período (findPaginaComFiltros) vem de PedidoRepositoryCustom
+
+    // =========================================================
+    // 2.2 EXPORTAÇÃO EM STREAMING
+    // Lido com cursor do banco (fetch size) e sem entidades gerenciadas:
+    // streamComFiltros, com filtros opcionais, vem de PedidoRepositoryCustom.
+    // =========================================================
 
     // =========================================================
     // 3. RELATÓRIOS (PROJEÇÕES E AGREGAÇÕES)
@@ -81,14 +130,53 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
     // =========================================================
 
     /**
-     * Relatório: Total de vendas por restaurante (Projeção)
+     * Vendas de pedidos ENTREGUE por restaurante, calculadas do zero.
+     * Os relatórios leem os agregados (VendaRestauranteRepository); esta consulta só serve à
+     * reconstrução deles em AgregadoVendasService.
      */
-    @Query("SELECT p.restaurante.nome AS restauranteNome, SUM(p.total) AS totalVendas " +
+    @Query("SELECT new com.deliverytech.delivery_api.dto.projection.TotalVendas(" +
+            "p.restaurante.id, COUNT(p), COALESCE(SUM(p.total), 0)) " +
             "FROM Pedido p " +
             "WHERE p.status = 'ENTREGUE' " +
-            "GROUP BY p.restaurante.nome " +
-            "ORDER BY totalVendas DESC")
-    List<RelatorioVendasRestaurante> getRelatorioVendasPorRestaurante();
+            "GROUP BY p.restaurante.id")
+    List<TotalVendas> somarEntreguesPorRestaurante();
+
+    /**
+     * Clientes distintos de cada restaurante em cada dia, lidos com cursor para reconstruir os
+     * resumos de ClientesDistintosService. O Stream precisa ser consumido dentro de uma transação
+     * e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT DISTINCT new com.deliverytech.delivery_api.dto.projection.ClienteDiaPedido(" +
+            "p.restaurante.id, CAST(p.dataPedido AS LocalDate), p.cliente.id) " +
+            "FROM Pedido p " +
+            "WHERE p.restaurante IS NOT NULL AND p.cliente IS NOT NULL AND p.dataPedido IS NOT NULL")
+    Stream<ClienteDiaPedido> streamClientesPorDia();
+
+    /**
+     * Todos os pedidos com a quantidade de itens, lidos com cursor para carregar as colunas de
+     * AnalisePedidosService. O Stream precisa ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.deliverytech.delivery_api.dto.projection.FatoPedido(" +
+            "p.id, p.restaurante.id, p.cliente.id, p.status, p.dataPedido, p.total, COALESCE(SUM(i.quantidade), 0)) " +
+            "FROM Pedido p LEFT JOIN p.itens i " +
+            "WHERE p.restaurante IS NOT NULL AND p.cliente IS NOT NULL AND p.dataPedido IS NOT NULL " +
+            "GROUP BY p.id, p.restaurante.id, p.cliente.id, p.status, p.dataPedido, p.total")
+    Stream<FatoPedido> streamFatos();
+
+    /**
+     * Pedidos de [inicio, fim) com seus itens, em ordem de (dataPedido, id, item), para a
+     * exportação colunar. Lido com cursor; precisa ser consumido dentro de uma transação.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.deliverytech.delivery_api.dto.projection.LinhaExportacaoPedido(" +
+            "p.id, p.dataPedido, p.cliente.id, r.id, r.categoria, p.status, p.total, " +
+            "i.id, i.produto.id, i.quantidade, i.precoUnitario) " +
+            "FROM Pedido p LEFT JOIN p.restaurante r LEFT JOIN p.itens i " +
+            "WHERE p.dataPedido >= :inicio AND p.dataPedido < :fim ORDER BY p.dataPedido, p.id, i.id")
+    Stream<LinhaExportacaoPedido> streamParaExportacao(@Param("inicio") LocalDateTime inicio,
+                                                       @Param("fim") LocalDateTime fim);
 
     /**
      * Relatório: Ranking de clientes por nº de pedidos (Projeção)
@@ -99,27 +187,21 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
             "ORDER BY totalPedidos DESC")
     List<RelatorioRankingClientes> getRelatorioRankingClientes();
 
-    /**
-     * Relatório: Faturamento por categoria (Projeção)
-     */
-    @Query("SELECT p.restaurante.categoria AS categoria, SUM(p.total) AS totalVendas " +
-            "FROM Pedido p " +
-            "WHERE p.status = 'ENTREGUE' " +
-            "GROUP BY p.restaurante.categoria " +
-            "ORDER BY totalVendas DESC")
-    List<RelatorioFaturamentoCategoria> getRelatorioFaturamentoPorCategoria();
+    // Vendas por restaurante e faturamento por categoria vêm dos agregados (VendaRestauranteRepository)
 
     // --- Métodos Remanescentes (MUITO Específicos ou Herdados) ---
 
     /**
      * Busca pedidos com valor acima de um limite.
      */
+    @EntityGraph(Pedido.GRAFO_CABECALHO)
     @Query("SELECT p FROM Pedido p WHERE p.total > :valor")
     List<Pedido> findPedidosComValorAcimaDe(@Param("valor") BigDecimal valor);
 
-    // O método 'findRelatorioPorPeriodoEStatus' é similar a 'listarComFiltrosCompleto'
+    // O método 'findRelatorioPorPeriodoEStatus' é similar a 'findPaginaComFiltros'
     // mas retorna a entidade completa, sem a necessidade de itens (depende do uso).
     // Se precisar da versão sem itens, mantemos:
+    @EntityGraph(Pedido.GRAFO_CABECALHO)
     @Query("SELECT p FROM Pedido p " +
             "WHERE p.dataPedido BETWEEN :inicio AND :fim " +
             "AND p.status = :status")
@@ -128,16 +210,4 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
             @Param("fim") LocalDateTime fim,
             @Param("status") String status
     );
-
-    // O método "relatorioPedidosPorRestaurante" que retorna Object[] também é mantido
-    // se for exigido que retorne o nome e a contagem de pedidos no período (sem projeção)
-    @Query("""
-        SELECT p.restaurante.nome, COUNT(p)
-        FROM Pedido p
-        WHERE p.dataPedido BETWEEN :inicio AND :fim
-        GROUP BY p.restaurante.nome
-        ORDER BY COUNT(p) DESC
-        """)
-    List<Object[]> relatorioPedidosPorRestaurante(@Param("inicio") LocalDateTime inicio,
-                                                  @Param("fim") LocalDateTime fim);
 }
\ No newline at end of file
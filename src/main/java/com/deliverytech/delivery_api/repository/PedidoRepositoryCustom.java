@@ -0,0 +1,46 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.dto.projection.CabecalhoPedido;
+import com.deliverytech.delivery_api.dto.projection.LinhaPedidoItem;
+import com.deliverytech.delivery_api.dto.projection.LinhaPeriodoPedido;
+import com.deliverytech.delivery_api.dto.projection.VendasPeriodoParcial;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Consultas de pedidos com filtros opcionais, montadas com Criteria (PedidoRepositoryCustomImpl):
+ * o SQL só leva as condições dos filtros informados, e o banco escolhe o índice de cada combinação.
+ */
+public interface PedidoRepositoryCustom {
+
+    /**
+     * Página de pedidos com filtros opcionais de status e período, a partir da posição
+     * (cursorData, cursorId) exclusiva, em ordem decrescente de (dataPedido, id).
+     */
+    List<CabecalhoPedido> findPaginaComFiltros(String status, LocalDateTime dataInicio, LocalDateTime dataFim,
+                                               LocalDateTime cursorData, Long cursorId, Limit limite);
+
+    /**
+     * Linhas pedido x item com filtros opcionais de status e período,
+     * ordenadas para que os itens de um mesmo pedido venham em sequência.
+     * O Stream precisa ser consumido dentro de uma transação e fechado ao final.
+     */
+    Stream<LinhaPedidoItem> streamComFiltros(String status, LocalDateTime dataInicio, LocalDateTime dataFim);
+
+    /**
+     * Pedidos em [inicio, fim), com filtros opcionais de restaurante e status, com a soma das
+     * quantidades dos itens de cada um. Usado só nas bordas dos intervalos atendidos pelos resumos
+     * por período (trechos menores que uma hora).
+     */
+    List<LinhaPeriodoPedido> findLinhasPorPeriodo(LocalDateTime inicio, LocalDateTime fim,
+                                                  Long restauranteId, String status);
+
+    /**
+     * Pedidos e faturamento por restaurante em [inicio, fim), no status informado ou em todos
+     * (status nulo). Lê só a tabela de pedidos, pelo índice de data_pedido.
+     */
+    List<VendasPeriodoParcial> somarPorRestauranteNoPeriodo(LocalDateTime inicio, LocalDateTime fim, String status);
+}
@@ -0,0 +1,144 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.dto.projection.CabecalhoPedido;
+import com.deliverytech.delivery_api.dto.projection.LinhaPedidoItem;
+import com.deliverytech.delivery_api.dto.projection.LinhaPeriodoPedido;
+import com.deliverytech.delivery_api.dto.projection.VendasPeriodoParcial;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.ItemPedido;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+class PedidoRepositoryCustomImpl implements PedidoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CabecalhoPedido> findPaginaComFiltros(String status, LocalDateTime dataInicio, LocalDateTime dataFim,
+                                                      LocalDateTime cursorData, Long cursorId, Limit limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CabecalhoPedido> query = cb.createQuery(CabecalhoPedido.class);
+        Root<Pedido> p = query.from(Pedido.class);
+        Join<Pedido, Cliente> c = p.join("cliente");
+        Join<Pedido, Restaurante> r = p.join("restaurante");
+
+        List<Predicate> condicoes = filtros(cb, p, status, dataInicio, dataFim);
+        // Keyset: depois de (cursorData, cursorId) na ordem decrescente
+        condicoes.add(cb.or(
+                cb.lessThan(p.get("dataPedido"), cursorData),
+                cb.and(cb.equal(p.get("dataPedido"), cursorData), cb.lessThan(p.get("id"), cursorId))));
+
+        query.select(cb.construct(CabecalhoPedido.class,
+                        p.get("id"), c.get("id"), c.get("nome"), r.get("id"), r.get("nome"),
+                        p.get("total"), p.get("status"), p.get("dataPedido")))
+                .where(condicoes.toArray(Predicate[]::new))
+                .orderBy(cb.desc(p.get("dataPedido")), cb.desc(p.get("id")));
+
+        var consulta = entityManager.createQuery(query);
+        if (limite.isLimited()) {
+            consulta.setMaxResults(limite.max());
+        }
+        return consulta.getResultList();
+    }
+
+    @Override
+    public Stream<LinhaPedidoItem> streamComFiltros(String status, LocalDateTime dataInicio, LocalDateTime dataFim) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LinhaPedidoItem> query = cb.createQuery(LinhaPedidoItem.class);
+        Root<Pedido> p = query.from(Pedido.class);
+        Join<Pedido, Cliente> c = p.join("cliente");
+        Join<Pedido, Restaurante> r = p.join("restaurante");
+        Join<Pedido, ItemPedido> i = p.join("itens", JoinType.LEFT);
+        Join<ItemPedido, Produto> pr = i.join("produto", JoinType.LEFT);
+
+        query.select(cb.construct(LinhaPedidoItem.class,
+                        p.get("id"), c.get("id"), c.get("nome"), r.get("id"), r.get("nome"),
+                        p.get("total"), p.get("status"), p.get("dataPedido"),
+                        pr.get("nome"), i.get("quantidade"), i.get("precoUnitario")))
+                .where(filtros(cb, p, status, dataInicio, dataFim).toArray(Predicate[]::new))
+                .orderBy(cb.desc(p.get("dataPedido")), cb.desc(p.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 500)
+                .getResultStream();
+    }
+
+    @Override
+    public List<LinhaPeriodoPedido> findLinhasPorPeriodo(LocalDateTime inicio, LocalDateTime fim,
+                                                         Long restauranteId, String status) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LinhaPeriodoPedido> query = cb.createQuery(LinhaPeriodoPedido.class);
+        Root<Pedido> p = query.from(Pedido.class);
+
+        Subquery<Long> itens = query.subquery(Long.class);
+        Root<ItemPedido> i = itens.from(ItemPedido.class);
+        itens.select(cb.coalesce(cb.sumAsLong(i.get("quantidade")), 0L))
+                .where(cb.equal(i.get("pedido"), p));
+
+        List<Predicate> condicoes = new ArrayList<>();
+        condicoes.add(cb.greaterThanOrEqualTo(p.get("dataPedido"), inicio));
+        condicoes.add(cb.lessThan(p.get("dataPedido"), fim));
+        if (restauranteId != null) {
+            condicoes.add(cb.equal(p.get("restaurante").get("id"), restauranteId));
+        }
+        if (status != null) {
+            condicoes.add(cb.equal(p.get("status"), status));
+        }
+
+        query.select(cb.construct(LinhaPeriodoPedido.class,
+                        p.get("restaurante").get("id"), p.get("dataPedido"), p.get("total"), itens))
+                .where(condicoes.toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<VendasPeriodoParcial> somarPorRestauranteNoPeriodo(LocalDateTime inicio, LocalDateTime fim, String status) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<VendasPeriodoParcial> query = cb.createQuery(VendasPeriodoParcial.class);
+        Root<Pedido> p = query.from(Pedido.class);
+        Path<Long> restauranteId = p.get("restaurante").get("id");
+
+        List<Predicate> condicoes = new ArrayList<>();
+        condicoes.add(cb.greaterThanOrEqualTo(p.get("dataPedido"), inicio));
+        condicoes.add(cb.lessThan(p.get("dataPedido"), fim));
+        if (status != null) {
+            condicoes.add(cb.equal(p.get("status"), status));
+        }
+
+        query.select(cb.construct(VendasPeriodoParcial.class,
+                        restauranteId, cb.count(p), cb.coalesce(cb.sum(p.<BigDecimal>get("total")), BigDecimal.ZERO),
+                        cb.least(p.<LocalDateTime>get("dataPedido")), cb.greatest(p.<LocalDateTime>get("dataPedido"))))
+                .where(condicoes.toArray(Predicate[]::new))
+                .groupBy(restauranteId);
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    // Só as condições dos filtros informados
+    private static List<Predicate> filtros(CriteriaBuilder cb, Root<Pedido> p,
+                                           String status, LocalDateTime dataInicio, LocalDateTime dataFim) {
+        List<Predicate> condicoes = new ArrayList<>();
+        if (status != null) {
+            condicoes.add(cb.equal(p.get("status"), status));
+        }
+        if (dataInicio != null) {
+            condicoes.add(cb.greaterThanOrEqualTo(p.get("dataPedido"), dataInicio));
+        }
+        if (dataFim != null) {
+            condicoes.add(cb.lessThanOrEqualTo(p.get("dataPedido"), dataFim));
+        }
+        return condicoes;
+    }
+}
@@ -1,19 +1,32 @@
 package com.deliverytech.delivery_api.repository;
 
+import com.deliverytech.delivery_api.dto.projection.TextoProduto;
 import com.deliverytech.delivery_api.entity.Produto;
 import com.deliverytech.delivery_api.entity.Restaurante;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProdutoRepository extends JpaRepository<Produto, Long> {
 
+    // Produto.restaurante é LAZY; as buscas cujo resultado vira ProdutoResponseDTO
+    // (que expõe o nome do restaurante) já trazem o restaurante no mesmo SELECT.
+    @Override
+    @EntityGraph(attributePaths = "restaurante")
+    Optional<Produto> findById(Long id);
+
     // ... (Métodos Existentes) ...
     List<Produto> findByRestaurante(Restaurante restaurante);
 
@@ -21,20 +34,55 @@ public interface ProdutoRepository extends JpaRepository<Produto, Long> {
     List<Produto> findByDescricaoContendo(@Param("termo") String termo);
 
     // NOVO MÉTODO OBRIGATÓRIO: Busca por nome do produto (parcial e case-insensitive)
+    @EntityGraph(attributePaths = "restaurante")
     List<Produto> findByNomeContainingIgnoreCase(String nome);
 
     List<Produto> findByAtivoTrue();
 
+    // Cardápio do restaurante: resultado em cache, invalidado por qualquer escrita em produtos
+    @EntityGraph(attributePaths = "restaurante")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "consultas-produtos")
+    })
     List<Produto> findByRestauranteId(Long restauranteId);
 
     // findByRestauranteCategoria já atende GET /api/produtos/categoria/{categoria}
+    @EntityGraph(attributePaths = "restaurante")
     List<Produto> findByRestauranteCategoria(String categoria);
 
     List<Produto> findByPrecoLessThanEqual(BigDecimal preco);
 
     List<Produto> findByRestauranteAndAtivoTrue(Restaurante restaurante);
 
-    @Modifying
-    @Query("UPDATE Produto p SET p.ativo = :ativo WHERE p.id = :id")
-    void setAtivo(@Param("id") Long id, @Param("ativo") boolean ativo);
-}
\ No newline at end of file
+    /**
+     * Carrega em uma única consulta todos os produtos de um pedido,
+     * já trazendo o restaurante dono de cada um (usado na validação de itens).
+     * Em cache: calcular e depois criar o mesmo pedido resolve os produtos uma vez só.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "consultas-produtos")
+    })
+    @Query("SELECT p FROM Produto p JOIN FETCH p.restaurante WHERE p.id IN :ids")
+    List<Produto> findAllByIdComRestaurante(@Param("ids") Collection<Long> ids);
+
+    // =========================================================
+    // BUSCA TEXTUAL (ver BuscaProdutoService)
+    // =========================================================
+
+    /**
+     * Produtos encontrados pelo índice de busca, já com o restaurante.
+     * Sem cache de consulta: cada busca traz uma lista de IDs diferente.
+     */
+    @EntityGraph(attributePaths = "restaurante")
+    List<Produto> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Nome e descrição de todos os produtos, lidos com cursor para montar o índice.
+     * O Stream precisa ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.deliverytech.delivery_api.dto.projection.TextoProduto(p.id, p.nome, p.descricao) FROM Produto p")
+    Stream<TextoProduto> streamTextos();
+}
@@ -0,0 +1,26 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.entity.RegraTaxaEntrega;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RegraTaxaEntregaRepository extends JpaRepository<RegraTaxaEntrega, Long> {
+
+    List<RegraTaxaEntrega> findByRestauranteIdOrderById(Long restauranteId);
+
+    /**
+     * Todas as regras, agrupadas por restaurante (montagem da tabela de taxas).
+     */
+    @Query("SELECT r FROM RegraTaxaEntrega r ORDER BY r.restaurante.id, r.id")
+    List<RegraTaxaEntrega> findAllOrdenadas();
+
+    @Modifying
+    @Query("DELETE FROM RegraTaxaEntrega r WHERE r.restaurante.id = :restauranteId")
+    int deleteByRestauranteId(@Param("restauranteId") Long restauranteId);
+}
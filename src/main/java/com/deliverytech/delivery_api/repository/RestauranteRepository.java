@@ -1,22 +1,39 @@
 package com.deliverytech.delivery_api.repository;
 
+import com.deliverytech.delivery_api.dto.projection.ResumoRestaurante;
 import com.deliverytech.delivery_api.entity.Restaurante;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface RestauranteRepository extends JpaRepository<Restaurante, Long> {
+public interface RestauranteRepository extends JpaRepository<Restaurante, Long>, RestauranteRepositoryCustom {
+
+    String RESUMO = "SELECT new com.deliverytech.delivery_api.dto.projection.ResumoRestaurante(" +
+            "r.id, r.nome, r.categoria, r.avaliacao, r.taxaEntrega, r.ativo) " +
+            "FROM Restaurante r ";
 
     // ----------------------------------------------------------------------
     // MÉTODOS EXISTENTES
+    // As listagens usadas pelo RestauranteService ficam no cache de consultas
+    // (região "consultas-restaurantes"), invalidado por escritas em restaurantes/produtos.
     // ----------------------------------------------------------------------
     List<Restaurante> findByNomeContainingIgnoreCase(String nome);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "consultas-restaurantes")
+    })
     @Query("SELECT r FROM Restaurante r WHERE LOWER(r.categoria) = LOWER(:categoria)")
     List<Restaurante> findByCategoria(@Param("categoria") String categoria);
 
@@ -29,40 +46,34 @@ public interface RestauranteRepository extends JpaRepository<Restaurante, Long>
 
     List<Restaurante> findTop5ByOrderByNomeAsc();
 
-    @Query("SELECT DISTINCT r FROM Restaurante r LEFT JOIN FETCH r.produtos")
-    List<Restaurante> findAllWithProdutos();
-
     // ----------------------------------------------------------------------
     // NOVOS MÉTODOS OBRIGATÓRIOS PARA A SERVICE
     // ----------------------------------------------------------------------
 
+    // A página de resumos com filtros dinâmicos (findPaginaResumos) vem de RestauranteRepositoryCustom
+
+    /**
+     * Resumos de uma categoria pela coluna normalizada (use Restaurante.normalizarCategoria).
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "consultas-restaurantes")
+    })
+    @Query(RESUMO + "WHERE r.categoriaNormalizada = :categoriaNormalizada ORDER BY r.nome, r.id")
+    List<ResumoRestaurante> findResumosPorCategoria(@Param("categoriaNormalizada") String categoriaNormalizada);
+
     /**
-     * NOVO MÉTODO: Suporta a busca por filtros dinâmicos (categoria e ativo).
-     * Usamos JPQL com o operador LIKE e IS TRUE/FALSE para tratar a optionalidade
-     * e o caso de todos os restaurantes.
-     *
-     * @param categoria Filtro de categoria (pode ser null)
-     * @param ativo Filtro de status (pode ser null)
-     * @return Lista de restaurantes filtrados
+     * Restaurantes com os produtos, em uma consulta: usado só quando a listagem pede include=produtos.
      */
-    @Query("SELECT r FROM Restaurante r WHERE " +
-            // Se 'categoria' for nulo, a condição é sempre verdadeira (OR :categoria IS NULL)
-            "(:categoria IS NULL OR LOWER(r.categoria) LIKE LOWER(CONCAT('%', :categoria, '%'))) AND " +
-            // Se 'ativo' for nulo, a condição é sempre verdadeira (OR :ativo IS NULL)
-            "(:ativo IS NULL OR r.ativo = :ativo)")
-    List<Restaurante> listarPorFiltros(
-            @Param("categoria") String categoria,
-            @Param("ativo") Boolean ativo);
+    @EntityGraph(attributePaths = "produtos")
+    @Query("SELECT r FROM Restaurante r WHERE r.id IN :ids")
+    List<Restaurante> findComProdutosByIdIn(@Param("ids") Collection<Long> ids);
 
     /**
-     * NOVO MÉTODO: Simulação de busca por proximidade via CEP.
-     * NOTE: A implementação real dessa funcionalidade é altamente dependente
-     * de bibliotecas de geolocalização (e.g., PostGIS, MySQL Spatial) e da
-     * estrutura da entidade Restaurante (que precisaria de campos de latitude/longitude).
-     *
-     * Este é um placeholder. A service irá retornar todos os restaurantes até que
-     * a lógica de geolocalização seja implementada.
+     * Restaurantes com coordenadas, lidos com cursor para montar o índice de proximidade.
+     * O Stream precisa ser consumido dentro de uma transação e fechado ao final.
      */
-    // [Image of database query flow for finding nearest restaurants using geo-coordinates]
-    List<Restaurante> findProximos(String cep); // Você deve substituir este método por uma query Geo-Espacial no futuro.
-}
\ No newline at end of file
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT r FROM Restaurante r WHERE r.latitude IS NOT NULL AND r.longitude IS NOT NULL")
+    Stream<Restaurante> streamComCoordenadas();
+}
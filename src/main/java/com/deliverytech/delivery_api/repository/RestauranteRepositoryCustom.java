@@ -0,0 +1,22 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.dto.projection.ResumoRestaurante;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+/**
+ * Listagem de restaurantes com filtros opcionais, montada com Criteria (RestauranteRepositoryCustomImpl):
+ * o SQL só leva as condições dos filtros informados.
+ */
+public interface RestauranteRepositoryCustom {
+
+    /**
+     * Página de resumos após o cursor (id), em ordem de id.
+     *
+     * @param categoria Filtro de categoria, sem diferenciar acentos nem maiúsculas (pode ser null)
+     * @param ativo Filtro de status (pode ser null)
+     * @param cursorId Último id da página anterior (0 na primeira)
+     */
+    List<ResumoRestaurante> findPaginaResumos(String categoria, Boolean ativo, Long cursorId, Limit limite);
+}
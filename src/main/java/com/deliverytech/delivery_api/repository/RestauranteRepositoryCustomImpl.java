@@ -0,0 +1,52 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.dto.projection.ResumoRestaurante;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class RestauranteRepositoryCustomImpl implements RestauranteRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ResumoRestaurante> findPaginaResumos(String categoria, Boolean ativo, Long cursorId, Limit limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ResumoRestaurante> query = cb.createQuery(ResumoRestaurante.class);
+        Root<Restaurante> r = query.from(Restaurante.class);
+
+        List<Predicate> condicoes = new ArrayList<>();
+        if (categoria != null) {
+            condicoes.add(cb.equal(r.get("categoriaNormalizada"), Restaurante.normalizarCategoria(categoria)));
+        }
+        if (ativo != null) {
+            condicoes.add(cb.equal(r.get("ativo"), ativo));
+        }
+        condicoes.add(cb.greaterThan(r.get("id"), cursorId));
+
+        query.select(cb.construct(ResumoRestaurante.class,
+                        r.get("id"), r.get("nome"), r.get("categoria"), r.get("avaliacao"),
+                        r.get("taxaEntrega"), r.get("ativo")))
+                .where(condicoes.toArray(Predicate[]::new))
+                .orderBy(cb.asc(r.get("id")));
+
+        // Cache de consultas, como as demais listagens (invalidado por escritas em restaurantes)
+        var consulta = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, "consultas-restaurantes");
+        if (limite.isLimited()) {
+            consulta.setMaxResults(limite.max());
+        }
+        return consulta.getResultList();
+    }
+}
@@ -0,0 +1,48 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.entity.ResumoClientesDia;
+import com.deliverytech.delivery_api.entity.ResumoClientesDiaId;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface ResumoClientesDiaRepository extends JpaRepository<ResumoClientesDia, ResumoClientesDiaId>,
+        ResumoClientesDiaRepositoryCustom {
+
+    /**
+     * Resumo do restaurante no dia, travando a linha até o fim da transação: dois pedidos
+     * simultâneos no mesmo restaurante e dia unem seus clientes ao resumo um depois do outro.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ResumoClientesDia r WHERE r.id = :id")
+    Optional<ResumoClientesDia> findByIdParaAtualizacao(@Param("id") ResumoClientesDiaId id);
+
+    /**
+     * Cria o resumo do restaurante no dia, se ainda não existe.
+     * A hint limita a invalidação do cache de segundo nível à tabela de clientes distintos.
+     * @return 0 se ele já existia
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumo_clientes_dia"))
+    @Query(value = "MERGE INTO resumo_clientes_dia r " +
+            "USING (SELECT CAST(:restauranteId AS BIGINT) AS restaurante_id, CAST(:dia AS DATE) AS dia, " +
+            "CAST(:registradores AS VARBINARY(4097)) AS registradores) d " +
+            "ON r.restaurante_id = d.restaurante_id AND r.dia = d.dia " +
+            "WHEN NOT MATCHED THEN INSERT (restaurante_id, dia, registradores) " +
+            "VALUES (d.restaurante_id, d.dia, d.registradores)",
+            nativeQuery = true)
+    int inserirSeAusente(@Param("restauranteId") Long restauranteId,
+                         @Param("dia") LocalDate dia,
+                         @Param("registradores") byte[] registradores);
+}
@@ -0,0 +1,17 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.entity.ResumoClientesDia;
+
+import java.util.Collection;
+
+/**
+ * Gravação em lote dos resumos de clientes distintos (ResumoClientesDiaRepositoryCustomImpl).
+ */
+public interface ResumoClientesDiaRepositoryCustom {
+
+    /**
+     * Insere resumos novos (a chave ainda não existe) em lotes de INSERT, sem o SELECT
+     * que o save() faria para cada chave informada.
+     */
+    void inserirTodos(Collection<ResumoClientesDia> resumos);
+}
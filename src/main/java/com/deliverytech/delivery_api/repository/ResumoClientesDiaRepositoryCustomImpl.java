@@ -0,0 +1,31 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.entity.ResumoClientesDia;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.Collection;
+
+public class ResumoClientesDiaRepositoryCustomImpl implements ResumoClientesDiaRepositoryCustom {
+
+    // Múltiplo de hibernate.jdbc.batch_size: cada flush envia lotes cheios
+    private static final int BLOCO = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void inserirTodos(Collection<ResumoClientesDia> resumos) {
+        int pendentes = 0;
+        for (ResumoClientesDia resumo : resumos) {
+            entityManager.persist(resumo);
+            if (++pendentes == BLOCO) {
+                entityManager.flush();
+                entityManager.clear();
+                pendentes = 0;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,63 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.entity.PeriodoPedidoId;
+import com.deliverytech.delivery_api.entity.ResumoPedidosDia;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Repository
+public interface ResumoPedidosDiaRepository extends JpaRepository<ResumoPedidosDia, PeriodoPedidoId>,
+        ResumoPedidosDiaRepositoryCustom {
+
+    /**
+     * Move pedidos de um status para outro no período, em um único comando: subtrai de statusSaida
+     * e soma em statusEntrada, criando as linhas que faltarem. statusSaida nulo só soma (pedidos novos).
+     * A hint limita a invalidação do cache de segundo nível à tabela de resumos.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumo_pedidos_dia"))
+    @Query(value = "MERGE INTO resumo_pedidos_dia r " +
+            "USING (SELECT * FROM (" +
+            "SELECT CAST(:restauranteId AS BIGINT) AS restaurante_id, CAST(:inicio AS TIMESTAMP) AS inicio, " +
+            "CAST(:statusSaida AS VARCHAR(255)) AS status, -CAST(:pedidos AS BIGINT) AS pedidos, " +
+            "-CAST(:faturamento AS NUMERIC(38,2)) AS faturamento, -CAST(:itens AS BIGINT) AS itens " +
+            "UNION ALL " +
+            "SELECT CAST(:restauranteId AS BIGINT), CAST(:inicio AS TIMESTAMP), " +
+            "CAST(:statusEntrada AS VARCHAR(255)), CAST(:pedidos AS BIGINT), " +
+            "CAST(:faturamento AS NUMERIC(38,2)), CAST(:itens AS BIGINT)" +
+            ") m WHERE m.status IS NOT NULL) d " +
+            "ON r.restaurante_id = d.restaurante_id AND r.inicio = d.inicio AND r.status = d.status " +
+            "WHEN MATCHED THEN UPDATE SET pedidos = r.pedidos + d.pedidos, " +
+            "faturamento = r.faturamento + d.faturamento, itens = r.itens + d.itens " +
+            "WHEN NOT MATCHED THEN INSERT (restaurante_id, inicio, status, pedidos, faturamento, itens) " +
+            "VALUES (d.restaurante_id, d.inicio, d.status, d.pedidos, d.faturamento, d.itens)",
+            nativeQuery = true)
+    int mover(@Param("restauranteId") Long restauranteId,
+              @Param("inicio") LocalDateTime inicio,
+              @Param("statusSaida") String statusSaida,
+              @Param("statusEntrada") String statusEntrada,
+              @Param("pedidos") long pedidos,
+              @Param("faturamento") BigDecimal faturamento,
+              @Param("itens") long itens);
+
+    /**
+     * Recalcula todos os resumos por dia somando os resumos por hora (a tabela precisa estar vazia).
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumo_pedidos_dia"))
+    @Query(value = "INSERT INTO resumo_pedidos_dia (restaurante_id, inicio, status, pedidos, faturamento, itens) " +
+            "SELECT restaurante_id, DATE_TRUNC('DAY', inicio), status, SUM(pedidos), SUM(faturamento), SUM(itens) " +
+            "FROM resumo_pedidos_hora " +
+            "GROUP BY restaurante_id, DATE_TRUNC('DAY', inicio), status",
+            nativeQuery = true)
+    int recalcular();
+}
@@ -0,0 +1,23 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.dto.projection.TotalPeriodo;
+import com.deliverytech.delivery_api.dto.projection.TotalRestaurante;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Somas dos resumos por dia com filtros opcionais (ConsultaResumosPedidos).
+ */
+public interface ResumoPedidosDiaRepositoryCustom {
+
+    /**
+     * Soma dos resumos por período em [inicio, fim), com filtros opcionais de restaurante e status.
+     */
+    List<TotalPeriodo> somarPorPeriodo(LocalDateTime inicio, LocalDateTime fim, Long restauranteId, String status);
+
+    /**
+     * Soma dos resumos por restaurante em [inicio, fim), com filtro opcional de status.
+     */
+    List<TotalRestaurante> somarPorRestaurante(LocalDateTime inicio, LocalDateTime fim, String status);
+}
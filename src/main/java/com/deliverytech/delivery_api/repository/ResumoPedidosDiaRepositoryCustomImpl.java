@@ -0,0 +1,11 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.entity.ResumoPedidosDia;
+
+class ResumoPedidosDiaRepositoryCustomImpl extends ConsultaResumosPedidos<ResumoPedidosDia>
+        implements ResumoPedidosDiaRepositoryCustom {
+
+    ResumoPedidosDiaRepositoryCustomImpl() {
+        super(ResumoPedidosDia.class);
+    }
+}
@@ -0,0 +1,66 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.entity.PeriodoPedidoId;
+import com.deliverytech.delivery_api.entity.ResumoPedidosHora;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Repository
+public interface ResumoPedidosHoraRepository extends JpaRepository<ResumoPedidosHora, PeriodoPedidoId>,
+        ResumoPedidosHoraRepositoryCustom {
+
+    /**
+     * Move pedidos de um status para outro no período, em um único comando: subtrai de statusSaida
+     * e soma em statusEntrada, criando as linhas que faltarem. statusSaida nulo só soma (pedidos novos).
+     * A hint limita a invalidação do cache de segundo nível à tabela de resumos.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumo_pedidos_hora"))
+    @Query(value = "MERGE INTO resumo_pedidos_hora r " +
+            "USING (SELECT * FROM (" +
+            "SELECT CAST(:restauranteId AS BIGINT) AS restaurante_id, CAST(:inicio AS TIMESTAMP) AS inicio, " +
+            "CAST(:statusSaida AS VARCHAR(255)) AS status, -CAST(:pedidos AS BIGINT) AS pedidos, " +
+            "-CAST(:faturamento AS NUMERIC(38,2)) AS faturamento, -CAST(:itens AS BIGINT) AS itens " +
+            "UNION ALL " +
+            "SELECT CAST(:restauranteId AS BIGINT), CAST(:inicio AS TIMESTAMP), " +
+            "CAST(:statusEntrada AS VARCHAR(255)), CAST(:pedidos AS BIGINT), " +
+            "CAST(:faturamento AS NUMERIC(38,2)), CAST(:itens AS BIGINT)" +
+            ") m WHERE m.status IS NOT NULL) d " +
+            "ON r.restaurante_id = d.restaurante_id AND r.inicio = d.inicio AND r.status = d.status " +
+            "WHEN MATCHED THEN UPDATE SET pedidos = r.pedidos + d.pedidos, " +
+            "faturamento = r.faturamento + d.faturamento, itens = r.itens + d.itens " +
+            "WHEN NOT MATCHED THEN INSERT (restaurante_id, inicio, status, pedidos, faturamento, itens) " +
+            "VALUES (d.restaurante_id, d.inicio, d.status, d.pedidos, d.faturamento, d.itens)",
+            nativeQuery = true)
+    int mover(@Param("restauranteId") Long restauranteId,
+              @Param("inicio") LocalDateTime inicio,
+              @Param("statusSaida") String statusSaida,
+              @Param("statusEntrada") String statusEntrada,
+              @Param("pedidos") long pedidos,
+              @Param("faturamento") BigDecimal faturamento,
+              @Param("itens") long itens);
+
+    /**
+     * Recalcula todos os resumos por hora a partir dos pedidos (a tabela precisa estar vazia).
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumo_pedidos_hora"))
+    @Query(value = "INSERT INTO resumo_pedidos_hora (restaurante_id, inicio, status, pedidos, faturamento, itens) " +
+            "SELECT p.restaurante_id, DATE_TRUNC('HOUR', p.data_pedido), p.status, " +
+            "COUNT(*), COALESCE(SUM(p.total), 0), COALESCE(SUM(i.itens), 0) " +
+            "FROM pedidos p " +
+            "LEFT JOIN (SELECT pedido_id, SUM(quantidade) AS itens FROM itens_pedido GROUP BY pedido_id) i ON i.pedido_id = p.id " +
+            "WHERE p.restaurante_id IS NOT NULL AND p.data_pedido IS NOT NULL AND p.status IS NOT NULL " +
+            "GROUP BY p.restaurante_id, DATE_TRUNC('HOUR', p.data_pedido), p.status",
+            nativeQuery = true)
+    int recalcular();
+}
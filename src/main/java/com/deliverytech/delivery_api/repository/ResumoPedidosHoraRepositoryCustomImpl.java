@@ -0,0 +1,11 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.entity.ResumoPedidosHora;
+
+class ResumoPedidosHoraRepositoryCustomImpl extends ConsultaResumosPedidos<ResumoPedidosHora>
+        implements ResumoPedidosHoraRepositoryCustom {
+
+    ResumoPedidosHoraRepositoryCustomImpl() {
+        super(ResumoPedidosHora.class);
+    }
+}
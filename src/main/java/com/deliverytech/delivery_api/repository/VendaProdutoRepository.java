@@ -0,0 +1,44 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.dto.projection.RelatorioProdutosMaisVendidos;
+import com.deliverytech.delivery_api.entity.VendaProduto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface VendaProdutoRepository extends JpaRepository<VendaProduto, Long> {
+
+    /**
+     * Soma (ou subtrai) unidades e valor ao agregado do produto. Devolve 0 se o produto ainda
+     * não tem linha (ver criar).
+     */
+    @Modifying
+    @Query("UPDATE VendaProduto v SET v.quantidadeVendida = v.quantidadeVendida + :quantidade, " +
+            "v.totalVendas = v.totalVendas + :total WHERE v.produtoId = :produtoId")
+    int somar(@Param("produtoId") Long produtoId,
+              @Param("quantidade") long quantidade,
+              @Param("total") BigDecimal total);
+
+    /**
+     * Cria a linha zerada do produto. Falha com violação de chave se ela já existir.
+     */
+    @Modifying
+    @Query("INSERT INTO VendaProduto (produtoId, quantidadeVendida, totalVendas) VALUES (:produtoId, 0L, 0BD)")
+    int criar(@Param("produtoId") Long produtoId);
+
+    /**
+     * Relatório: Produtos mais vendidos, lido dos agregados.
+     */
+    @Query("SELECT p.nome AS nomeProduto, SUM(v.quantidadeVendida) AS quantidadeVendida " +
+            "FROM VendaProduto v JOIN Produto p ON p.id = v.produtoId " +
+            "WHERE v.quantidadeVendida > 0 " +
+            "GROUP BY p.nome " +
+            "ORDER BY quantidadeVendida DESC")
+    List<RelatorioProdutosMaisVendidos> getRelatorioProdutosMaisVendidos();
+}
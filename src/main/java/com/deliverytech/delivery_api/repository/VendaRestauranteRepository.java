@@ -0,0 +1,56 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.dto.projection.RelatorioFaturamentoCategoria;
+import com.deliverytech.delivery_api.dto.projection.RelatorioVendasRestaurante;
+import com.deliverytech.delivery_api.entity.VendaRestaurante;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface VendaRestauranteRepository extends JpaRepository<VendaRestaurante, Long> {
+
+    /**
+     * Soma (ou subtrai, com valores negativos) pedidos e total ao agregado do restaurante, sem ler
+     * o valor atual antes. Devolve 0 se o restaurante ainda não tem linha (ver criar).
+     */
+    @Modifying
+    @Query("UPDATE VendaRestaurante v SET v.pedidos = v.pedidos + :pedidos, v.totalVendas = v.totalVendas + :total " +
+            "WHERE v.restauranteId = :restauranteId")
+    int somar(@Param("restauranteId") Long restauranteId,
+              @Param("pedidos") long pedidos,
+              @Param("total") BigDecimal total);
+
+    /**
+     * Cria a linha zerada do restaurante. Falha com violação de chave se ela já existir.
+     */
+    @Modifying
+    @Query("INSERT INTO VendaRestaurante (restauranteId, pedidos, totalVendas) VALUES (:restauranteId, 0L, 0BD)")
+    int criar(@Param("restauranteId") Long restauranteId);
+
+    /**
+     * Relatório: Total de vendas por restaurante, lido dos agregados.
+     */
+    @Query("SELECT r.nome AS restauranteNome, SUM(v.totalVendas) AS totalVendas " +
+            "FROM VendaRestaurante v JOIN Restaurante r ON r.id = v.restauranteId " +
+            "WHERE v.pedidos > 0 " +
+            "GROUP BY r.nome " +
+            "ORDER BY totalVendas DESC")
+    List<RelatorioVendasRestaurante> getRelatorioVendasPorRestaurante();
+
+    /**
+     * Relatório: Faturamento por categoria, somando os agregados dos restaurantes pela categoria atual
+     * de cada um (uma troca de categoria não deixa o relatório defasado).
+     */
+    @Query("SELECT r.categoria AS categoria, SUM(v.totalVendas) AS totalVendas " +
+            "FROM VendaRestaurante v JOIN Restaurante r ON r.id = v.restauranteId " +
+            "WHERE v.pedidos > 0 " +
+            "GROUP BY r.categoria " +
+            "ORDER BY totalVendas DESC")
+    List<RelatorioFaturamentoCategoria> getRelatorioFaturamentoPorCategoria();
+}
@@ -0,0 +1,188 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.DivergenciaAgregadoDTO;
+import com.deliverytech.delivery_api.dto.ReconstrucaoAgregadosDTO;
+import com.deliverytech.delivery_api.dto.projection.TotalVendas;
+import com.deliverytech.delivery_api.entity.ItemPedido;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.enums.RelatorioCacheado;
+import com.deliverytech.delivery_api.repository.ItemPedidoRepository;
+import com.deliverytech.delivery_api.repository.PedidoRepository;
+import com.deliverytech.delivery_api.repository.VendaProdutoRepository;
+import com.deliverytech.delivery_api.repository.VendaRestauranteRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Agregados de vendas (pedidos ENTREGUE) por restaurante e por produto, lidos pelos relatórios
+ * no lugar de um GROUP BY sobre todos os pedidos. O faturamento por categoria soma os agregados
+ * dos restaurantes pela categoria atual de cada um.
+ *
+ * Cada entrada ou saída de um pedido do status ENTREGUE (PedidoService.atualizarStatus) soma ou
+ * subtrai o pedido dos agregados na mesma transação: se ela for desfeita, os agregados também são.
+ * Pedidos gravados direto pelo repositório (carga inicial, por exemplo) só entram na próxima
+ * reconstruir(), que recalcula tudo a partir dos pedidos e corrige o que divergir.
+ * Depois do commit de cada alteração, os relatórios em cache que leem os agregados são descartados.
+ */
+@Service
+public class AgregadoVendasService implements Reconstruivel {
+
+    public static final String ENTREGUE = "ENTREGUE";
+
+    private final PedidoRepository pedidoRepository;
+    private final ItemPedidoRepository itemPedidoRepository;
+    private final VendaRestauranteRepository vendaRestauranteRepository;
+    private final VendaProdutoRepository vendaProdutoRepository;
+    private final RelatorioCacheService relatorioCacheService;
+    private final TransactionTemplate criacao;
+
+    public AgregadoVendasService(PedidoRepository pedidoRepository,
+                                 ItemPedidoRepository itemPedidoRepository,
+                                 VendaRestauranteRepository vendaRestauranteRepository,
+                                 VendaProdutoRepository vendaProdutoRepository,
+                                 RelatorioCacheService relatorioCacheService,
+                                 PlatformTransactionManager transactionManager) {
+        this.pedidoRepository = pedidoRepository;
+        this.itemPedidoRepository = itemPedidoRepository;
+        this.vendaRestauranteRepository = vendaRestauranteRepository;
+        this.vendaProdutoRepository = vendaProdutoRepository;
+        this.relatorioCacheService = relatorioCacheService;
+        this.criacao = new TransactionTemplate(transactionManager);
+        this.criacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // =================== ATUALIZAÇÃO INCREMENTAL ===================
+
+    /**
+     * Aplica aos agregados a mudança de status do pedido (o pedido já está com o status novo).
+     * Só faz algo quando o pedido entra em ENTREGUE (soma) ou sai dele (subtrai).
+     * Precisa rodar na transação que grava o status.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarTransicao(Pedido pedido, String statusAnterior) {
+        boolean antes = ENTREGUE.equals(statusAnterior);
+        boolean depois = ENTREGUE.equals(pedido.getStatus());
+        if (antes == depois) {
+            return;
+        }
+        int sinal = depois ? 1 : -1;
+        BigDecimal fator = BigDecimal.valueOf(sinal);
+
+        somarRestaurante(pedido.getRestaurante().getId(), sinal, valor(pedido.getTotal()).multiply(fator));
+
+        // Em ordem de ID: transações concorrentes travam as linhas dos produtos sempre na mesma ordem
+        Map<Long, Long> quantidades = new TreeMap<>();
+        Map<Long, BigDecimal> totais = new HashMap<>();
+        for (ItemPedido item : pedido.getItens()) {
+            if (item.getProduto() == null || item.getQuantidade() == null) {
+                continue;
+            }
+            Long produtoId = item.getProduto().getId();
+            quantidades.merge(produtoId, item.getQuantidade().longValue(), Long::sum);
+            totais.merge(produtoId, item.getSubtotal(), BigDecimal::add);
+        }
+        quantidades.forEach((produtoId, quantidade) ->
+                somarProduto(produtoId, sinal * quantidade, totais.get(produtoId).multiply(fator)));
+        invalidarRelatorios();
+    }
+
+    // =================== RECONSTRUÇÃO ===================
+
+    /**
+     * Recalcula os agregados a partir dos pedidos ENTREGUE, compara com os gravados e corrige
+     * cada divergência somando a diferença. Mudanças de status concorrentes podem cair entre as
+     * duas leituras e aparecer como divergência; uma nova execução acerta o que restar.
+     */
+    @Override
+    @Transactional
+    public ReconstrucaoAgregadosDTO reconstruir() {
+        List<DivergenciaAgregadoDTO> divergencias = new ArrayList<>();
+
+        Map<Long, TotalVendas> restaurantesGravados = new HashMap<>();
+        vendaRestauranteRepository.findAll().forEach(venda -> restaurantesGravados.put(venda.getRestauranteId(),
+                new TotalVendas(venda.getRestauranteId(), venda.getPedidos(), venda.getTotalVendas())));
+        int restaurantes = corrigir("RESTAURANTE", restaurantesGravados, pedidoRepository.somarEntreguesPorRestaurante(),
+                divergencias, (id, diferenca) -> somarRestaurante(id, diferenca.quantidade(), diferenca.total()));
+
+        Map<Long, TotalVendas> produtosGravados = new HashMap<>();
+        vendaProdutoRepository.findAll().forEach(venda -> produtosGravados.put(venda.getProdutoId(),
+                new TotalVendas(venda.getProdutoId(), venda.getQuantidadeVendida(), venda.getTotalVendas())));
+        int produtos = corrigir("PRODUTO", produtosGravados, itemPedidoRepository.somarEntreguesPorProduto(),
+                divergencias, (id, diferenca) -> somarProduto(id, diferenca.quantidade(), diferenca.total()));
+
+        if (!divergencias.isEmpty()) {
+            invalidarRelatorios();
+        }
+        return new ReconstrucaoAgregadosDTO(restaurantes, produtos, divergencias);
+    }
+
+    // =================== AUXILIARES ===================
+
+    private void somarRestaurante(Long restauranteId, long pedidos, BigDecimal total) {
+        if (vendaRestauranteRepository.somar(restauranteId, pedidos, total) == 0) {
+            criarLinha(() -> vendaRestauranteRepository.criar(restauranteId));
+            vendaRestauranteRepository.somar(restauranteId, pedidos, total);
+        }
+    }
+
+    private void somarProduto(Long produtoId, long quantidade, BigDecimal total) {
+        if (vendaProdutoRepository.somar(produtoId, quantidade, total) == 0) {
+            criarLinha(() -> vendaProdutoRepository.criar(produtoId));
+            vendaProdutoRepository.somar(produtoId, quantidade, total);
+        }
+    }
+
+    // Primeira venda: cria a linha zerada em uma transação à parte, e a soma continua na transação
+    // do pedido. Se duas transações criarem a mesma linha, só a criação da segunda falha (chave
+    // primária), sem desfazer o pedido: a linha da primeira é usada.
+    private void criarLinha(Runnable insercao) {
+        try {
+            criacao.executeWithoutResult(status -> insercao.run());
+        } catch (DataIntegrityViolationException e) {
+            // Criada por uma transação concorrente
+        }
+    }
+
+    // Relatórios em cache que leem os agregados (o ranking de clientes não depende deles)
+    private void invalidarRelatorios() {
+        relatorioCacheService.invalidar(RelatorioCacheado.VENDAS_POR_RESTAURANTE,
+                RelatorioCacheado.PRODUTOS_MAIS_VENDIDOS, RelatorioCacheado.FATURAMENTO_POR_CATEGORIA);
+    }
+
+    // Compara gravado x calculado por ID (ausente = zero) e soma a diferença onde divergem
+    private int corrigir(String tipo, Map<Long, TotalVendas> gravados, List<TotalVendas> calculados,
+                         List<DivergenciaAgregadoDTO> divergencias, BiConsumer<Long, TotalVendas> somarDiferenca) {
+        Map<Long, TotalVendas> porId = new TreeMap<>();
+        calculados.forEach(calculado -> porId.put(calculado.id(), calculado));
+        Set<Long> ids = new TreeSet<>(porId.keySet());
+        ids.addAll(gravados.keySet());
+
+        for (Long id : ids) {
+            TotalVendas gravado = gravados.getOrDefault(id, new TotalVendas(id, 0L, BigDecimal.ZERO));
+            TotalVendas calculado = porId.getOrDefault(id, new TotalVendas(id, 0L, BigDecimal.ZERO));
+            long quantidadeGravada = gravado.quantidade() == null ? 0 : gravado.quantidade();
+            long quantidadeCalculada = calculado.quantidade() == null ? 0 : calculado.quantidade();
+            if (quantidadeGravada == quantidadeCalculada && valor(gravado.total()).compareTo(valor(calculado.total())) == 0) {
+                continue;
+            }
+            divergencias.add(new DivergenciaAgregadoDTO(tipo, id, quantidadeGravada, quantidadeCalculada,
+                    valor(gravado.total()), valor(calculado.total())));
+            somarDiferenca.accept(id, new TotalVendas(id, quantidadeCalculada - quantidadeGravada,
+                    valor(calculado.total()).subtract(valor(gravado.total()))));
+        }
+        return porId.size();
+    }
+
+    private static BigDecimal valor(BigDecimal valor) {
+        return valor != null ? valor : BigDecimal.ZERO;
+    }
+}
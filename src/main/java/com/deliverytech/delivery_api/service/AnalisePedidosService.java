@@ -0,0 +1,153 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.config.LeituraNoPrimario;
+import com.deliverytech.delivery_api.dto.ConsultaPedidosDTO;
+import com.deliverytech.delivery_api.dto.GrupoConsultaDTO;
+import com.deliverytech.delivery_api.dto.projection.FatoPedido;
+import com.deliverytech.delivery_api.entity.ItemPedido;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.enums.DimensaoConsulta;
+import com.deliverytech.delivery_api.enums.MetricaConsulta;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.repository.PedidoRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Consultas analíticas livres sobre os pedidos (filtro + agrupamento + somas), atendidas pelas
+ * colunas em memória de ColunasPedidos em vez de uma consulta GROUP BY por pergunta.
+ *
+ * As colunas são carregadas dos pedidos na subida e acompanham, depois de cada commit, os
+ * pedidos criados (PedidoService e PedidoLoteService) e as mudanças de status. Pedidos gravados
+ * direto pelo repositório só entram na próxima reconstruir().
+ */
+@Service
+public class AnalisePedidosService implements Reconstruivel {
+
+    public static final int LIMITE_MAXIMO = 10_000;
+
+    private final PedidoRepository pedidoRepository;
+    private final TransactionTemplate leitura;
+    private final EstruturaEmMemoria<ColunasPedidos> colunas = new EstruturaEmMemoria<>(new ColunasPedidos());
+
+    public AnalisePedidosService(PedidoRepository pedidoRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.pedidoRepository = pedidoRepository;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+    }
+
+    // =================== ATUALIZAÇÃO INCREMENTAL ===================
+
+    /**
+     * Acrescenta os pedidos recém-criados às colunas depois do commit.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void registrarCriacao(PedidosCriados evento) {
+        List<FatoPedido> fatos = new ArrayList<>(evento.pedidos().size());
+        for (Pedido pedido : evento.pedidos()) {
+            if (pedido.getRestaurante() == null || pedido.getCliente() == null || pedido.getDataPedido() == null) {
+                continue;
+            }
+            long itens = 0;
+            for (ItemPedido item : pedido.getItens()) {
+                itens += item.getQuantidade() == null ? 0 : item.getQuantidade();
+            }
+            fatos.add(new FatoPedido(pedido.getId(), pedido.getRestaurante().getId(), pedido.getCliente().getId(),
+                    pedido.getStatus(), pedido.getDataPedido(), pedido.getTotal(), itens));
+        }
+        if (!fatos.isEmpty()) {
+            // Reaplicável: adicionar substitui a linha de um pedido já carregado
+            colunas.aplicar(colunasAtuais -> fatos.forEach(fato -> adicionar(colunasAtuais, fato)));
+        }
+    }
+
+    /**
+     * Leva o status novo do pedido às colunas depois do commit.
+     */
+    public void registrarTransicao(Pedido pedido) {
+        long pedidoId = pedido.getId();
+        String status = pedido.getStatus();
+        colunas.aplicarAposCommit(colunasAtuais -> colunasAtuais.alterarStatus(pedidoId, status));
+    }
+
+    // =================== CARGA ===================
+
+    /**
+     * Carrega colunas novas a partir dos pedidos, lidos com cursor, e troca as atuais por elas.
+     * @return quantidade de pedidos carregados
+     */
+    @Override
+    public Integer reconstruir() {
+        return colunas.reconstruir(() -> {
+            ColunasPedidos novas = new ColunasPedidos();
+            LeituraNoPrimario.executar(() -> leitura.executeWithoutResult(status -> {
+                try (Stream<FatoPedido> fatos = pedidoRepository.streamFatos()) {
+                    fatos.forEach(fato -> adicionar(novas, fato));
+                }
+            }));
+            return novas;
+        }).tamanho();
+    }
+
+    // =================== CONSULTA ===================
+
+    /**
+     * Pedidos, faturamento, itens e ticket médio por grupo das dimensões (até duas; nenhuma =
+     * total geral), nos pedidos de [inicio, fim) dos restaurantes, clientes e status informados
+     * (todos, se nenhum), ordenados pela métrica (pedidos, se nula). Só lê a memória.
+     */
+    public ConsultaPedidosDTO consultar(List<DimensaoConsulta> agruparPor, LocalDateTime inicio, LocalDateTime fim,
+                                        List<Long> restauranteIds, List<Long> clienteIds, List<String> status,
+                                        MetricaConsulta ordenarPor, int limite) {
+        List<DimensaoConsulta> dimensoes = agruparPor == null ? List.of() : agruparPor;
+        if (dimensoes.size() > ColunasPedidos.MAXIMO_DIMENSOES) {
+            throw new RegraNegocioException("A consulta agrupa por no máximo " + ColunasPedidos.MAXIMO_DIMENSOES + " dimensões");
+        }
+        if (new HashSet<>(dimensoes).size() < dimensoes.size()) {
+            throw new RegraNegocioException("Dimensão repetida no agrupamento");
+        }
+        if (inicio != null && fim != null && !inicio.isBefore(fim)) {
+            throw new RegraNegocioException("A data de início deve ser anterior à data de fim.");
+        }
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new RegraNegocioException("O limite deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+
+        MetricaConsulta ordem = ordenarPor == null ? MetricaConsulta.PEDIDOS : ordenarPor;
+
+        long comeco = System.nanoTime();
+        ColunasPedidos.Resultado resultado = colunas.atual().consultar(
+                new ColunasPedidos.Filtro(inicio, fim, restauranteIds, clienteIds, status), dimensoes, ordem, limite);
+
+        List<GrupoConsultaDTO> grupos = new ArrayList<>(resultado.grupos().size());
+        for (ColunasPedidos.Grupo grupo : resultado.grupos()) {
+            Map<String, Object> chave = new LinkedHashMap<>();
+            for (int i = 0; i < dimensoes.size(); i++) {
+                chave.put(dimensoes.get(i).name(), grupo.chave().get(i));
+            }
+            BigDecimal faturamento = BigDecimal.valueOf(grupo.centavos(), 2);
+            grupos.add(new GrupoConsultaDTO(chave, grupo.pedidos(), faturamento, grupo.itens(),
+                    faturamento.divide(BigDecimal.valueOf(grupo.pedidos()), 2, RoundingMode.HALF_UP)));
+        }
+        return new ConsultaPedidosDTO(dimensoes.stream().map(Enum::name).toList(), ordem.name(),
+                resultado.linhasAnalisadas(), resultado.linhasFiltradas(), resultado.gruposEncontrados(),
+                (System.nanoTime() - comeco) / 1_000, grupos);
+    }
+
+    // =================== AUXILIARES ===================
+
+    private static void adicionar(ColunasPedidos colunas, FatoPedido fato) {
+        colunas.adicionar(fato.id(), fato.restauranteId(), fato.clienteId(), fato.status(), fato.dataPedido(),
+                fato.total(), fato.itens() == null ? 0 : fato.itens());
+    }
+}
@@ -0,0 +1,28 @@
+package com.deliverytech.delivery_api.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Executa uma ação depois do commit da transação corrente (ou imediatamente, fora de transação).
+ * Usado pelos caches e índices em memória que acompanham as escritas no banco: se a ação
+ * rodasse antes do commit, uma leitura concorrente ainda veria os dados antigos no banco.
+ */
+final class AposCommit {
+
+    private AposCommit() {
+    }
+
+    static void executar(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+}
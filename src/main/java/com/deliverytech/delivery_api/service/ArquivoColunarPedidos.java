@@ -0,0 +1,544 @@
+package com.deliverytech.delivery_api.service;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Formato colunar dos arquivos de exportação de pedidos (um arquivo por dia), escrito e lido em
+ * streaming, com memória limitada a um bloco por tabela.
+ *
+ * <pre>
+ * arquivo  = "PEDCOL" versão(1 byte) bloco* 'F' pedidos(long) itens(long) "PEDCOL"
+ * bloco    = tabela('P' ou 'I') linhas(varint) coluna*      (até LINHAS_POR_BLOCO linhas)
+ * coluna   = codificação(1 byte) tamanho(varint) tamanhoComprimido(varint) bytes (Deflate)
+ * conteúdo = nulos(1 byte: 0 ou 1) [bitmap de nulos, 1 bit por linha] valores das linhas não nulas
+ * </pre>
+ *
+ * Colunas de pedidos, nesta ordem: id (DELTA), dataPedido (DELTA), clienteId, restauranteId
+ * (INTEIRO), categoria do restaurante e status (DICIONARIO), total (INTEIRO, em centavos).
+ * Colunas de itens: id (DELTA), pedidoId (DELTA), produtoId, quantidade e precoUnitario
+ * (INTEIRO, em centavos). Blocos de pedidos e de itens se intercalam (cada tabela fecha um bloco
+ * quando ele enche); dentro de cada tabela, as linhas ficam na ordem em que foram gravadas.
+ *
+ * - INTEIRO: zigzag varint de cada valor.
+ * - DELTA: zigzag varint da diferença para o valor não nulo anterior (o primeiro, para 0).
+ *   Datas em microssegundos desde 1970-01-01T00:00 (hora local, sem fuso).
+ * - DICIONARIO: quantidade de valores distintos (varint), cada um em UTF-8 (tamanho varint +
+ *   bytes), depois o código (varint) de cada linha.
+ *
+ * Inteiros fixos (long do rodapé) em big-endian. O rodapé de tamanho fixo permite ler os
+ * totais sem percorrer o arquivo, e um arquivo truncado é recusado na leitura.
+ */
+public final class ArquivoColunarPedidos {
+
+    public static final int LINHAS_POR_BLOCO = 16_384;
+    public static final byte VERSAO = 1;
+
+    private static final byte[] ASSINATURA = "PEDCOL".getBytes(StandardCharsets.US_ASCII);
+    private static final int TAMANHO_RODAPE = 1 + 8 + 8 + 6;
+    private static final byte TABELA_PEDIDOS = 'P';
+    private static final byte TABELA_ITENS = 'I';
+    private static final byte FIM = 'F';
+    private static final byte INTEIRO = 1;
+    private static final byte DELTA = 2;
+    private static final byte DICIONARIO = 3;
+
+    private ArquivoColunarPedidos() { }
+
+    public record LinhaPedido(long id, LocalDateTime dataPedido, Long clienteId, Long restauranteId,
+                              String categoria, String status, BigDecimal total) { }
+
+    public record LinhaItem(long id, long pedidoId, Long produtoId, Integer quantidade, BigDecimal precoUnitario) { }
+
+    public record Rodape(long pedidos, long itens) { }
+
+    // =================== ESCRITA ===================
+
+    /**
+     * Escreve os pedidos e itens recebidos em blocos de LINHAS_POR_BLOCO linhas; close() grava
+     * os blocos pendentes e o rodapé e fecha a saída.
+     */
+    public static final class Escritor implements Closeable {
+
+        private final DataOutputStream saida;
+        private final Deflater deflater = new Deflater();
+        private final Buffer buffer = new Buffer();
+        private final Buffer comprimido = new Buffer();
+
+        private final ColunaLonga pedidoId = new ColunaLonga();
+        private final ColunaLonga data = new ColunaLonga();
+        private final ColunaLonga clienteId = new ColunaLonga();
+        private final ColunaLonga restauranteId = new ColunaLonga();
+        private final ColunaTexto categoria = new ColunaTexto();
+        private final ColunaTexto status = new ColunaTexto();
+        private final ColunaLonga total = new ColunaLonga();
+
+        private final ColunaLonga itemId = new ColunaLonga();
+        private final ColunaLonga itemPedidoId = new ColunaLonga();
+        private final ColunaLonga produtoId = new ColunaLonga();
+        private final ColunaLonga quantidade = new ColunaLonga();
+        private final ColunaLonga precoUnitario = new ColunaLonga();
+
+        private long pedidos;
+        private long itens;
+
+        public Escritor(OutputStream saida) throws IOException {
+            this.saida = new DataOutputStream(saida);
+            this.saida.write(ASSINATURA);
+            this.saida.writeByte(VERSAO);
+        }
+
+        public void pedido(long id, LocalDateTime dataPedido, Long cliente, Long restaurante, String categoriaRestaurante,
+                           String statusPedido, BigDecimal totalPedido) throws IOException {
+            pedidoId.adicionar(id);
+            data.adicionar(dataPedido == null ? null : micros(dataPedido));
+            clienteId.adicionar(cliente);
+            restauranteId.adicionar(restaurante);
+            categoria.adicionar(categoriaRestaurante);
+            status.adicionar(statusPedido);
+            total.adicionar(centavos(totalPedido));
+            pedidos++;
+            if (pedidoId.tamanho == LINHAS_POR_BLOCO) {
+                gravarPedidos();
+            }
+        }
+
+        public void item(long id, long pedido, Long produto, Integer quantidadeItem, BigDecimal preco) throws IOException {
+            itemId.adicionar(id);
+            itemPedidoId.adicionar(pedido);
+            produtoId.adicionar(produto);
+            quantidade.adicionar(quantidadeItem == null ? null : quantidadeItem.longValue());
+            precoUnitario.adicionar(centavos(preco));
+            itens++;
+            if (itemId.tamanho == LINHAS_POR_BLOCO) {
+                gravarItens();
+            }
+        }
+
+        public long getPedidos() {
+            return pedidos;
+        }
+
+        public long getItens() {
+            return itens;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (pedidoId.tamanho > 0) {
+                    gravarPedidos();
+                }
+                if (itemId.tamanho > 0) {
+                    gravarItens();
+                }
+                saida.writeByte(FIM);
+                saida.writeLong(pedidos);
+                saida.writeLong(itens);
+                saida.write(ASSINATURA);
+            } finally {
+                deflater.end();
+                saida.close();
+            }
+        }
+
+        private void gravarPedidos() throws IOException {
+            saida.writeByte(TABELA_PEDIDOS);
+            escreverVarint(saida, pedidoId.tamanho);
+            gravar(DELTA, pedidoId);
+            gravar(DELTA, data);
+            gravar(INTEIRO, clienteId);
+            gravar(INTEIRO, restauranteId);
+            gravar(categoria);
+            gravar(status);
+            gravar(INTEIRO, total);
+        }
+
+        private void gravarItens() throws IOException {
+            saida.writeByte(TABELA_ITENS);
+            escreverVarint(saida, itemId.tamanho);
+            gravar(DELTA, itemId);
+            gravar(DELTA, itemPedidoId);
+            gravar(INTEIRO, produtoId);
+            gravar(INTEIRO, quantidade);
+            gravar(INTEIRO, precoUnitario);
+        }
+
+        private void gravar(byte codificacao, ColunaLonga coluna) throws IOException {
+            buffer.tamanho = 0;
+            escreverNulos(coluna.nulos, coluna.temNulos, coluna.tamanho);
+            long anterior = 0;
+            for (int i = 0; i < coluna.tamanho; i++) {
+                if (coluna.nulos[i]) {
+                    continue;
+                }
+                long valor = coluna.valores[i];
+                buffer.varint(zigzag(codificacao == DELTA ? valor - anterior : valor));
+                anterior = valor;
+            }
+            comprimir(codificacao);
+            coluna.limpar();
+        }
+
+        private void gravar(ColunaTexto coluna) throws IOException {
+            buffer.tamanho = 0;
+            escreverNulos(coluna.nulos, coluna.temNulos, coluna.tamanho);
+            Map<String, Integer> codigos = new LinkedHashMap<>();
+            for (int i = 0; i < coluna.tamanho; i++) {
+                if (!coluna.nulos[i]) {
+                    codigos.putIfAbsent(coluna.valores[i], codigos.size());
+                }
+            }
+            buffer.varint(codigos.size());
+            for (String valor : codigos.keySet()) {
+                byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+                buffer.varint(bytes.length);
+                buffer.escrever(bytes, 0, bytes.length);
+            }
+            for (int i = 0; i < coluna.tamanho; i++) {
+                if (!coluna.nulos[i]) {
+                    buffer.varint(codigos.get(coluna.valores[i]));
+                }
+            }
+            comprimir(DICIONARIO);
+            coluna.limpar();
+        }
+
+        private void escreverNulos(boolean[] nulos, boolean temNulos, int tamanho) {
+            buffer.escrever(temNulos ? 1 : 0);
+            if (temNulos) {
+                for (int inicio = 0; inicio < tamanho; inicio += 8) {
+                    int bits = 0;
+                    for (int i = inicio; i < Math.min(inicio + 8, tamanho); i++) {
+                        bits |= nulos[i] ? 1 << (i - inicio) : 0;
+                    }
+                    buffer.escrever(bits);
+                }
+            }
+        }
+
+        private void comprimir(byte codificacao) throws IOException {
+            deflater.reset();
+            deflater.setInput(buffer.bytes, 0, buffer.tamanho);
+            deflater.finish();
+            comprimido.tamanho = 0;
+            while (!deflater.finished()) {
+                comprimido.garantir(4096);
+                comprimido.tamanho += deflater.deflate(comprimido.bytes, comprimido.tamanho, comprimido.bytes.length - comprimido.tamanho);
+            }
+            saida.writeByte(codificacao);
+            escreverVarint(saida, buffer.tamanho);
+            escreverVarint(saida, comprimido.tamanho);
+            saida.write(comprimido.bytes, 0, comprimido.tamanho);
+        }
+    }
+
+    // =================== LEITURA ===================
+
+    /**
+     * Lê o arquivo inteiro, bloco a bloco, entregando cada pedido e cada item na ordem gravada.
+     * @throws IOException se o arquivo não for deste formato, estiver truncado ou corrompido
+     */
+    public static Rodape ler(InputStream origem, Consumer<LinhaPedido> pedidos, Consumer<LinhaItem> itens) throws IOException {
+        DataInputStream entrada = new DataInputStream(new BufferedInputStream(origem));
+        byte[] assinatura = entrada.readNBytes(ASSINATURA.length);
+        if (!Arrays.equals(assinatura, ASSINATURA)) {
+            throw new IOException("Não é um arquivo colunar de pedidos");
+        }
+        int versao = entrada.readByte();
+        if (versao != VERSAO) {
+            throw new IOException("Versão não suportada do arquivo colunar de pedidos: " + versao);
+        }
+
+        Inflater inflater = new Inflater();
+        long lidosPedidos = 0;
+        long lidosItens = 0;
+        try {
+            while (true) {
+                byte tabela = entrada.readByte();
+                if (tabela == FIM) {
+                    Rodape rodape = new Rodape(entrada.readLong(), entrada.readLong());
+                    if (!Arrays.equals(entrada.readNBytes(ASSINATURA.length), ASSINATURA)
+                            || rodape.pedidos() != lidosPedidos || rodape.itens() != lidosItens) {
+                        throw new IOException("Rodapé inconsistente no arquivo colunar de pedidos");
+                    }
+                    return rodape;
+                }
+                int linhas = (int) lerVarint(entrada);
+                if (tabela == TABELA_PEDIDOS) {
+                    Long[] id = lerLongos(entrada, inflater, linhas);
+                    Long[] data = lerLongos(entrada, inflater, linhas);
+                    Long[] cliente = lerLongos(entrada, inflater, linhas);
+                    Long[] restaurante = lerLongos(entrada, inflater, linhas);
+                    String[] categoria = lerTextos(entrada, inflater, linhas);
+                    String[] status = lerTextos(entrada, inflater, linhas);
+                    Long[] total = lerLongos(entrada, inflater, linhas);
+                    for (int i = 0; i < linhas; i++) {
+                        pedidos.accept(new LinhaPedido(id[i], data[i] == null ? null : dataDe(data[i]), cliente[i], restaurante[i],
+                                categoria[i], status[i], total[i] == null ? null : BigDecimal.valueOf(total[i], 2)));
+                    }
+                    lidosPedidos += linhas;
+                } else if (tabela == TABELA_ITENS) {
+                    Long[] id = lerLongos(entrada, inflater, linhas);
+                    Long[] pedido = lerLongos(entrada, inflater, linhas);
+                    Long[] produto = lerLongos(entrada, inflater, linhas);
+                    Long[] quantidade = lerLongos(entrada, inflater, linhas);
+                    Long[] preco = lerLongos(entrada, inflater, linhas);
+                    for (int i = 0; i < linhas; i++) {
+                        itens.accept(new LinhaItem(id[i], pedido[i], produto[i], quantidade[i] == null ? null : quantidade[i].intValue(),
+                                preco[i] == null ? null : BigDecimal.valueOf(preco[i], 2)));
+                    }
+                    lidosItens += linhas;
+                } else {
+                    throw new IOException("Bloco desconhecido no arquivo colunar de pedidos: " + tabela);
+                }
+            }
+        } catch (EOFException e) {
+            throw new IOException("Arquivo colunar de pedidos truncado", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Totais gravados no rodapé, sem ler os blocos.
+     */
+    public static Rodape lerRodape(Path arquivo) throws IOException {
+        try (RandomAccessFile entrada = new RandomAccessFile(arquivo.toFile(), "r")) {
+            if (entrada.length() < ASSINATURA.length + 1 + TAMANHO_RODAPE) {
+                throw new IOException("Arquivo colunar de pedidos truncado: " + arquivo);
+            }
+            entrada.seek(entrada.length() - TAMANHO_RODAPE);
+            byte fim = entrada.readByte();
+            Rodape rodape = new Rodape(entrada.readLong(), entrada.readLong());
+            byte[] assinatura = new byte[ASSINATURA.length];
+            entrada.readFully(assinatura);
+            if (fim != FIM || !Arrays.equals(assinatura, ASSINATURA)) {
+                throw new IOException("Arquivo colunar de pedidos sem rodapé: " + arquivo);
+            }
+            return rodape;
+        }
+    }
+
+    private static Long[] lerLongos(DataInputStream entrada, Inflater inflater, int linhas) throws IOException {
+        byte codificacao = entrada.readByte();
+        if (codificacao != INTEIRO && codificacao != DELTA) {
+            throw new IOException("Codificação inesperada para coluna numérica: " + codificacao);
+        }
+        Leitura conteudo = descomprimir(entrada, inflater);
+        boolean[] nulos = lerNulos(conteudo, linhas);
+        Long[] valores = new Long[linhas];
+        long anterior = 0;
+        for (int i = 0; i < linhas; i++) {
+            if (nulos == null || !nulos[i]) {
+                long valor = dezigzag(conteudo.varint());
+                valores[i] = codificacao == DELTA ? anterior + valor : valor;
+                anterior = valores[i];
+            }
+        }
+        return valores;
+    }
+
+    private static String[] lerTextos(DataInputStream entrada, Inflater inflater, int linhas) throws IOException {
+        byte codificacao = entrada.readByte();
+        if (codificacao != DICIONARIO) {
+            throw new IOException("Codificação inesperada para coluna de texto: " + codificacao);
+        }
+        Leitura conteudo = descomprimir(entrada, inflater);
+        boolean[] nulos = lerNulos(conteudo, linhas);
+        String[] dicionario = new String[(int) conteudo.varint()];
+        for (int i = 0; i < dicionario.length; i++) {
+            int tamanho = (int) conteudo.varint();
+            dicionario[i] = new String(conteudo.bytes, conteudo.posicao, tamanho, StandardCharsets.UTF_8);
+            conteudo.posicao += tamanho;
+        }
+        String[] valores = new String[linhas];
+        for (int i = 0; i < linhas; i++) {
+            if (nulos == null || !nulos[i]) {
+                valores[i] = dicionario[(int) conteudo.varint()];
+            }
+        }
+        return valores;
+    }
+
+    private static boolean[] lerNulos(Leitura conteudo, int linhas) {
+        if (conteudo.bytes[conteudo.posicao++] == 0) {
+            return null;
+        }
+        boolean[] nulos = new boolean[linhas];
+        for (int i = 0; i < linhas; i++) {
+            nulos[i] = (conteudo.bytes[conteudo.posicao + i / 8] & (1 << (i % 8))) != 0;
+        }
+        conteudo.posicao += (linhas + 7) / 8;
+        return nulos;
+    }
+
+    private static Leitura descomprimir(DataInputStream entrada, Inflater inflater) throws IOException {
+        int tamanho = (int) lerVarint(entrada);
+        byte[] comprimido = entrada.readNBytes((int) lerVarint(entrada));
+        byte[] bytes = new byte[tamanho];
+        inflater.reset();
+        inflater.setInput(comprimido);
+        try {
+            int lidos = 0;
+            while (lidos < tamanho && !inflater.finished()) {
+                int n = inflater.inflate(bytes, lidos, tamanho - lidos);
+                if (n == 0 && inflater.needsInput()) {
+                    throw new EOFException();
+                }
+                lidos += n;
+            }
+            if (lidos != tamanho) {
+                throw new IOException("Coluna corrompida no arquivo colunar de pedidos");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Coluna corrompida no arquivo colunar de pedidos", e);
+        }
+        return new Leitura(bytes);
+    }
+
+    // =================== AUXILIARES ===================
+
+    private static long micros(LocalDateTime data) {
+        return ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), data);
+    }
+
+    private static LocalDateTime dataDe(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000), (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static Long centavos(BigDecimal valor) {
+        return valor == null ? null : valor.movePointRight(2).longValueExact();
+    }
+
+    private static long zigzag(long valor) {
+        return (valor << 1) ^ (valor >> 63);
+    }
+
+    private static long dezigzag(long valor) {
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    private static void escreverVarint(DataOutputStream saida, long valor) throws IOException {
+        while ((valor & ~0x7FL) != 0) {
+            saida.writeByte((int) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        saida.writeByte((int) valor);
+    }
+
+    private static long lerVarint(DataInputStream entrada) throws IOException {
+        long valor = 0;
+        for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+            byte b = entrada.readByte();
+            valor |= (long) (b & 0x7F) << deslocamento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IOException("Varint longo demais no arquivo colunar de pedidos");
+    }
+
+    private static final class ColunaLonga {
+        final long[] valores = new long[LINHAS_POR_BLOCO];
+        final boolean[] nulos = new boolean[LINHAS_POR_BLOCO];
+        int tamanho;
+        boolean temNulos;
+
+        void adicionar(Long valor) {
+            nulos[tamanho] = valor == null;
+            temNulos |= valor == null;
+            valores[tamanho++] = valor == null ? 0 : valor;
+        }
+
+        void limpar() {
+            tamanho = 0;
+            temNulos = false;
+        }
+    }
+
+    private static final class ColunaTexto {
+        final String[] valores = new String[LINHAS_POR_BLOCO];
+        final boolean[] nulos = new boolean[LINHAS_POR_BLOCO];
+        int tamanho;
+        boolean temNulos;
+
+        void adicionar(String valor) {
+            nulos[tamanho] = valor == null;
+            temNulos |= valor == null;
+            valores[tamanho++] = valor;
+        }
+
+        void limpar() {
+            Arrays.fill(valores, 0, tamanho, null);
+            tamanho = 0;
+            temNulos = false;
+        }
+    }
+
+    // Bytes de uma coluna antes de comprimir (ou comprimidos), reaproveitados entre blocos
+    private static final class Buffer {
+        byte[] bytes = new byte[64 * 1024];
+        int tamanho;
+
+        void garantir(int adicionais) {
+            if (tamanho + adicionais > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, tamanho + adicionais));
+            }
+        }
+
+        void escrever(int b) {
+            garantir(1);
+            bytes[tamanho++] = (byte) b;
+        }
+
+        void escrever(byte[] origem, int inicio, int quantidade) {
+            garantir(quantidade);
+            System.arraycopy(origem, inicio, bytes, tamanho, quantidade);
+            tamanho += quantidade;
+        }
+
+        void varint(long valor) {
+            garantir(10);
+            while ((valor & ~0x7FL) != 0) {
+                bytes[tamanho++] = (byte) ((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            bytes[tamanho++] = (byte) valor;
+        }
+    }
+
+    private static final class Leitura {
+        final byte[] bytes;
+        int posicao;
+
+        Leitura(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        long varint() throws IOException {
+            long valor = 0;
+            for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+                if (posicao >= bytes.length) {
+                    throw new IOException("Coluna corrompida no arquivo colunar de pedidos");
+                }
+                byte b = bytes[posicao++];
+                valor |= (long) (b & 0x7F) << deslocamento;
+                if ((b & 0x80) == 0) {
+                    return valor;
+                }
+            }
+            throw new IOException("Varint longo demais no arquivo colunar de pedidos");
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.config.LeituraNoPrimario;
+import com.deliverytech.delivery_api.dto.projection.TextoProduto;
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Busca textual de produtos (GET /api/produtos/buscar) pelo IndiceBuscaProduto,
+ * no lugar de LIKE '%termo%' sobre a tabela inteira.
+ *
+ * O índice é montado a partir do banco quando a aplicação sobe e acompanha as escritas
+ * feitas por ProdutoService, aplicadas depois do commit. Produtos gravados direto pelo
+ * repositório só entram na próxima reconstruir().
+ */
+@Service
+public class BuscaProdutoService implements Reconstruivel {
+
+    public static final int LIMITE_MAXIMO = 100;
+
+    private final ProdutoRepository produtoRepository;
+    private final TransactionTemplate leitura;
+
+    private final EstruturaEmMemoria<IndiceBuscaProduto> indice = new EstruturaEmMemoria<>(new IndiceBuscaProduto());
+
+    public BuscaProdutoService(ProdutoRepository produtoRepository, PlatformTransactionManager transactionManager) {
+        this.produtoRepository = produtoRepository;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+    }
+
+    // =================== BUSCA ===================
+
+    /**
+     * Produtos cujo nome ou descrição contém todos os termos, do mais para o menos relevante.
+     * Acentos e maiúsculas não importam; trechos de palavra também casam ("marg" encontra "Margherita").
+     */
+    public List<Produto> buscar(String termo, int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new RegraNegocioException("O limite da busca deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+        List<IndiceBuscaProduto.Resultado> resultados = indice.atual().buscar(termo, limite);
+        if (resultados.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> posicoes = new HashMap<>();
+        for (IndiceBuscaProduto.Resultado resultado : resultados) {
+            posicoes.put(resultado.produtoId(), posicoes.size());
+        }
+        List<Produto> produtos = new ArrayList<>(produtoRepository.findByIdIn(posicoes.keySet()));
+        produtos.sort(Comparator.comparing(produto -> posicoes.get(produto.getId())));
+        return produtos;
+    }
+
+    // =================== ATUALIZAÇÃO ===================
+
+    /**
+     * Reindexa o produto depois do commit (nome e descrição são lidos agora).
+     */
+    public void indexar(Produto produto) {
+        Long id = produto.getId();
+        String nome = produto.getNome();
+        String descricao = produto.getDescricao();
+        // Reaplicável: indexar substitui
+        indice.aplicarAposCommit(alvo -> alvo.indexar(id, nome, descricao));
+    }
+
+    public void remover(Long produtoId) {
+        indice.aplicarAposCommit(alvo -> alvo.remover(produtoId));
+    }
+
+    public void remover(Collection<Long> produtoIds) {
+        List<Long> ids = List.copyOf(produtoIds);
+        indice.aplicarAposCommit(alvo -> ids.forEach(alvo::remover));
+    }
+
+    /**
+     * Monta um índice novo a partir do banco e o coloca no lugar do atual.
+     * As buscas continuam no índice antigo enquanto isso.
+     * @return quantidade de produtos indexados
+     */
+    @Override
+    public Integer reconstruir() {
+        return indice.reconstruir(() -> {
+            IndiceBuscaProduto novo = new IndiceBuscaProduto();
+            LeituraNoPrimario.executar(() -> leitura.executeWithoutResult(status -> {
+                try (Stream<TextoProduto> textos = produtoRepository.streamTextos()) {
+                    textos.forEach(texto -> novo.indexar(texto.id(), texto.nome(), texto.descricao()));
+                }
+            }));
+            return novo;
+        }).tamanho();
+    }
+
+    public int tamanho() {
+        return indice.atual().tamanho();
+    }
+}
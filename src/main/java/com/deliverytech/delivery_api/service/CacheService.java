@@ -0,0 +1,45 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.EstatisticaCacheDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+public class CacheService {
+
+    private final Statistics statistics;
+
+    public CacheService(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Acertos e falhas de cada região do cache de segundo nível (entidades, coleções e consultas),
+     * acumulados desde a subida da aplicação ou desde o último zerarEstatisticas().
+     */
+    public List<EstatisticaCacheDTO> estatisticas() {
+        List<EstatisticaCacheDTO> regioes = new ArrayList<>();
+        String[] nomes = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(nomes);
+        for (String nome : nomes) {
+            CacheRegionStatistics regiao = statistics.getCacheRegionStatistics(nome);
+            if (regiao == null) continue;
+
+            long consultas = regiao.getHitCount() + regiao.getMissCount();
+            regioes.add(new EstatisticaCacheDTO(nome, regiao.getHitCount(), regiao.getMissCount(), regiao.getPutCount(),
+                    consultas == 0 ? null : (double) regiao.getHitCount() / consultas));
+        }
+        return regioes;
+    }
+
+    public void zerarEstatisticas() {
+        statistics.clear();
+    }
+}
@@ -0,0 +1,153 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.config.LeituraNoPrimario;
+import com.deliverytech.delivery_api.dto.ProdutoResponseDTO;
+import com.deliverytech.delivery_api.dto.RestauranteResponseDTO;
+import com.deliverytech.delivery_api.exception.EntidadeNaoEncontradaException;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cardápio (GET /api/produtos/restaurantes/{id}/produtos) e detalhe do restaurante
+ * (GET /api/restaurantes/{id}) já serializados em JSON, puro e gzip, por restaurante.
+ * Enquanto a entrada estiver em memória, a resposta (ou o 304) sai sem tocar no banco.
+ *
+ * Qualquer alteração de produto ou do restaurante chama invalidar(restauranteId),
+ * que descarta as duas representações depois do commit.
+ */
+@Service
+public class CardapioCacheService {
+
+    /**
+     * Resposta pronta: bytes em JSON e em gzip, com a versão de montagem e o ETag forte.
+     * O ETag deriva do conteúdo; a variante gzip usa o mesmo valor com o sufixo "-gzip".
+     */
+    public record RespostaSerializada(long versao, byte[] json, byte[] gzip, String etag) {
+        public String etagGzip() {
+            return etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+    }
+
+    private enum Tipo { CARDAPIO, DETALHE }
+
+    private record Chave(Long restauranteId, Tipo tipo) { }
+
+    private final ProdutoRepository produtoRepository;
+    private final RestauranteRepository restauranteRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate leitura;
+    private final Cache<Chave, RespostaSerializada> respostas;
+    private final AtomicLong versoes = new AtomicLong();
+
+    public CardapioCacheService(ProdutoRepository produtoRepository,
+                                RestauranteRepository restauranteRepository,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${delivery.cardapio.cache.tamanho-maximo:2000}") long tamanhoMaximo) {
+        this.produtoRepository = produtoRepository;
+        this.restauranteRepository = restauranteRepository;
+        this.objectMapper = objectMapper;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.respostas = Caffeine.newBuilder().maximumSize(tamanhoMaximo).build();
+    }
+
+    // =================== LEITURA ===================
+
+    /**
+     * Produtos do restaurante (mesmo conteúdo de ProdutoService.buscarPorRestaurante).
+     */
+    public RespostaSerializada cardapio(Long restauranteId) {
+        return obter(new Chave(restauranteId, Tipo.CARDAPIO), () -> produtoRepository.findByRestauranteId(restauranteId).stream()
+                .map(ProdutoResponseDTO::de)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Restaurante com seus produtos. Lança EntidadeNaoEncontradaException (não fica em cache).
+     */
+    public RespostaSerializada detalhe(Long restauranteId) {
+        return obter(new Chave(restauranteId, Tipo.DETALHE), () -> restauranteRepository.findById(restauranteId)
+                .map(RestauranteResponseDTO::de)
+                .orElseThrow(() -> new EntidadeNaoEncontradaException("Restaurante não encontrado")));
+    }
+
+    // =================== INVALIDAÇÃO ===================
+
+    /**
+     * Descarta cardápio e detalhe do restaurante. Dentro de uma transação, o descarte acontece
+     * depois do commit: se fosse antes, uma leitura concorrente poderia remontar a entrada
+     * com os dados antigos e mantê-la em cache. Uma montagem em andamento para a mesma chave
+     * termina antes do descarte (o Caffeine serializa as duas operações), então o valor
+     * antigo não sobrevive.
+     */
+    public void invalidar(Long restauranteId) {
+        AposCommit.executar(() -> descartar(restauranteId));
+    }
+
+    public long tamanho() {
+        return respostas.estimatedSize();
+    }
+
+    // =================== AUXILIARES ===================
+
+    private void descartar(Long restauranteId) {
+        for (Tipo tipo : Tipo.values()) {
+            respostas.invalidate(new Chave(restauranteId, tipo));
+        }
+    }
+
+    // Uma única montagem por chave, mesmo com várias requisições simultâneas. Do primário: a
+    // resposta fica em cache até a próxima invalidação, e a réplica pode não ter o último commit
+    private RespostaSerializada obter(Chave chave, Supplier<Object> conteudo) {
+        return respostas.get(chave, c -> serializar(LeituraNoPrimario.executar(() -> leitura.execute(status -> conteudo.get()))));
+    }
+
+    private RespostaSerializada serializar(Object conteudo) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(conteudo);
+            return new RespostaSerializada(versoes.incrementAndGet(), json, gzip(json), etag(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar o cardápio", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] conteudo) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(conteudo.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+            gzip.write(conteudo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return saida.toByteArray();
+    }
+
+    // ETag forte derivado do conteúdo: continua válido após um restart se o cardápio não mudou
+    private static String etag(byte[] conteudo) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(conteudo);
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
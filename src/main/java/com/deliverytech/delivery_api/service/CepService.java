@@ -0,0 +1,88 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.entity.CepCoordenada;
+import com.deliverytech.delivery_api.exception.EntidadeNaoEncontradaException;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.repository.CepCoordenadaRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Converte CEP em coordenadas pela tabela local (cep_coordenadas), sem serviço externo.
+ *
+ * A tabela é pequena e só muda na carga inicial (TabelaCepLoader): fica inteira em memória,
+ * e a resolução de um CEP (usada na busca por proximidade e na cotação de taxas) não consulta o banco.
+ */
+@Service
+public class CepService {
+
+    // Do mais específico para o mais genérico: CEP completo, subsetor e setor
+    private static final int[] TAMANHOS_PREFIXO = {8, 5, 3};
+
+    private final CepCoordenadaRepository cepCoordenadaRepository;
+    private volatile Map<String, CepCoordenada> tabela;
+
+    public CepService(CepCoordenadaRepository cepCoordenadaRepository) {
+        this.cepCoordenadaRepository = cepCoordenadaRepository;
+    }
+
+    /**
+     * Coordenadas do CEP ("01310-100" ou "01310100"), pela entrada de prefixo mais longo na tabela.
+     * Lança RegraNegocioException para CEP mal formado e EntidadeNaoEncontradaException
+     * quando nenhum prefixo está na tabela.
+     */
+    public CepCoordenada resolver(String cep) {
+        return buscar(cep)
+                .orElseThrow(() -> new EntidadeNaoEncontradaException("CEP fora da área atendida: " + cep));
+    }
+
+    /**
+     * Como resolver(), mas vazio quando o CEP (válido) não está na tabela.
+     */
+    public Optional<CepCoordenada> buscar(String cep) {
+        String normalizado = normalizar(cep);
+        Map<String, CepCoordenada> atual = tabela();
+        for (int tamanho : TAMANHOS_PREFIXO) {
+            CepCoordenada encontrada = atual.get(normalizado.substring(0, tamanho));
+            if (encontrada != null) {
+                return Optional.of(encontrada);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Relê a tabela do banco (chamado depois da carga inicial, que acabou de gravar no primário).
+     * Sem transação da aplicação, a leitura também vai ao primário.
+     */
+    public void recarregar() {
+        tabela = cepCoordenadaRepository.findAll().stream()
+                .collect(Collectors.toUnmodifiableMap(CepCoordenada::getCep, Function.identity()));
+    }
+
+    /**
+     * Apenas os 8 dígitos do CEP.
+     */
+    public static String normalizar(String cep) {
+        String digitos = cep == null ? "" : cep.replaceAll("[\\s.-]", "");
+        if (!digitos.matches("\\d{8}")) {
+            throw new RegraNegocioException("CEP inválido: " + cep);
+        }
+        return digitos;
+    }
+
+    private Map<String, CepCoordenada> tabela() {
+        if (tabela == null) {
+            synchronized (this) {
+                if (tabela == null) {
+                    recarregar();
+                }
+            }
+        }
+        return tabela;
+    }
+}
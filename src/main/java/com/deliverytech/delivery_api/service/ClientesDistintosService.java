@@ -0,0 +1,196 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.ClientesDistintosDTO;
+import com.deliverytech.delivery_api.dto.ClientesDistintosRestauranteDTO;
+import com.deliverytech.delivery_api.dto.projection.ClienteDiaPedido;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.entity.ResumoClientesDia;
+import com.deliverytech.delivery_api.entity.ResumoClientesDiaId;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.repository.PedidoRepository;
+import com.deliverytech.delivery_api.repository.ResumoClientesDiaRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Clientes distintos por restaurante e período, estimados por HyperLogLog (ResumoCardinalidade):
+ * um resumo por restaurante e dia, que se unem em qualquer intervalo de datas e conjunto de
+ * restaurantes sem contar duas vezes quem pediu em mais de um dia ou restaurante.
+ *
+ * Cada resumo é uma linha de resumo_clientes_dia, na forma compacta (esparsa ou densa) de
+ * ResumoCardinalidade, unida aos clientes de cada pedido criado na mesma transação dele
+ * (PedidoService e PedidoLoteService); a consulta usa a cópia em memória, carregada na subida e
+ * atualizada depois de cada commit (EstruturaEmMemoria). Um cliente que já pediu no restaurante
+ * no dia quase nunca muda um registrador, e então nenhum comando vai ao banco.
+ * Pedidos gravados direto pelo repositório só entram na próxima reconstruir().
+ */
+@Service
+public class ClientesDistintosService implements Reconstruivel {
+
+    private final ResumoClientesDiaRepository resumoClientesDiaRepository;
+    private final PedidoRepository pedidoRepository;
+    // Restaurante -> dia -> resumo; trocado por inteiro a cada reconstrução
+    private final EstruturaEmMemoria<Map<Long, ConcurrentSkipListMap<LocalDate, ResumoCardinalidade>>> resumos =
+            new EstruturaEmMemoria<>(new ConcurrentHashMap<>());
+
+    public ClientesDistintosService(ResumoClientesDiaRepository resumoClientesDiaRepository,
+                                    PedidoRepository pedidoRepository) {
+        this.resumoClientesDiaRepository = resumoClientesDiaRepository;
+        this.pedidoRepository = pedidoRepository;
+    }
+
+    // =================== ATUALIZAÇÃO INCREMENTAL ===================
+
+    /**
+     * Registra os clientes de pedidos recém-gravados no resumo do restaurante no dia do pedido.
+     * Só os resumos com algum registrador que sobe vão ao banco, uma linha por restaurante e dia.
+     * Roda na transação que grava os pedidos.
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarCriacao(PedidosCriados evento) {
+        // Em ordem de chave: transações concorrentes travam as linhas sempre na mesma ordem
+        Map<DiaRestaurante, ResumoCardinalidade> elevacoes = new TreeMap<>();
+        for (Pedido pedido : evento.pedidos()) {
+            if (pedido.getRestaurante() == null || pedido.getCliente() == null || pedido.getDataPedido() == null) {
+                continue;
+            }
+            DiaRestaurante chave = new DiaRestaurante(pedido.getRestaurante().getId(), pedido.getDataPedido().toLocalDate());
+            long hash = ResumoCardinalidade.hash(pedido.getCliente().getId());
+            int registro = ResumoCardinalidade.registro(hash);
+            int valor = ResumoCardinalidade.valor(hash);
+            // A memória só tem o que já foi confirmado: se ela já alcança o valor, o banco também
+            if (valorEmMemoria(chave, registro) < valor) {
+                elevacoes.computeIfAbsent(chave, c -> new ResumoCardinalidade()).elevar(registro, valor);
+            }
+        }
+        if (elevacoes.isEmpty()) {
+            return;
+        }
+
+        elevacoes.forEach(this::gravar);
+        resumos.aplicarAposCommit(atuais -> elevacoes.forEach((chave, elevacao) -> atuais
+                .computeIfAbsent(chave.restauranteId(), id -> new ConcurrentSkipListMap<>())
+                .computeIfAbsent(chave.dia(), dia -> new ResumoCardinalidade())
+                .mesclar(elevacao)));
+    }
+
+    // =================== RECONSTRUÇÃO ===================
+
+    /**
+     * Apaga e recalcula os resumos a partir dos pedidos, lidos com cursor, e troca a cópia em
+     * memória depois do commit, com os pedidos confirmados no meio da leitura.
+     * @return quantidade de resumos (restaurante e dia) gravados
+     */
+    @Override
+    @Transactional
+    public Integer reconstruir() {
+        Map<Long, ConcurrentSkipListMap<LocalDate, ResumoCardinalidade>> novos = resumos.reconstruir(this::carregar);
+
+        resumoClientesDiaRepository.deleteAllInBatch();
+        List<ResumoClientesDia> linhas = new ArrayList<>();
+        novos.forEach((restauranteId, porDia) -> porDia.forEach((dia, resumo) -> linhas.add(
+                new ResumoClientesDia(new ResumoClientesDiaId(restauranteId, dia), resumo.serializar()))));
+        resumoClientesDiaRepository.inserirTodos(linhas);
+        return linhas.size();
+    }
+
+    // =================== CONSULTA ===================
+
+    /**
+     * Clientes distintos entre os dias inicio e fim (inclusive) nos restaurantes informados
+     * (todos, se nenhum), no total e por restaurante. Só lê a memória.
+     */
+    public ClientesDistintosDTO contar(LocalDate inicio, LocalDate fim, Collection<Long> restauranteIds) {
+        if (inicio == null || fim == null) {
+            throw new RegraNegocioException("As datas de início e fim são obrigatórias.");
+        }
+        if (inicio.isAfter(fim)) {
+            throw new RegraNegocioException("A data de início não pode ser posterior à data de fim.");
+        }
+
+        long comeco = System.nanoTime();
+        Map<Long, ConcurrentSkipListMap<LocalDate, ResumoCardinalidade>> atuais = resumos.atual();
+        Collection<Long> consultados = restauranteIds == null || restauranteIds.isEmpty()
+                ? new TreeSet<>(atuais.keySet())
+                : new TreeSet<>(restauranteIds);
+
+        byte[] total = new byte[ResumoCardinalidade.REGISTROS];
+        byte[] doRestaurante = new byte[ResumoCardinalidade.REGISTROS];
+        List<ClientesDistintosRestauranteDTO> restaurantes = new ArrayList<>();
+        for (Long restauranteId : consultados) {
+            ConcurrentSkipListMap<LocalDate, ResumoCardinalidade> porDia = atuais.get(restauranteId);
+            if (porDia == null) {
+                continue;
+            }
+            NavigableMap<LocalDate, ResumoCardinalidade> periodo = porDia.subMap(inicio, true, fim, true);
+            if (periodo.isEmpty()) {
+                continue;
+            }
+            Arrays.fill(doRestaurante, (byte) 0);
+            periodo.values().forEach(resumo -> resumo.mesclarEm(doRestaurante));
+            for (int i = 0; i < doRestaurante.length; i++) {
+                if (doRestaurante[i] > total[i]) {
+                    total[i] = doRestaurante[i];
+                }
+            }
+            restaurantes.add(new ClientesDistintosRestauranteDTO(restauranteId, ResumoCardinalidade.estimar(doRestaurante)));
+        }
+        long estimados = restaurantes.isEmpty() ? 0 : ResumoCardinalidade.estimar(total);
+
+        return new ClientesDistintosDTO(inicio, fim, estimados, ResumoCardinalidade.ERRO_PADRAO, restaurantes,
+                (System.nanoTime() - comeco) / 1_000);
+    }
+
+    // =================== AUXILIARES ===================
+
+    private Map<Long, ConcurrentSkipListMap<LocalDate, ResumoCardinalidade>> carregar() {
+        Map<Long, ConcurrentSkipListMap<LocalDate, ResumoCardinalidade>> novos = new ConcurrentHashMap<>();
+        try (Stream<ClienteDiaPedido> linhas = pedidoRepository.streamClientesPorDia()) {
+            linhas.forEach(linha -> novos
+                    .computeIfAbsent(linha.restauranteId(), id -> new ConcurrentSkipListMap<>())
+                    .computeIfAbsent(linha.dia(), dia -> new ResumoCardinalidade())
+                    .registrarId(linha.clienteId()));
+        }
+        return novos;
+    }
+
+    // Une as elevações ao resumo gravado (máximo de cada registrador), criando-o se preciso
+    private void gravar(DiaRestaurante chave, ResumoCardinalidade elevacao) {
+        // Primeiro pedido do restaurante no dia: só o INSERT, sem consulta
+        if (resumoClientesDiaRepository.inserirSeAusente(chave.restauranteId(), chave.dia(), elevacao.serializar()) > 0) {
+            return;
+        }
+        ResumoClientesDia resumo = resumoClientesDiaRepository
+                .findByIdParaAtualizacao(new ResumoClientesDiaId(chave.restauranteId(), chave.dia()))
+                .orElseThrow();
+        ResumoCardinalidade registradores = ResumoCardinalidade.ler(resumo.getRegistradores());
+        if (registradores.mesclar(elevacao)) {
+            resumo.setRegistradores(registradores.serializar());
+        }
+    }
+
+    private int valorEmMemoria(DiaRestaurante chave, int registro) {
+        ConcurrentSkipListMap<LocalDate, ResumoCardinalidade> porDia = resumos.atual().get(chave.restauranteId());
+        ResumoCardinalidade resumo = porDia == null ? null : porDia.get(chave.dia());
+        return resumo == null ? 0 : resumo.valorDe(registro);
+    }
+
+    private record DiaRestaurante(Long restauranteId, LocalDate dia) implements Comparable<DiaRestaurante> {
+        private static final Comparator<DiaRestaurante> ORDEM = Comparator.comparing(DiaRestaurante::restauranteId)
+                .thenComparing(DiaRestaurante::dia);
+
+        @Override
+        public int compareTo(DiaRestaurante outro) {
+            return ORDEM.compare(this, outro);
+        }
+    }
+}
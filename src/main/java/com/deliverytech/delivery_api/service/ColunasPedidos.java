@@ -0,0 +1,586 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.enums.DimensaoConsulta;
+import com.deliverytech.delivery_api.enums.MetricaConsulta;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Fatos de pedido em colunas de tipos primitivos: restaurante, cliente e status (codificados
+ * por dicionário), minuto da dataPedido, total em centavos e quantidade de itens. As linhas
+ * ficam em blocos de TAMANHO_BLOCO, então crescer não copia o que já foi carregado; cada linha
+ * ocupa ~33 bytes, mais ~24 do índice por ID de pedido (usado nas mudanças de status).
+ *
+ * Uma consulta percorre os blocos em lotes de LOTE linhas: cada filtro é um laço curto sobre
+ * uma coluna que reduz o vetor de seleção do lote, e o agrupamento monta a chave das linhas
+ * selecionadas (até duas dimensões em um long) e soma em arrays primitivos, indexados direto
+ * pela chave quando as combinações de valores são poucas, ou por uma tabela hash.
+ * Os laços não criam objetos nem desviam por linha, e o JIT os vetoriza.
+ *
+ * O período é aplicado com precisão de minuto (inicio e fim truncados ao minuto).
+ * Leituras concorrentes; escritas exclusivas.
+ */
+public final class ColunasPedidos {
+
+    public static final int TAMANHO_BLOCO = 1 << 16;
+    public static final int MAXIMO_DIMENSOES = 2;
+    // Linhas por passada de filtro e agrupamento: os vetores do lote cabem no cache L1
+    private static final int LOTE = 1024;
+    // Combinações de valores até onde o agrupamento usa um array por combinação em vez da tabela hash
+    private static final int MAXIMO_DIRETO = 1 << 22;
+
+    /**
+     * Filtros de uma consulta; nulo (ou vazio, nas coleções) = sem filtro.
+     * @param fim exclusivo
+     */
+    public record Filtro(LocalDateTime inicio, LocalDateTime fim, Collection<Long> restauranteIds,
+                         Collection<Long> clienteIds, Collection<String> status) { }
+
+    /**
+     * Somas de um grupo; chave traz um valor por dimensão, na ordem pedida.
+     */
+    public record Grupo(List<Object> chave, long pedidos, long centavos, long itens) { }
+
+    /**
+     * @param grupos os limite primeiros, em ordem decrescente da métrica pedida
+     */
+    public record Resultado(long linhasAnalisadas, long linhasFiltradas, int gruposEncontrados, List<Grupo> grupos) { }
+
+    private static final class Bloco {
+        private final int[] restaurante = new int[TAMANHO_BLOCO];
+        private final int[] cliente = new int[TAMANHO_BLOCO];
+        private final byte[] status = new byte[TAMANHO_BLOCO];
+        private final int[] minuto = new int[TAMANHO_BLOCO];
+        private final long[] centavos = new long[TAMANHO_BLOCO];
+        private final int[] itens = new int[TAMANHO_BLOCO];
+    }
+
+    private final ReadWriteLock trava = new ReentrantReadWriteLock();
+    private final List<Bloco> blocos = new ArrayList<>();
+    private final Dicionario<Long> restaurantes = new Dicionario<>();
+    private final Dicionario<Long> clientes = new Dicionario<>();
+    private final Dicionario<String> situacoes = new Dicionario<>();
+    private final IndiceLinhas linhasPorPedido = new IndiceLinhas();
+    private int tamanho;
+    // Dias (desde a época) do pedido mais antigo e do mais recente, para a tabela de meses
+    private int primeiroDia = Integer.MAX_VALUE;
+    private int ultimoDia = Integer.MIN_VALUE;
+
+    // =================== ESCRITA ===================
+
+    /**
+     * Acrescenta o pedido, ou substitui a linha dele se já estiver carregado.
+     */
+    public void adicionar(long pedidoId, long restauranteId, long clienteId, String status,
+                          LocalDateTime dataPedido, BigDecimal total, long itens) {
+        trava.writeLock().lock();
+        try {
+            int linha = linhasPorPedido.buscar(pedidoId);
+            if (linha < 0) {
+                linha = tamanho;
+                if (linha % TAMANHO_BLOCO == 0) {
+                    blocos.add(new Bloco());
+                }
+                tamanho++;
+                linhasPorPedido.inserir(pedidoId, linha);
+            }
+            Bloco bloco = blocos.get(linha / TAMANHO_BLOCO);
+            int posicao = linha % TAMANHO_BLOCO;
+            bloco.restaurante[posicao] = restaurantes.codificar(restauranteId);
+            bloco.cliente[posicao] = clientes.codificar(clienteId);
+            bloco.status[posicao] = codificarStatus(status);
+            bloco.minuto[posicao] = minuto(dataPedido);
+            int dia = Math.floorDiv(bloco.minuto[posicao], 1440);
+            primeiroDia = Math.min(primeiroDia, dia);
+            ultimoDia = Math.max(ultimoDia, dia);
+            bloco.centavos[posicao] = total == null ? 0 : total.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+            bloco.itens[posicao] = (int) itens;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return se o pedido estava carregado
+     */
+    public boolean alterarStatus(long pedidoId, String status) {
+        trava.writeLock().lock();
+        try {
+            int linha = linhasPorPedido.buscar(pedidoId);
+            if (linha < 0) {
+                return false;
+            }
+            blocos.get(linha / TAMANHO_BLOCO).status[linha % TAMANHO_BLOCO] = codificarStatus(status);
+            return true;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public int tamanho() {
+        trava.readLock().lock();
+        try {
+            return tamanho;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // =================== CONSULTA ===================
+
+    /**
+     * Pedidos, faturamento (centavos) e itens por grupo das dimensões (nenhuma = um grupo só),
+     * só das linhas que passam no filtro.
+     */
+    public Resultado consultar(Filtro filtro, List<DimensaoConsulta> dimensoes, MetricaConsulta ordem, int limite) {
+        if (dimensoes.size() > MAXIMO_DIMENSOES) {
+            throw new IllegalArgumentException("No máximo " + MAXIMO_DIMENSOES + " dimensões");
+        }
+        trava.readLock().lock();
+        try {
+            int minutoInicio = filtro.inicio() == null ? Integer.MIN_VALUE : minuto(filtro.inicio());
+            int minutoFim = filtro.fim() == null ? Integer.MAX_VALUE : minuto(filtro.fim());
+            boolean[] restaurantesAceitos = restaurantes.aceitos(filtro.restauranteIds());
+            boolean[] clientesAceitos = clientes.aceitos(filtro.clienteIds());
+            boolean[] statusAceitos = situacoes.aceitos(filtro.status());
+
+            // Mês de cada dia do período carregado: a dimensão MES vira uma leitura de tabela por linha
+            int[] mesPorDia = dimensoes.contains(DimensaoConsulta.MES) && tamanho > 0
+                    ? mesesPorDia(primeiroDia, ultimoDia)
+                    : null;
+
+            // Faixa de valores de cada dimensão: se as combinações couberem, a chave do grupo é a
+            // posição dele em arrays (sem hash); senão, os valores empacotados em um long
+            int[] bases = new int[dimensoes.size()];
+            long[] amplitudes = new long[dimensoes.size()];
+            long combinacoes = 1;
+            for (int d = 0; d < dimensoes.size(); d++) {
+                long[] faixa = faixa(dimensoes.get(d));
+                bases[d] = (int) faixa[0];
+                amplitudes[d] = faixa[1] - faixa[0] + 1;
+                combinacoes = combinacoes > MAXIMO_DIRETO || amplitudes[d] > MAXIMO_DIRETO
+                        ? Long.MAX_VALUE
+                        : combinacoes * amplitudes[d];
+            }
+            boolean direto = combinacoes <= Math.max(1 << 16, Math.min(tamanho, MAXIMO_DIRETO));
+
+            Agregador agregador = new Agregador(direto ? (int) combinacoes : 0);
+            int[] selecao = new int[LOTE];
+            long[] chaves = new long[LOTE];
+            int[] valores = new int[LOTE];
+            long filtradas = 0;
+            for (int b = 0; b < blocos.size(); b++) {
+                Bloco bloco = blocos.get(b);
+                int linhas = Math.min(TAMANHO_BLOCO, tamanho - b * TAMANHO_BLOCO);
+                for (int inicioLote = 0; inicioLote < linhas; inicioLote += LOTE) {
+                    int k = filtrarPeriodo(bloco.minuto, inicioLote, Math.min(inicioLote + LOTE, linhas),
+                            minutoInicio, minutoFim, selecao);
+                    if (restaurantesAceitos != null) {
+                        k = filtrarCodigo(bloco.restaurante, restaurantesAceitos, selecao, k);
+                    }
+                    if (clientesAceitos != null) {
+                        k = filtrarCodigo(bloco.cliente, clientesAceitos, selecao, k);
+                    }
+                    if (statusAceitos != null) {
+                        k = filtrarStatus(bloco.status, statusAceitos, selecao, k);
+                    }
+                    if (k == 0) {
+                        continue;
+                    }
+                    filtradas += k;
+
+                    Arrays.fill(chaves, 0, k, 0L);
+                    for (int d = 0; d < dimensoes.size(); d++) {
+                        valoresDa(dimensoes.get(d), bloco, selecao, k, valores, mesPorDia, primeiroDia);
+                        if (direto) {
+                            long amplitude = amplitudes[d];
+                            int base = bases[d];
+                            for (int i = 0; i < k; i++) {
+                                chaves[i] = chaves[i] * amplitude + (valores[i] - base);
+                            }
+                        } else {
+                            for (int i = 0; i < k; i++) {
+                                chaves[i] = chaves[i] << 32 | (valores[i] & 0xFFFFFFFFL);
+                            }
+                        }
+                    }
+                    agregador.somar(bloco, selecao, chaves, k);
+                }
+            }
+            agregador.fechar();
+            return new Resultado(tamanho, filtradas, agregador.grupos,
+                    agregador.primeiros(dimensoes, direto ? bases : null, amplitudes, ordem, limite));
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // =================== FILTROS E DIMENSÕES ===================
+
+    private static int filtrarPeriodo(int[] minutos, int inicio, int fim, int minutoInicio, int minutoFim, int[] selecao) {
+        int k = 0;
+        for (int i = inicio; i < fim; i++) {
+            selecao[k] = i;
+            // Sem desvio: a posição só avança quando a linha passa
+            k += (minutos[i] >= minutoInicio & minutos[i] < minutoFim) ? 1 : 0;
+        }
+        return k;
+    }
+
+    private static int filtrarCodigo(int[] coluna, boolean[] aceitos, int[] selecao, int k) {
+        int mantidas = 0;
+        for (int i = 0; i < k; i++) {
+            int linha = selecao[i];
+            selecao[mantidas] = linha;
+            mantidas += aceitos[coluna[linha]] ? 1 : 0;
+        }
+        return mantidas;
+    }
+
+    private static int filtrarStatus(byte[] coluna, boolean[] aceitos, int[] selecao, int k) {
+        int mantidas = 0;
+        for (int i = 0; i < k; i++) {
+            int linha = selecao[i];
+            selecao[mantidas] = linha;
+            mantidas += aceitos[coluna[linha]] ? 1 : 0;
+        }
+        return mantidas;
+    }
+
+    // Valor inteiro da dimensão em cada linha selecionada (decodificado em valorDa)
+    private static void valoresDa(DimensaoConsulta dimensao, Bloco bloco, int[] selecao, int k, int[] valores,
+                                  int[] mesPorDia, int primeiroDia) {
+        switch (dimensao) {
+            case RESTAURANTE -> {
+                for (int i = 0; i < k; i++) valores[i] = bloco.restaurante[selecao[i]];
+            }
+            case CLIENTE -> {
+                for (int i = 0; i < k; i++) valores[i] = bloco.cliente[selecao[i]];
+            }
+            case STATUS -> {
+                for (int i = 0; i < k; i++) valores[i] = bloco.status[selecao[i]];
+            }
+            case HORA -> {
+                for (int i = 0; i < k; i++) valores[i] = Math.floorDiv(bloco.minuto[selecao[i]], 60);
+            }
+            case DIA -> {
+                for (int i = 0; i < k; i++) valores[i] = Math.floorDiv(bloco.minuto[selecao[i]], 1440);
+            }
+            case HORA_DO_DIA -> {
+                for (int i = 0; i < k; i++) valores[i] = Math.floorMod(bloco.minuto[selecao[i]], 1440) / 60;
+            }
+            // 1970-01-01 foi uma quinta-feira: ISO 1 (segunda) a 7 (domingo)
+            case DIA_DA_SEMANA -> {
+                for (int i = 0; i < k; i++) valores[i] = Math.floorMod(Math.floorDiv(bloco.minuto[selecao[i]], 1440) + 3, 7) + 1;
+            }
+            case MES -> {
+                for (int i = 0; i < k; i++) valores[i] = mesPorDia[Math.floorDiv(bloco.minuto[selecao[i]], 1440) - primeiroDia];
+            }
+        }
+    }
+
+    private Object valorDa(DimensaoConsulta dimensao, int valor) {
+        return switch (dimensao) {
+            case RESTAURANTE -> restaurantes.valor(valor);
+            case CLIENTE -> clientes.valor(valor);
+            case STATUS -> situacoes.valor(valor);
+            case HORA -> LocalDateTime.ofEpochSecond(valor * 3600L, 0, ZoneOffset.UTC);
+            case DIA -> LocalDate.ofEpochDay(valor);
+            case MES -> YearMonth.of(Math.floorDiv(valor, 12), Math.floorMod(valor, 12) + 1);
+            case DIA_DA_SEMANA -> DayOfWeek.of(valor);
+            case HORA_DO_DIA -> valor;
+        };
+    }
+
+    // =================== AUXILIARES ===================
+
+    // Minutos desde a época, com a dataPedido lida como UTC: dia e hora saem por divisão
+    private static int minuto(LocalDateTime instante) {
+        return Math.toIntExact(Math.floorDiv(instante.toEpochSecond(ZoneOffset.UTC), 60));
+    }
+
+    // Menor e maior valor inteiro possível da dimensão (ver valoresDa) entre as linhas carregadas
+    private long[] faixa(DimensaoConsulta dimensao) {
+        if (tamanho == 0) {
+            return new long[]{0, 0};
+        }
+        return switch (dimensao) {
+            case RESTAURANTE -> new long[]{0, restaurantes.tamanho() - 1};
+            case CLIENTE -> new long[]{0, clientes.tamanho() - 1};
+            case STATUS -> new long[]{0, situacoes.tamanho() - 1};
+            case HORA -> new long[]{primeiroDia * 24L, ultimoDia * 24L + 23};
+            case DIA -> new long[]{primeiroDia, ultimoDia};
+            case MES -> new long[]{mesDo(primeiroDia), mesDo(ultimoDia)};
+            case DIA_DA_SEMANA -> new long[]{1, 7};
+            case HORA_DO_DIA -> new long[]{0, 23};
+        };
+    }
+
+    // Ano * 12 + mês - 1 de cada dia de primeiroDia a ultimoDia
+    private static int[] mesesPorDia(int primeiroDia, int ultimoDia) {
+        int[] meses = new int[ultimoDia - primeiroDia + 1];
+        for (int dia = primeiroDia; dia <= ultimoDia; dia++) {
+            meses[dia - primeiroDia] = mesDo(dia);
+        }
+        return meses;
+    }
+
+    private static int mesDo(int dia) {
+        LocalDate data = LocalDate.ofEpochDay(dia);
+        return data.getYear() * 12 + data.getMonthValue() - 1;
+    }
+
+    private byte codificarStatus(String status) {
+        int codigo = situacoes.codificar(status);
+        if (codigo > Byte.MAX_VALUE) {
+            throw new IllegalStateException("Status distintos demais para a coluna de status");
+        }
+        return (byte) codigo;
+    }
+
+    /**
+     * Somas por chave de grupo, em arrays paralelos. No modo direto a chave já é a posição do
+     * grupo nos arrays (dimensoes com poucas combinações); no outro, uma tabela hash aberta
+     * guarda a posição de cada chave.
+     */
+    private final class Agregador {
+        private final boolean direto;
+        private int[] tabela = new int[64];
+        private long[] chaves = new long[32];
+        private long[] pedidos;
+        private long[] centavos;
+        private long[] itens;
+        private int grupos;
+
+        /**
+         * @param combinacoes posições do modo direto (0 = tabela hash)
+         */
+        private Agregador(int combinacoes) {
+            direto = combinacoes > 0;
+            int tamanhoInicial = direto ? combinacoes : 32;
+            pedidos = new long[tamanhoInicial];
+            centavos = new long[tamanhoInicial];
+            itens = new long[tamanhoInicial];
+        }
+
+        private void somar(Bloco bloco, int[] selecao, long[] chavesLote, int k) {
+            if (direto) {
+                for (int i = 0; i < k; i++) {
+                    int grupo = (int) chavesLote[i];
+                    int linha = selecao[i];
+                    pedidos[grupo]++;
+                    centavos[grupo] += bloco.centavos[linha];
+                    itens[grupo] += bloco.itens[linha];
+                }
+                return;
+            }
+            for (int i = 0; i < k; i++) {
+                int grupo = grupo(chavesLote[i]);
+                int linha = selecao[i];
+                pedidos[grupo]++;
+                centavos[grupo] += bloco.centavos[linha];
+                itens[grupo] += bloco.itens[linha];
+            }
+        }
+
+        // No modo direto, junta as posições com pedidos no começo dos arrays, como no outro modo
+        private void fechar() {
+            if (!direto) {
+                return;
+            }
+            chaves = new long[pedidos.length];
+            for (int posicao = 0; posicao < pedidos.length; posicao++) {
+                if (pedidos[posicao] > 0) {
+                    chaves[grupos] = posicao;
+                    pedidos[grupos] = pedidos[posicao];
+                    centavos[grupos] = centavos[posicao];
+                    itens[grupos] = itens[posicao];
+                    grupos++;
+                }
+            }
+        }
+
+        private int grupo(long chave) {
+            int mascara = tabela.length - 1;
+            int posicao = espalhar(chave) & mascara;
+            while (tabela[posicao] != 0) {
+                int grupo = tabela[posicao] - 1;
+                if (chaves[grupo] == chave) {
+                    return grupo;
+                }
+                posicao = (posicao + 1) & mascara;
+            }
+            if (grupos == chaves.length) {
+                chaves = Arrays.copyOf(chaves, grupos * 2);
+                pedidos = Arrays.copyOf(pedidos, grupos * 2);
+                centavos = Arrays.copyOf(centavos, grupos * 2);
+                itens = Arrays.copyOf(itens, grupos * 2);
+            }
+            int grupo = grupos++;
+            chaves[grupo] = chave;
+            tabela[posicao] = grupo + 1;
+            if (grupos * 2 > tabela.length) {
+                redistribuir();
+            }
+            return grupo;
+        }
+
+        private void redistribuir() {
+            tabela = new int[tabela.length * 2];
+            int mascara = tabela.length - 1;
+            for (int grupo = 0; grupo < grupos; grupo++) {
+                int posicao = espalhar(chaves[grupo]) & mascara;
+                while (tabela[posicao] != 0) {
+                    posicao = (posicao + 1) & mascara;
+                }
+                tabela[posicao] = grupo + 1;
+            }
+        }
+
+        private List<Grupo> primeiros(List<DimensaoConsulta> dimensoes, int[] bases, long[] amplitudes,
+                                      MetricaConsulta ordem, int limite) {
+            long[] metrica = switch (ordem) {
+                case PEDIDOS -> pedidos;
+                case FATURAMENTO -> centavos;
+                case ITENS -> itens;
+            };
+            // Os limite maiores em um heap de tamanho limite (o pior no topo): sem ordenar todos os grupos
+            Comparator<Integer> melhorPrimeiro = Comparator.<Integer>comparingLong(grupo -> metrica[grupo]).reversed()
+                    .thenComparingLong(grupo -> chaves[grupo]);
+            PriorityQueue<Integer> mantidos = new PriorityQueue<>(melhorPrimeiro.reversed());
+            for (int grupo = 0; grupo < grupos; grupo++) {
+                if (mantidos.size() < limite) {
+                    mantidos.add(grupo);
+                } else if (melhorPrimeiro.compare(grupo, mantidos.peek()) < 0) {
+                    mantidos.poll();
+                    mantidos.add(grupo);
+                }
+            }
+            List<Integer> ordenados = new ArrayList<>(mantidos);
+            ordenados.sort(melhorPrimeiro);
+
+            List<Grupo> resultado = new ArrayList<>(ordenados.size());
+            for (int grupo : ordenados) {
+                Object[] chave = new Object[dimensoes.size()];
+                long restante = chaves[grupo];
+                for (int d = dimensoes.size() - 1; d >= 0; d--) {
+                    int valor;
+                    if (bases != null) {
+                        valor = (int) (restante % amplitudes[d]) + bases[d];
+                        restante /= amplitudes[d];
+                    } else {
+                        valor = (int) restante;
+                        restante >>>= 32;
+                    }
+                    chave[d] = valorDa(dimensoes.get(d), valor);
+                }
+                resultado.add(new Grupo(Arrays.asList(chave), pedidos[grupo], centavos[grupo], itens[grupo]));
+            }
+            return resultado;
+        }
+    }
+
+    private static int espalhar(long chave) {
+        long h = chave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Valores distintos de uma coluna e o código (0, 1, 2...) de cada um, na ordem de chegada.
+     */
+    private static final class Dicionario<T> {
+        private final Map<T, Integer> codigos = new HashMap<>();
+        private final List<T> valores = new ArrayList<>();
+
+        private int codificar(T valor) {
+            Integer codigo = codigos.get(valor);
+            if (codigo == null) {
+                codigo = valores.size();
+                codigos.put(valor, codigo);
+                valores.add(valor);
+            }
+            return codigo;
+        }
+
+        private T valor(int codigo) {
+            return valores.get(codigo);
+        }
+
+        private int tamanho() {
+            return valores.size();
+        }
+
+        // Códigos aceitos pelo filtro (nulo = sem filtro); valores que nunca apareceram não aceitam nada
+        private boolean[] aceitos(Collection<T> filtro) {
+            if (filtro == null || filtro.isEmpty()) {
+                return null;
+            }
+            boolean[] aceitos = new boolean[Math.max(valores.size(), 1)];
+            for (T valor : filtro) {
+                Integer codigo = codigos.get(valor);
+                if (codigo != null) {
+                    aceitos[codigo] = true;
+                }
+            }
+            return aceitos;
+        }
+    }
+
+    /**
+     * ID do pedido -> linha, em endereçamento aberto sobre arrays primitivos (sem um Long por pedido).
+     */
+    private static final class IndiceLinhas {
+        private static final long VAZIO = Long.MIN_VALUE;
+
+        private long[] chaves = vazias(1024);
+        private int[] linhas = new int[1024];
+        private int tamanho;
+
+        private int buscar(long pedidoId) {
+            int mascara = chaves.length - 1;
+            for (int posicao = espalhar(pedidoId) & mascara; chaves[posicao] != VAZIO; posicao = (posicao + 1) & mascara) {
+                if (chaves[posicao] == pedidoId) {
+                    return linhas[posicao];
+                }
+            }
+            return -1;
+        }
+
+        private void inserir(long pedidoId, int linha) {
+            if ((tamanho + 1) * 2 > chaves.length) {
+                long[] chavesAntigas = chaves;
+                int[] linhasAntigas = linhas;
+                chaves = vazias(chavesAntigas.length * 2);
+                linhas = new int[chavesAntigas.length * 2];
+                for (int i = 0; i < chavesAntigas.length; i++) {
+                    if (chavesAntigas[i] != VAZIO) {
+                        colocar(chavesAntigas[i], linhasAntigas[i]);
+                    }
+                }
+            }
+            colocar(pedidoId, linha);
+            tamanho++;
+        }
+
+        private void colocar(long pedidoId, int linha) {
+            int mascara = chaves.length - 1;
+            int posicao = espalhar(pedidoId) & mascara;
+            while (chaves[posicao] != VAZIO) {
+                posicao = (posicao + 1) & mascara;
+            }
+            chaves[posicao] = pedidoId;
+            linhas[posicao] = linha;
+        }
+
+        private static long[] vazias(int tamanho) {
+            long[] chaves = new long[tamanho];
+            Arrays.fill(chaves, VAZIO);
+            return chaves;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.projection.CabecalhoPedido;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Posição de paginação por keyset sobre (dataPedido, id), em ordem decrescente.
+ * O cliente recebe apenas a forma codificada (Base64 URL-safe), que é opaca.
+ */
+public record CursorPedido(LocalDateTime dataPedido, Long id) {
+
+    // Posição anterior a qualquer pedido: usada na primeira página
+    public static final CursorPedido INICIO = new CursorPedido(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    public static CursorPedido depoisDe(CabecalhoPedido pedido) {
+        return new CursorPedido(pedido.dataPedido(), pedido.id());
+    }
+
+    public static CursorPedido decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return INICIO;
+        }
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = texto.lastIndexOf('|');
+            return new CursorPedido(
+                    LocalDateTime.parse(texto.substring(0, separador)),
+                    Long.parseLong(texto.substring(separador + 1)));
+        } catch (RuntimeException e) {
+            throw new RegraNegocioException("Cursor de paginação inválido");
+        }
+    }
+
+    public String codificar() {
+        String texto = dataPedido + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+}
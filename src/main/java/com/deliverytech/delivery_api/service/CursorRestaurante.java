@@ -0,0 +1,37 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.projection.ResumoRestaurante;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posição de paginação por keyset sobre o id do restaurante, em ordem crescente.
+ * O cliente recebe apenas a forma codificada (Base64 URL-safe), que é opaca.
+ */
+public record CursorRestaurante(Long id) {
+
+    // Posição anterior a qualquer restaurante: usada na primeira página
+    public static final CursorRestaurante INICIO = new CursorRestaurante(0L);
+
+    public static CursorRestaurante depoisDe(ResumoRestaurante restaurante) {
+        return new CursorRestaurante(restaurante.id());
+    }
+
+    public static CursorRestaurante decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return INICIO;
+        }
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return new CursorRestaurante(Long.parseLong(texto));
+        } catch (RuntimeException e) {
+            throw new RegraNegocioException("Cursor de paginação inválido");
+        }
+    }
+
+    public String codificar() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
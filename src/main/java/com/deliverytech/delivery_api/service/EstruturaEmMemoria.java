@@ -0,0 +1,103 @@
+package com.deliverytech.delivery_api.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Estrutura em memória que acompanha as escritas no banco e é remontada por inteiro de tempos
+ * em tempos. Usada pelos índices e resumos dos serviços.
+ *
+ * Enquanto uma reconstrução lê o banco, as alterações continuam valendo na estrutura atual e
+ * são guardadas; antes da troca elas são reaplicadas na estrutura nova, para que nada confirmado
+ * durante a leitura se perca. Como a leitura pode já ter visto a escrita, as alterações precisam
+ * poder ser aplicadas duas vezes (substituir, remover ou elevar, nunca somar).
+ */
+final class EstruturaEmMemoria<T> {
+
+    private final Object trava = new Object();
+    private volatile T atual;
+    // Uma lista de alterações por reconstrução em andamento
+    private final List<Pendentes<T>> reconstrucoes = new ArrayList<>();
+
+    EstruturaEmMemoria(T inicial) {
+        this.atual = inicial;
+    }
+
+    T atual() {
+        return atual;
+    }
+
+    /**
+     * Aplica a alteração na estrutura atual e a guarda para as reconstruções em andamento.
+     */
+    void aplicar(Consumer<T> alteracao) {
+        synchronized (trava) {
+            alteracao.accept(atual);
+            reconstrucoes.forEach(pendentes -> pendentes.alteracoes.add(alteracao));
+        }
+    }
+
+    void aplicarAposCommit(Consumer<T> alteracao) {
+        AposCommit.executar(() -> aplicar(alteracao));
+    }
+
+    /**
+     * Monta uma estrutura nova com a carga e a coloca no lugar da atual, com as alterações
+     * recebidas no meio da carga. Dentro de uma transação a troca espera o commit; se ela for
+     * desfeita, a estrutura atual continua.
+     */
+    T reconstruir(Supplier<T> carga) {
+        Pendentes<T> pendentes = new Pendentes<>();
+        synchronized (trava) {
+            reconstrucoes.add(pendentes);
+        }
+        T nova;
+        try {
+            nova = carga.get();
+        } catch (RuntimeException | Error e) {
+            descartar(pendentes);
+            throw e;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        trocar(pendentes, nova);
+                    } else {
+                        descartar(pendentes);
+                    }
+                }
+            });
+        } else {
+            trocar(pendentes, nova);
+        }
+        return nova;
+    }
+
+    // =================== AUXILIARES ===================
+
+    private void trocar(Pendentes<T> pendentes, T nova) {
+        synchronized (trava) {
+            reconstrucoes.remove(pendentes);
+            pendentes.alteracoes.forEach(alteracao -> alteracao.accept(nova));
+            atual = nova;
+        }
+    }
+
+    private void descartar(Pendentes<T> pendentes) {
+        synchronized (trava) {
+            reconstrucoes.remove(pendentes);
+        }
+    }
+
+    // Igualdade por identidade: duas reconstruções com as mesmas alterações continuam distintas
+    private static final class Pendentes<T> {
+        private final List<Consumer<T>> alteracoes = new ArrayList<>();
+    }
+}
@@ -0,0 +1,152 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.ExportacaoColunarDTO;
+import com.deliverytech.delivery_api.dto.ParticaoExportacaoDTO;
+import com.deliverytech.delivery_api.dto.projection.LinhaExportacaoPedido;
+import com.deliverytech.delivery_api.exception.EntidadeNaoEncontradaException;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.repository.PedidoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Exportação de pedidos e itens para arquivos colunares (ArquivoColunarPedidos), um por dia,
+ * para a análise offline.
+ *
+ * Cada dia é lido com cursor em uma transação própria e escrito direto no arquivo, com memória
+ * limitada a um bloco de linhas. O arquivo é gravado com outro nome e só renomeado no fim: um
+ * arquivo com o nome final está sempre completo. Assim a exportação de um período é retomável:
+ * repetida depois de uma falha, pula os dias já gravados e continua do primeiro que falta.
+ *
+ * Só dias já encerrados são exportados. Pedidos gravados depois em um dia já exportado (com
+ * dataPedido retroativa) só entram se o dia for refeito (refazer = true).
+ */
+@Service
+public class ExportacaoColunarService {
+
+    public static final int MAXIMO_DIAS = 3_660;
+    public static final String SITUACAO_GERADA = "GERADA";
+    public static final String SITUACAO_EXISTENTE = "EXISTENTE";
+
+    private final PedidoRepository pedidoRepository;
+    private final TransactionTemplate leitura;
+    private final Path diretorio;
+
+    public ExportacaoColunarService(PedidoRepository pedidoRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${delivery.exportacao.colunar.diretorio:${java.io.tmpdir}/delivery-exportacao}") Path diretorio) {
+        this.pedidoRepository = pedidoRepository;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.diretorio = diretorio;
+    }
+
+    /**
+     * Exporta cada dia de [inicio, fim] que ainda não tem arquivo (ou todos, com refazer).
+     */
+    public ExportacaoColunarDTO exportar(LocalDate inicio, LocalDate fim, boolean refazer) {
+        if (inicio == null || fim == null) {
+            throw new RegraNegocioException("As datas de início e fim são obrigatórias.");
+        }
+        if (inicio.isAfter(fim)) {
+            throw new RegraNegocioException("A data de início não pode ser posterior à data de fim.");
+        }
+        if (!fim.isBefore(LocalDate.now())) {
+            throw new RegraNegocioException("Só dias já encerrados podem ser exportados (até " + LocalDate.now().minusDays(1) + ").");
+        }
+        if (ChronoUnit.DAYS.between(inicio, fim) >= MAXIMO_DIAS) {
+            throw new RegraNegocioException("A exportação cobre no máximo " + MAXIMO_DIAS + " dias por chamada.");
+        }
+
+        long comeco = System.nanoTime();
+        List<ParticaoExportacaoDTO> particoes = new ArrayList<>();
+        int geradas = 0;
+        try {
+            Files.createDirectories(diretorio);
+            for (LocalDate dia = inicio; !dia.isAfter(fim); dia = dia.plusDays(1)) {
+                Path arquivo = diretorio.resolve(nomeArquivo(dia));
+                if (!refazer && Files.exists(arquivo)) {
+                    ArquivoColunarPedidos.Rodape rodape = ArquivoColunarPedidos.lerRodape(arquivo);
+                    particoes.add(new ParticaoExportacaoDTO(dia, nomeArquivo(dia), SITUACAO_EXISTENTE,
+                            rodape.pedidos(), rodape.itens(), Files.size(arquivo)));
+                    continue;
+                }
+                particoes.add(gerar(dia, arquivo));
+                geradas++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar a exportação colunar em " + diretorio, e);
+        }
+        return new ExportacaoColunarDTO(inicio, fim, geradas, particoes.size() - geradas,
+                (System.nanoTime() - comeco) / 1_000_000, particoes);
+    }
+
+    /**
+     * Arquivo já exportado de um dia (GET /api/relatorios/exportacao-colunar/{dia}).
+     */
+    public Path buscarArquivo(LocalDate dia) {
+        Path arquivo = diretorio.resolve(nomeArquivo(dia));
+        if (!Files.exists(arquivo)) {
+            throw new EntidadeNaoEncontradaException("O dia " + dia + " ainda não foi exportado.");
+        }
+        return arquivo;
+    }
+
+    public static String nomeArquivo(LocalDate dia) {
+        return "pedidos-" + dia + ".pcol";
+    }
+
+    // =================== AUXILIARES ===================
+
+    private ParticaoExportacaoDTO gerar(LocalDate dia, Path arquivo) throws IOException {
+        Path temporario = Files.createTempFile(diretorio, nomeArquivo(dia) + ".", ".tmp");
+        try {
+            long[] totais = leitura.execute(status -> {
+                try (Stream<LinhaExportacaoPedido> linhas = pedidoRepository.streamParaExportacao(
+                        dia.atStartOfDay(), dia.plusDays(1).atStartOfDay());
+                     ArquivoColunarPedidos.Escritor escritor = new ArquivoColunarPedidos.Escritor(
+                             new BufferedOutputStream(Files.newOutputStream(temporario), 64 * 1024))) {
+                    escrever(linhas.iterator(), escritor);
+                    return new long[]{escritor.getPedidos(), escritor.getItens()};
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return new ParticaoExportacaoDTO(dia, nomeArquivo(dia), SITUACAO_GERADA, totais[0], totais[1], Files.size(arquivo));
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    // Linhas em ordem de pedido: o pedido é gravado na primeira linha dele, cada item na sua
+    private static void escrever(Iterator<LinhaExportacaoPedido> linhas, ArquivoColunarPedidos.Escritor escritor) throws IOException {
+        Long atual = null;
+        while (linhas.hasNext()) {
+            LinhaExportacaoPedido linha = linhas.next();
+            if (!linha.pedidoId().equals(atual)) {
+                atual = linha.pedidoId();
+                escritor.pedido(linha.pedidoId(), linha.dataPedido(), linha.clienteId(), linha.restauranteId(),
+                        linha.categoria(), linha.status(), linha.total());
+            }
+            if (linha.itemId() != null) {
+                escritor.item(linha.itemId(), linha.pedidoId(), linha.produtoId(), linha.quantidade(), linha.precoUnitario());
+            }
+        }
+    }
+}
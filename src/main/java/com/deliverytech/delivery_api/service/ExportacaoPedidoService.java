@@ -0,0 +1,126 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.ItemPedidoResponseDTO;
+import com.deliverytech.delivery_api.dto.PedidoResponseDTO;
+import com.deliverytech.delivery_api.dto.projection.LinhaPedidoItem;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.repository.PedidoRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportação de pedidos em NDJSON (um PedidoResponseDTO por linha).
+ *
+ * As linhas vêm de um cursor do banco e cada pedido é escrito assim que seus itens
+ * terminam de ser lidos, então o uso de memória não cresce com o tamanho do período.
+ */
+@Service
+public class ExportacaoPedidoService {
+
+    private final PedidoRepository pedidoRepository;
+    private final ObjectMapper objectMapper;
+
+    public ExportacaoPedidoService(PedidoRepository pedidoRepository, ObjectMapper objectMapper) {
+        this.pedidoRepository = pedidoRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * GET /api/pedidos (Accept: application/x-ndjson)
+     * @return quantidade de pedidos escritos
+     */
+    @Transactional(readOnly = true)
+    public long exportarPedidos(String status, LocalDateTime dataInicio, LocalDateTime dataFim, OutputStream saida) {
+        if (dataInicio != null && dataFim != null && dataInicio.isAfter(dataFim)) {
+            throw new RegraNegocioException("A data de início não pode ser posterior à data de fim.");
+        }
+        try (Stream<LinhaPedidoItem> linhas = pedidoRepository.streamComFiltros(status, dataInicio, dataFim)) {
+            return escrever(linhas.iterator(), saida);
+        }
+    }
+
+    /**
+     * GET /api/relatorios/pedidos-por-periodo (Accept: application/x-ndjson)
+     */
+    @Transactional(readOnly = true)
+    public long exportarPedidosPorPeriodo(LocalDateTime dataInicio, LocalDateTime dataFim, OutputStream saida) {
+        if (dataInicio == null || dataFim == null) {
+            throw new RegraNegocioException("As datas de início e fim são obrigatórias.");
+        }
+        return exportarPedidos(null, dataInicio, dataFim, saida);
+    }
+
+    // =================== AUXILIARES ===================
+
+    private long escrever(Iterator<LinhaPedidoItem> linhas, OutputStream saida) {
+        try {
+            JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida);
+            gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gerador.setRootValueSeparator(null);
+
+            long escritos = 0;
+            PedidoResponseDTO atual = null;
+            while (linhas.hasNext()) {
+                LinhaPedidoItem linha = linhas.next();
+                if (atual == null || !atual.getId().equals(linha.pedidoId())) {
+                    if (atual != null) {
+                        escreverLinha(gerador, atual);
+                        escritos++;
+                    }
+                    atual = novoPedido(linha);
+                }
+                if (linha.quantidade() != null) {
+                    atual.getItens().add(novoItem(linha));
+                }
+            }
+            if (atual != null) {
+                escreverLinha(gerador, atual);
+                escritos++;
+            }
+            gerador.flush();
+            return escritos;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao escrever a exportação de pedidos", e);
+        }
+    }
+
+    private void escreverLinha(JsonGenerator gerador, PedidoResponseDTO pedido) throws IOException {
+        objectMapper.writeValue(gerador, pedido);
+        gerador.writeRaw('\n');
+    }
+
+    private PedidoResponseDTO novoPedido(LinhaPedidoItem linha) {
+        PedidoResponseDTO dto = new PedidoResponseDTO();
+        dto.setId(linha.pedidoId());
+        dto.setClienteId(linha.clienteId());
+        dto.setClienteNome(linha.clienteNome());
+        dto.setRestauranteId(linha.restauranteId());
+        dto.setRestauranteNome(linha.restauranteNome());
+        dto.setTotal(linha.total());
+        dto.setStatus(linha.status());
+        dto.setDataPedido(linha.dataPedido());
+        dto.setItens(new ArrayList<>());
+        return dto;
+    }
+
+    private ItemPedidoResponseDTO novoItem(LinhaPedidoItem linha) {
+        ItemPedidoResponseDTO dto = new ItemPedidoResponseDTO();
+        dto.setNomeProduto(linha.nomeProduto());
+        dto.setQuantidade(linha.quantidade());
+        dto.setPrecoUnitario(linha.precoUnitario());
+        dto.setSubtotal(linha.precoUnitario() == null ? BigDecimal.ZERO
+                : linha.precoUnitario().multiply(new BigDecimal(linha.quantidade())));
+        return dto;
+    }
+}
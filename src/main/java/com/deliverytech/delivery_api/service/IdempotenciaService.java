@@ -0,0 +1,193 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.exception.ChaveIdempotenciaReutilizadaException;
+import com.deliverytech.delivery_api.exception.RequisicaoEmAndamentoException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Armazena em memória o resultado de operações identificadas por um Idempotency-Key.
+ *
+ * - Limitado: cada faixa guarda no máximo capacidade/faixas respostas concluídas (descarta as
+ *   mais antigas). Operações em andamento ficam à parte e nunca são descartadas: descartá-las
+ *   deixaria uma repetição criar o mesmo pedido de novo.
+ * - TTL: uma resposta concluída expira após o tempo configurado.
+ * - Lock por faixa: chaves diferentes raramente disputam o mesmo lock.
+ *
+ * Requisições repetidas enquanto a primeira ainda executa aguardam o resultado dela, por no
+ * máximo delivery.idempotencia.espera-maxima; depois disso recebem 409
+ * (RequisicaoEmAndamentoException). A chave reutilizada com outra requisição recebe 422
+ * (ChaveIdempotenciaReutilizadaException).
+ */
+@Service
+public class IdempotenciaService {
+
+    private final Faixa[] faixas;
+    private final int capacidadePorFaixa;
+    private final long ttlMillis;
+    private final long esperaMaximaMillis;
+    private final Clock clock;
+
+    @Autowired
+    public IdempotenciaService(@Value("${delivery.idempotencia.capacidade:10000}") int capacidade,
+                               @Value("${delivery.idempotencia.faixas:16}") int quantidadeFaixas,
+                               @Value("${delivery.idempotencia.ttl:PT24H}") Duration ttl,
+                               @Value("${delivery.idempotencia.espera-maxima:PT30S}") Duration esperaMaxima) {
+        this(capacidade, quantidadeFaixas, ttl, esperaMaxima, Clock.systemUTC());
+    }
+
+    public IdempotenciaService(int capacidade, int quantidadeFaixas, Duration ttl, Duration esperaMaxima, Clock clock) {
+        this.faixas = new Faixa[quantidadeFaixas];
+        for (int i = 0; i < quantidadeFaixas; i++) {
+            faixas[i] = new Faixa();
+        }
+        this.capacidadePorFaixa = Math.max(1, capacidade / quantidadeFaixas);
+        this.ttlMillis = ttl.toMillis();
+        this.esperaMaximaMillis = esperaMaxima.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Executa a operação uma única vez por chave. Chamadas seguintes com a mesma chave
+     * (e a mesma requisição) recebem o resultado guardado sem executar a operação.
+     * Se a operação falhar, a chave é liberada e a exceção é repassada a todos que aguardavam.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Resultado<T> executar(String chave, Object requisicao, Supplier<T> operacao) {
+        Faixa faixa = faixas[Math.floorMod(chave.hashCode(), faixas.length)];
+        Entrada entrada;
+        boolean primeira = false;
+
+        faixa.lock.lock();
+        try {
+            faixa.removerExpiradas(clock.millis());
+            entrada = faixa.concluidas.get(chave);
+            if (entrada == null) {
+                entrada = faixa.emAndamento.get(chave);
+            }
+            if (entrada == null) {
+                entrada = new Entrada(requisicao);
+                faixa.emAndamento.put(chave, entrada);
+                primeira = true;
+            } else if (!Objects.equals(entrada.requisicao, requisicao)) {
+                throw new ChaveIdempotenciaReutilizadaException("Idempotency-Key já utilizada com outra requisição");
+            }
+        } finally {
+            faixa.lock.unlock();
+        }
+
+        if (!primeira) {
+            return new Resultado<>((T) aguardar(entrada), true);
+        }
+
+        T valor = null;
+        Throwable falha = null;
+        try {
+            valor = operacao.get();
+            return new Resultado<>(valor, false);
+        } catch (Throwable e) {
+            falha = e;
+            throw e;
+        } finally {
+            // Em finally e para qualquer Throwable: quem aguarda nunca fica sem resposta
+            faixa.lock.lock();
+            try {
+                faixa.emAndamento.remove(chave, entrada);
+                if (falha == null) {
+                    entrada.expiraEm = clock.millis() + ttlMillis;
+                    faixa.concluidas.put(chave, entrada);
+                }
+            } finally {
+                faixa.lock.unlock();
+            }
+            if (falha == null) {
+                entrada.resultado.complete(valor);
+            } else {
+                entrada.resultado.completeExceptionally(falha);
+            }
+        }
+    }
+
+    public int tamanho() {
+        int total = 0;
+        for (Faixa faixa : faixas) {
+            faixa.lock.lock();
+            try {
+                total += faixa.concluidas.size() + faixa.emAndamento.size();
+            } finally {
+                faixa.lock.unlock();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Valor devolvido pela operação e se ele veio de uma execução anterior.
+     */
+    public record Resultado<T>(T valor, boolean repetido) { }
+
+    // =================== AUXILIARES ===================
+
+    private Object aguardar(Entrada entrada) {
+        try {
+            return entrada.resultado.get(esperaMaximaMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // A primeira execução continua dona da chave; uma nova tentativa volta a aguardar por ela
+            throw new RequisicaoEmAndamentoException("Requisição com esta Idempotency-Key ainda em processamento");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RequisicaoEmAndamentoException("Espera pela requisição original interrompida");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error erro) throw erro;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // =================== ESTRUTURAS INTERNAS ===================
+
+    private static final class Entrada {
+        private final Object requisicao;
+        private final CompletableFuture<Object> resultado = new CompletableFuture<>();
+        private long expiraEm;
+
+        private Entrada(Object requisicao) {
+            this.requisicao = requisicao;
+        }
+    }
+
+    private final class Faixa {
+        private final ReentrantLock lock = new ReentrantLock();
+        // Limitado pela concorrência, não pela capacidade: só sai quando a operação termina
+        private final Map<String, Entrada> emAndamento = new HashMap<>();
+        // Ordem de conclusão: as primeiras entradas são as que expiram antes
+        private final LinkedHashMap<String, Entrada> concluidas = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> maisAntiga) {
+                return size() > capacidadePorFaixa;
+            }
+        };
+
+        private void removerExpiradas(long agora) {
+            Iterator<Entrada> it = concluidas.values().iterator();
+            while (it.hasNext() && it.next().expiraEm <= agora) {
+                it.remove();
+            }
+        }
+    }
+}
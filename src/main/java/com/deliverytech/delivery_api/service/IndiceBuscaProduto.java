@@ -0,0 +1,501 @@
+package com.deliverytech.delivery_api.service;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido em memória sobre nome e descrição dos produtos.
+ *
+ * O texto é normalizado (minúsculas, sem acentos) e quebrado em termos; cada termo guarda
+ * a lista ordenada de documentos em que aparece, separada por campo. Para casar trechos
+ * no meio de palavras ("marg" em "margherita", "herit" idem), o vocabulário tem um índice
+ * de trigramas: o trecho buscado é resolvido primeiro para os termos que o contêm e só
+ * então para os documentos. Como o vocabulário é muito menor que o número de produtos,
+ * esse índice auxiliar custa pouco.
+ *
+ * Cada produto indexado recebe um número de documento sequencial; alterar um produto
+ * marca o documento antigo como removido e indexa um novo. As listas continuam ordenadas
+ * (documentos novos entram sempre no fim) e os removidos são descartados em compactar(),
+ * chamado automaticamente quando passam de um quarto do total.
+ *
+ * Leituras concorrentes; escritas exclusivas.
+ */
+public class IndiceBuscaProduto {
+
+    // Peso do termo da consulta conforme o campo e o tipo de casamento
+    static final int NOME_EXATO = 12;
+    static final int NOME_PREFIXO = 8;
+    static final int NOME_TRECHO = 4;
+    static final int DESCRICAO_EXATO = 3;
+    static final int DESCRICAO_PREFIXO = 2;
+    static final int DESCRICAO_TRECHO = 1;
+
+    private static final int TAMANHO_MINIMO_TERMO = 2;
+    private static final int TAMANHO_NGRAMA = 3;
+    private static final int REMOVIDOS_MINIMOS_PARA_COMPACTAR = 10_000;
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+    private static final Set<String> PALAVRAS_VAZIAS = Set.of(
+            "a", "o", "as", "os", "e", "de", "da", "do", "das", "dos",
+            "com", "em", "na", "no", "nas", "nos", "para", "um", "uma");
+
+    /**
+     * Produto encontrado e a pontuação obtida: soma, por termo da consulta,
+     * do melhor casamento no produto.
+     */
+    public record Resultado(Long produtoId, int pontuacao) { }
+
+    private static final class Termo {
+        final int id;
+        final String texto;
+        final ListaInt nome = new ListaInt();
+        final ListaInt descricao = new ListaInt();
+
+        Termo(int id, String texto) {
+            this.id = id;
+            this.texto = texto;
+        }
+    }
+
+    private final ReadWriteLock trava = new ReentrantReadWriteLock();
+
+    // Vocabulário ordenado: busca exata e por prefixo
+    private final NavigableMap<String, Termo> vocabulario = new TreeMap<>();
+    private final List<Termo> termos = new ArrayList<>();
+    private final Map<String, ListaInt> trigramas = new HashMap<>();
+
+    // Documento -> produto (e tamanho do nome, usado no desempate)
+    private long[] produtoPorDocumento = new long[1024];
+    private int[] tamanhoNome = new int[1024];
+    private int documentos;
+    private final BitSet removidos = new BitSet();
+    private int quantidadeRemovidos;
+    private final Map<Long, Integer> documentoPorProduto = new HashMap<>();
+
+    // =================== ESCRITA ===================
+
+    /**
+     * Indexa (ou reindexa) o produto com o nome e a descrição informados.
+     */
+    public void indexar(Long produtoId, String nome, String descricao) {
+        trava.writeLock().lock();
+        try {
+            removerDocumento(produtoId);
+            int documento = novoDocumento(produtoId, nome);
+            for (String termo : termos(nome)) {
+                termo(termo).nome.adicionarNoFim(documento);
+            }
+            for (String termo : termos(descricao)) {
+                termo(termo).descricao.adicionarNoFim(documento);
+            }
+            compactarSeNecessario();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public void remover(Long produtoId) {
+        trava.writeLock().lock();
+        try {
+            removerDocumento(produtoId);
+            compactarSeNecessario();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retira os documentos removidos das listas e descarta os termos que ficaram vazios.
+     */
+    public void compactar() {
+        trava.writeLock().lock();
+        try {
+            compactarSemTrava();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    // =================== LEITURA ===================
+
+    /**
+     * Produtos que casam com todos os termos da consulta, do mais para o menos relevante.
+     * Empates ficam com o nome mais curto e, depois, com o menor ID.
+     * Termos com menos de dois caracteres e palavras como "de" e "com" são ignorados.
+     */
+    public List<Resultado> buscar(String consulta, int limite) {
+        List<String> termosConsulta = new ArrayList<>(termos(consulta));
+        if (termosConsulta.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        trava.readLock().lock();
+        try {
+            Pontuados acumulado = null;
+            for (String termo : termosConsulta) {
+                Pontuados casados = casamentos(termo);
+                acumulado = acumulado == null ? casados : acumulado.intersecao(casados);
+                if (acumulado.tamanho == 0) {
+                    return List.of();
+                }
+            }
+            return melhores(acumulado, limite);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public int tamanho() {
+        trava.readLock().lock();
+        try {
+            return documentoPorProduto.size();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public int tamanhoVocabulario() {
+        trava.readLock().lock();
+        try {
+            return vocabulario.size();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Minúsculas, sem acentos e sem pontuação: "Açaí c/ Granola" vira "acai c granola".
+     */
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARADORES.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Termos distintos do texto, na ordem em que aparecem.
+     */
+    static Set<String> termos(String texto) {
+        Set<String> termos = new LinkedHashSet<>();
+        String normalizado = normalizar(texto);
+        if (normalizado.isEmpty()) {
+            return termos;
+        }
+        for (String termo : normalizado.split(" ")) {
+            if (termo.length() >= TAMANHO_MINIMO_TERMO && !PALAVRAS_VAZIAS.contains(termo)) {
+                termos.add(termo);
+            }
+        }
+        return termos;
+    }
+
+    // =================== CONSULTA ===================
+
+    // Documentos que contêm o termo em algum campo, cada um com o melhor peso obtido
+    private Pontuados casamentos(String termoConsulta) {
+        List<ListaInt> listas = new ArrayList<>();
+        List<Integer> pesos = new ArrayList<>();
+
+        for (Termo termo : vocabulario.subMap(termoConsulta, true, termoConsulta + Character.MAX_VALUE, false).values()) {
+            boolean exato = termo.texto.length() == termoConsulta.length();
+            adicionar(listas, pesos, termo, exato ? NOME_EXATO : NOME_PREFIXO, exato ? DESCRICAO_EXATO : DESCRICAO_PREFIXO);
+        }
+        if (termoConsulta.length() >= TAMANHO_NGRAMA) {
+            for (Termo termo : termosComTrecho(termoConsulta)) {
+                if (!termo.texto.startsWith(termoConsulta)) {
+                    adicionar(listas, pesos, termo, NOME_TRECHO, DESCRICAO_TRECHO);
+                }
+            }
+        }
+        return Pontuados.uniao(listas, pesos, removidos);
+    }
+
+    private static void adicionar(List<ListaInt> listas, List<Integer> pesos, Termo termo, int pesoNome, int pesoDescricao) {
+        if (termo.nome.tamanho > 0) {
+            listas.add(termo.nome);
+            pesos.add(pesoNome);
+        }
+        if (termo.descricao.tamanho > 0) {
+            listas.add(termo.descricao);
+            pesos.add(pesoDescricao);
+        }
+    }
+
+    // Termos do vocabulário que contêm o trecho: interseção das listas dos seus trigramas
+    private List<Termo> termosComTrecho(String trecho) {
+        List<ListaInt> listas = new ArrayList<>();
+        for (int i = 0; i + TAMANHO_NGRAMA <= trecho.length(); i++) {
+            ListaInt lista = trigramas.get(trecho.substring(i, i + TAMANHO_NGRAMA));
+            if (lista == null) {
+                return List.of();
+            }
+            listas.add(lista);
+        }
+        listas.sort(Comparator.comparingInt(l -> l.tamanho));
+
+        int[] candidatos = Arrays.copyOf(listas.get(0).valores, listas.get(0).tamanho);
+        int quantidade = candidatos.length;
+        for (int i = 1; i < listas.size() && quantidade > 0; i++) {
+            quantidade = ListaInt.intersecao(candidatos, quantidade, listas.get(i));
+        }
+
+        List<Termo> encontrados = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            Termo termo = termos.get(candidatos[i]);
+            // Os trigramas podem estar em posições que não formam o trecho
+            if (termo.texto.contains(trecho)) {
+                encontrados.add(termo);
+            }
+        }
+        return encontrados;
+    }
+
+    private List<Resultado> melhores(Pontuados pontuados, int limite) {
+        Comparator<Integer> relevancia = Comparator.<Integer>comparingInt(i -> pontuados.pontuacoes[i])
+                .thenComparing(Comparator.<Integer>comparingInt(i -> tamanhoNome[pontuados.documentos[i]]).reversed())
+                .thenComparing(Comparator.<Integer>comparingLong(i -> produtoPorDocumento[pontuados.documentos[i]]).reversed());
+
+        // Heap dos "limite" melhores; o topo é o pior entre eles
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limite + 1, relevancia);
+        for (int i = 0; i < pontuados.tamanho; i++) {
+            if (heap.size() < limite) {
+                heap.add(i);
+            } else if (relevancia.compare(i, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(i);
+            }
+        }
+
+        Resultado[] ordenados = new Resultado[heap.size()];
+        for (int i = ordenados.length - 1; i >= 0; i--) {
+            int posicao = heap.poll();
+            ordenados[i] = new Resultado(produtoPorDocumento[pontuados.documentos[posicao]], pontuados.pontuacoes[posicao]);
+        }
+        return Arrays.asList(ordenados);
+    }
+
+    // =================== AUXILIARES ===================
+
+    private int novoDocumento(Long produtoId, String nome) {
+        if (documentos == produtoPorDocumento.length) {
+            produtoPorDocumento = Arrays.copyOf(produtoPorDocumento, documentos * 2);
+            tamanhoNome = Arrays.copyOf(tamanhoNome, documentos * 2);
+        }
+        int documento = documentos++;
+        produtoPorDocumento[documento] = produtoId;
+        tamanhoNome[documento] = nome == null ? 0 : nome.length();
+        documentoPorProduto.put(produtoId, documento);
+        return documento;
+    }
+
+    private void removerDocumento(Long produtoId) {
+        Integer documento = documentoPorProduto.remove(produtoId);
+        if (documento != null) {
+            removidos.set(documento);
+            quantidadeRemovidos++;
+        }
+    }
+
+    private Termo termo(String texto) {
+        Termo termo = vocabulario.get(texto);
+        if (termo == null) {
+            termo = new Termo(termos.size(), texto);
+            termos.add(termo);
+            vocabulario.put(texto, termo);
+            indexarTrigramas(termo);
+        }
+        return termo;
+    }
+
+    private void indexarTrigramas(Termo termo) {
+        Set<String> vistos = new HashSet<>();
+        for (int i = 0; i + TAMANHO_NGRAMA <= termo.texto.length(); i++) {
+            String trigrama = termo.texto.substring(i, i + TAMANHO_NGRAMA);
+            if (vistos.add(trigrama)) {
+                trigramas.computeIfAbsent(trigrama, t -> new ListaInt()).adicionarNoFim(termo.id);
+            }
+        }
+    }
+
+    private void compactarSeNecessario() {
+        if (quantidadeRemovidos > Math.max(REMOVIDOS_MINIMOS_PARA_COMPACTAR, documentos / 4)) {
+            compactarSemTrava();
+        }
+    }
+
+    // Os números de documento são mantidos; só os termos são renumerados
+    private void compactarSemTrava() {
+        if (quantidadeRemovidos == 0) {
+            return;
+        }
+        List<Termo> vivos = new ArrayList<>(vocabulario.size());
+        for (Termo termo : vocabulario.values()) {
+            termo.nome.removerMarcados(removidos);
+            termo.descricao.removerMarcados(removidos);
+            if (termo.nome.tamanho > 0 || termo.descricao.tamanho > 0) {
+                vivos.add(termo);
+            }
+        }
+
+        vocabulario.clear();
+        termos.clear();
+        trigramas.clear();
+        for (Termo antigo : vivos) {
+            Termo termo = new Termo(termos.size(), antigo.texto);
+            termo.nome.copiar(antigo.nome);
+            termo.descricao.copiar(antigo.descricao);
+            termos.add(termo);
+            vocabulario.put(termo.texto, termo);
+            indexarTrigramas(termo);
+        }
+        // Documentos removidos não aparecem em nenhuma lista; a marca deixa de ser necessária
+        removidos.clear();
+        quantidadeRemovidos = 0;
+    }
+
+    /**
+     * Lista crescente de inteiros (documentos ou termos), sem boxing.
+     */
+    private static final class ListaInt {
+        int[] valores = new int[4];
+        int tamanho;
+
+        void adicionarNoFim(int valor) {
+            if (tamanho == valores.length) {
+                valores = Arrays.copyOf(valores, tamanho * 2);
+            }
+            valores[tamanho++] = valor;
+        }
+
+        void removerMarcados(BitSet marcados) {
+            int destino = 0;
+            for (int i = 0; i < tamanho; i++) {
+                if (!marcados.get(valores[i])) {
+                    valores[destino++] = valores[i];
+                }
+            }
+            tamanho = destino;
+        }
+
+        void copiar(ListaInt origem) {
+            valores = Arrays.copyOf(origem.valores, Math.max(origem.tamanho, 4));
+            tamanho = origem.tamanho;
+        }
+
+        // Mantém em "valores" (os "quantidade" primeiros) apenas o que também está na lista
+        static int intersecao(int[] valores, int quantidade, ListaInt lista) {
+            int resultado = 0;
+            int j = 0;
+            for (int i = 0; i < quantidade && j < lista.tamanho; i++) {
+                while (j < lista.tamanho && lista.valores[j] < valores[i]) {
+                    j++;
+                }
+                if (j < lista.tamanho && lista.valores[j] == valores[i]) {
+                    valores[resultado++] = valores[i];
+                }
+            }
+            return resultado;
+        }
+    }
+
+    /**
+     * Documentos em ordem crescente, cada um com sua pontuação.
+     */
+    private static final class Pontuados {
+        final int[] documentos;
+        final int[] pontuacoes;
+        final int tamanho;
+
+        Pontuados(int[] documentos, int[] pontuacoes, int tamanho) {
+            this.documentos = documentos;
+            this.pontuacoes = pontuacoes;
+            this.tamanho = tamanho;
+        }
+
+        /**
+         * Junta as listas, ficando com o maior peso de cada documento. As listas já estão
+         * ordenadas, então são intercaladas duas a duas (em árvore, para que muitas listas
+         * curtas, como as de um prefixo comum, não custem uma passada cada).
+         */
+        static Pontuados uniao(List<ListaInt> listas, List<Integer> pesos, BitSet removidos) {
+            List<Pontuados> partes = new ArrayList<>(listas.size());
+            for (int i = 0; i < listas.size(); i++) {
+                partes.add(de(listas.get(i), pesos.get(i), removidos));
+            }
+            if (partes.isEmpty()) {
+                return new Pontuados(new int[0], new int[0], 0);
+            }
+            while (partes.size() > 1) {
+                List<Pontuados> intercaladas = new ArrayList<>((partes.size() + 1) / 2);
+                for (int i = 0; i + 1 < partes.size(); i += 2) {
+                    intercaladas.add(partes.get(i).uniao(partes.get(i + 1)));
+                }
+                if (partes.size() % 2 == 1) {
+                    intercaladas.add(partes.get(partes.size() - 1));
+                }
+                partes = intercaladas;
+            }
+            return partes.get(0);
+        }
+
+        private static Pontuados de(ListaInt lista, int peso, BitSet removidos) {
+            int[] documentos = new int[lista.tamanho];
+            int n = 0;
+            for (int i = 0; i < lista.tamanho; i++) {
+                if (!removidos.get(lista.valores[i])) {
+                    documentos[n++] = lista.valores[i];
+                }
+            }
+            int[] pontuacoes = new int[n];
+            Arrays.fill(pontuacoes, peso);
+            return new Pontuados(documentos, pontuacoes, n);
+        }
+
+        private Pontuados uniao(Pontuados outro) {
+            int[] docs = new int[tamanho + outro.tamanho];
+            int[] pontos = new int[docs.length];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < tamanho || j < outro.tamanho) {
+                if (j == outro.tamanho || (i < tamanho && documentos[i] < outro.documentos[j])) {
+                    docs[n] = documentos[i];
+                    pontos[n++] = pontuacoes[i++];
+                } else if (i == tamanho || documentos[i] > outro.documentos[j]) {
+                    docs[n] = outro.documentos[j];
+                    pontos[n++] = outro.pontuacoes[j++];
+                } else {
+                    docs[n] = documentos[i];
+                    pontos[n++] = Math.max(pontuacoes[i++], outro.pontuacoes[j++]);
+                }
+            }
+            return new Pontuados(docs, pontos, n);
+        }
+
+        // Documentos presentes nos dois conjuntos, somando as pontuações
+        Pontuados intersecao(Pontuados outro) {
+            int[] docs = new int[Math.min(tamanho, outro.tamanho)];
+            int[] pontos = new int[docs.length];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < tamanho && j < outro.tamanho) {
+                if (documentos[i] < outro.documentos[j]) {
+                    i++;
+                } else if (documentos[i] > outro.documentos[j]) {
+                    j++;
+                } else {
+                    docs[n] = documentos[i];
+                    pontos[n++] = pontuacoes[i++] + outro.pontuacoes[j++];
+                }
+            }
+            return new Pontuados(docs, pontos, n);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.deliverytech.delivery_api.service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Índice espacial em grade: cada ponto fica no balde da célula (latitude, longitude)
+ * de lado fixo em graus. Uma busca começa na célula do ponto de origem e visita anéis
+ * de células em volta, parando quando a distância mínima possível do próximo anel
+ * já passa do raio ou do k-ésimo vizinho encontrado. Assim só os baldes próximos são
+ * lidos, e o custo não depende do total de pontos.
+ *
+ * Longitudes não dão a volta em ±180° (suficiente para o Brasil).
+ * Leituras concorrentes; escritas exclusivas.
+ */
+public class IndiceEspacial<T> {
+
+    public static final double RAIO_TERRA_KM = 6371.0088;
+    private static final double KM_POR_GRAU = Math.PI * RAIO_TERRA_KM / 180;
+
+    /**
+     * Ponto encontrado e a distância (em km) até a origem da busca.
+     */
+    public record Vizinho<T>(long id, T valor, double distanciaKm) { }
+
+    private record Ponto<T>(long id, double latitude, double longitude, T valor, long celula) { }
+
+    private final double tamanhoCelula;
+    private final ReadWriteLock trava = new ReentrantReadWriteLock();
+    private final Map<Long, List<Ponto<T>>> celulas = new HashMap<>();
+    private final Map<Long, Ponto<T>> pontos = new HashMap<>();
+
+    // Limites das células já ocupadas: até onde vale a pena abrir anéis
+    private int linhaMinima = Integer.MAX_VALUE;
+    private int linhaMaxima = Integer.MIN_VALUE;
+    private int colunaMinima = Integer.MAX_VALUE;
+    private int colunaMaxima = Integer.MIN_VALUE;
+
+    /**
+     * @param tamanhoCelula lado da célula em graus (0,02° ≈ 2,2 km de latitude)
+     */
+    public IndiceEspacial(double tamanhoCelula) {
+        if (tamanhoCelula <= 0) {
+            throw new IllegalArgumentException("O tamanho da célula deve ser positivo");
+        }
+        this.tamanhoCelula = tamanhoCelula;
+    }
+
+    // =================== ESCRITA ===================
+
+    /**
+     * Insere o ponto ou o move para a nova posição, substituindo o valor.
+     */
+    public void inserir(long id, double latitude, double longitude, T valor) {
+        trava.writeLock().lock();
+        try {
+            removerSemTrava(id);
+            int linha = linha(latitude);
+            int coluna = coluna(longitude);
+            Ponto<T> ponto = new Ponto<>(id, latitude, longitude, valor, chave(linha, coluna));
+            pontos.put(id, ponto);
+            celulas.computeIfAbsent(ponto.celula(), c -> new ArrayList<>()).add(ponto);
+
+            linhaMinima = Math.min(linhaMinima, linha);
+            linhaMaxima = Math.max(linhaMaxima, linha);
+            colunaMinima = Math.min(colunaMinima, coluna);
+            colunaMaxima = Math.max(colunaMaxima, coluna);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public void remover(long id) {
+        trava.writeLock().lock();
+        try {
+            removerSemTrava(id);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    // =================== LEITURA ===================
+
+    /**
+     * Até "limite" pontos aceitos pelo filtro, a no máximo raioKm da origem, do mais próximo
+     * para o mais distante (empates pelo menor ID).
+     * Sem raio, use Double.POSITIVE_INFINITY: vira uma busca pelos k vizinhos mais próximos.
+     */
+    public List<Vizinho<T>> proximos(double latitude, double longitude, int limite, double raioKm,
+                                     Predicate<? super T> filtro) {
+        if (limite <= 0) {
+            return List.of();
+        }
+        Comparator<Vizinho<T>> ordem = Comparator.<Vizinho<T>>comparingDouble(Vizinho::distanciaKm)
+                .thenComparingLong(Vizinho::id);
+        // Heap dos "limite" mais próximos; o topo é o mais distante entre eles
+        PriorityQueue<Vizinho<T>> melhores = new PriorityQueue<>(limite + 1, ordem.reversed());
+        Consumer<Ponto<T>> avaliar = ponto -> {
+            if (!filtro.test(ponto.valor())) return;
+            double distancia = distanciaKm(latitude, longitude, ponto.latitude(), ponto.longitude());
+            if (distancia > raioKm) return;
+            Vizinho<T> vizinho = new Vizinho<>(ponto.id(), ponto.valor(), distancia);
+            if (melhores.size() < limite) {
+                melhores.add(vizinho);
+            } else if (ordem.compare(vizinho, melhores.peek()) < 0) {
+                melhores.poll();
+                melhores.add(vizinho);
+            }
+        };
+
+        trava.readLock().lock();
+        try {
+            if (pontos.isEmpty()) {
+                return List.of();
+            }
+            int linha = linha(latitude);
+            int coluna = coluna(longitude);
+            int ultimoAnel = Math.max(
+                    Math.max(Math.abs(linha - linhaMinima), Math.abs(linha - linhaMaxima)),
+                    Math.max(Math.abs(coluna - colunaMinima), Math.abs(coluna - colunaMaxima)));
+
+            for (int anel = 0; anel <= ultimoAnel; anel++) {
+                double minimo = distanciaMinimaDoAnel(latitude, anel);
+                if (minimo > raioKm || (melhores.size() == limite && minimo > melhores.peek().distanciaKm())) {
+                    break;
+                }
+                // Origem longe de tudo: percorrer as células ocupadas sai mais barato que abrir anéis vazios
+                if ((long) (2 * anel + 1) * (2 * anel + 1) > 4L * celulas.size()) {
+                    int primeiroAnel = anel;
+                    pontos.values().stream()
+                            .filter(p -> anelDe(p.celula(), linha, coluna) >= primeiroAnel)
+                            .forEach(avaliar);
+                    break;
+                }
+                visitarAnel(linha, coluna, anel, avaliar);
+            }
+        } finally {
+            trava.readLock().unlock();
+        }
+
+        List<Vizinho<T>> resultado = new ArrayList<>(melhores);
+        resultado.sort(ordem);
+        return resultado;
+    }
+
+    public int tamanho() {
+        trava.readLock().lock();
+        try {
+            return pontos.size();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Distância em km pelo círculo máximo (haversine).
+     */
+    public static double distanciaKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLat = Math.toRadians(latitude2 - latitude1);
+        double dLon = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * RAIO_TERRA_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // =================== AUXILIARES ===================
+
+    private void visitarAnel(int linha, int coluna, int anel, Consumer<Ponto<T>> avaliar) {
+        for (int dl = -anel; dl <= anel; dl++) {
+            boolean borda = Math.abs(dl) == anel;
+            // Nas linhas da borda, todas as colunas; nas do meio, só as duas extremidades
+            for (int dc = -anel; dc <= anel; dc += borda || anel == 0 ? 1 : 2 * anel) {
+                List<Ponto<T>> balde = celulas.get(chave(linha + dl, coluna + dc));
+                if (balde != null) {
+                    balde.forEach(avaliar);
+                }
+            }
+        }
+    }
+
+    /**
+     * Menor distância possível entre a origem e um ponto do anel: ele está a pelo menos
+     * (anel - 1) células de distância em latitude ou em longitude. Em longitude, a célula
+     * encolhe com cos(latitude); usa-se a latitude mais alta que o anel alcança, com uma
+     * pequena folga para a aproximação.
+     */
+    private double distanciaMinimaDoAnel(double latitude, int anel) {
+        if (anel <= 1) {
+            return 0;
+        }
+        double graus = (anel - 1) * tamanhoCelula;
+        double latitudeMaxima = Math.min(89.9, Math.abs(latitude) + (anel + 1) * tamanhoCelula);
+        double emLongitude = graus * KM_POR_GRAU * Math.cos(Math.toRadians(latitudeMaxima));
+        return Math.min(graus * KM_POR_GRAU, emLongitude) * 0.99;
+    }
+
+    private int anelDe(long celula, int linha, int coluna) {
+        int linhaCelula = (int) (celula >> 32);
+        int colunaCelula = (int) celula;
+        return Math.max(Math.abs(linhaCelula - linha), Math.abs(colunaCelula - coluna));
+    }
+
+    private void removerSemTrava(long id) {
+        Ponto<T> anterior = pontos.remove(id);
+        if (anterior != null) {
+            List<Ponto<T>> balde = celulas.get(anterior.celula());
+            balde.remove(anterior);
+            if (balde.isEmpty()) {
+                celulas.remove(anterior.celula());
+            }
+        }
+    }
+
+    private int linha(double latitude) {
+        return (int) Math.floor(latitude / tamanhoCelula);
+    }
+
+    private int coluna(double longitude) {
+        return (int) Math.floor(longitude / tamanhoCelula);
+    }
+
+    private static long chave(int linha, int coluna) {
+        return ((long) linha << 32) | (coluna & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,62 @@
+package com.deliverytech.delivery_api.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mais frequentes de uma janela deslizante: um ResumoFrequentes por minuto, em um anel com
+ * os últimos JANELA_MAXIMA_MINUTOS minutos. Um minuto que sai da janela tem o seu resumo
+ * substituído pelo do minuto novo, então a memória fica em
+ * JANELA_MAXIMA_MINUTOS x capacidade contadores.
+ *
+ * Uma consulta de m minutos soma o minuto corrente (ainda incompleto) e os m - 1 anteriores:
+ * a borda mais antiga da janela tem a precisão de um minuto.
+ */
+public final class JanelaFrequentes {
+
+    public static final int JANELA_MAXIMA_MINUTOS = 60;
+
+    private final int capacidade;
+    private final ResumoFrequentes[] resumos = new ResumoFrequentes[JANELA_MAXIMA_MINUTOS];
+    // Minuto (desde a época) de cada posição do anel
+    private final long[] minutos = new long[JANELA_MAXIMA_MINUTOS];
+    private long ultimoMinuto = Long.MIN_VALUE;
+
+    public JanelaFrequentes(int capacidade) {
+        this.capacidade = capacidade;
+    }
+
+    public int capacidade() {
+        return capacidade;
+    }
+
+    public synchronized void registrar(long minuto, Long id, long peso) {
+        int posicao = (int) Math.floorMod(minuto, (long) JANELA_MAXIMA_MINUTOS);
+        if (resumos[posicao] == null || minutos[posicao] != minuto) {
+            resumos[posicao] = new ResumoFrequentes(capacidade);
+            minutos[posicao] = minuto;
+        }
+        resumos[posicao].registrar(id, peso);
+        ultimoMinuto = Math.max(ultimoMinuto, minuto);
+    }
+
+    /**
+     * Os limite mais frequentes nos minutos (agora - janelaMinutos, agora].
+     */
+    public synchronized ResumoFrequentes.Top top(long agora, int janelaMinutos, int limite) {
+        List<ResumoFrequentes> naJanela = new ArrayList<>(janelaMinutos);
+        for (int i = 0; i < JANELA_MAXIMA_MINUTOS; i++) {
+            if (resumos[i] != null && minutos[i] <= agora && minutos[i] > agora - janelaMinutos) {
+                naJanela.add(resumos[i]);
+            }
+        }
+        return ResumoFrequentes.top(naJanela, limite);
+    }
+
+    /**
+     * Sem registros nos últimos JANELA_MAXIMA_MINUTOS minutos: nenhuma consulta enxerga mais nada.
+     */
+    public synchronized boolean vazia(long agora) {
+        return ultimoMinuto <= agora - JANELA_MAXIMA_MINUTOS;
+    }
+}
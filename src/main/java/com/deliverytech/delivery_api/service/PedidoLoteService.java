@@ -0,0 +1,179 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.ItemPedidoRequestDTO;
+import com.deliverytech.delivery_api.dto.PedidoLoteResultadoDTO;
+import com.deliverytech.delivery_api.dto.PedidoRequestDTO;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.exception.EntidadeNaoEncontradaException;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.PedidoRepository;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Criação de pedidos em lote (POST /api/pedidos/lote).
+ *
+ * Os pedidos são processados em blocos: cada bloco resolve clientes, restaurantes
+ * e produtos com uma consulta por tipo e grava tudo em uma única transação.
+ * Um pedido inválido gera um resultado de erro sem afetar os demais. Os pedidos gravados
+ * de cada bloco são publicados juntos em um único evento PedidosCriados.
+ */
+@Service
+public class PedidoLoteService {
+
+    private final PedidoService pedidoService;
+    private final ApplicationEventPublisher eventos;
+    private final PedidoRepository pedidoRepository;
+    private final ClienteRepository clienteRepository;
+    private final RestauranteRepository restauranteRepository;
+    private final ProdutoRepository produtoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoBloco;
+    private final int tamanhoMaximo;
+
+    public PedidoLoteService(PedidoService pedidoService,
+                             ApplicationEventPublisher eventos,
+                             PedidoRepository pedidoRepository,
+                             ClienteRepository clienteRepository,
+                             RestauranteRepository restauranteRepository,
+                             ProdutoRepository produtoRepository,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${delivery.pedidos.lote.tamanho-bloco:100}") int tamanhoBloco,
+                             @Value("${delivery.pedidos.lote.tamanho-maximo:1000}") int tamanhoMaximo) {
+        this.pedidoService = pedidoService;
+        this.eventos = eventos;
+        this.pedidoRepository = pedidoRepository;
+        this.clienteRepository = clienteRepository;
+        this.restauranteRepository = restauranteRepository;
+        this.produtoRepository = produtoRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanhoBloco = tamanhoBloco;
+        this.tamanhoMaximo = tamanhoMaximo;
+    }
+
+    /**
+     * Cria os pedidos informados e devolve um resultado por pedido, na mesma ordem.
+     */
+    public List<PedidoLoteResultadoDTO> criarPedidos(List<PedidoRequestDTO> pedidos) {
+        if (pedidos == null || pedidos.isEmpty()) {
+            throw new RegraNegocioException("O lote deve ter pelo menos um pedido");
+        }
+        if (pedidos.size() > tamanhoMaximo) {
+            throw new RegraNegocioException("O lote excede o limite de " + tamanhoMaximo + " pedidos");
+        }
+
+        PedidoLoteResultadoDTO[] resultados = new PedidoLoteResultadoDTO[pedidos.size()];
+        for (int inicio = 0; inicio < pedidos.size(); inicio += tamanhoBloco) {
+            int fim = Math.min(inicio + tamanhoBloco, pedidos.size());
+            processarBloco(pedidos, inicio, fim, resultados);
+        }
+        return Arrays.asList(resultados);
+    }
+
+    // =================== AUXILIARES ===================
+
+    private void processarBloco(List<PedidoRequestDTO> pedidos, int inicio, int fim,
+                                PedidoLoteResultadoDTO[] resultados) {
+        Map<Integer, Pedido> validos = new LinkedHashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<PedidoRequestDTO> bloco = pedidos.subList(inicio, fim);
+                Map<Long, Cliente> clientes = porId(clienteRepository.findAllById(ids(bloco, PedidoRequestDTO::getClienteId)), Cliente::getId);
+                Map<Long, Restaurante> restaurantes = porId(restauranteRepository.findAllById(ids(bloco, PedidoRequestDTO::getRestauranteId)), Restaurante::getId);
+                Map<Long, Produto> produtos = carregarProdutos(bloco);
+
+                for (int i = inicio; i < fim; i++) {
+                    try {
+                        validos.put(i, montarPedido(pedidos.get(i), clientes, restaurantes, produtos));
+                    } catch (RegraNegocioException | EntidadeNaoEncontradaException e) {
+                        resultados[i] = PedidoLoteResultadoDTO.falha(i, e.getMessage());
+                    }
+                }
+
+                pedidoRepository.saveAll(validos.values());
+                pedidoRepository.flush();
+                eventos.publishEvent(new PedidosCriados(List.copyOf(validos.values())));
+            });
+        } catch (RuntimeException e) {
+            // A transação do bloco foi desfeita: nenhum pedido dele foi gravado. Os que já tinham
+            // falhado na validação mantêm o motivo; os demais (inclusive os que nem chegaram a ser
+            // montados) falham com o erro do bloco
+            for (int i = inicio; i < fim; i++) {
+                if (resultados[i] == null) {
+                    resultados[i] = PedidoLoteResultadoDTO.falha(i, "Falha ao gravar o bloco: " + e.getMessage());
+                }
+            }
+            return;
+        }
+        validos.forEach((i, pedido) -> resultados[i] = PedidoLoteResultadoDTO.criado(i, pedido.getId()));
+    }
+
+    private Pedido montarPedido(PedidoRequestDTO dto, Map<Long, Cliente> clientes,
+                                Map<Long, Restaurante> restaurantes, Map<Long, Produto> produtos) {
+        Cliente cliente = dto.getClienteId() == null ? null : clientes.get(dto.getClienteId());
+        if (cliente == null) throw new EntidadeNaoEncontradaException("Cliente não encontrado");
+        Restaurante restaurante = dto.getRestauranteId() == null ? null : restaurantes.get(dto.getRestauranteId());
+        if (restaurante == null) throw new EntidadeNaoEncontradaException("Restaurante não encontrado");
+
+        Map<Long, Integer> itens = paraMapaDeItens(dto.getItens());
+        pedidoService.validarPedido(cliente, restaurante, itens);
+        return pedidoService.montarPedido(cliente, restaurante, itens, produtos);
+    }
+
+    private Map<Long, Integer> paraMapaDeItens(List<ItemPedidoRequestDTO> itens) {
+        Map<Long, Integer> mapa = new LinkedHashMap<>();
+        if (itens == null) return mapa;
+        for (ItemPedidoRequestDTO item : itens) {
+            if (item.getProdutoId() == null) {
+                throw new RegraNegocioException("Item sem produto informado");
+            }
+            if (mapa.put(item.getProdutoId(), item.getQuantidade()) != null) {
+                throw new RegraNegocioException("Produto " + item.getProdutoId() + " repetido no pedido");
+            }
+        }
+        return mapa;
+    }
+
+    private Map<Long, Produto> carregarProdutos(List<PedidoRequestDTO> bloco) {
+        Set<Long> produtoIds = new HashSet<>();
+        for (PedidoRequestDTO dto : bloco) {
+            if (dto.getItens() == null) continue;
+            dto.getItens().stream()
+                    .map(ItemPedidoRequestDTO::getProdutoId)
+                    .filter(Objects::nonNull)
+                    .forEach(produtoIds::add);
+        }
+        if (produtoIds.isEmpty()) return new HashMap<>();
+        return porId(produtoRepository.findAllByIdComRestaurante(produtoIds), Produto::getId);
+    }
+
+    private static Set<Long> ids(List<PedidoRequestDTO> bloco, Function<PedidoRequestDTO, Long> extrator) {
+        return bloco.stream().map(extrator).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private static <T> Map<Long, T> porId(Iterable<T> entidades, Function<T, Long> id) {
+        Map<Long, T> mapa = new HashMap<>();
+        entidades.forEach(e -> mapa.put(id.apply(e), e));
+        return mapa;
+    }
+}
@@ -1,5 +1,10 @@
 package com.deliverytech.delivery_api.service;
 
+import com.deliverytech.delivery_api.dto.ItemPedidoResponseDTO;
+import com.deliverytech.delivery_api.dto.PaginaCursorDTO;
+import com.deliverytech.delivery_api.dto.PedidoResponseDTO;
+import com.deliverytech.delivery_api.dto.projection.CabecalhoPedido;
+import com.deliverytech.delivery_api.dto.projection.ItemPedidoResumo;
 import com.deliverytech.delivery_api.entity.Cliente;
 import com.deliverytech.delivery_api.entity.ItemPedido;
 import com.deliverytech.delivery_api.entity.Pedido;
@@ -8,33 +13,56 @@ import com.deliverytech.delivery_api.entity.Restaurante;
 import com.deliverytech.delivery_api.exception.EntidadeNaoEncontradaException;
 import com.deliverytech.delivery_api.exception.RegraNegocioException;
 import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.ItemPedidoRepository;
 import com.deliverytech.delivery_api.repository.PedidoRepository;
 import com.deliverytech.delivery_api.repository.ProdutoRepository;
 import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 @Service
 public class PedidoService {
+    public static final int LIMITE_MAXIMO_PAGINA = 100;
+
     private final PedidoRepository pedidoRepository;
     private final ClienteRepository clienteRepository;
     private final RestauranteRepository restauranteRepository;
     private final ProdutoRepository produtoRepository;
+    private final ItemPedidoRepository itemPedidoRepository;
+    private final AgregadoVendasService agregadoVendasService;
+    private final SerieTemporalService serieTemporalService;
+    private final AnalisePedidosService analisePedidosService;
+    private final ApplicationEventPublisher eventos;
 
     public PedidoService(PedidoRepository pedidoRepository,
                          ClienteRepository clienteRepository,
                          RestauranteRepository restauranteRepository,
-                         ProdutoRepository produtoRepository) {
+                         ProdutoRepository produtoRepository,
+                         ItemPedidoRepository itemPedidoRepository,
+                         AgregadoVendasService agregadoVendasService,
+                         SerieTemporalService serieTemporalService,
+                         AnalisePedidosService analisePedidosService,
+                         ApplicationEventPublisher eventos) {
         this.pedidoRepository = pedidoRepository;
         this.clienteRepository = clienteRepository;
         this.restauranteRepository = restauranteRepository;
         this.produtoRepository = produtoRepository;
+        this.itemPedidoRepository = itemPedidoRepository;
+        this.agregadoVendasService = agregadoVendasService;
+        this.serieTemporalService = serieTemporalService;
+        this.analisePedidosService = analisePedidosService;
+        this.eventos = eventos;
     }
 
     // =================== CRIAÇÃO E CÁLCULO ===================
@@ -49,12 +77,40 @@ public class PedidoService {
         Restaurante restaurante = restauranteRepository.findById(restauranteId)
                 .orElseThrow(() -> new EntidadeNaoEncontradaException("Restaurante não encontrado"));
 
+        validarPedido(cliente, restaurante, itensPedido);
+
+        // Todos os produtos do pedido são carregados em uma única consulta
+        Map<Long, Produto> produtos = carregarProdutos(itensPedido.keySet());
+
+        Pedido pedido = pedidoRepository.save(montarPedido(cliente, restaurante, itensPedido, produtos));
+        eventos.publishEvent(new PedidosCriados(List.of(pedido)));
+        return pedido;
+    }
+
+    /**
+     * Validações que não dependem dos produtos: cliente/restaurante ativos,
+     * pedido não vazio e quantidades positivas.
+     */
+    public void validarPedido(Cliente cliente, Restaurante restaurante, Map<Long, Integer> itensPedido) {
         if (!cliente.isAtivo()) throw new RegraNegocioException("Cliente inativo");
         if (!restaurante.isAtivo()) throw new RegraNegocioException("Restaurante inativo");
         if (itensPedido == null || itensPedido.isEmpty()) {
             throw new RegraNegocioException("O pedido deve ter pelo menos um item");
         }
 
+        for (Map.Entry<Long, Integer> item : itensPedido.entrySet()) {
+            if (item.getValue() == null || item.getValue() <= 0) {
+                throw new RegraNegocioException("A quantidade do produto " + item.getKey() + " deve ser positiva");
+            }
+        }
+    }
+
+    /**
+     * Monta o pedido (itens e total) em memória a partir de produtos já carregados.
+     * Não persiste nada; quem chama decide quando salvar.
+     */
+    public Pedido montarPedido(Cliente cliente, Restaurante restaurante,
+                               Map<Long, Integer> itensPedido, Map<Long, Produto> produtos) {
         Pedido pedido = new Pedido();
         pedido.setCliente(cliente);
         pedido.setRestaurante(restaurante);
@@ -63,22 +119,20 @@ public class PedidoService {
 
         List<ItemPedido> listaDeItens = new ArrayList<>();
 
-        // Processamento e validação de itens (lógica correta)
+        // Processamento e validação de itens, em memória
         for (Map.Entry<Long, Integer> item : itensPedido.entrySet()) {
             Long produtoId = item.getKey();
             Integer quantidade = item.getValue();
 
-            if (quantidade <= 0) {
-                throw new RegraNegocioException("A quantidade do produto " + produtoId + " deve ser positiva");
-            }
-
-            Produto produto = produtoRepository.findById(produtoId)
-                    .orElseThrow(() -> new EntidadeNaoEncontradaException("Produto " + produtoId + " não encontrado"));
+            Produto produto = produtos.get(produtoId);
 
+            if (produto == null) {
+                throw new EntidadeNaoEncontradaException("Produto " + produtoId + " não encontrado");
+            }
             if (!produto.isAtivo()) {
                 throw new RegraNegocioException("Produto " + produto.getNome() + " está indisponível");
             }
-            if (!produto.getRestaurante().getId().equals(restauranteId)) {
+            if (!produto.getRestaurante().getId().equals(restaurante.getId())) {
                 throw new RegraNegocioException("Produto " + produto.getNome() + " não pertence ao restaurante " + restaurante.getNome());
             }
 
@@ -93,8 +147,7 @@ public class PedidoService {
 
         pedido.setItens(listaDeItens);
         pedido.calcularTotal();
-
-        return pedidoRepository.save(pedido);
+        return pedido;
     }
 
     /**
@@ -103,14 +156,13 @@ public class PedidoService {
     @Transactional(readOnly = true)
     public BigDecimal calcularTotal(Long restauranteId, Map<Long, Integer> itensPedido) {
         BigDecimal totalProdutos = BigDecimal.ZERO;
+        Map<Long, Produto> produtos = carregarProdutos(itensPedido.keySet());
 
         // Processamento e validação de itens (similar ao criarPedido)
         for (Map.Entry<Long, Integer> item : itensPedido.entrySet()) {
-            Long produtoId = item.getKey();
             Integer quantidade = item.getValue();
 
-            Produto produto = produtoRepository.findById(produtoId)
-                    .orElseThrow(() -> new EntidadeNaoEncontradaException("Produto " + produtoId + " não encontrado"));
+            Produto produto = produtos.get(item.getKey());
 
             if (!produto.isAtivo()) {
                 throw new RegraNegocioException("Produto " + produto.getNome() + " está indisponível");
@@ -129,7 +181,7 @@ public class PedidoService {
     // =================== BUSCAS (READ) ===================
 
     /**
-     * GET /api/pedidos/{id} - Busca um pedido completo por ID.
+     * Busca um pedido completo por ID (grafo completo), pronto para virar PedidoResponseDTO.
      * **CORRIGIDO** para usar o método padronizado do Repositório: findByIdCompleto
      */
     @Transactional(readOnly = true)
@@ -141,59 +193,77 @@ public class PedidoService {
     }
 
     /**
-     * GET /api/clientes/{clienteId}/pedidos - Histórico do cliente.
-     * **CORRIGIDO** para usar o método padronizado do Repositório: findByClienteIdCompleto
+     * GET /api/pedidos/{id} - Leitura por projeção (cabeçalho + itens), sem carregar entidades.
+     */
+    @Transactional(readOnly = true)
+    public PedidoResponseDTO buscarResumoPorId(Long id) {
+        CabecalhoPedido cabecalho = pedidoRepository.findCabecalhoPorId(id)
+                .orElseThrow(() -> new EntidadeNaoEncontradaException("Pedido não encontrado"));
+        return montarRespostas(List.of(cabecalho)).get(0);
+    }
+
+    /**
+     * GET /api/clientes/{clienteId}/pedidos - Histórico do cliente, paginado por cursor.
      */
     @Transactional(readOnly = true)
-    public List<Pedido> buscarPorCliente(Long clienteId) {
+    public PaginaCursorDTO<PedidoResponseDTO> buscarPorCliente(Long clienteId, String cursor, int limite) {
         if (!clienteRepository.existsById(clienteId)) {
             throw new EntidadeNaoEncontradaException("Cliente não encontrado");
         }
-        // Substitui pedidoRepository.findByClienteWithItens(clienteId)
-        return pedidoRepository.findByClienteIdCompleto(clienteId);
+        CursorPedido posicao = CursorPedido.decodificar(cursor);
+        return paginar(pedidoRepository.findPaginaPorCliente(
+                clienteId, posicao.dataPedido(), posicao.id(), limiteDeBusca(limite)), limite);
     }
 
     /**
-     * GET /api/restaurantes/{restauranteId}/pedidos - Pedidos do restaurante.
-     * **CORRIGIDO** para usar o método padronizado do Repositório: findByRestauranteIdCompleto
+     * GET /api/restaurantes/{restauranteId}/pedidos - Pedidos do restaurante, paginados por cursor.
      */
     @Transactional(readOnly = true)
-    public List<Pedido> buscarPorRestaurante(Long restauranteId) {
+    public PaginaCursorDTO<PedidoResponseDTO> buscarPorRestaurante(Long restauranteId, String cursor, int limite) {
         if (!restauranteRepository.existsById(restauranteId)) {
             throw new EntidadeNaoEncontradaException("Restaurante não encontrado");
         }
-        // Substitui pedidoRepository.findByRestauranteIdWithItens(restauranteId)
-        return pedidoRepository.findByRestauranteIdCompleto(restauranteId);
+        CursorPedido posicao = CursorPedido.decodificar(cursor);
+        return paginar(pedidoRepository.findPaginaPorRestaurante(
+                restauranteId, posicao.dataPedido(), posicao.id(), limiteDeBusca(limite)), limite);
     }
 
     /**
-     * GET /api/pedidos - Listar com filtros dinâmicos.
-     * **CORRIGIDO** para usar o método padronizado do Repositório: listarComFiltrosCompleto
+     * GET /api/pedidos - Listar com filtros dinâmicos, paginado por cursor.
      */
     @Transactional(readOnly = true)
-    public List<Pedido> listarComFiltros(String status, LocalDateTime dataInicio, LocalDateTime dataFim) {
+    public PaginaCursorDTO<PedidoResponseDTO> listarComFiltros(String status, LocalDateTime dataInicio, LocalDateTime dataFim,
+                                                               String cursor, int limite) {
         if (dataInicio != null && dataFim != null && dataInicio.isAfter(dataFim)) {
             throw new RegraNegocioException("A data de início não pode ser posterior à data de fim.");
         }
-        // Substitui pedidoRepository.listarComFiltros(...)
-        return pedidoRepository.listarComFiltrosCompleto(status, dataInicio, dataFim);
+        CursorPedido posicao = CursorPedido.decodificar(cursor);
+        return paginar(pedidoRepository.findPaginaComFiltros(
+                status, dataInicio, dataFim, posicao.dataPedido(), posicao.id(), limiteDeBusca(limite)), limite);
     }
 
     // =================== ATUALIZAÇÃO E CANCELAMENTO ===================
 
     /**
      * PATCH /api/pedidos/{id}/status - Atualiza o status do pedido.
-     * **CONSOLIDADO** e **CORRIGIDO**
+     * Entrar em ENTREGUE ou sair dele atualiza os agregados de vendas, e toda mudança move o
+     * pedido de status nos resumos das séries temporais, na mesma transação.
      */
     @Transactional
     public Pedido atualizarStatus(Long pedidoId, String novoStatus) {
-        // Usa o método buscarPorIdCompleto para garantir o carregamento do pedido.
-        Pedido pedido = buscarPorIdCompleto(pedidoId);
+        // Pedido completo (a resposta lista os itens), com a linha travada até o commit
+        Pedido pedido = pedidoRepository.findByIdCompletoParaAtualizacao(pedidoId);
+        if (pedido == null) throw new EntidadeNaoEncontradaException("Pedido não encontrado");
 
         // Adicionar validação de transição de status aqui (ex: PENDENTE -> APROVADO)
 
+        String statusAnterior = pedido.getStatus();
         pedido.setStatus(novoStatus);
-        return pedidoRepository.save(pedido);
+        Pedido salvo = pedidoRepository.save(pedido);
+        agregadoVendasService.registrarTransicao(salvo, statusAnterior);
+        serieTemporalService.registrarTransicao(salvo, statusAnterior);
+        analisePedidosService.registrarTransicao(salvo);
+        return salvo;
     }
 
     /**
@@ -202,7 +272,9 @@ public class PedidoService {
      */
     @Transactional
     public void cancelarPedido(Long id) {
-        Pedido pedido = buscarPorIdCompleto(id);
+        // Travado como em atualizarStatus; os itens entram nos resumos das séries temporais
+        Pedido pedido = pedidoRepository.findByIdCompletoParaAtualizacao(id);
+        if (pedido == null) throw new EntidadeNaoEncontradaException("Pedido não encontrado");
 
         if (!pedido.getStatus().equals("PENDENTE")) {
             throw new RegraNegocioException("Pedido em status '" + pedido.getStatus() + "' não pode ser cancelado.");
@@ -210,5 +282,74 @@ public class PedidoService {
 
         pedido.setStatus("CANCELADO");
         pedidoRepository.save(pedido);
+        serieTemporalService.registrarTransicao(pedido, "PENDENTE");
+        analisePedidosService.registrarTransicao(pedido);
+    }
+
+    // =================== AUXILIARES ===================
+
+    // Busca um registro a mais que o pedido para saber se existe próxima página
+    private Limit limiteDeBusca(int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO_PAGINA) {
+            throw new RegraNegocioException("O limite da página deve estar entre 1 e " + LIMITE_MAXIMO_PAGINA);
+        }
+        return Limit.of(limite + 1);
+    }
+
+    private PaginaCursorDTO<PedidoResponseDTO> paginar(List<CabecalhoPedido> cabecalhos, int limite) {
+        if (cabecalhos.size() <= limite) {
+            return new PaginaCursorDTO<>(montarRespostas(cabecalhos), null);
+        }
+        List<CabecalhoPedido> pagina = cabecalhos.subList(0, limite);
+        return new PaginaCursorDTO<>(montarRespostas(pagina), CursorPedido.depoisDe(pagina.get(limite - 1)).codificar());
+    }
+
+    // Segunda consulta: itens de todos os pedidos da página de uma vez
+    private List<PedidoResponseDTO> montarRespostas(List<CabecalhoPedido> cabecalhos) {
+        if (cabecalhos.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, PedidoResponseDTO> porId = new LinkedHashMap<>();
+        for (CabecalhoPedido cabecalho : cabecalhos) {
+            PedidoResponseDTO dto = new PedidoResponseDTO();
+            dto.setId(cabecalho.id());
+            dto.setClienteId(cabecalho.clienteId());
+            dto.setClienteNome(cabecalho.clienteNome());
+            dto.setRestauranteId(cabecalho.restauranteId());
+            dto.setRestauranteNome(cabecalho.restauranteNome());
+            dto.setTotal(cabecalho.total());
+            dto.setStatus(cabecalho.status());
+            dto.setDataPedido(cabecalho.dataPedido());
+            dto.setItens(new ArrayList<>());
+            porId.put(cabecalho.id(), dto);
+        }
+
+        for (ItemPedidoResumo item : itemPedidoRepository.findResumosPorPedidoIds(porId.keySet())) {
+            ItemPedidoResponseDTO itemDto = new ItemPedidoResponseDTO();
+            itemDto.setNomeProduto(item.nomeProduto());
+            itemDto.setQuantidade(item.quantidade());
+            itemDto.setPrecoUnitario(item.precoUnitario());
+            itemDto.setSubtotal(item.precoUnitario() == null || item.quantidade() == null ? BigDecimal.ZERO
+                    : item.precoUnitario().multiply(new BigDecimal(item.quantidade())));
+            porId.get(item.pedidoId()).getItens().add(itemDto);
+        }
+        return new ArrayList<>(porId.values());
+    }
+
+    /**
+     * Resolve todos os produtos informados em uma única consulta (com o restaurante).
+     * Lança EntidadeNaoEncontradaException para o primeiro ID inexistente.
+     */
+    private Map<Long, Produto> carregarProdutos(Collection<Long> produtoIds) {
+        Map<Long, Produto> produtos = new HashMap<>();
+        for (Produto produto : produtoRepository.findAllByIdComRestaurante(produtoIds)) {
+            produtos.put(produto.getId(), produto);
+        }
+        for (Long produtoId : produtoIds) {
+            if (!produtos.containsKey(produtoId)) {
+                throw new EntidadeNaoEncontradaException("Produto " + produtoId + " não encontrado");
+            }
+        }
+        return produtos;
     }
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.entity.Pedido;
+
+import java.util.Collection;
+
+/**
+ * Pedidos recém-gravados, publicado na transação que os criou (PedidoService e PedidoLoteService).
+ *
+ * Quem grava no banco escuta com @EventListener e roda nessa mesma transação; quem só atualiza
+ * memória escuta com @TransactionalEventListener(AFTER_COMMIT) e não vê pedidos desfeitos.
+ */
+public record PedidosCriados(Collection<Pedido> pedidos) {
+}
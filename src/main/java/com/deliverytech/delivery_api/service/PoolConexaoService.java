@@ -0,0 +1,87 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.config.DataSourceRoteado;
+import com.deliverytech.delivery_api.config.ReplicaH2Local;
+import com.deliverytech.delivery_api.dto.EstatisticaPoolDTO;
+import com.deliverytech.delivery_api.dto.SincronizacaoReplicaDTO;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Métricas dos pools de conexão (primário e, se configurada, réplica) e cópia sob demanda
+ * da réplica H2 local.
+ */
+@Service
+public class PoolConexaoService {
+
+    private final DataSource dataSource;
+    private final DataSourceRoteado dataSourceRoteado;
+    private final ReplicaH2Local replicaH2Local;
+
+    public PoolConexaoService(DataSource dataSource,
+                              ObjectProvider<DataSourceRoteado> dataSourceRoteado,
+                              ObjectProvider<ReplicaH2Local> replicaH2Local) {
+        this.dataSource = dataSource;
+        this.dataSourceRoteado = dataSourceRoteado.getIfAvailable();
+        this.replicaH2Local = replicaH2Local.getIfAvailable();
+    }
+
+    /**
+     * Conexões ativas, ociosas e threads à espera em cada pool, mais as conexões que o
+     * roteamento entregou de cada um para leitura e para escrita.
+     */
+    public List<EstatisticaPoolDTO> estatisticas() {
+        List<EstatisticaPoolDTO> pools = new ArrayList<>();
+        if (dataSourceRoteado == null) {
+            HikariDataSource unico = hikari(dataSource);
+            if (unico != null) {
+                pools.add(estatistica(unico, null, null));
+            }
+            return pools;
+        }
+        for (DataSourceRoteado.Destino destino : DataSourceRoteado.Destino.values()) {
+            pools.add(estatistica(dataSourceRoteado.pool(destino),
+                    dataSourceRoteado.conexoesLeitura(destino), dataSourceRoteado.conexoesEscrita(destino)));
+        }
+        return pools;
+    }
+
+    /**
+     * Copia o primário para a réplica agora (só com delivery.datasource.replica.copiar-do-primario).
+     */
+    public SincronizacaoReplicaDTO sincronizarReplica() {
+        if (replicaH2Local == null) {
+            throw new RegraNegocioException("Não há réplica local alimentada pelo primário nesta instância");
+        }
+        return replicaH2Local.sincronizar();
+    }
+
+    // =================== AUXILIARES ===================
+
+    private static EstatisticaPoolDTO estatistica(HikariDataSource pool, Long conexoesLeitura, Long conexoesEscrita) {
+        // O pool só existe depois da primeira conexão pedida
+        HikariPoolMXBean metricas = pool.getHikariPoolMXBean();
+        return new EstatisticaPoolDTO(pool.getPoolName(), pool.getJdbcUrl(),
+                metricas == null ? null : metricas.getActiveConnections(),
+                metricas == null ? null : metricas.getIdleConnections(),
+                metricas == null ? null : metricas.getTotalConnections(),
+                metricas == null ? null : metricas.getThreadsAwaitingConnection(),
+                pool.getMaximumPoolSize(), conexoesLeitura, conexoesEscrita);
+    }
+
+    private static HikariDataSource hikari(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
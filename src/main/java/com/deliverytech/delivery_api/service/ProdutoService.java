@@ -16,11 +16,17 @@ import java.util.List;
 public class ProdutoService {
     private final ProdutoRepository produtoRepository;
     private final RestauranteRepository restauranteRepository;
+    private final CardapioCacheService cardapioCacheService;
+    private final BuscaProdutoService buscaProdutoService;
 
     public ProdutoService(ProdutoRepository produtoRepository,
-                          RestauranteRepository restauranteRepository) {
+                          RestauranteRepository restauranteRepository,
+                          CardapioCacheService cardapioCacheService,
+                          BuscaProdutoService buscaProdutoService) {
         this.produtoRepository = produtoRepository;
         this.restauranteRepository = restauranteRepository;
+        this.cardapioCacheService = cardapioCacheService;
+        this.buscaProdutoService = buscaProdutoService;
     }
 
     // =================== CREATE ===================
@@ -36,7 +42,10 @@ public class ProdutoService {
         produto.setRestaurante(restaurante);
         produto.setAtivo(true);
 
-        return produtoRepository.save(produto);
+        Produto salvo = produtoRepository.save(produto);
+        cardapioCacheService.invalidar(restauranteId);
+        buscaProdutoService.indexar(salvo);
+        return salvo;
     }
 
     // =================== READ ===================
@@ -62,14 +71,15 @@ public class ProdutoService {
     }
 
     /**
-     * NOVO MÉTODO: Suporta GET /api/produtos/buscar?nome={nome}
+     * NOVO MÉTODO: Suporta GET /api/produtos/buscar?nome={nome}&limite={limite}
+     * Busca no índice em memória (nome e descrição), ordenada por relevância.
      */
-    public List<Produto> buscarPorNome(String nome) {
-        // O repositório deve ter o método findByNomeContainingIgnoreCase
-        return produtoRepository.findByNomeContainingIgnoreCase(nome);
+    public List<Produto> buscarPorNome(String nome, int limite) {
+        return buscaProdutoService.buscar(nome, limite);
     }
 
     // =================== UPDATE ===================
+    @Transactional
     public Produto atualizar(Long id, Produto novosDados) {
         Produto existente = produtoRepository.findById(id)
                 .orElseThrow(() -> new EntidadeNaoEncontradaException("Produto não encontrado"));
@@ -81,24 +91,30 @@ public class ProdutoService {
         existente.setPreco(novosDados.getPreco());
         existente.setAtivo(novosDados.isAtivo());
 
+        cardapioCacheService.invalidar(existente.getRestaurante().getId());
+        buscaProdutoService.indexar(existente);
         return produtoRepository.save(existente);
     }
 
     // PATCH /api/produtos/{id}/disponibilidade
+    // Alteração pela entidade (e não por UPDATE em massa): só a entrada deste produto
+    // é atualizada no cache de segundo nível, em vez de esvaziar a região inteira.
     @Transactional
     public void alterarDisponibilidade(Long id, boolean ativo) {
-        if (!produtoRepository.existsById(id)) {
-            throw new EntidadeNaoEncontradaException("Produto não encontrado");
-        }
-        produtoRepository.setAtivo(id, ativo);
+        Produto produto = produtoRepository.findById(id)
+                .orElseThrow(() -> new EntidadeNaoEncontradaException("Produto não encontrado"));
+        produto.setAtivo(ativo);
+        cardapioCacheService.invalidar(produto.getRestaurante().getId());
     }
 
     // =================== DELETE ===================
+    @Transactional
     public void deletar(Long id) {
-        if (!produtoRepository.existsById(id)) {
-            throw new EntidadeNaoEncontradaException("Produto não encontrado");
-        }
-        produtoRepository.deleteById(id);
+        Produto produto = produtoRepository.findById(id)
+                .orElseThrow(() -> new EntidadeNaoEncontradaException("Produto não encontrado"));
+        produtoRepository.delete(produto);
+        cardapioCacheService.invalidar(produto.getRestaurante().getId());
+        buscaProdutoService.remover(id);
     }
 
     // =================== VALIDAÇÃO ===================
@@ -0,0 +1,163 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.ProdutoEmAltaDTO;
+import com.deliverytech.delivery_api.dto.ProdutosEmAltaDTO;
+import com.deliverytech.delivery_api.entity.ItemPedido;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Produtos em alta: os mais pedidos nos últimos minutos, em todos os restaurantes e por
+ * restaurante, estimados por resumos Space-Saving em janelas deslizantes (JanelaFrequentes).
+ *
+ * - Memória limitada: cada janela guarda no máximo 60 x capacidade contadores, não importa o
+ *   tamanho do cardápio; a janela de um restaurante sem pedidos na última hora é descartada.
+ * - Erro conhecido: cada produto vem com a quantidade estimada e a mínima garantida; a
+ *   estimativa nunca passa da real em mais do que erroMaximo (<= itens da janela / capacidade).
+ *
+ * Alimentada pelos itens dos pedidos criados (evento PedidosCriados), depois do
+ * commit. O resumo só soma: um pedido cancelado continua contando até sair da janela.
+ * Vive só em memória e começa vazio a cada subida da aplicação.
+ */
+@Service
+public class ProdutosEmAltaService {
+
+    public static final int JANELA_PADRAO_MINUTOS = 15;
+
+    private final ProdutoRepository produtoRepository;
+    private final TransactionTemplate leitura;
+    private final Clock clock;
+    private final int capacidadeRestaurante;
+    private final JanelaFrequentes geral;
+    private final Map<Long, JanelaFrequentes> porRestaurante = new ConcurrentHashMap<>();
+    private volatile long minutoDaLimpeza = Long.MIN_VALUE;
+
+    @Autowired
+    public ProdutosEmAltaService(ProdutoRepository produtoRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${delivery.produtos-em-alta.capacidade-geral:256}") int capacidadeGeral,
+                                 @Value("${delivery.produtos-em-alta.capacidade-restaurante:32}") int capacidadeRestaurante) {
+        this(produtoRepository, transactionManager, capacidadeGeral, capacidadeRestaurante, Clock.systemDefaultZone());
+    }
+
+    public ProdutosEmAltaService(ProdutoRepository produtoRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 int capacidadeGeral, int capacidadeRestaurante, Clock clock) {
+        this.produtoRepository = produtoRepository;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.clock = clock;
+        this.capacidadeRestaurante = capacidadeRestaurante;
+        this.geral = new JanelaFrequentes(capacidadeGeral);
+    }
+
+    // =================== REGISTRO ===================
+
+    /**
+     * Soma os itens dos pedidos recém-criados depois do commit, no minuto em que ele acontece.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void registrarCriacao(PedidosCriados evento) {
+        Map<Long, Map<Long, Long>> quantidades = new HashMap<>();
+        for (Pedido pedido : evento.pedidos()) {
+            for (ItemPedido item : pedido.getItens()) {
+                if (item.getProduto() == null || item.getQuantidade() == null) {
+                    continue;
+                }
+                quantidades.computeIfAbsent(pedido.getRestaurante().getId(), id -> new HashMap<>())
+                        .merge(item.getProduto().getId(), item.getQuantidade().longValue(), Long::sum);
+            }
+        }
+        if (!quantidades.isEmpty()) {
+            registrar(quantidades);
+        }
+    }
+
+    // =================== CONSULTA ===================
+
+    /**
+     * Os limite produtos mais pedidos nos últimos minutos (1 a 60), de um restaurante ou de todos
+     * (restauranteId nulo). Restaurante sem pedidos na janela devolve a lista vazia.
+     */
+    public ProdutosEmAltaDTO emAlta(Long restauranteId, int minutos, int limite) {
+        if (minutos < 1 || minutos > JanelaFrequentes.JANELA_MAXIMA_MINUTOS) {
+            throw new RegraNegocioException("A janela deve ter entre 1 e " + JanelaFrequentes.JANELA_MAXIMA_MINUTOS + " minutos");
+        }
+        int capacidade = restauranteId == null ? geral.capacidade() : capacidadeRestaurante;
+        if (limite < 1 || limite > capacidade) {
+            throw new RegraNegocioException("O limite deve estar entre 1 e " + capacidade);
+        }
+
+        long agora = clock.millis();
+        long minuto = Math.floorDiv(agora, 60_000L);
+        JanelaFrequentes janela = restauranteId == null ? geral : porRestaurante.get(restauranteId);
+        ResumoFrequentes.Top top = janela == null
+                ? ResumoFrequentes.top(List.of(), limite)
+                : janela.top(minuto, minutos, limite);
+
+        Map<Long, Produto> produtos = new HashMap<>();
+        if (!top.itens().isEmpty()) {
+            leitura.executeWithoutResult(status -> produtoRepository.findAllById(
+                    top.itens().stream().map(ResumoFrequentes.Estimativa::id).toList())
+                    .forEach(produto -> produtos.put(produto.getId(), produto)));
+        }
+        List<ProdutoEmAltaDTO> itens = new ArrayList<>(top.itens().size());
+        for (ResumoFrequentes.Estimativa estimativa : top.itens()) {
+            Produto produto = produtos.get(estimativa.id());
+            itens.add(new ProdutoEmAltaDTO(estimativa.id(),
+                    produto == null ? null : produto.getNome(),
+                    produto == null ? null : produto.getRestaurante().getId(),
+                    estimativa.contagem(), estimativa.minima(), estimativa.erro(), top.garantido(estimativa)));
+        }
+
+        return new ProdutosEmAltaDTO(restauranteId, minutos,
+                horario((minuto - minutos + 1) * 60_000L), horario(agora),
+                top.total(), top.erroMaximo(), itens);
+    }
+
+    // =================== AUXILIARES ===================
+
+    private void registrar(Map<Long, Map<Long, Long>> quantidades) {
+        long minuto = Math.floorDiv(clock.millis(), 60_000L);
+        quantidades.forEach((restauranteId, porProduto) -> {
+            porProduto.forEach((produtoId, quantidade) -> geral.registrar(minuto, produtoId, quantidade));
+            // Dentro do compute: a limpeza não descarta a janela no meio de um registro
+            porRestaurante.compute(restauranteId, (id, janela) -> {
+                JanelaFrequentes atual = janela != null ? janela : new JanelaFrequentes(capacidadeRestaurante);
+                porProduto.forEach((produtoId, quantidade) -> atual.registrar(minuto, produtoId, quantidade));
+                return atual;
+            });
+        });
+        limparInativos(minuto);
+    }
+
+    // Uma vez por minuto, descarta as janelas dos restaurantes sem pedidos na última hora
+    private void limparInativos(long minuto) {
+        if (minuto == minutoDaLimpeza) {
+            return;
+        }
+        minutoDaLimpeza = minuto;
+        for (Long restauranteId : porRestaurante.keySet()) {
+            porRestaurante.computeIfPresent(restauranteId, (id, janela) -> janela.vazia(minuto) ? null : janela);
+        }
+    }
+
+    private LocalDateTime horario(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), clock.getZone());
+    }
+}
@@ -0,0 +1,133 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.config.LeituraNoPrimario;
+import com.deliverytech.delivery_api.dto.RestauranteProximoDTO;
+import com.deliverytech.delivery_api.entity.CepCoordenada;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Restaurantes próximos a um CEP (GET /api/restaurantes/proximos/{cep}) pelo IndiceEspacial.
+ *
+ * O índice guarda, além das coordenadas, os campos exibidos na resposta, e o CEP é resolvido
+ * em memória pelo CepService: a busca não consulta o banco. É montado quando a aplicação
+ * sobe e acompanha as escritas de RestauranteService depois do commit; restaurantes gravados
+ * direto pelo repositório só entram na próxima reconstruir().
+ */
+@Service
+public class ProximidadeService implements Reconstruivel {
+
+    public static final int LIMITE_MAXIMO = 100;
+
+    // 0,02° ≈ 2,2 km: poucos restaurantes por célula mesmo em bairros densos
+    private static final double TAMANHO_CELULA = 0.02;
+
+    // Campos do restaurante que a busca devolve
+    private record Local(Long id, String nome, String categoria, Double avaliacao, BigDecimal taxaEntrega,
+                         boolean ativo, String cep, double latitude, double longitude) { }
+
+    private final RestauranteRepository restauranteRepository;
+    private final CepService cepService;
+    private final TransactionTemplate leitura;
+
+    private final EstruturaEmMemoria<IndiceEspacial<Local>> indice = new EstruturaEmMemoria<>(new IndiceEspacial<>(TAMANHO_CELULA));
+
+    public ProximidadeService(RestauranteRepository restauranteRepository,
+                              CepService cepService,
+                              PlatformTransactionManager transactionManager) {
+        this.restauranteRepository = restauranteRepository;
+        this.cepService = cepService;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+    }
+
+    // =================== BUSCA ===================
+
+    /**
+     * Restaurantes mais próximos do CEP, do mais perto para o mais longe.
+     * @param raioKm distância máxima (null = sem limite, apenas os "limite" mais próximos)
+     * @param ativo filtra por status (null = todos)
+     * @param categoria filtra pela categoria, sem diferenciar maiúsculas (null = todas)
+     */
+    public List<RestauranteProximoDTO> buscarProximos(String cep, int limite, Double raioKm, Boolean ativo, String categoria) {
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new RegraNegocioException("O limite da busca deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+        if (raioKm != null && raioKm <= 0) {
+            throw new RegraNegocioException("O raio da busca deve ser positivo");
+        }
+        CepCoordenada origem = cepService.resolver(cep);
+
+        Predicate<Local> filtro = local -> (ativo == null || local.ativo() == ativo)
+                && (categoria == null || categoria.equalsIgnoreCase(local.categoria()));
+        return indice.atual().proximos(origem.getLatitude(), origem.getLongitude(), limite,
+                        raioKm == null ? Double.POSITIVE_INFINITY : raioKm, filtro).stream()
+                .map(vizinho -> paraResposta(vizinho.valor(), vizinho.distanciaKm()))
+                .toList();
+    }
+
+    // =================== ATUALIZAÇÃO ===================
+
+    /**
+     * Atualiza o restaurante no índice depois do commit (os campos são lidos agora).
+     * Sem coordenadas, ele sai do índice.
+     */
+    public void indexar(Restaurante restaurante) {
+        if (restaurante.getLatitude() == null || restaurante.getLongitude() == null) {
+            remover(restaurante.getId());
+            return;
+        }
+        Local local = paraLocal(restaurante);
+        // Reaplicável: inserir substitui
+        indice.aplicarAposCommit(alvo -> alvo.inserir(local.id(), local.latitude(), local.longitude(), local));
+    }
+
+    public void remover(Long restauranteId) {
+        indice.aplicarAposCommit(alvo -> alvo.remover(restauranteId));
+    }
+
+    /**
+     * Monta um índice novo a partir do banco e o coloca no lugar do atual.
+     * @return quantidade de restaurantes indexados
+     */
+    @Override
+    public Integer reconstruir() {
+        return indice.reconstruir(() -> {
+            IndiceEspacial<Local> novo = new IndiceEspacial<>(TAMANHO_CELULA);
+            LeituraNoPrimario.executar(() -> leitura.executeWithoutResult(status -> {
+                try (Stream<Restaurante> restaurantes = restauranteRepository.streamComCoordenadas()) {
+                    restaurantes.map(this::paraLocal)
+                            .forEach(local -> novo.inserir(local.id(), local.latitude(), local.longitude(), local));
+                }
+            }));
+            return novo;
+        }).tamanho();
+    }
+
+    public int tamanho() {
+        return indice.atual().tamanho();
+    }
+
+    // =================== AUXILIARES ===================
+
+    private Local paraLocal(Restaurante restaurante) {
+        return new Local(restaurante.getId(), restaurante.getNome(), restaurante.getCategoria(),
+                restaurante.getAvaliacao(), restaurante.getTaxaEntrega(), restaurante.isAtivo(),
+                restaurante.getCep(), restaurante.getLatitude(), restaurante.getLongitude());
+    }
+
+    private RestauranteProximoDTO paraResposta(Local local, double distanciaKm) {
+        return new RestauranteProximoDTO(local.id(), local.nome(), local.categoria(), local.avaliacao(),
+                local.taxaEntrega(), local.ativo(), local.cep(), local.latitude(), local.longitude(),
+                Math.round(distanciaKm * 1000) / 1000.0);
+    }
+}
@@ -0,0 +1,27 @@
+package com.deliverytech.delivery_api.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Monta todas as estruturas Reconstruivel quando a aplicação sobe: depois dos CommandLineRunner
+ * (DatabaseLoader), que gravam direto pelo repositório, para que a carga inicial já entre nelas.
+ *
+ * As chamadas passam pelo proxy do Spring: as reconstruções @Transactional rodam na própria transação.
+ */
+@Component
+class ReconstrucaoAoIniciar {
+
+    private final ObjectProvider<Reconstruivel> estruturas;
+
+    ReconstrucaoAoIniciar(ObjectProvider<Reconstruivel> estruturas) {
+        this.estruturas = estruturas;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirTodas() {
+        estruturas.orderedStream().forEach(Reconstruivel::reconstruir);
+    }
+}
@@ -0,0 +1,14 @@
+package com.deliverytech.delivery_api.service;
+
+/**
+ * Estrutura derivada do banco (índice, tabela, colunas ou resumos) que pode ser recalculada por
+ * inteiro a partir dele. Todas são reconstruídas uma vez na subida por ReconstrucaoAoIniciar.
+ */
+interface Reconstruivel {
+
+    /**
+     * Recalcula a estrutura a partir do banco.
+     * @return resumo da reconstrução (quantidade carregada ou relatório)
+     */
+    Object reconstruir();
+}
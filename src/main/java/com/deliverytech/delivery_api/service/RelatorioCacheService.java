@@ -0,0 +1,160 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.config.LeituraNoPrimario;
+import com.deliverytech.delivery_api.dto.EstatisticaRelatorioCacheDTO;
+import com.deliverytech.delivery_api.dto.projection.RelatorioFaturamentoCategoria;
+import com.deliverytech.delivery_api.dto.projection.RelatorioProdutosMaisVendidos;
+import com.deliverytech.delivery_api.dto.projection.RelatorioRankingClientes;
+import com.deliverytech.delivery_api.dto.projection.RelatorioVendasRestaurante;
+import com.deliverytech.delivery_api.enums.RelatorioCacheado;
+import com.deliverytech.delivery_api.repository.PedidoRepository;
+import com.deliverytech.delivery_api.repository.VendaProdutoRepository;
+import com.deliverytech.delivery_api.repository.VendaRestauranteRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resultados dos relatórios agregados (vendas por restaurante, produtos mais vendidos,
+ * faturamento por categoria e ranking de clientes), um cache por relatório com TTL próprio.
+ *
+ * - Falhas concorrentes do mesmo relatório fazem uma só consulta: as outras leituras esperam
+ *   a carga em andamento (o Caffeine carrega cada chave uma vez).
+ * - Passado o TTL, a leitura ainda recebe o resultado anterior e dispara a revalidação em
+ *   segundo plano (uma por relatório). Só depois de TTL + janela de revalidação sem leituras
+ *   o resultado expira e a próxima leitura espera a consulta.
+ * - AgregadoVendasService chama invalidar() quando um pedido entra ou sai de ENTREGUE e ao
+ *   reconstruir os agregados; o descarte acontece depois do commit.
+ *
+ * As cargas rodam em uma transação própria, somente leitura: o resultado guardado é o que já
+ * foi confirmado no banco, e não as escritas ainda pendentes da transação de quem leu.
+ */
+@Service
+public class RelatorioCacheService {
+
+    private final PedidoRepository pedidoRepository;
+    private final VendaRestauranteRepository vendaRestauranteRepository;
+    private final VendaProdutoRepository vendaProdutoRepository;
+    private final TransactionTemplate carga;
+    private final Map<RelatorioCacheado, Duration> ttls = new EnumMap<>(RelatorioCacheado.class);
+    private final Map<RelatorioCacheado, LoadingCache<RelatorioCacheado, List<?>>> caches = new EnumMap<>(RelatorioCacheado.class);
+    private final Map<RelatorioCacheado, LongAdder> invalidacoes = new EnumMap<>(RelatorioCacheado.class);
+
+    public RelatorioCacheService(PedidoRepository pedidoRepository,
+                                 VendaRestauranteRepository vendaRestauranteRepository,
+                                 VendaProdutoRepository vendaProdutoRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 Environment environment,
+                                 @Value("${delivery.relatorios.cache.janela-revalidacao:10m}") Duration janelaRevalidacao) {
+        this.pedidoRepository = pedidoRepository;
+        this.vendaRestauranteRepository = vendaRestauranteRepository;
+        this.vendaProdutoRepository = vendaProdutoRepository;
+        this.carga = new TransactionTemplate(transactionManager);
+        this.carga.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.carga.setReadOnly(true);
+
+        for (RelatorioCacheado relatorio : RelatorioCacheado.values()) {
+            Duration ttl = environment.getProperty(relatorio.getPropriedadeTtl(), Duration.class, relatorio.getTtlPadrao());
+            ttls.put(relatorio, ttl);
+            invalidacoes.put(relatorio, new LongAdder());
+            caches.put(relatorio, Caffeine.newBuilder()
+                    .refreshAfterWrite(ttl)
+                    .expireAfterWrite(ttl.plus(janelaRevalidacao))
+                    .recordStats()
+                    .build(this::carregar));
+        }
+    }
+
+    // =================== LEITURA ===================
+
+    public List<RelatorioVendasRestaurante> vendasPorRestaurante() {
+        return obter(RelatorioCacheado.VENDAS_POR_RESTAURANTE);
+    }
+
+    public List<RelatorioProdutosMaisVendidos> produtosMaisVendidos() {
+        return obter(RelatorioCacheado.PRODUTOS_MAIS_VENDIDOS);
+    }
+
+    public List<RelatorioFaturamentoCategoria> faturamentoPorCategoria() {
+        return obter(RelatorioCacheado.FATURAMENTO_POR_CATEGORIA);
+    }
+
+    public List<RelatorioRankingClientes> rankingClientes() {
+        return obter(RelatorioCacheado.CLIENTES_ATIVOS);
+    }
+
+    // =================== INVALIDAÇÃO ===================
+
+    /**
+     * Descarta os relatórios depois do commit (ou na hora, fora de transação). Uma carga em
+     * andamento termina antes do descarte e uma revalidação em segundo plano que termine
+     * depois dele é ignorada: a próxima leitura consulta o banco de novo.
+     */
+    public void invalidar(RelatorioCacheado... relatorios) {
+        AposCommit.executar(() -> descartar(relatorios));
+    }
+
+    /**
+     * Descarta todos os relatórios na hora (DELETE /api/cache/relatorios), sem esperar commit.
+     */
+    public void invalidarTodos() {
+        descartar(RelatorioCacheado.values());
+    }
+
+    // =================== ESTATÍSTICAS ===================
+
+    /**
+     * Acertos, falhas e tempo de carga de cada relatório desde a subida da aplicação.
+     */
+    public List<EstatisticaRelatorioCacheDTO> estatisticas() {
+        List<EstatisticaRelatorioCacheDTO> estatisticas = new ArrayList<>();
+        for (RelatorioCacheado relatorio : RelatorioCacheado.values()) {
+            CacheStats stats = caches.get(relatorio).stats();
+            estatisticas.add(new EstatisticaRelatorioCacheDTO(relatorio.getChave(), ttls.get(relatorio).toSeconds(),
+                    stats.hitCount(), stats.missCount(), stats.requestCount() == 0 ? null : stats.hitRate(),
+                    stats.loadCount(), stats.loadFailureCount(),
+                    stats.loadCount() == 0 ? null : stats.averageLoadPenalty() / 1_000_000.0,
+                    stats.totalLoadTime() / 1_000_000.0,
+                    invalidacoes.get(relatorio).sum()));
+        }
+        return estatisticas;
+    }
+
+    // =================== AUXILIARES ===================
+
+    private void descartar(RelatorioCacheado... relatorios) {
+        for (RelatorioCacheado relatorio : relatorios) {
+            caches.get(relatorio).invalidateAll();
+            invalidacoes.get(relatorio).increment();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> obter(RelatorioCacheado relatorio) {
+        return (List<T>) caches.get(relatorio).get(relatorio);
+    }
+
+    // Lista imutável: a mesma instância é entregue a todas as leituras até a próxima carga
+    // (por isso lida do primário, nunca de uma réplica atrasada)
+    private List<?> carregar(RelatorioCacheado relatorio) {
+        return LeituraNoPrimario.executar(() -> carga.execute(status -> List.copyOf(switch (relatorio) {
+            case VENDAS_POR_RESTAURANTE -> vendaRestauranteRepository.getRelatorioVendasPorRestaurante();
+            case PRODUTOS_MAIS_VENDIDOS -> vendaProdutoRepository.getRelatorioProdutosMaisVendidos();
+            case FATURAMENTO_POR_CATEGORIA -> vendaRestauranteRepository.getRelatorioFaturamentoPorCategoria();
+            case CLIENTES_ATIVOS -> pedidoRepository.getRelatorioRankingClientes();
+        })));
+    }
+}
@@ -0,0 +1,324 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.RelatorioJobDTO;
+import com.deliverytech.delivery_api.dto.RelatorioJobRequestDTO;
+import com.deliverytech.delivery_api.enums.GranularidadeSerie;
+import com.deliverytech.delivery_api.enums.StatusJob;
+import com.deliverytech.delivery_api.exception.EntidadeNaoEncontradaException;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Relatórios longos em segundo plano: POST /api/relatorios/jobs devolve na hora o id do job, que
+ * é executado em um pool próprio e consultado depois por GET /jobs/{id}.
+ *
+ * - O pool tem delivery.relatorios.jobs.threads threads e uma fila de até
+ *   delivery.relatorios.jobs.fila jobs; com a fila cheia o pedido é recusado, sem esperar.
+ * - Um pedido igual a um job ainda na fila ou executando recebe esse mesmo job.
+ * - O resultado é gravado em delivery.relatorios.jobs.diretorio, compactado com gzip (JSON ou
+ *   NDJSON, como no endpoint síncrono), junto de um .json com os dados do job. Jobs concluídos
+ *   sobrevivem a um reinício; os que estavam na fila ou executando, não.
+ * - Jobs concluídos ou com falha são descartados, com seus arquivos, depois de
+ *   delivery.relatorios.jobs.retencao. A limpeza acontece a cada novo pedido e consulta: como só
+ *   um pedido novo grava arquivos, o disco não cresce sem que ela rode.
+ */
+@Service
+public class RelatorioJobService {
+
+    private static final String EXTENSAO_RESULTADO = ".gz";
+    private static final String EXTENSAO_JOB = ".json";
+    private static final String EXTENSAO_TEMPORARIO = ".tmp";
+
+    /**
+     * Escreve o relatório da especificação na saída (já compactada).
+     */
+    @FunctionalInterface
+    public interface Gerador {
+        void gerar(RelatorioJobRequestDTO especificacao, OutputStream saida) throws IOException;
+    }
+
+    private final Gerador gerador;
+    private final ObjectMapper objectMapper;
+    private final Path diretorio;
+    private final int fila;
+    private final Duration retencao;
+    private final Clock clock;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, RelatorioJobDTO> jobs = new ConcurrentHashMap<>();
+    // Especificação -> id do job na fila ou executando (acesso sincronizado no próprio mapa)
+    private final Map<RelatorioJobRequestDTO, String> emAndamento = new HashMap<>();
+
+    @Autowired
+    public RelatorioJobService(RelatorioService relatorioService,
+                               SerieTemporalService serieTemporalService,
+                               ExportacaoPedidoService exportacaoPedidoService,
+                               ObjectMapper objectMapper,
+                               @Value("${delivery.relatorios.jobs.diretorio:${java.io.tmpdir}/delivery-relatorios}") Path diretorio,
+                               @Value("${delivery.relatorios.jobs.threads:2}") int threads,
+                               @Value("${delivery.relatorios.jobs.fila:20}") int fila,
+                               @Value("${delivery.relatorios.jobs.retencao:PT24H}") Duration retencao) {
+        this((especificacao, saida) -> {
+            ObjectWriter escritor = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            switch (especificacao.getTipo()) {
+                case VENDAS_POR_PERIODO -> escritor.writeValue(saida, relatorioService.getVendasPorPeriodo(
+                        especificacao.getInicio(), especificacao.getFim(), especificacao.getStatus(), true));
+                case SERIE_TEMPORAL -> escritor.writeValue(saida, serieTemporalService.serie(especificacao.getGranularidade(),
+                        especificacao.getInicio(), especificacao.getFim(), especificacao.getRestauranteId(), especificacao.getStatus()));
+                case PEDIDOS_POR_PERIODO -> exportacaoPedidoService.exportarPedidosPorPeriodo(
+                        especificacao.getInicio(), especificacao.getFim(), saida);
+            }
+        }, objectMapper, diretorio, threads, fila, retencao, Clock.systemDefaultZone());
+    }
+
+    public RelatorioJobService(Gerador gerador, ObjectMapper objectMapper, Path diretorio, int threads, int fila,
+                               Duration retencao, Clock clock) {
+        this.gerador = gerador;
+        this.objectMapper = objectMapper;
+        this.diretorio = diretorio;
+        this.fila = fila;
+        this.retencao = retencao;
+        this.clock = clock;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(fila),
+                Thread.ofPlatform().name("relatorio-job-", 1).daemon().factory());
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    // =================== CARGA ===================
+
+    /**
+     * Recupera do diretório os jobs concluídos ainda dentro da retenção e apaga o resto: jobs
+     * expirados, resultados sem job (interrompidos por um reinício), arquivos temporários e jobs
+     * com dados ilegíveis. Um arquivo com problema nunca impede a subida: só o job dele se perde.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarAoIniciar() {
+        try {
+            Files.createDirectories(diretorio);
+            try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, "*" + EXTENSAO_JOB)) {
+                for (Path arquivo : arquivos) {
+                    RelatorioJobDTO job = ler(arquivo);
+                    if (job != null && Files.exists(resultado(job.getId())) && !expirado(job, LocalDateTime.now(clock))) {
+                        jobs.put(job.getId(), job);
+                    }
+                }
+            }
+            try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio)) {
+                for (Path arquivo : arquivos) {
+                    String nome = arquivo.getFileName().toString();
+                    String id = nome.substring(0, nome.indexOf('.') < 0 ? nome.length() : nome.indexOf('.'));
+                    if (nome.endsWith(EXTENSAO_TEMPORARIO) || !jobs.containsKey(id)) {
+                        apagar(arquivo);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao carregar os jobs de relatório de " + diretorio, e);
+        }
+    }
+
+    // =================== JOBS ===================
+
+    /**
+     * Coloca o relatório na fila e devolve o job criado, ou o job igual que ainda está na fila ou
+     * executando.
+     */
+    public RelatorioJobDTO submeter(RelatorioJobRequestDTO pedido) {
+        RelatorioJobRequestDTO especificacao = normalizar(pedido);
+        descartarExpirados();
+
+        synchronized (emAndamento) {
+            String existente = emAndamento.get(especificacao);
+            if (existente != null) {
+                return jobs.get(existente);
+            }
+            String id = UUID.randomUUID().toString();
+            RelatorioJobDTO job = new RelatorioJobDTO(id, especificacao, StatusJob.NA_FILA, LocalDateTime.now(clock),
+                    null, null, null, null, null);
+            jobs.put(id, job);
+            emAndamento.put(especificacao, id);
+            try {
+                executor.execute(() -> executar(job));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(id);
+                emAndamento.remove(especificacao);
+                throw new RegraNegocioException("A fila de relatórios está cheia (" + fila + " jobs aguardando). Tente novamente mais tarde.");
+            }
+            return job;
+        }
+    }
+
+    public RelatorioJobDTO buscar(String id) {
+        descartarExpirados();
+        RelatorioJobDTO job = jobs.get(id);
+        if (job == null) {
+            throw new EntidadeNaoEncontradaException("Job de relatório não encontrado (ou já expirado): " + id);
+        }
+        return job;
+    }
+
+    /**
+     * Arquivo do resultado (gzip) de um job concluído.
+     */
+    public Path buscarResultado(String id) {
+        RelatorioJobDTO job = buscar(id);
+        if (job.getStatus() == StatusJob.FALHOU) {
+            throw new RegraNegocioException("O job " + id + " falhou: " + job.getErro());
+        }
+        if (job.getStatus() != StatusJob.CONCLUIDO) {
+            throw new RegraNegocioException("O job " + id + " ainda não terminou (" + job.getStatus().getDescricao() + ")");
+        }
+        return resultado(id);
+    }
+
+    /**
+     * Descarta os jobs terminados há mais que a retenção, com seus arquivos.
+     * @return quantidade de jobs descartados
+     */
+    public int descartarExpirados() {
+        LocalDateTime agora = LocalDateTime.now(clock);
+        int descartados = 0;
+        for (RelatorioJobDTO job : jobs.values()) {
+            if (expirado(job, agora) && jobs.remove(job.getId(), job)) {
+                apagar(resultado(job.getId()));
+                apagar(diretorio.resolve(job.getId() + EXTENSAO_JOB));
+                descartados++;
+            }
+        }
+        return descartados;
+    }
+
+    // =================== EXECUÇÃO ===================
+
+    private void executar(RelatorioJobDTO job) {
+        String id = job.getId();
+        jobs.put(id, copiar(job, StatusJob.EXECUTANDO, LocalDateTime.now(clock), null, null, null));
+
+        Path temporario = diretorio.resolve(id + EXTENSAO_RESULTADO + EXTENSAO_TEMPORARIO);
+        RelatorioJobDTO terminado;
+        try {
+            Files.createDirectories(diretorio);
+            try (OutputStream saida = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temporario)), 64 * 1024)) {
+                gerador.gerar(job.getEspecificacao(), saida);
+            }
+            Files.move(temporario, resultado(id), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            terminado = terminar(id, StatusJob.CONCLUIDO, Files.size(resultado(id)), null);
+            // Os dados do job por último: sem eles, o resultado é apagado na próxima subida
+            Path dadosTemporarios = diretorio.resolve(id + EXTENSAO_JOB + EXTENSAO_TEMPORARIO);
+            objectMapper.writeValue(dadosTemporarios.toFile(), terminado);
+            Files.move(dadosTemporarios, diretorio.resolve(id + EXTENSAO_JOB), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            apagar(temporario);
+            apagar(resultado(id));
+            terminado = terminar(id, StatusJob.FALHOU, null, e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+        }
+
+        synchronized (emAndamento) {
+            jobs.put(id, terminado);
+            emAndamento.remove(job.getEspecificacao());
+        }
+    }
+
+    private RelatorioJobDTO terminar(String id, StatusJob status, Long tamanhoBytes, String erro) {
+        RelatorioJobDTO atual = jobs.get(id);
+        LocalDateTime agora = LocalDateTime.now(clock);
+        RelatorioJobDTO terminado = copiar(atual, status, atual.getIniciadoEm(), agora, tamanhoBytes, erro);
+        terminado.setExpiraEm(agora.plus(retencao));
+        return terminado;
+    }
+
+    // =================== AUXILIARES ===================
+
+    /**
+     * Cópia só com os campos que o tipo usa (para que pedidos iguais deem a mesma chave),
+     * validada antes de ocupar um lugar na fila.
+     */
+    private static RelatorioJobRequestDTO normalizar(RelatorioJobRequestDTO pedido) {
+        if (pedido == null || pedido.getTipo() == null) {
+            throw new RegraNegocioException("O tipo do relatório é obrigatório.");
+        }
+        if (pedido.getInicio() == null || pedido.getFim() == null) {
+            throw new RegraNegocioException("As datas de início e fim são obrigatórias.");
+        }
+        if (!pedido.getInicio().isBefore(pedido.getFim())) {
+            throw new RegraNegocioException("A data de início deve ser anterior à data de fim.");
+        }
+        RelatorioJobRequestDTO especificacao = new RelatorioJobRequestDTO();
+        especificacao.setTipo(pedido.getTipo());
+        especificacao.setInicio(pedido.getInicio());
+        especificacao.setFim(pedido.getFim());
+        switch (pedido.getTipo()) {
+            case VENDAS_POR_PERIODO -> especificacao.setStatus(pedido.getStatus());
+            case SERIE_TEMPORAL -> {
+                especificacao.setStatus(pedido.getStatus());
+                especificacao.setRestauranteId(pedido.getRestauranteId());
+                especificacao.setGranularidade(pedido.getGranularidade() == null ? GranularidadeSerie.DIA : pedido.getGranularidade());
+            }
+            case PEDIDOS_POR_PERIODO -> { }
+        }
+        return especificacao;
+    }
+
+    private static RelatorioJobDTO copiar(RelatorioJobDTO job, StatusJob status, LocalDateTime iniciadoEm,
+                                          LocalDateTime concluidoEm, Long tamanhoBytes, String erro) {
+        return new RelatorioJobDTO(job.getId(), job.getEspecificacao(), status, job.getCriadoEm(), iniciadoEm, concluidoEm,
+                null, tamanhoBytes, erro);
+    }
+
+    private static boolean expirado(RelatorioJobDTO job, LocalDateTime agora) {
+        return job.getExpiraEm() != null && !agora.isBefore(job.getExpiraEm());
+    }
+
+    // Nulo se os dados não são de um job gravado por este serviço (gravação truncada, edição manual)
+    private RelatorioJobDTO ler(Path arquivo) {
+        try {
+            RelatorioJobDTO job = objectMapper.readValue(arquivo.toFile(), RelatorioJobDTO.class);
+            return job != null && arquivo.getFileName().toString().equals(job.getId() + EXTENSAO_JOB) ? job : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private Path resultado(String id) {
+        return diretorio.resolve(id + EXTENSAO_RESULTADO);
+    }
+
+    private static void apagar(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            // Fica para a próxima limpeza (ou para a próxima subida)
+        }
+    }
+}
@@ -1,9 +1,10 @@
 package com.deliverytech.delivery_api.service;
 
+import com.deliverytech.delivery_api.dto.ReconstrucaoAgregadosDTO;
+import com.deliverytech.delivery_api.dto.VendasPeriodoDTO;
 import com.deliverytech.delivery_api.dto.projection.*;
 import com.deliverytech.delivery_api.entity.Pedido;
 import com.deliverytech.delivery_api.exception.RegraNegocioException;
-import com.deliverytech.delivery_api.repository.ItemPedidoRepository;
 import com.deliverytech.delivery_api.repository.PedidoRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,32 +16,53 @@ import java.util.List;
 public class RelatorioService {
 
     private final PedidoRepository pedidoRepository;
-    private final ItemPedidoRepository itemPedidoRepository;
+    private final RelatorioCacheService relatorioCacheService;
+    private final AgregadoVendasService agregadoVendasService;
+    private final VendasPeriodoService vendasPeriodoService;
 
     public RelatorioService(PedidoRepository pedidoRepository,
-                            ItemPedidoRepository itemPedidoRepository) {
+                            RelatorioCacheService relatorioCacheService,
+                            AgregadoVendasService agregadoVendasService,
+                            VendasPeriodoService vendasPeriodoService) {
         this.pedidoRepository = pedidoRepository;
-        this.itemPedidoRepository = itemPedidoRepository;
+        this.relatorioCacheService = relatorioCacheService;
+        this.agregadoVendasService = agregadoVendasService;
+        this.vendasPeriodoService = vendasPeriodoService;
     }
 
-    @Transactional(readOnly = true)
+    // Vendas por restaurante, produtos mais vendidos e faturamento por categoria leem só os
+    // agregados de vendas (uma linha por restaurante/produto), não os pedidos. Os quatro
+    // relatórios saem do RelatorioCacheService: um acerto não abre transação nem toca no banco
+
     public List<RelatorioVendasRestaurante> getVendasPorRestaurante() {
-        return pedidoRepository.getRelatorioVendasPorRestaurante();
+        return relatorioCacheService.vendasPorRestaurante();
     }
 
-    @Transactional(readOnly = true)
     public List<RelatorioProdutosMaisVendidos> getProdutosMaisVendidos() {
-        return itemPedidoRepository.getRelatorioProdutosMaisVendidos();
+        return relatorioCacheService.produtosMaisVendidos();
     }
 
-    @Transactional(readOnly = true)
     public List<RelatorioRankingClientes> getRankingClientes() {
-        return pedidoRepository.getRelatorioRankingClientes();
+        return relatorioCacheService.rankingClientes();
     }
 
-    @Transactional(readOnly = true)
     public List<RelatorioFaturamentoCategoria> getFaturamentoPorCategoria() {
-        return pedidoRepository.getRelatorioFaturamentoPorCategoria();
+        return relatorioCacheService.faturamentoPorCategoria();
+    }
+
+    /**
+     * Suporta POST /api/relatorios/agregados/reconstruir
+     */
+    public ReconstrucaoAgregadosDTO reconstruirAgregados() {
+        return agregadoVendasService.reconstruir();
+    }
+
+    /**
+     * Suporta GET /api/relatorios/vendas-por-periodo
+     * Sem transação aqui: no modo paralelo cada trecho do período abre a sua
+     */
+    public VendasPeriodoDTO getVendasPorPeriodo(LocalDateTime inicio, LocalDateTime fim, String status, boolean paralelo) {
+        return vendasPeriodoService.vendasPorRestaurante(inicio, fim, status, paralelo);
     }
 
     // Dentro de RelatorioService.java
@@ -55,11 +77,7 @@ public class RelatorioService {
         if (dataInicio == null || dataFim == null) {
             throw new RegraNegocioException("As datas de início e fim são obrigatórias.");
         }
-        // Usando o método Query Method do Spring Data JPA (findByDataPedidoBetween)
-        // Se quiser usar o método com FETCH que já existia:
-        // return pedidoRepository.findByPeriodoWithItens(dataInicio, dataFim);
-
-        // Usando o Query Method mais simples
-        return pedidoRepository.findByDataPedidoBetween(dataInicio, dataFim);
+        // Grafo completo: a resposta lista cliente, restaurante e itens, tudo em um único SELECT
+        return pedidoRepository.findCompletosPorPeriodo(dataInicio, dataFim);
     }
 }
\ No newline at end of file
@@ -1,26 +1,56 @@
 package com.deliverytech.delivery_api.service;
 
+import com.deliverytech.delivery_api.dto.PaginaCursorDTO;
+import com.deliverytech.delivery_api.dto.RestauranteProximoDTO;
+import com.deliverytech.delivery_api.dto.RestauranteResponseDTO;
+import com.deliverytech.delivery_api.dto.RestauranteResumoDTO;
+import com.deliverytech.delivery_api.dto.projection.ResumoRestaurante;
+import com.deliverytech.delivery_api.entity.CepCoordenada;
+import com.deliverytech.delivery_api.entity.Produto;
 import com.deliverytech.delivery_api.entity.Restaurante;
 import com.deliverytech.delivery_api.exception.EntidadeNaoEncontradaException;
 import com.deliverytech.delivery_api.exception.RegraNegocioException;
 import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class RestauranteService {
 
-    private final RestauranteRepository restauranteRepository;
-    // Sugestão: Injetar um serviço de Geolocalização/CEP aqui, se necessário,
-    // para calcular taxa e proximidade. (Ex: ViaCepService)
+    public static final int LIMITE_MAXIMO_PAGINA = 100;
 
-    public RestauranteService(RestauranteRepository restauranteRepository) {
+    private final RestauranteRepository restauranteRepository;
+    private final CardapioCacheService cardapioCacheService;
+    // CEP -> coordenadas pela tabela local, e o índice usado na busca por proximidade
+    private final CepService cepService;
+    private final ProximidadeService proximidadeService;
+    // Tabela de taxas de entrega em memória, recompilada a cada alteração do restaurante
+    private final TaxaEntregaService taxaEntregaService;
+    // Índice da busca de produtos: os produtos saem junto com o restaurante
+    private final BuscaProdutoService buscaProdutoService;
+
+    public RestauranteService(RestauranteRepository restauranteRepository,
+                              CardapioCacheService cardapioCacheService,
+                              CepService cepService,
+                              ProximidadeService proximidadeService,
+                              TaxaEntregaService taxaEntregaService,
+                              BuscaProdutoService buscaProdutoService) {
         this.restauranteRepository = restauranteRepository;
+        this.cardapioCacheService = cardapioCacheService;
+        this.cepService = cepService;
+        this.proximidadeService = proximidadeService;
+        this.taxaEntregaService = taxaEntregaService;
+        this.buscaProdutoService = buscaProdutoService;
     }
 
     // =================== CREATE ===================
@@ -28,8 +58,12 @@ public class RestauranteService {
         validarNomeUnico(restaurante.getNome());
         restaurante.setAtivo(true);
         restaurante.setDataCadastro(LocalDateTime.now());
+        preencherCoordenadas(restaurante);
 
-        return restauranteRepository.save(restaurante);
+        Restaurante salvo = restauranteRepository.save(restaurante);
+        proximidadeService.indexar(salvo);
+        taxaEntregaService.atualizar(salvo.getId());
+        return salvo;
     }
 
     // =================== READ ===================
@@ -41,53 +75,52 @@ public class RestauranteService {
     /**
      * NOVO MÉTODO: Suporta listagem com filtros opcionais (categoria e ativo).
      * Requisito: GET /api/restaurantes
+     * Resumos por projeção (sem produtos), paginados por cursor.
      */
-    public List<Restaurante> listarComFiltros(String categoria, Boolean ativo) {
-        // Se ambos os filtros estiverem nulos, retorna todos (o seu listarTodos())
-        if (categoria == null && ativo == null) {
-            return restauranteRepository.findAllWithProdutos();
-        }
-
-        // Você precisará de um método no seu Repository para suportar essa busca
-        // Exemplo: List<Restaurante> findByCategoriaAndAtivo(String categoria, Boolean ativo);
-        // Ou implemente a lógica de filtragem aqui se o Repository for mais simples.
-
-        // --- IMPLEMENTAÇÃO RECOMENDADA COM REPOSITORY ---
-        // Se você não usar o 'findAllWithProdutos', esta linha é suficiente
-        return restauranteRepository.listarPorFiltros(categoria, ativo);
-        // OBS: Este método 'listarPorFiltros' deve ser criado no RestauranteRepository,
-        // por exemplo, usando @Query com critérios dinâmicos ou QueryDSL/Specifications.
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<RestauranteResumoDTO> listarComFiltros(String categoria, Boolean ativo, String cursor, int limite) {
+        List<ResumoRestaurante> pagina = buscarPagina(categoria, ativo, cursor, limite);
+        return new PaginaCursorDTO<>(
+                pagina.subList(0, Math.min(limite, pagina.size())).stream().map(RestauranteResumoDTO::de).collect(Collectors.toList()),
+                proximoCursor(pagina, limite));
+    }
 
-        /* // Exemplo de como implementar no Repository (apenas para referência):
-        // List<Restaurante> findByCategoriaAndAtivo(String categoria, Boolean ativo);
-        // List<Restaurante> findByCategoria(String categoria);
-        // List<Restaurante> findByAtivo(Boolean ativo);
-        */
+    /**
+     * GET /api/restaurantes?include=produtos - Mesma página de listarComFiltros, com o cardápio.
+     * Os produtos de todos os restaurantes da página vêm em uma segunda consulta.
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<RestauranteResponseDTO> listarComProdutos(String categoria, Boolean ativo, String cursor, int limite) {
+        List<ResumoRestaurante> pagina = buscarPagina(categoria, ativo, cursor, limite);
+        List<Long> ids = pagina.subList(0, Math.min(limite, pagina.size())).stream().map(ResumoRestaurante::id).toList();
+        Map<Long, Restaurante> porId = ids.isEmpty() ? Map.of() : restauranteRepository.findComProdutosByIdIn(ids).stream()
+                .collect(Collectors.toMap(Restaurante::getId, Function.identity()));
+        return new PaginaCursorDTO<>(
+                // Excluído entre as duas consultas: fica fora da página
+                ids.stream().map(porId::get).filter(Objects::nonNull).map(RestauranteResponseDTO::de).collect(Collectors.toList()),
+                proximoCursor(pagina, limite));
     }
 
-    public List<Restaurante> buscarPorCategoria(String categoria) {
-        return restauranteRepository.findByCategoria(categoria);
+    public List<RestauranteResumoDTO> buscarPorCategoria(String categoria) {
+        return restauranteRepository.findResumosPorCategoria(Restaurante.normalizarCategoria(categoria)).stream()
+                .map(RestauranteResumoDTO::de)
+                .collect(Collectors.toList());
     }
 
     /**
-     * NOVO MÉTODO: Busca restaurantes próximos a um CEP.
+     * NOVO MÉTODO: Busca restaurantes próximos a um CEP, ordenados pela distância.
      * Requisito: GET /api/restaurantes/proximos/{cep}
+     * O CEP vira coordenadas pela tabela local e a busca roda no índice espacial em memória.
      */
-    public List<Restaurante> buscarProximos(String cep) {
-        // NOTE: A implementação real requer um serviço de geolocalização (e.g., Google Maps API, Postgis/H3)
-        // para converter o CEP em coordenadas geográficas e calcular a distância.
-
-        // Simulação (deve ser substituída pela lógica de geolocalização real)
-        System.out.println("Buscando restaurantes próximos ao CEP: " + cep + "...");
-        // Assumindo um método no Repository que usa coordenadas
-        // return restauranteRepository.findByProximityToCep(cep);
-
-        // Retornando todos como fallback de simulação
-        return restauranteRepository.findAllWithProdutos();
+    public List<RestauranteProximoDTO> buscarProximos(String cep, int limite, Double raioKm,
+                                                      Boolean ativo, String categoria) {
+        return proximidadeService.buscarProximos(cep, limite, raioKm, ativo, categoria);
     }
 
 
     // =================== UPDATE ===================
+    // Leitura e escrita na mesma transação: o cache de segundo nível é atualizado no commit
+    @Transactional
     public Restaurante atualizar(Long id, Restaurante novosDados) {
         Restaurante existente = buscarPorId(id);
 
@@ -101,7 +134,16 @@ public class RestauranteService {
         existente.setTelefone(novosDados.getTelefone());
         existente.setEndereco(novosDados.getEndereco());
         existente.setCnpj(novosDados.getCnpj());
-
+        existente.setTaxaEntrega(novosDados.getTaxaEntrega());
+        existente.setCep(novosDados.getCep());
+        existente.setLatitude(novosDados.getLatitude());
+        existente.setLongitude(novosDados.getLongitude());
+        preencherCoordenadas(existente);
+
+        // O nome do restaurante aparece no cardápio e no detalhe em cache
+        cardapioCacheService.invalidar(id);
+        proximidadeService.indexar(existente);
+        taxaEntregaService.atualizar(id);
         return restauranteRepository.save(existente);
     }
 
@@ -109,6 +151,7 @@ public class RestauranteService {
      * NOVO MÉTODO: Ativa ou Desativa o restaurante (substitui 'inativar').
      * Requisito: PATCH /api/restaurantes/{id}/status
      */
+    @Transactional
     public void alterarStatus(Long id, Boolean ativo) {
         Restaurante existente = buscarPorId(id);
 
@@ -118,30 +161,24 @@ public class RestauranteService {
         }
 
         existente.setAtivo(ativo);
+        cardapioCacheService.invalidar(id);
+        proximidadeService.indexar(existente);
+        taxaEntregaService.atualizar(id);
         restauranteRepository.save(existente);
     }
 
     /**
      * NOVO MÉTODO: Calcula a taxa de entrega.
      * Requisito: GET /api/restaurantes/{id}/taxa-entrega/{cep}
+     * Pelas regras do restaurante (taxa base, faixas de distância e de CEP), na tabela em memória.
      */
     public BigDecimal calcularTaxaEntrega(Long id, String cep) {
-        Restaurante restaurante = buscarPorId(id);
-
-        // NOTE: A lógica real de cálculo de taxa depende de fatores como
-        // a distância entre o restaurante e o CEP de entrega (usando geolocalização)
-        // e as regras específicas de taxa do restaurante.
-
-        // Simulação: Retorna um valor fixo apenas para demonstração.
-        if (cep.startsWith("30")) {
-            return new BigDecimal("5.00"); // Taxa menor para CEPs próximos (simulação)
-        } else if (cep.startsWith("01")) {
-            return new BigDecimal("15.00"); // Taxa maior para CEPs distantes (simulação)
-        }
-        return new BigDecimal("8.00");
+        return taxaEntregaService.calcular(id, cep);
     }
 
     // =================== DELETE ===================
+    // As regras de taxa saem na mesma transação, antes do restaurante
+    @Transactional
     public void deletar(Long id) {
         Restaurante existente = buscarPorId(id);
 
@@ -149,7 +186,43 @@ public class RestauranteService {
         // (ex: não pode ter pedidos pendentes ou produtos ativos).
         // if (!existente.getPedidos().isEmpty()) { ... }
 
+        // Lidos antes: os produtos são removidos em cascata junto com o restaurante
+        List<Long> produtos = existente.getProdutos() == null ? List.of()
+                : existente.getProdutos().stream().map(Produto::getId).toList();
+
+        taxaEntregaService.removerRestaurante(id);
         restauranteRepository.delete(existente);
+        cardapioCacheService.invalidar(id);
+        proximidadeService.remover(id);
+        buscaProdutoService.remover(produtos);
+    }
+
+    // =================== LOCALIZAÇÃO ===================
+    // Sem coordenadas informadas, usa as do CEP (tabela local de CEPs)
+    private void preencherCoordenadas(Restaurante restaurante) {
+        if (restaurante.getCep() == null) {
+            return;
+        }
+        restaurante.setCep(CepService.normalizar(restaurante.getCep()));
+        if (restaurante.getLatitude() == null || restaurante.getLongitude() == null) {
+            CepCoordenada coordenadas = cepService.resolver(restaurante.getCep());
+            restaurante.setLatitude(coordenadas.getLatitude());
+            restaurante.setLongitude(coordenadas.getLongitude());
+        }
+    }
+
+    // =================== PAGINAÇÃO ===================
+    // Busca um registro a mais que o pedido para saber se existe próxima página
+    private List<ResumoRestaurante> buscarPagina(String categoria, Boolean ativo, String cursor, int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO_PAGINA) {
+            throw new RegraNegocioException("O limite da página deve estar entre 1 e " + LIMITE_MAXIMO_PAGINA);
+        }
+        CursorRestaurante posicao = CursorRestaurante.decodificar(cursor);
+        return restauranteRepository.findPaginaResumos(categoria, ativo, posicao.id(), Limit.of(limite + 1));
+    }
+
+    private String proximoCursor(List<ResumoRestaurante> pagina, int limite) {
+        return pagina.size() <= limite ? null : CursorRestaurante.depoisDe(pagina.get(limite - 1)).codificar();
     }
 
     // =================== VALIDAÇÃO ===================
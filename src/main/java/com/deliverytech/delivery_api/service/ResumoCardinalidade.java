@@ -0,0 +1,254 @@
+package com.deliverytech.delivery_api.service;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog (Flajolet et al.) com 2^PRECISAO registradores: estima quantos IDs distintos
+ * foram registrados com erro padrão relativo de ERRO_PADRAO (~1,6%), qualquer que seja a
+ * quantidade. Dois resumos se unem pelo máximo de cada registrador, então a união de dias e
+ * restaurantes custa o mesmo que ler os resumos, sem contar ninguém duas vezes.
+ *
+ * Representação esparsa (registrador e valor em um int, em ordem de registrador) enquanto há
+ * poucos registradores preenchidos; passa para um byte por registrador quando a esparsa
+ * ocuparia o mesmo espaço. Um restaurante com 50 clientes no dia ocupa ~200 bytes, não 4 KB.
+ *
+ * Serializado no mesmo formato (serializar/ler): um byte de tipo seguido de 3 bytes por
+ * registrador preenchido ou de um byte por registrador.
+ *
+ * Thread-safe: registros e leituras sincronizam no próprio resumo.
+ */
+public final class ResumoCardinalidade {
+
+    public static final int PRECISAO = 12;
+    public static final int REGISTROS = 1 << PRECISAO;
+    public static final double ERRO_PADRAO = 1.04 / Math.sqrt(REGISTROS);
+
+    private static final int LIMITE_ESPARSO = REGISTROS / 4;
+    // Primeiro byte da forma serializada
+    private static final byte ESPARSO = 0;
+    private static final byte DENSO = 1;
+
+    // Esparsa: registrador << 8 | valor, em ordem crescente de registrador
+    private int[] esparso = new int[4];
+    private int tamanhoEsparso;
+    // Densa: um byte por registrador (nulo enquanto a esparsa basta)
+    private byte[] denso;
+
+    // =================== HASH ===================
+
+    /**
+     * Hash de 64 bits do ID (finalizador do SplitMix64): IDs sequenciais ficam bem espalhados.
+     */
+    public static long hash(long id) {
+        long z = id + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Os PRECISAO bits mais altos escolhem o registrador
+    public static int registro(long hash) {
+        return (int) (hash >>> (64 - PRECISAO));
+    }
+
+    // Posição do primeiro bit 1 nos bits restantes (1 a 64 - PRECISAO + 1)
+    public static int valor(long hash) {
+        return Long.numberOfLeadingZeros((hash << PRECISAO) | (1L << (PRECISAO - 1))) + 1;
+    }
+
+    // =================== REGISTRO ===================
+
+    public void registrarId(long id) {
+        long hash = hash(id);
+        elevar(registro(hash), valor(hash));
+    }
+
+    /**
+     * Eleva o registrador ao valor, se for maior que o atual.
+     * @return se o registrador mudou
+     */
+    public synchronized boolean elevar(int registro, int valor) {
+        if (denso != null) {
+            if (denso[registro] >= valor) {
+                return false;
+            }
+            denso[registro] = (byte) valor;
+            return true;
+        }
+
+        int posicao = buscar(registro);
+        if (posicao >= 0) {
+            if ((esparso[posicao] & 0xFF) >= valor) {
+                return false;
+            }
+            esparso[posicao] = registro << 8 | valor;
+            return true;
+        }
+        if (tamanhoEsparso == LIMITE_ESPARSO) {
+            paraDenso();
+            denso[registro] = (byte) valor;
+            return true;
+        }
+        posicao = -posicao - 1;
+        if (tamanhoEsparso == esparso.length) {
+            esparso = Arrays.copyOf(esparso, Math.min(LIMITE_ESPARSO, esparso.length * 2));
+        }
+        System.arraycopy(esparso, posicao, esparso, posicao + 1, tamanhoEsparso - posicao);
+        esparso[posicao] = registro << 8 | valor;
+        tamanhoEsparso++;
+        return true;
+    }
+
+    /**
+     * Eleva cada registrador deste resumo ao do outro, se for maior (união dos dois).
+     * @return se algum registrador mudou
+     */
+    public boolean mesclar(ResumoCardinalidade outro) {
+        byte[] registros = new byte[REGISTROS];
+        outro.mesclarEm(registros);
+        boolean mudou = false;
+        for (int i = 0; i < REGISTROS; i++) {
+            if (registros[i] != 0 && elevar(i, registros[i])) {
+                mudou = true;
+            }
+        }
+        return mudou;
+    }
+
+    // =================== LEITURA ===================
+
+    public synchronized int valorDe(int registro) {
+        if (denso != null) {
+            return denso[registro];
+        }
+        int posicao = buscar(registro);
+        return posicao >= 0 ? esparso[posicao] & 0xFF : 0;
+    }
+
+    /**
+     * Une este resumo aos registradores acumulados (máximo de cada um).
+     * @param acumulado REGISTROS posições
+     */
+    public synchronized void mesclarEm(byte[] acumulado) {
+        if (denso != null) {
+            for (int i = 0; i < REGISTROS; i++) {
+                if (denso[i] > acumulado[i]) {
+                    acumulado[i] = denso[i];
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < tamanhoEsparso; i++) {
+            int registro = esparso[i] >>> 8;
+            byte valor = (byte) (esparso[i] & 0xFF);
+            if (valor > acumulado[registro]) {
+                acumulado[registro] = valor;
+            }
+        }
+    }
+
+    public long estimar() {
+        byte[] registros = new byte[REGISTROS];
+        mesclarEm(registros);
+        return estimar(registros);
+    }
+
+    /**
+     * Estimativa do HyperLogLog para os registradores, com a contagem linear (pelos
+     * registradores vazios) nas cardinalidades pequenas, onde ela é mais precisa.
+     */
+    public static long estimar(byte[] registros) {
+        double soma = 0;
+        int vazios = 0;
+        for (byte valor : registros) {
+            soma += Double.longBitsToDouble((1023L - valor) << 52); // 2^-valor
+            if (valor == 0) {
+                vazios++;
+            }
+        }
+        double m = REGISTROS;
+        double estimativa = 0.7213 / (1 + 1.079 / m) * m * m / soma;
+        if (estimativa <= 2.5 * m && vazios > 0) {
+            estimativa = m * Math.log(m / vazios);
+        }
+        return Math.round(estimativa);
+    }
+
+    // =================== SERIALIZAÇÃO ===================
+
+    /**
+     * Forma compacta para gravar no banco: na esparsa, registrador (2 bytes) e valor (1 byte) de
+     * cada registrador preenchido; na densa, os REGISTROS bytes. No máximo REGISTROS + 1 bytes.
+     */
+    public synchronized byte[] serializar() {
+        if (denso != null) {
+            byte[] dados = new byte[1 + REGISTROS];
+            dados[0] = DENSO;
+            System.arraycopy(denso, 0, dados, 1, REGISTROS);
+            return dados;
+        }
+        byte[] dados = new byte[1 + 3 * tamanhoEsparso];
+        dados[0] = ESPARSO;
+        for (int i = 0, posicao = 1; i < tamanhoEsparso; i++, posicao += 3) {
+            dados[posicao] = (byte) (esparso[i] >>> 16);
+            dados[posicao + 1] = (byte) (esparso[i] >>> 8);
+            dados[posicao + 2] = (byte) esparso[i];
+        }
+        return dados;
+    }
+
+    /**
+     * Resumo a partir da forma gerada por serializar().
+     */
+    public static ResumoCardinalidade ler(byte[] dados) {
+        ResumoCardinalidade resumo = new ResumoCardinalidade();
+        if (dados[0] == DENSO) {
+            if (dados.length != 1 + REGISTROS) {
+                throw new IllegalArgumentException("Resumo denso com " + (dados.length - 1) + " registradores");
+            }
+            resumo.denso = Arrays.copyOfRange(dados, 1, dados.length);
+            resumo.esparso = null;
+            return resumo;
+        }
+        if (dados[0] != ESPARSO || (dados.length - 1) % 3 != 0 || (dados.length - 1) / 3 > LIMITE_ESPARSO) {
+            throw new IllegalArgumentException("Resumo serializado inválido");
+        }
+        // Já em ordem de registrador
+        int tamanho = (dados.length - 1) / 3;
+        resumo.esparso = new int[Math.max(4, tamanho)];
+        for (int i = 0, posicao = 1; i < tamanho; i++, posicao += 3) {
+            resumo.esparso[i] = (dados[posicao] & 0xFF) << 16 | (dados[posicao + 1] & 0xFF) << 8 | dados[posicao + 2] & 0xFF;
+        }
+        resumo.tamanhoEsparso = tamanho;
+        return resumo;
+    }
+
+    // =================== AUXILIARES ===================
+
+    // Busca binária pelo registrador na esparsa; negativo = -(posição de inserção) - 1
+    private int buscar(int registro) {
+        int inicio = 0;
+        int fim = tamanhoEsparso - 1;
+        while (inicio <= fim) {
+            int meio = (inicio + fim) >>> 1;
+            int atual = esparso[meio] >>> 8;
+            if (atual < registro) {
+                inicio = meio + 1;
+            } else if (atual > registro) {
+                fim = meio - 1;
+            } else {
+                return meio;
+            }
+        }
+        return -inicio - 1;
+    }
+
+    private void paraDenso() {
+        denso = new byte[REGISTROS];
+        for (int i = 0; i < tamanhoEsparso; i++) {
+            denso[esparso[i] >>> 8] = (byte) (esparso[i] & 0xFF);
+        }
+        esparso = null;
+        tamanhoEsparso = 0;
+    }
+}
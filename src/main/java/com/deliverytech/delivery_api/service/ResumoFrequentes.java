@@ -0,0 +1,155 @@
+package com.deliverytech.delivery_api.service;
+
+import java.util.*;
+
+/**
+ * Resumo Space-Saving (Metwally, Agrawal e El Abbadi): acompanha os IDs mais frequentes de um
+ * fluxo com no máximo capacidade contadores, qualquer que seja a quantidade de IDs distintos.
+ *
+ * Um ID novo com o resumo cheio herda o contador do menor, que sai: a contagem do ID passa a ser
+ * a do menor + peso e o erro, a do menor. Garantias, para N = soma dos pesos registrados:
+ * - contagem - erro <= frequência real <= contagem;
+ * - erro <= mínimo do resumo <= N / capacidade;
+ * - todo ID com frequência real > mínimo está no resumo.
+ *
+ * Não é thread-safe: quem usa sincroniza (ver JanelaFrequentes).
+ */
+public final class ResumoFrequentes {
+
+    /**
+     * Frequência estimada de um ID: a real fica entre minima() e contagem.
+     */
+    public record Estimativa(Long id, long contagem, long erro) {
+        public long minima() {
+            return contagem - erro;
+        }
+    }
+
+    /**
+     * Os mais frequentes de uma combinação de resumos.
+     * @param total soma dos pesos registrados
+     * @param erroMaximo erro máximo de qualquer contagem (soma dos mínimos dos resumos)
+     * @param limiteDemais frequência máxima possível de um ID fora da lista
+     * @param itens em ordem decrescente de contagem estimada
+     */
+    public record Top(long total, long erroMaximo, long limiteDemais, List<Estimativa> itens) {
+        /**
+         * O ID está com certeza entre os mais frequentes: nem a menor frequência possível
+         * dele fica abaixo da maior possível de um ID de fora da lista.
+         */
+        public boolean garantido(Estimativa estimativa) {
+            return estimativa.minima() >= limiteDemais;
+        }
+    }
+
+    private static final class Contador {
+        private final Long id;
+        private long contagem;
+        private long erro;
+
+        private Contador(Long id, long contagem, long erro) {
+            this.id = id;
+            this.contagem = contagem;
+            this.erro = erro;
+        }
+    }
+
+    private static final Comparator<Contador> MENOR_PRIMEIRO =
+            Comparator.<Contador>comparingLong(c -> c.contagem).thenComparing(c -> c.id);
+
+    private final int capacidade;
+    private final Map<Long, Contador> contadores;
+    // Mesmos contadores, do menor para o maior: um contador sai e volta a cada alteração
+    private final TreeSet<Contador> porContagem = new TreeSet<>(MENOR_PRIMEIRO);
+    private long total;
+
+    public ResumoFrequentes(int capacidade) {
+        if (capacidade < 1) {
+            throw new IllegalArgumentException("A capacidade deve ser positiva");
+        }
+        this.capacidade = capacidade;
+        this.contadores = new HashMap<>(capacidade * 4 / 3 + 1);
+    }
+
+    // =================== REGISTRO ===================
+
+    public void registrar(Long id, long peso) {
+        if (peso <= 0) {
+            return;
+        }
+        total += peso;
+        Contador contador = contadores.get(id);
+        if (contador != null) {
+            porContagem.remove(contador);
+            contador.contagem += peso;
+            porContagem.add(contador);
+            return;
+        }
+        if (contadores.size() < capacidade) {
+            contador = new Contador(id, peso, 0);
+        } else {
+            Contador menor = porContagem.pollFirst();
+            contadores.remove(menor.id);
+            contador = new Contador(id, menor.contagem + peso, menor.contagem);
+        }
+        contadores.put(id, contador);
+        porContagem.add(contador);
+    }
+
+    // =================== CONSULTA ===================
+
+    public long total() {
+        return total;
+    }
+
+    public int tamanho() {
+        return contadores.size();
+    }
+
+    /**
+     * Frequência máxima de um ID que não está no resumo (zero enquanto há contadores livres).
+     */
+    public long minimo() {
+        return contadores.size() < capacidade ? 0 : porContagem.first().contagem;
+    }
+
+    /**
+     * Combina resumos de partes disjuntas do fluxo (as faixas de tempo de uma janela, por exemplo)
+     * e devolve os limite IDs mais frequentes. Um ID ausente de um resumo conta o mínimo dele
+     * como contagem e como erro, de modo que as garantias continuam valendo para a soma.
+     */
+    public static Top top(Collection<ResumoFrequentes> resumos, int limite) {
+        long total = 0;
+        long somaMinimos = 0;
+        Set<Long> candidatos = new HashSet<>();
+        for (ResumoFrequentes resumo : resumos) {
+            total += resumo.total;
+            somaMinimos += resumo.minimo();
+            candidatos.addAll(resumo.contadores.keySet());
+        }
+
+        List<Estimativa> estimativas = new ArrayList<>(candidatos.size());
+        for (Long id : candidatos) {
+            long contagem = 0;
+            long erro = 0;
+            for (ResumoFrequentes resumo : resumos) {
+                Contador contador = resumo.contadores.get(id);
+                if (contador != null) {
+                    contagem += contador.contagem;
+                    erro += contador.erro;
+                } else {
+                    contagem += resumo.minimo();
+                    erro += resumo.minimo();
+                }
+            }
+            estimativas.add(new Estimativa(id, contagem, erro));
+        }
+        estimativas.sort(Comparator.comparingLong(Estimativa::contagem).reversed().thenComparing(Estimativa::id));
+
+        List<Estimativa> itens = List.copyOf(estimativas.subList(0, Math.min(limite, estimativas.size())));
+        long limiteDemais = estimativas.size() > limite
+                ? Math.max(estimativas.get(limite).contagem(), somaMinimos)
+                : somaMinimos;
+        return new Top(total, somaMinimos, limiteDemais, itens);
+    }
+}
@@ -0,0 +1,294 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.PedidosRestauranteDTO;
+import com.deliverytech.delivery_api.dto.PontoSerieDTO;
+import com.deliverytech.delivery_api.dto.SerieTemporalDTO;
+import com.deliverytech.delivery_api.dto.projection.LinhaPeriodoPedido;
+import com.deliverytech.delivery_api.dto.projection.TotalPeriodo;
+import com.deliverytech.delivery_api.dto.projection.TotalRestaurante;
+import com.deliverytech.delivery_api.entity.ItemPedido;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.enums.GranularidadeSerie;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.repository.PedidoRepository;
+import com.deliverytech.delivery_api.repository.ResumoPedidosDiaRepository;
+import com.deliverytech.delivery_api.repository.ResumoPedidosHoraRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Séries temporais de pedidos (quantidade, faturamento e itens) e totais por restaurante em um
+ * intervalo, a partir de resumos por hora e por dia de cada restaurante e status.
+ *
+ * Os resumos acompanham as escritas de PedidoService e PedidoLoteService na mesma transação:
+ * pedido criado soma no seu status, mudança de status move o pedido de um status para o outro.
+ * O período de um pedido é o da sua dataPedido. Pedidos gravados direto pelo repositório só
+ * entram na próxima reconstruir().
+ *
+ * Um intervalo qualquer [inicio, fim) é atendido pelos dias inteiros (resumo por dia, exceto na
+ * série por hora), pelas horas inteiras das pontas (resumo por hora) e, só nos trechos menores
+ * que uma hora das bordas, pelos pedidos em si. O custo não cresce com o tamanho do intervalo.
+ */
+@Service
+public class SerieTemporalService implements Reconstruivel {
+
+    public static final int MAXIMO_PONTOS = 10_000;
+
+    private final PedidoRepository pedidoRepository;
+    private final ResumoPedidosHoraRepository resumoPedidosHoraRepository;
+    private final ResumoPedidosDiaRepository resumoPedidosDiaRepository;
+    private final RestauranteRepository restauranteRepository;
+
+    public SerieTemporalService(PedidoRepository pedidoRepository,
+                                ResumoPedidosHoraRepository resumoPedidosHoraRepository,
+                                ResumoPedidosDiaRepository resumoPedidosDiaRepository,
+                                RestauranteRepository restauranteRepository) {
+        this.pedidoRepository = pedidoRepository;
+        this.resumoPedidosHoraRepository = resumoPedidosHoraRepository;
+        this.resumoPedidosDiaRepository = resumoPedidosDiaRepository;
+        this.restauranteRepository = restauranteRepository;
+    }
+
+    // =================== ATUALIZAÇÃO INCREMENTAL ===================
+
+    /**
+     * Soma pedidos recém-gravados aos resumos, um comando por restaurante/hora/status (e outro por dia).
+     * Roda na transação que grava os pedidos.
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarCriacao(PedidosCriados evento) {
+        // Em ordem de chave: transações concorrentes travam as linhas sempre na mesma ordem
+        Map<Chave, Acumulado> porHora = new TreeMap<>();
+        for (Pedido pedido : evento.pedidos()) {
+            if (pedido.getRestaurante() == null || pedido.getDataPedido() == null || pedido.getStatus() == null) {
+                continue;
+            }
+            Chave chave = new Chave(pedido.getRestaurante().getId(), GranularidadeSerie.HORA.truncar(pedido.getDataPedido()),
+                    pedido.getStatus());
+            porHora.computeIfAbsent(chave, c -> new Acumulado()).somar(1, valor(pedido.getTotal()), itens(pedido));
+        }
+        Map<Chave, Acumulado> porDia = new TreeMap<>();
+        porHora.forEach((chave, acumulado) -> porDia.computeIfAbsent(chave.no(GranularidadeSerie.DIA), c -> new Acumulado())
+                .somar(acumulado.pedidos, acumulado.faturamento, acumulado.itens));
+
+        porHora.forEach((chave, acumulado) -> resumoPedidosHoraRepository.mover(chave.restauranteId(), chave.inicio(),
+                null, chave.status(), acumulado.pedidos, acumulado.faturamento, acumulado.itens));
+        porDia.forEach((chave, acumulado) -> resumoPedidosDiaRepository.mover(chave.restauranteId(), chave.inicio(),
+                null, chave.status(), acumulado.pedidos, acumulado.faturamento, acumulado.itens));
+    }
+
+    /**
+     * Move o pedido (já com o status novo) do status anterior para o novo nos resumos da sua hora e do seu dia.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarTransicao(Pedido pedido, String statusAnterior) {
+        if (Objects.equals(statusAnterior, pedido.getStatus()) || pedido.getRestaurante() == null
+                || pedido.getDataPedido() == null || pedido.getStatus() == null) {
+            return;
+        }
+        Long restauranteId = pedido.getRestaurante().getId();
+        BigDecimal faturamento = valor(pedido.getTotal());
+        long itens = itens(pedido);
+        resumoPedidosHoraRepository.mover(restauranteId, GranularidadeSerie.HORA.truncar(pedido.getDataPedido()),
+                statusAnterior, pedido.getStatus(), 1, faturamento, itens);
+        resumoPedidosDiaRepository.mover(restauranteId, GranularidadeSerie.DIA.truncar(pedido.getDataPedido()),
+                statusAnterior, pedido.getStatus(), 1, faturamento, itens);
+    }
+
+    // =================== RECONSTRUÇÃO ===================
+
+    /**
+     * Apaga e recalcula os resumos a partir dos pedidos (os por dia saem dos por hora).
+     * @return quantidade de resumos por hora gravados
+     */
+    @Override
+    @Transactional
+    public Integer reconstruir() {
+        resumoPedidosDiaRepository.deleteAllInBatch();
+        resumoPedidosHoraRepository.deleteAllInBatch();
+        int horas = resumoPedidosHoraRepository.recalcular();
+        resumoPedidosDiaRepository.recalcular();
+        return horas;
+    }
+
+    // =================== SÉRIE ===================
+
+    /**
+     * Série de [inicio, fim) com um ponto por hora ou dia, filtrada por restaurante e status (opcionais).
+     */
+    @Transactional(readOnly = true)
+    public SerieTemporalDTO serie(GranularidadeSerie granularidade, LocalDateTime inicio, LocalDateTime fim,
+                                  Long restauranteId, String status) {
+        validarIntervalo(inicio, fim);
+        LocalDateTime primeiro = granularidade.truncar(inicio);
+        Duration extensao = Duration.between(primeiro, fim);
+        long quantidadePontos = extensao.dividedBy(granularidade.getDuracao())
+                + (extensao.toNanos() % granularidade.getDuracao().toNanos() == 0 ? 0 : 1);
+        if (quantidadePontos > MAXIMO_PONTOS) {
+            throw new RegraNegocioException("A série deve ter no máximo " + MAXIMO_PONTOS + " pontos");
+        }
+
+        Map<LocalDateTime, Acumulado> pontos = new TreeMap<>();
+        for (LocalDateTime ponto = primeiro; ponto.isBefore(fim); ponto = ponto.plus(granularidade.getDuracao())) {
+            pontos.put(ponto, new Acumulado());
+        }
+
+        // Na série por hora, um ponto de dia inteiro não serviria: tudo sai do resumo por hora
+        dividir(inicio, fim, granularidade == GranularidadeSerie.DIA,
+                (de, ate) -> {
+                    for (LinhaPeriodoPedido linha : pedidoRepository.findLinhasPorPeriodo(de, ate, restauranteId, status)) {
+                        pontos.get(granularidade.truncar(linha.dataPedido())).somar(1, valor(linha.total()), linha.itens());
+                    }
+                },
+                (de, ate) -> somar(pontos, granularidade, resumoPedidosHoraRepository.somarPorPeriodo(de, ate, restauranteId, status)),
+                (de, ate) -> somar(pontos, granularidade, resumoPedidosDiaRepository.somarPorPeriodo(de, ate, restauranteId, status)));
+
+        List<PontoSerieDTO> serie = new ArrayList<>(pontos.size());
+        pontos.forEach((ponto, acumulado) -> serie.add(
+                new PontoSerieDTO(ponto, acumulado.pedidos, acumulado.faturamento, acumulado.itens)));
+        return new SerieTemporalDTO(granularidade.name(), inicio, fim, restauranteId, status, serie);
+    }
+
+    // =================== POR RESTAURANTE ===================
+
+    /**
+     * Pedidos, faturamento e itens de cada restaurante em [inicio, fim), no status informado ou em
+     * todos, do restaurante com mais pedidos para o com menos. Sai dos resumos como a série.
+     */
+    @Transactional(readOnly = true)
+    public List<PedidosRestauranteDTO> pedidosPorRestaurante(LocalDateTime inicio, LocalDateTime fim, String status) {
+        validarIntervalo(inicio, fim);
+
+        Map<Long, Acumulado> porRestaurante = new HashMap<>();
+        Consumer<List<TotalRestaurante>> somarTotais = totais -> totais.forEach(total ->
+                porRestaurante.computeIfAbsent(total.restauranteId(), id -> new Acumulado())
+                        .somar(total.pedidos(), valor(total.faturamento()), total.itens()));
+        dividir(inicio, fim, true,
+                (de, ate) -> {
+                    for (LinhaPeriodoPedido linha : pedidoRepository.findLinhasPorPeriodo(de, ate, null, status)) {
+                        porRestaurante.computeIfAbsent(linha.restauranteId(), id -> new Acumulado())
+                                .somar(1, valor(linha.total()), linha.itens());
+                    }
+                },
+                (de, ate) -> somarTotais.accept(resumoPedidosHoraRepository.somarPorRestaurante(de, ate, status)),
+                (de, ate) -> somarTotais.accept(resumoPedidosDiaRepository.somarPorRestaurante(de, ate, status)));
+
+        // Linhas zeradas ficam nos resumos quando todos os pedidos saem do status
+        porRestaurante.values().removeIf(acumulado -> acumulado.pedidos == 0);
+        Map<Long, String> nomes = new HashMap<>();
+        restauranteRepository.findAllById(porRestaurante.keySet())
+                .forEach(restaurante -> nomes.put(restaurante.getId(), restaurante.getNome()));
+
+        List<PedidosRestauranteDTO> resultado = new ArrayList<>(porRestaurante.size());
+        porRestaurante.forEach((id, acumulado) -> resultado.add(new PedidosRestauranteDTO(
+                id, nomes.get(id), acumulado.pedidos, acumulado.faturamento, acumulado.itens)));
+        resultado.sort(Comparator.comparing(PedidosRestauranteDTO::getPedidos).reversed()
+                .thenComparing(PedidosRestauranteDTO::getRestauranteId));
+        return resultado;
+    }
+
+    // =================== AUXILIARES ===================
+
+    /**
+     * Divide [inicio, fim) nos trechos que cada fonte atende e chama a fonte de cada trecho não vazio:
+     * dias inteiros (se usarDias), horas inteiras e, nas bordas menores que uma hora, os pedidos.
+     */
+    private static void dividir(LocalDateTime inicio, LocalDateTime fim, boolean usarDias,
+                                BiConsumer<LocalDateTime, LocalDateTime> pedidos,
+                                BiConsumer<LocalDateTime, LocalDateTime> horas,
+                                BiConsumer<LocalDateTime, LocalDateTime> dias) {
+        LocalDateTime horasInicio = GranularidadeSerie.HORA.arredondarParaCima(inicio);
+        LocalDateTime horasFim = GranularidadeSerie.HORA.truncar(fim);
+        if (!horasInicio.isBefore(horasFim)) {
+            pedidos.accept(inicio, fim);
+            return;
+        }
+        trecho(pedidos, inicio, horasInicio);
+        trecho(pedidos, horasFim, fim);
+
+        LocalDateTime diasInicio = GranularidadeSerie.DIA.arredondarParaCima(horasInicio);
+        LocalDateTime diasFim = GranularidadeSerie.DIA.truncar(horasFim);
+        if (usarDias && diasInicio.isBefore(diasFim)) {
+            dias.accept(diasInicio, diasFim);
+            trecho(horas, horasInicio, diasInicio);
+            trecho(horas, diasFim, horasFim);
+        } else {
+            horas.accept(horasInicio, horasFim);
+        }
+    }
+
+    private static void trecho(BiConsumer<LocalDateTime, LocalDateTime> fonte, LocalDateTime inicio, LocalDateTime fim) {
+        if (inicio.isBefore(fim)) {
+            fonte.accept(inicio, fim);
+        }
+    }
+
+    private static void validarIntervalo(LocalDateTime inicio, LocalDateTime fim) {
+        if (inicio == null || fim == null) {
+            throw new RegraNegocioException("As datas de início e fim são obrigatórias.");
+        }
+        if (!inicio.isBefore(fim)) {
+            throw new RegraNegocioException("A data de início deve ser anterior à data de fim.");
+        }
+    }
+
+    private static void somar(Map<LocalDateTime, Acumulado> pontos, GranularidadeSerie granularidade, List<TotalPeriodo> totais) {
+        for (TotalPeriodo total : totais) {
+            pontos.get(granularidade.truncar(total.inicio())).somar(total.pedidos(), valor(total.faturamento()), total.itens());
+        }
+    }
+
+    private static long itens(Pedido pedido) {
+        if (pedido.getItens() == null) {
+            return 0;
+        }
+        return pedido.getItens().stream()
+                .map(ItemPedido::getQuantidade)
+                .filter(Objects::nonNull)
+                .mapToLong(Integer::longValue)
+                .sum();
+    }
+
+    private static BigDecimal valor(BigDecimal valor) {
+        return valor != null ? valor : BigDecimal.ZERO;
+    }
+
+    // Restaurante + início do período + status, ordenável para a ordem das travas
+    private record Chave(Long restauranteId, LocalDateTime inicio, String status) implements Comparable<Chave> {
+        private static final Comparator<Chave> ORDEM = Comparator.comparing(Chave::restauranteId)
+                .thenComparing(Chave::inicio)
+                .thenComparing(Chave::status);
+
+        Chave no(GranularidadeSerie granularidade) {
+            return new Chave(restauranteId, granularidade.truncar(inicio), status);
+        }
+
+        @Override
+        public int compareTo(Chave outra) {
+            return ORDEM.compare(this, outra);
+        }
+    }
+
+    private static final class Acumulado {
+        private long pedidos;
+        private BigDecimal faturamento = BigDecimal.ZERO;
+        private long itens;
+
+        void somar(long pedidos, BigDecimal faturamento, Long itens) {
+            this.pedidos += pedidos;
+            this.faturamento = this.faturamento.add(faturamento);
+            this.itens += itens != null ? itens : 0;
+        }
+    }
+}
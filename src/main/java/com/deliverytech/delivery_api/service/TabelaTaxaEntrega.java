@@ -0,0 +1,232 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.entity.CepCoordenada;
+import com.deliverytech.delivery_api.entity.RegraTaxaEntrega;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.enums.TipoRegraTaxa;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Regras de taxa de entrega de todos os restaurantes, compiladas em arrays ordenados.
+ *
+ * Imutável: uma alteração gera uma tabela nova (com() / sem()), que o TaxaEntregaService
+ * coloca no lugar da anterior de uma vez. As cotações leem a tabela sem travas.
+ *
+ * Cotação de um CEP para um restaurante, na ordem:
+ * 1. faixa de CEP que contém o CEP (busca binária nas faixas, que não se sobrepõem): taxa fixa da faixa;
+ * 2. sem faixas de distância: taxa base;
+ * 3. taxa base + acréscimo da primeira faixa cujo limite alcança a distância;
+ *    além da última faixa (ou sem coordenadas para medir), o restaurante não entrega.
+ * Restaurante inativo não entrega.
+ */
+public final class TabelaTaxaEntrega {
+
+    public static final TabelaTaxaEntrega VAZIA = new TabelaTaxaEntrega(Map.of());
+
+    /**
+     * Resultado de uma cotação. Quando o restaurante não entrega no CEP, taxa e regra ficam nulas.
+     * @param regra regra aplicada (null = taxa base)
+     * @param distanciaKm distância em linha reta até o CEP (null quando não há coordenadas)
+     */
+    public record Cotacao(boolean atende, BigDecimal taxa, TipoRegraTaxa regra, Double distanciaKm) { }
+
+    /**
+     * Regras compiladas de um restaurante.
+     */
+    static final class Regras {
+        private final boolean ativo;
+        private final BigDecimal base;
+        private final Double latitude;
+        private final Double longitude;
+        // Faixas de distância, em ordem crescente de limite
+        private final double[] limitesKm;
+        private final BigDecimal[] acrescimos;
+        // Faixas de CEP, em ordem crescente e sem sobreposição
+        private final int[] cepsIniciais;
+        private final int[] cepsFinais;
+        private final BigDecimal[] valoresCep;
+
+        private Regras(boolean ativo, BigDecimal base, Double latitude, Double longitude,
+                       double[] limitesKm, BigDecimal[] acrescimos,
+                       int[] cepsIniciais, int[] cepsFinais, BigDecimal[] valoresCep) {
+            this.ativo = ativo;
+            this.base = base;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.limitesKm = limitesKm;
+            this.acrescimos = acrescimos;
+            this.cepsIniciais = cepsIniciais;
+            this.cepsFinais = cepsFinais;
+            this.valoresCep = valoresCep;
+        }
+    }
+
+    private final Map<Long, Regras> regrasPorRestaurante;
+
+    private TabelaTaxaEntrega(Map<Long, Regras> regrasPorRestaurante) {
+        this.regrasPorRestaurante = regrasPorRestaurante;
+    }
+
+    // =================== MONTAGEM ===================
+
+    /**
+     * Compila as regras do restaurante, validando-as.
+     * Lança RegraNegocioException para regra incompleta, valor negativo, limite de distância
+     * repetido ou não positivo, CEP inválido e faixas de CEP invertidas ou sobrepostas.
+     * Não altera as regras recebidas: os CEPs são normalizados só na cópia compilada.
+     */
+    static Regras compilar(Restaurante restaurante, List<RegraTaxaEntrega> regras) {
+        List<RegraTaxaEntrega> distancias = new ArrayList<>();
+        List<FaixaCep> faixasCep = new ArrayList<>();
+        for (RegraTaxaEntrega regra : regras) {
+            if (regra.getTipo() == null) {
+                throw new RegraNegocioException("O tipo da regra de taxa é obrigatório");
+            }
+            if (regra.getValor() == null || regra.getValor().signum() < 0) {
+                throw new RegraNegocioException("O valor da regra de taxa deve ser zero ou positivo");
+            }
+            if (regra.getTipo() == TipoRegraTaxa.FAIXA_DISTANCIA) {
+                if (regra.getLimiteKm() == null || !(regra.getLimiteKm() > 0) || regra.getLimiteKm().isInfinite()) {
+                    throw new RegraNegocioException("O limite da faixa de distância deve ser positivo");
+                }
+                distancias.add(regra);
+            } else {
+                if (regra.getCepInicial() == null || regra.getCepFinal() == null) {
+                    throw new RegraNegocioException("A faixa de CEP exige CEP inicial e final");
+                }
+                FaixaCep faixa = new FaixaCep(CepService.normalizar(regra.getCepInicial()),
+                        CepService.normalizar(regra.getCepFinal()), regra.getValor());
+                if (faixa.inicial().compareTo(faixa.fim()) > 0) {
+                    throw new RegraNegocioException("Faixa de CEP invertida: " + faixa.inicial() + " a " + faixa.fim());
+                }
+                faixasCep.add(faixa);
+            }
+        }
+
+        distancias.sort(Comparator.comparing(RegraTaxaEntrega::getLimiteKm));
+        double[] limitesKm = new double[distancias.size()];
+        BigDecimal[] acrescimos = new BigDecimal[distancias.size()];
+        for (int i = 0; i < distancias.size(); i++) {
+            limitesKm[i] = distancias.get(i).getLimiteKm();
+            acrescimos[i] = distancias.get(i).getValor();
+            if (i > 0 && limitesKm[i] == limitesKm[i - 1]) {
+                throw new RegraNegocioException("Limite de distância repetido: " + limitesKm[i] + " km");
+            }
+        }
+
+        faixasCep.sort(Comparator.comparing(FaixaCep::inicial));
+        int[] cepsIniciais = new int[faixasCep.size()];
+        int[] cepsFinais = new int[faixasCep.size()];
+        BigDecimal[] valoresCep = new BigDecimal[faixasCep.size()];
+        for (int i = 0; i < faixasCep.size(); i++) {
+            cepsIniciais[i] = Integer.parseInt(faixasCep.get(i).inicial());
+            cepsFinais[i] = Integer.parseInt(faixasCep.get(i).fim());
+            valoresCep[i] = faixasCep.get(i).valor();
+            if (i > 0 && cepsIniciais[i] <= cepsFinais[i - 1]) {
+                throw new RegraNegocioException("Faixas de CEP sobrepostas: " + faixasCep.get(i - 1).inicial()
+                        + "-" + faixasCep.get(i - 1).fim() + " e " + faixasCep.get(i).inicial()
+                        + "-" + faixasCep.get(i).fim());
+            }
+        }
+
+        BigDecimal base = restaurante.getTaxaEntrega() != null ? restaurante.getTaxaEntrega() : BigDecimal.ZERO;
+        return new Regras(restaurante.isAtivo(), base, restaurante.getLatitude(), restaurante.getLongitude(),
+                limitesKm, acrescimos, cepsIniciais, cepsFinais, valoresCep);
+    }
+
+    // Faixa de CEP já normalizada, só para a compilação
+    private record FaixaCep(String inicial, String fim, BigDecimal valor) { }
+
+    static TabelaTaxaEntrega de(Map<Long, Regras> regrasPorRestaurante) {
+        return new TabelaTaxaEntrega(Map.copyOf(regrasPorRestaurante));
+    }
+
+    /**
+     * Cópia da tabela com as regras do restaurante incluídas ou substituídas.
+     */
+    TabelaTaxaEntrega com(Long restauranteId, Regras regras) {
+        Map<Long, Regras> copia = new HashMap<>(regrasPorRestaurante);
+        copia.put(restauranteId, regras);
+        return de(copia);
+    }
+
+    /**
+     * Cópia da tabela sem o restaurante.
+     */
+    TabelaTaxaEntrega sem(Long restauranteId) {
+        if (!regrasPorRestaurante.containsKey(restauranteId)) {
+            return this;
+        }
+        Map<Long, Regras> copia = new HashMap<>(regrasPorRestaurante);
+        copia.remove(restauranteId);
+        return de(copia);
+    }
+
+    // =================== COTAÇÃO ===================
+
+    public boolean contem(Long restauranteId) {
+        return regrasPorRestaurante.containsKey(restauranteId);
+    }
+
+    public int tamanho() {
+        return regrasPorRestaurante.size();
+    }
+
+    /**
+     * Cota a entrega do restaurante no CEP.
+     * @param cep CEP já normalizado (8 dígitos)
+     * @param origem coordenadas do CEP (null quando o CEP não está na tabela de CEPs)
+     * @return vazio se o restaurante não está na tabela
+     */
+    public Optional<Cotacao> cotar(Long restauranteId, String cep, CepCoordenada origem) {
+        Regras regras = regrasPorRestaurante.get(restauranteId);
+        if (regras == null) {
+            return Optional.empty();
+        }
+        Double distanciaKm = origem == null || regras.latitude == null || regras.longitude == null ? null
+                : IndiceEspacial.distanciaKm(origem.getLatitude(), origem.getLongitude(), regras.latitude, regras.longitude);
+        if (!regras.ativo) {
+            return Optional.of(naoAtende(distanciaKm));
+        }
+
+        BigDecimal valorCep = valorDaFaixaDeCep(regras, Integer.parseInt(cep));
+        if (valorCep != null) {
+            return Optional.of(new Cotacao(true, valorCep, TipoRegraTaxa.FAIXA_CEP, distanciaKm));
+        }
+        if (regras.limitesKm.length == 0) {
+            return Optional.of(new Cotacao(true, regras.base, null, distanciaKm));
+        }
+        if (distanciaKm == null) {
+            return Optional.of(naoAtende(null));
+        }
+        // Primeira faixa com limite >= distância
+        int faixa = Arrays.binarySearch(regras.limitesKm, distanciaKm);
+        if (faixa < 0) {
+            faixa = -faixa - 1;
+        }
+        if (faixa == regras.limitesKm.length) {
+            return Optional.of(naoAtende(distanciaKm));
+        }
+        return Optional.of(new Cotacao(true, regras.base.add(regras.acrescimos[faixa]),
+                TipoRegraTaxa.FAIXA_DISTANCIA, distanciaKm));
+    }
+
+    // Última faixa com início <= CEP; vale se o CEP não passa do fim dela
+    private static BigDecimal valorDaFaixaDeCep(Regras regras, int cep) {
+        int posicao = Arrays.binarySearch(regras.cepsIniciais, cep);
+        if (posicao < 0) {
+            posicao = -posicao - 2;
+        }
+        if (posicao >= 0 && cep <= regras.cepsFinais[posicao]) {
+            return regras.valoresCep[posicao];
+        }
+        return null;
+    }
+
+    private static Cotacao naoAtende(Double distanciaKm) {
+        return new Cotacao(false, null, null, distanciaKm);
+    }
+}
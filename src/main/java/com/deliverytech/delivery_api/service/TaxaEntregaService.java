@@ -0,0 +1,191 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.config.LeituraNoPrimario;
+import com.deliverytech.delivery_api.dto.CotacaoTaxaDTO;
+import com.deliverytech.delivery_api.entity.CepCoordenada;
+import com.deliverytech.delivery_api.entity.RegraTaxaEntrega;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.enums.TipoRegraTaxa;
+import com.deliverytech.delivery_api.exception.EntidadeNaoEncontradaException;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.repository.RegraTaxaEntregaRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Taxa de entrega pelas regras de cada restaurante (taxa base, faixas de distância e faixas de CEP).
+ *
+ * As cotações usam só a TabelaTaxaEntrega em memória e a tabela de CEPs do CepService: não
+ * consultam o banco. A tabela é montada quando a aplicação sobe e, a cada escrita de
+ * RestauranteService ou troca de regras, o restaurante é recompilado depois do commit e a
+ * tabela nova entra no lugar da anterior. Restaurantes gravados direto pelo repositório só
+ * entram na próxima reconstruir().
+ */
+@Service
+public class TaxaEntregaService implements Reconstruivel {
+
+    public static final int LIMITE_MAXIMO = 500;
+
+    private final RestauranteRepository restauranteRepository;
+    private final RegraTaxaEntregaRepository regraTaxaEntregaRepository;
+    private final CepService cepService;
+    private final TransactionTemplate leitura;
+
+    private volatile TabelaTaxaEntrega tabela = TabelaTaxaEntrega.VAZIA;
+    // Serializa as recompilações: cada uma lê o banco e troca a tabela sem perder as outras
+    private final Object travaTabela = new Object();
+
+    public TaxaEntregaService(RestauranteRepository restauranteRepository,
+                              RegraTaxaEntregaRepository regraTaxaEntregaRepository,
+                              CepService cepService,
+                              PlatformTransactionManager transactionManager) {
+        this.restauranteRepository = restauranteRepository;
+        this.regraTaxaEntregaRepository = regraTaxaEntregaRepository;
+        this.cepService = cepService;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+    }
+
+    // =================== COTAÇÃO ===================
+
+    /**
+     * Taxa de entrega do restaurante no CEP.
+     * Lança EntidadeNaoEncontradaException para restaurante desconhecido e
+     * RegraNegocioException para CEP inválido ou fora da área de entrega do restaurante.
+     */
+    public BigDecimal calcular(Long restauranteId, String cep) {
+        String normalizado = CepService.normalizar(cep);
+        TabelaTaxaEntrega.Cotacao cotacao = tabela.cotar(restauranteId, normalizado, cepService.buscar(normalizado).orElse(null))
+                .orElseThrow(() -> new EntidadeNaoEncontradaException("Restaurante não encontrado"));
+        if (!cotacao.atende()) {
+            throw new RegraNegocioException("O restaurante não entrega no CEP " + cep);
+        }
+        return cotacao.taxa();
+    }
+
+    /**
+     * Cota o CEP para vários restaurantes de uma vez, na ordem pedida (IDs repetidos contam uma vez).
+     * Restaurantes desconhecidos ficam fora da resposta.
+     */
+    public List<CotacaoTaxaDTO> cotar(String cep, Collection<Long> restauranteIds) {
+        Set<Long> ids = new LinkedHashSet<>(restauranteIds);
+        if (ids.isEmpty() || ids.size() > LIMITE_MAXIMO) {
+            throw new RegraNegocioException("A quantidade de restaurantes deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+        String normalizado = CepService.normalizar(cep);
+        CepCoordenada origem = cepService.buscar(normalizado).orElse(null);
+
+        // Uma só tabela para toda a cotação, mesmo que outra entre no lugar no meio dela
+        TabelaTaxaEntrega atual = tabela;
+        List<CotacaoTaxaDTO> cotacoes = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            atual.cotar(id, normalizado, origem).ifPresent(cotacao -> cotacoes.add(new CotacaoTaxaDTO(
+                    id, normalizado, cotacao.atende(), cotacao.taxa(),
+                    cotacao.atende() ? (cotacao.regra() == null ? "BASE" : cotacao.regra().name()) : null,
+                    cotacao.distanciaKm() == null ? null : Math.round(cotacao.distanciaKm() * 1000) / 1000.0)));
+        }
+        return cotacoes;
+    }
+
+    // =================== REGRAS ===================
+
+    public List<RegraTaxaEntrega> listarRegras(Long restauranteId) {
+        buscarRestaurante(restauranteId);
+        return regraTaxaEntregaRepository.findByRestauranteIdOrderById(restauranteId);
+    }
+
+    /**
+     * Substitui todas as regras do restaurante. As regras são validadas compilando-as antes
+     * de gravar; a tabela de cotação muda depois do commit, com todas as regras novas de uma vez.
+     * Os CEPs das faixas são gravados normalizados.
+     */
+    @Transactional
+    public List<RegraTaxaEntrega> substituirRegras(Long restauranteId, List<RegraTaxaEntrega> regras) {
+        Restaurante restaurante = buscarRestaurante(restauranteId);
+        TabelaTaxaEntrega.compilar(restaurante, regras);
+
+        regraTaxaEntregaRepository.deleteByRestauranteId(restauranteId);
+        regras.forEach(regra -> {
+            regra.setId(null);
+            regra.setRestaurante(restaurante);
+            if (regra.getTipo() == TipoRegraTaxa.FAIXA_CEP) {
+                regra.setCepInicial(CepService.normalizar(regra.getCepInicial()));
+                regra.setCepFinal(CepService.normalizar(regra.getCepFinal()));
+            }
+        });
+        List<RegraTaxaEntrega> salvas = regraTaxaEntregaRepository.saveAll(regras);
+        atualizar(restauranteId);
+        return salvas;
+    }
+
+    /**
+     * Remove as regras do restaurante (antes de excluí-lo) e, depois do commit, o tira da tabela.
+     */
+    @Transactional
+    public void removerRestaurante(Long restauranteId) {
+        regraTaxaEntregaRepository.deleteByRestauranteId(restauranteId);
+        AposCommit.executar(() -> {
+            synchronized (travaTabela) {
+                tabela = tabela.sem(restauranteId);
+            }
+        });
+    }
+
+    // =================== ATUALIZAÇÃO ===================
+
+    /**
+     * Recompila o restaurante depois do commit (taxa base, status, coordenadas ou regras mudaram).
+     */
+    public void atualizar(Long restauranteId) {
+        AposCommit.executar(() -> recompilar(restauranteId));
+    }
+
+    /**
+     * Compila todos os restaurantes a partir do banco e troca a tabela.
+     * @return quantidade de restaurantes na tabela
+     */
+    @Override
+    public Integer reconstruir() {
+        synchronized (travaTabela) {
+            tabela = LeituraNoPrimario.executar(() -> leitura.execute(status -> {
+                Map<Long, List<RegraTaxaEntrega>> regrasPorRestaurante = regraTaxaEntregaRepository.findAllOrdenadas().stream()
+                        .collect(Collectors.groupingBy(regra -> regra.getRestaurante().getId()));
+                Map<Long, TabelaTaxaEntrega.Regras> compiladas = new HashMap<>();
+                for (Restaurante restaurante : restauranteRepository.findAll()) {
+                    compiladas.put(restaurante.getId(), TabelaTaxaEntrega.compilar(restaurante,
+                            regrasPorRestaurante.getOrDefault(restaurante.getId(), List.of())));
+                }
+                return TabelaTaxaEntrega.de(compiladas);
+            }));
+            return tabela.tamanho();
+        }
+    }
+
+    public int tamanho() {
+        return tabela.tamanho();
+    }
+
+    // =================== AUXILIARES ===================
+
+    private void recompilar(Long restauranteId) {
+        synchronized (travaTabela) {
+            TabelaTaxaEntrega.Regras regras = LeituraNoPrimario.executar(() -> leitura.execute(status -> restauranteRepository.findById(restauranteId)
+                    .map(restaurante -> TabelaTaxaEntrega.compilar(restaurante,
+                            regraTaxaEntregaRepository.findByRestauranteIdOrderById(restauranteId)))
+                    .orElse(null)));
+            tabela = regras == null ? tabela.sem(restauranteId) : tabela.com(restauranteId, regras);
+        }
+    }
+
+    private Restaurante buscarRestaurante(Long restauranteId) {
+        return restauranteRepository.findById(restauranteId)
+                .orElseThrow(() -> new EntidadeNaoEncontradaException("Restaurante não encontrado"));
+    }
+}
@@ -0,0 +1,180 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.VendasPeriodoDTO;
+import com.deliverytech.delivery_api.dto.VendasPeriodoRestauranteDTO;
+import com.deliverytech.delivery_api.dto.projection.VendasPeriodoParcial;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.repository.PedidoRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Vendas por restaurante em um período qualquer, lidas dos pedidos.
+ *
+ * No modo paralelo o intervalo [inicio, fim) é cortado em trechos contíguos de mesma duração;
+ * cada trecho é somado por restaurante em uma consulta própria, na sua transação somente
+ * leitura, em um pool de tamanho fixo (delivery.relatorios.paralelismo), e os parciais são
+ * juntados aqui. Há mais trechos que threads: um trecho com muitos pedidos não deixa as outras
+ * threads paradas esperando por ele. O pool é compartilhado por todas as requisições, então o
+ * número de conexões usadas pelos relatórios nunca passa do paralelismo.
+ *
+ * Cada pedido cai em um só trecho (pela dataPedido), mas os trechos não leem o mesmo instante
+ * do banco: um pedido gravado durante o relatório pode entrar ou não.
+ */
+@Service
+public class VendasPeriodoService {
+
+    // Trechos por thread, para equilibrar períodos com mais pedidos que outros
+    public static final int PARTICOES_POR_THREAD = 4;
+    // Trechos menores que isto não compensam uma consulta a mais
+    public static final Duration TRECHO_MINIMO = Duration.ofDays(1);
+
+    private final PedidoRepository pedidoRepository;
+    private final TransactionTemplate leitura;
+    private final int paralelismo;
+    private final ExecutorService executor;
+
+    public VendasPeriodoService(PedidoRepository pedidoRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${delivery.relatorios.paralelismo:4}") int paralelismo,
+                                @Value("${spring.datasource.hikari.maximum-pool-size:10}") int conexoes) {
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("delivery.relatorios.paralelismo deve ser positivo");
+        }
+        this.pedidoRepository = pedidoRepository;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.leitura.setReadOnly(true);
+        // Uma conexão por consulta em andamento: sobra ao menos uma para o resto da aplicação
+        this.paralelismo = Math.max(1, Math.min(paralelismo, conexoes - 1));
+        this.executor = Executors.newFixedThreadPool(this.paralelismo,
+                Thread.ofPlatform().name("relatorio-periodo-", 1).daemon().factory());
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    public int getParalelismo() {
+        return paralelismo;
+    }
+
+    /**
+     * Pedidos, faturamento, ticket médio e primeiro/último pedido de cada restaurante com pedidos
+     * em [inicio, fim), no status informado ou em todos. Com paralelo = false (ou em períodos
+     * curtos) faz uma consulta só, na thread de quem chamou.
+     */
+    public VendasPeriodoDTO vendasPorRestaurante(LocalDateTime inicio, LocalDateTime fim, String status, boolean paralelo) {
+        if (inicio == null || fim == null) {
+            throw new RegraNegocioException("As datas de início e fim são obrigatórias.");
+        }
+        if (!inicio.isBefore(fim)) {
+            throw new RegraNegocioException("A data de início deve ser anterior à data de fim.");
+        }
+
+        long comeco = System.nanoTime();
+        List<LocalDateTime> cortes = paralelo ? cortar(inicio, fim, paralelismo * PARTICOES_POR_THREAD) : List.of(inicio, fim);
+        int particoes = cortes.size() - 1;
+
+        List<List<VendasPeriodoParcial>> parciais;
+        if (particoes == 1) {
+            parciais = List.of(somar(inicio, fim, status));
+        } else {
+            List<CompletableFuture<List<VendasPeriodoParcial>>> tarefas = new ArrayList<>(particoes);
+            for (int i = 0; i < particoes; i++) {
+                LocalDateTime de = cortes.get(i);
+                LocalDateTime ate = cortes.get(i + 1);
+                tarefas.add(CompletableFuture.supplyAsync(() -> somar(de, ate, status), executor));
+            }
+            parciais = aguardar(tarefas);
+        }
+
+        return new VendasPeriodoDTO(inicio, fim, status, particoes == 1 ? 1 : Math.min(paralelismo, particoes), particoes,
+                (System.nanoTime() - comeco) / 1_000_000, juntar(parciais));
+    }
+
+    // =================== AUXILIARES ===================
+
+    /**
+     * Limites de até {@code maximo} trechos de mesma duração (nenhum menor que TRECHO_MINIMO),
+     * do início ao fim: o fim de um trecho é o início do seguinte.
+     */
+    static List<LocalDateTime> cortar(LocalDateTime inicio, LocalDateTime fim, int maximo) {
+        Duration duracao = Duration.between(inicio, fim);
+        int trechos = (int) Math.max(1, Math.min(maximo, duracao.toSeconds() / TRECHO_MINIMO.toSeconds()));
+        List<LocalDateTime> cortes = new ArrayList<>(trechos + 1);
+        cortes.add(inicio);
+        for (int i = 1; i < trechos; i++) {
+            cortes.add(inicio.plus(duracao.multipliedBy(i).dividedBy(trechos)));
+        }
+        cortes.add(fim);
+        return cortes;
+    }
+
+    private List<VendasPeriodoParcial> somar(LocalDateTime inicio, LocalDateTime fim, String status) {
+        return leitura.execute(transacao -> pedidoRepository.somarPorRestauranteNoPeriodo(inicio, fim, status));
+    }
+
+    private static List<List<VendasPeriodoParcial>> aguardar(List<CompletableFuture<List<VendasPeriodoParcial>>> tarefas) {
+        List<List<VendasPeriodoParcial>> parciais = new ArrayList<>(tarefas.size());
+        try {
+            for (CompletableFuture<List<VendasPeriodoParcial>> tarefa : tarefas) {
+                parciais.add(tarefa.join());
+            }
+            return parciais;
+        } catch (CompletionException e) {
+            // Um trecho falhou: os que ainda não começaram não rodam mais
+            tarefas.forEach(tarefa -> tarefa.cancel(false));
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private static List<VendasPeriodoRestauranteDTO> juntar(List<List<VendasPeriodoParcial>> parciais) {
+        Map<Long, VendasPeriodoRestauranteDTO> porRestaurante = new HashMap<>();
+        for (List<VendasPeriodoParcial> trecho : parciais) {
+            for (VendasPeriodoParcial parcial : trecho) {
+                VendasPeriodoRestauranteDTO total = porRestaurante.get(parcial.restauranteId());
+                if (total == null) {
+                    porRestaurante.put(parcial.restauranteId(), new VendasPeriodoRestauranteDTO(parcial.restauranteId(),
+                            parcial.pedidos(), parcial.faturamento(), null, parcial.primeiroPedido(), parcial.ultimoPedido()));
+                    continue;
+                }
+                total.setPedidos(total.getPedidos() + parcial.pedidos());
+                total.setFaturamento(total.getFaturamento().add(parcial.faturamento()));
+                if (parcial.primeiroPedido().isBefore(total.getPrimeiroPedido())) {
+                    total.setPrimeiroPedido(parcial.primeiroPedido());
+                }
+                if (parcial.ultimoPedido().isAfter(total.getUltimoPedido())) {
+                    total.setUltimoPedido(parcial.ultimoPedido());
+                }
+            }
+        }
+
+        List<VendasPeriodoRestauranteDTO> restaurantes = new ArrayList<>(porRestaurante.values());
+        for (VendasPeriodoRestauranteDTO restaurante : restaurantes) {
+            restaurante.setTicketMedio(restaurante.getFaturamento()
+                    .divide(BigDecimal.valueOf(restaurante.getPedidos()), 2, RoundingMode.HALF_UP));
+        }
+        restaurantes.sort(Comparator.comparing(VendasPeriodoRestauranteDTO::getFaturamento).reversed()
+                .thenComparing(VendasPeriodoRestauranteDTO::getRestauranteId));
+        return restaurantes;
+    }
+}
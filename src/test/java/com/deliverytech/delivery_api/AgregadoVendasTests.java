@@ -0,0 +1,211 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.dto.DivergenciaAgregadoDTO;
+import com.deliverytech.delivery_api.dto.ReconstrucaoAgregadosDTO;
+import com.deliverytech.delivery_api.dto.projection.RelatorioFaturamentoCategoria;
+import com.deliverytech.delivery_api.dto.projection.RelatorioProdutosMaisVendidos;
+import com.deliverytech.delivery_api.dto.projection.RelatorioVendasRestaurante;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.service.PedidoService;
+import com.deliverytech.delivery_api.service.RelatorioService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sem @Transactional: cada mudança de status é gravada (e os agregados com ela) no seu próprio commit
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:agregado-vendas;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector=com.deliverytech.delivery_api.ContadorSql"
+})
+@AutoConfigureMockMvc
+class AgregadoVendasTests {
+
+	@Autowired private ClienteRepository clienteRepository;
+	@Autowired private RestauranteRepository restauranteRepository;
+	@Autowired private ProdutoRepository produtoRepository;
+	@Autowired private PedidoService pedidoService;
+	@Autowired private RelatorioService relatorioService;
+	@Autowired private JdbcTemplate jdbcTemplate;
+	@Autowired private TransactionTemplate transactionTemplate;
+	@Autowired private EntityManagerFactory entityManagerFactory;
+	@Autowired private MockMvc mockMvc;
+
+	// Nomes próprios de cada teste, para não enxergar as vendas dos outros
+	private String sufixo;
+	private Cliente cliente;
+	private Restaurante restaurante;
+	private Produto pizza;
+	private Produto suco;
+
+	@BeforeEach
+	void cadastrar() {
+		sufixo = " [" + UUID.randomUUID() + "]";
+		cliente = new Cliente();
+		cliente.setNome("Cliente" + sufixo);
+		cliente.setAtivo(true);
+		clienteRepository.save(cliente);
+
+		restaurante = new Restaurante();
+		restaurante.setNome("Restaurante" + sufixo);
+		restaurante.setCategoria("Categoria" + sufixo);
+		restaurante.setAtivo(true);
+		restauranteRepository.save(restaurante);
+
+		pizza = produto("Pizza" + sufixo, "40.00");
+		suco = produto("Suco" + sufixo, "8.50");
+	}
+
+	@Test
+	void entrarESairDeEntregueDeveAtualizarOsRelatorios() {
+		Pedido primeiro = pedidoService.criarPedido(cliente.getId(), restaurante.getId(), Map.of(pizza.getId(), 1, suco.getId(), 2));
+		Pedido segundo = pedidoService.criarPedido(cliente.getId(), restaurante.getId(), Map.of(suco.getId(), 3));
+		assertNull(vendasDoRestaurante());
+
+		pedidoService.atualizarStatus(primeiro.getId(), "SAIU_PARA_ENTREGA");
+		assertNull(vendasDoRestaurante());
+
+		pedidoService.atualizarStatus(primeiro.getId(), "ENTREGUE");
+		pedidoService.atualizarStatus(segundo.getId(), "ENTREGUE");
+		// Repetir o status não conta o pedido de novo
+		pedidoService.atualizarStatus(segundo.getId(), "ENTREGUE");
+		assertValor("82.50", vendasDoRestaurante());
+		assertValor("82.50", faturamentoDaCategoria());
+		assertEquals(5L, vendidos(suco));
+		assertEquals(1L, vendidos(pizza));
+
+		// Saída de ENTREGUE (estorno, por exemplo) tira o pedido dos agregados
+		pedidoService.atualizarStatus(segundo.getId(), "CANCELADO");
+		assertValor("57.00", vendasDoRestaurante());
+		assertEquals(2L, vendidos(suco));
+
+		pedidoService.atualizarStatus(primeiro.getId(), "PREPARANDO");
+		assertNull(vendasDoRestaurante());
+		assertNull(faturamentoDaCategoria());
+		assertNull(vendidos(pizza));
+	}
+
+	@Test
+	void relatoriosNaoDevemLerOsPedidos() {
+		Pedido pedido = pedidoService.criarPedido(cliente.getId(), restaurante.getId(), Map.of(pizza.getId(), 1));
+		pedidoService.atualizarStatus(pedido.getId(), "ENTREGUE");
+
+		ContadorSql.zerar();
+		relatorioService.getVendasPorRestaurante();
+		relatorioService.getProdutosMaisVendidos();
+		relatorioService.getFaturamentoPorCategoria();
+		assertEquals(3, ContadorSql.getTotal());
+		ContadorSql.getComandos().forEach(sql -> {
+			assertFalse(sql.matches("(?s).*(from|join) (pedidos|itens_pedido) .*"), sql);
+			assertTrue(sql.contains("vendas_"), sql);
+		});
+	}
+
+	@Test
+	void atualizarOsAgregadosNaoDeveEsvaziarOCacheDeSegundoNivel() {
+		transactionTemplate.executeWithoutResult(status -> restauranteRepository.findById(restaurante.getId()).orElseThrow());
+		assertTrue(entityManagerFactory.getCache().contains(Restaurante.class, restaurante.getId()));
+
+		Pedido pedido = pedidoService.criarPedido(cliente.getId(), restaurante.getId(), Map.of(pizza.getId(), 1));
+		pedidoService.atualizarStatus(pedido.getId(), "ENTREGUE");
+
+		assertTrue(entityManagerFactory.getCache().contains(Restaurante.class, restaurante.getId()));
+	}
+
+	@Test
+	void reconstrucaoDeveAcusarECorrigirDesvios() throws Exception {
+		Pedido pedido = pedidoService.criarPedido(cliente.getId(), restaurante.getId(), Map.of(pizza.getId(), 2));
+		pedidoService.atualizarStatus(pedido.getId(), "ENTREGUE");
+		ReconstrucaoAgregadosDTO semDesvios = relatorioService.reconstruirAgregados();
+		assertTrue(semDesvios.getDivergencias().isEmpty(), semDesvios.toString());
+
+		// Desvios: agregado alterado por fora e pedido entregue sem passar pelo serviço
+		jdbcTemplate.update("UPDATE vendas_restaurante SET total_vendas = total_vendas + 1 WHERE restaurante_id = ?", restaurante.getId());
+		Pedido porFora = pedidoService.criarPedido(cliente.getId(), restaurante.getId(), Map.of(suco.getId(), 1));
+		jdbcTemplate.update("UPDATE pedidos SET status = 'ENTREGUE' WHERE id = ?", porFora.getId());
+
+		ReconstrucaoAgregadosDTO reconstrucao = relatorioService.reconstruirAgregados();
+		DivergenciaAgregadoDTO doRestaurante = divergencia(reconstrucao, "RESTAURANTE", restaurante.getId());
+		assertEquals(1L, doRestaurante.getQuantidadeAgregada());
+		assertEquals(2L, doRestaurante.getQuantidadeCalculada());
+		assertEquals(0, doRestaurante.getTotalAgregado().compareTo(new BigDecimal("81.00")));
+		assertEquals(0, doRestaurante.getTotalCalculado().compareTo(new BigDecimal("88.50")));
+		DivergenciaAgregadoDTO doSuco = divergencia(reconstrucao, "PRODUTO", suco.getId());
+		assertEquals(0L, doSuco.getQuantidadeAgregada());
+		assertEquals(1L, doSuco.getQuantidadeCalculada());
+		assertTrue(reconstrucao.getDivergencias().stream().noneMatch(d -> d.getTipo().equals("PRODUTO") && d.getId().equals(pizza.getId())));
+
+		assertValor("88.50", vendasDoRestaurante());
+		assertEquals(1L, vendidos(suco));
+
+		// Corrigido: a próxima reconstrução não acha nada
+		mockMvc.perform(post("/api/relatorios/agregados/reconstruir"))
+				.andExpect(status().isOk());
+		assertTrue(relatorioService.reconstruirAgregados().getDivergencias().isEmpty());
+	}
+
+	private Produto produto(String nome, String preco) {
+		Produto produto = new Produto();
+		produto.setNome(nome);
+		produto.setPreco(new BigDecimal(preco));
+		produto.setRestaurante(restaurante);
+		produto.setAtivo(true);
+		return produtoRepository.save(produto);
+	}
+
+	private BigDecimal vendasDoRestaurante() {
+		return relatorioService.getVendasPorRestaurante().stream()
+				.filter(linha -> linha.getRestauranteNome().equals(restaurante.getNome()))
+				.map(RelatorioVendasRestaurante::getTotalVendas)
+				.findFirst().orElse(null);
+	}
+
+	private BigDecimal faturamentoDaCategoria() {
+		return relatorioService.getFaturamentoPorCategoria().stream()
+				.filter(linha -> linha.getCategoria().equals(restaurante.getCategoria()))
+				.map(RelatorioFaturamentoCategoria::getTotalVendas)
+				.findFirst().orElse(null);
+	}
+
+	private Long vendidos(Produto produto) {
+		return relatorioService.getProdutosMaisVendidos().stream()
+				.filter(linha -> linha.getNomeProduto().equals(produto.getNome()))
+				.map(RelatorioProdutosMaisVendidos::getQuantidadeVendida)
+				.findFirst().orElse(null);
+	}
+
+	private static DivergenciaAgregadoDTO divergencia(ReconstrucaoAgregadosDTO reconstrucao, String tipo, Long id) {
+		List<DivergenciaAgregadoDTO> encontradas = reconstrucao.getDivergencias().stream()
+				.filter(d -> d.getTipo().equals(tipo) && d.getId().equals(id))
+				.toList();
+		assertEquals(1, encontradas.size(), reconstrucao.toString());
+		return encontradas.get(0);
+	}
+
+	private static void assertValor(String esperado, BigDecimal valor) {
+		assertNotNull(valor);
+		assertEquals(0, valor.compareTo(new BigDecimal(esperado)), String.valueOf(valor));
+	}
+}
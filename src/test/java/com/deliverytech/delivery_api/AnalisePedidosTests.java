@@ -0,0 +1,179 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.dto.ConsultaPedidosDTO;
+import com.deliverytech.delivery_api.dto.GrupoConsultaDTO;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.enums.DimensaoConsulta;
+import com.deliverytech.delivery_api.enums.MetricaConsulta;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.service.AnalisePedidosService;
+import com.deliverytech.delivery_api.service.PedidoService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sem @Transactional: as colunas só recebem os pedidos depois do commit
+@ActiveProfiles("test")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:analise-pedidos;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AnalisePedidosTests {
+
+	private static final int PEDIDOS = 5_000;
+	// Um pedido a cada 37 minutos, para trás a partir desta data: ~128 dias
+	private static final LocalDateTime REFERENCIA = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+	@Autowired private Cadastros cadastros;
+	@Autowired private PedidoService pedidoService;
+	@Autowired private AnalisePedidosService analisePedidosService;
+	@Autowired private JdbcTemplate jdbcTemplate;
+	@Autowired private ObjectMapper objectMapper;
+	@Autowired private MockMvc mockMvc;
+
+	private final List<Restaurante> historicos = new ArrayList<>();
+	private Cliente cliente;
+
+	@BeforeAll
+	void cadastrarHistorico() {
+		cliente = cadastros.novoCliente();
+		Cliente outro = cadastros.novoCliente();
+		for (int i = 0; i < 3; i++) {
+			historicos.add(cadastros.novoRestaurante());
+		}
+		Produto produto = cadastros.novoProduto(historicos.get(0));
+
+		// Gravados direto no banco: só entram nas colunas pela carga
+		jdbcTemplate.update("INSERT INTO pedidos (id, cliente_id, restaurante_id, data_pedido, total, status) " +
+						"SELECT 4000000 + X, CASE MOD(X, 5) WHEN 0 THEN ? ELSE ? END, CASE MOD(X, 3) WHEN 0 THEN ? WHEN 1 THEN ? ELSE ? END, " +
+						"DATEADD('MINUTE', -X * 37, CAST(? AS TIMESTAMP)), 10.00 + MOD(X, 7) + 0.25, " +
+						"ARRAY['PENDENTE', 'CONFIRMADO', 'ENTREGUE', 'CANCELADO'][MOD(X, 4) + 1] FROM SYSTEM_RANGE(1, ?)",
+				outro.getId(), cliente.getId(), historicos.get(0).getId(), historicos.get(1).getId(), historicos.get(2).getId(),
+				Timestamp.valueOf(REFERENCIA), PEDIDOS);
+		// Dois itens por pedido (um só nos múltiplos de 7)
+		jdbcTemplate.update("INSERT INTO itens_pedido (id, pedido_id, produto_id, quantidade, preco_unitario) " +
+				"SELECT 4000000 + X, 4000000 + X, ?, MOD(X, 3) + 1, 10.00 FROM SYSTEM_RANGE(1, ?)", produto.getId(), PEDIDOS);
+		jdbcTemplate.update("INSERT INTO itens_pedido (id, pedido_id, produto_id, quantidade, preco_unitario) " +
+				"SELECT 5000000 + X, 4000000 + X, ?, 2, 10.00 FROM SYSTEM_RANGE(1, ?) WHERE MOD(X, 7) <> 0", produto.getId(), PEDIDOS);
+		analisePedidosService.reconstruir();
+	}
+
+	@Test
+	void consultaDeveBaterComOGroupByNoBanco() {
+		List<Long> ids = historicos.stream().map(Restaurante::getId).toList();
+		LocalDateTime inicio = REFERENCIA.minusDays(60);
+		LocalDateTime fim = REFERENCIA.minusDays(10);
+
+		ConsultaPedidosDTO consulta = analisePedidosService.consultar(List.of(DimensaoConsulta.RESTAURANTE, DimensaoConsulta.STATUS),
+				inicio, fim, ids, null, null, MetricaConsulta.FATURAMENTO, 100);
+
+		Map<String, String> esperado = new TreeMap<>();
+		jdbcTemplate.query("SELECT p.restaurante_id, p.status, COUNT(*), SUM(p.total), SUM(i.itens) FROM pedidos p " +
+						"JOIN (SELECT pedido_id, SUM(quantidade) AS itens FROM itens_pedido GROUP BY pedido_id) i ON i.pedido_id = p.id " +
+						"WHERE p.data_pedido >= ? AND p.data_pedido < ? AND p.restaurante_id IN (?, ?, ?) GROUP BY p.restaurante_id, p.status",
+				linha -> {
+					esperado.put(linha.getLong(1) + " " + linha.getString(2),
+							linha.getLong(3) + " " + linha.getBigDecimal(4).stripTrailingZeros().toPlainString() + " " + linha.getLong(5));
+				},
+				Timestamp.valueOf(inicio), Timestamp.valueOf(fim), ids.get(0), ids.get(1), ids.get(2));
+
+		Map<String, String> obtido = new TreeMap<>();
+		for (GrupoConsultaDTO grupo : consulta.getGrupos()) {
+			obtido.put(grupo.getChave().get("RESTAURANTE") + " " + grupo.getChave().get("STATUS"),
+					grupo.getPedidos() + " " + grupo.getFaturamento().stripTrailingZeros().toPlainString() + " " + grupo.getItens());
+		}
+		assertEquals(12, esperado.size());
+		assertEquals(esperado, obtido);
+		assertEquals(consulta.getGrupos().stream().mapToLong(GrupoConsultaDTO::getPedidos).sum(), consulta.getLinhasFiltradas());
+		for (int i = 1; i < consulta.getGrupos().size(); i++) {
+			assertTrue(consulta.getGrupos().get(i - 1).getFaturamento().compareTo(consulta.getGrupos().get(i).getFaturamento()) >= 0);
+		}
+	}
+
+	@Test
+	void pedidosCriadosEMudancasDeStatusDevemEntrarNaConsulta() {
+		Restaurante restaurante = cadastros.novoRestaurante();
+		Produto produto = cadastros.novoProduto(restaurante);
+
+		Pedido entregue = pedidoService.criarPedido(cliente.getId(), restaurante.getId(), Map.of(produto.getId(), 3));
+		Pedido cancelado = pedidoService.criarPedido(cliente.getId(), restaurante.getId(), Map.of(produto.getId(), 1));
+		pedidoService.atualizarStatus(entregue.getId(), "ENTREGUE");
+		pedidoService.cancelarPedido(cancelado.getId());
+
+		ConsultaPedidosDTO consulta = analisePedidosService.consultar(List.of(DimensaoConsulta.STATUS), null, null,
+				List.of(restaurante.getId()), null, null, MetricaConsulta.ITENS, 10);
+		assertEquals(2, consulta.getGrupos().size());
+		GrupoConsultaDTO primeiro = consulta.getGrupos().get(0);
+		assertEquals(Map.of("STATUS", "ENTREGUE"), primeiro.getChave());
+		assertEquals(1L, primeiro.getPedidos());
+		assertEquals(3L, primeiro.getItens());
+		assertEquals(0, primeiro.getFaturamento().compareTo(new BigDecimal("30.00")));
+		assertEquals(Map.of("STATUS", "CANCELADO"), consulta.getGrupos().get(1).getChave());
+
+		// A recarga dos pedidos chega ao mesmo resultado
+		analisePedidosService.reconstruir();
+		assertEquals(consulta.getGrupos(), analisePedidosService.consultar(List.of(DimensaoConsulta.STATUS), null, null,
+				List.of(restaurante.getId()), null, null, MetricaConsulta.ITENS, 10).getGrupos());
+	}
+
+	@Test
+	void endpointDeveAgruparPorDimensoesDeTempo() throws Exception {
+		JsonNode resposta = objectMapper.readTree(mockMvc.perform(get("/api/relatorios/consulta")
+						.param("agruparPor", "MES")
+						.param("fim", REFERENCIA.toString())
+						.param("restauranteIds", historicos.get(0).getId().toString())
+						.param("status", "ENTREGUE", "CANCELADO")
+						.param("ordenarPor", "PEDIDOS")
+						.param("limite", "2"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray());
+
+		assertEquals("PEDIDOS", resposta.get("ordenarPor").asText());
+		assertEquals(2, resposta.get("grupos").size());
+		assertTrue(resposta.get("gruposEncontrados").asInt() >= 4);
+		long primeiro = resposta.get("grupos").get(0).get("pedidos").asLong();
+		String mes = resposta.get("grupos").get(0).get("chave").get("MES").asText();
+		Long esperado = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pedidos WHERE restaurante_id = ? " +
+						"AND status IN ('ENTREGUE', 'CANCELADO') AND FORMATDATETIME(data_pedido, 'yyyy-MM') = ?",
+				Long.class, historicos.get(0).getId(), mes);
+		assertEquals(esperado, primeiro);
+		assertTrue(primeiro >= resposta.get("grupos").get(1).get("pedidos").asLong());
+	}
+
+	@Test
+	void consultasInvalidasDevemSerRejeitadas() {
+		assertThrows(RegraNegocioException.class, () -> analisePedidosService.consultar(
+				List.of(DimensaoConsulta.DIA, DimensaoConsulta.STATUS, DimensaoConsulta.CLIENTE), null, null, null, null, null, null, 10));
+		assertThrows(RegraNegocioException.class, () -> analisePedidosService.consultar(
+				List.of(DimensaoConsulta.DIA, DimensaoConsulta.DIA), null, null, null, null, null, null, 10));
+		assertThrows(RegraNegocioException.class, () -> analisePedidosService.consultar(
+				null, REFERENCIA, REFERENCIA, null, null, null, null, 10));
+		assertThrows(RegraNegocioException.class, () -> analisePedidosService.consultar(
+				null, null, null, null, null, null, null, AnalisePedidosService.LIMITE_MAXIMO + 1));
+
+		// Sem agrupamento: um grupo só, com o total geral
+		ConsultaPedidosDTO total = analisePedidosService.consultar(null, null, REFERENCIA.plusMinutes(1),
+				historicos.stream().map(Restaurante::getId).toList(), null, null, null, 10);
+		assertEquals(1, total.getGrupos().size());
+		assertEquals((long) PEDIDOS, total.getGrupos().get(0).getPedidos());
+	}
+}
@@ -0,0 +1,138 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.service.ArquivoColunarPedidos;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArquivoColunarPedidosTests {
+
+	private static final String[] STATUS = {"PENDENTE", "CONFIRMADO", "ENTREGUE", "CANCELADO"};
+	private static final String[] CATEGORIAS = {"Lanches", "Pizzaria", "Japonesa", "Açaí & Sucos", null};
+
+	@TempDir
+	Path diretorio;
+
+	@Test
+	void deveDevolverAsMesmasLinhasComNulosEVariosBlocos() throws IOException {
+		Random aleatorio = new Random(23);
+		List<ArquivoColunarPedidos.LinhaPedido> pedidos = new ArrayList<>();
+		List<ArquivoColunarPedidos.LinhaItem> itens = new ArrayList<>();
+		LocalDateTime data = LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000);
+		long itemId = 1;
+		for (int i = 0; i < 2 * ArquivoColunarPedidos.LINHAS_POR_BLOCO + 77; i++) {
+			// Ids fora de ordem (deltas negativos) e datas com microssegundos, antes e depois de 1970
+			long id = 1_000_000L + i * 3L - (i % 5 == 0 ? 40 : 0);
+			data = data.plusNanos(aleatorio.nextInt(5_000_000) * 1_000L);
+			pedidos.add(new ArquivoColunarPedidos.LinhaPedido(id, i == 7 ? null : data,
+					i % 97 == 0 ? null : 1L + aleatorio.nextInt(1_000), 1L + aleatorio.nextInt(50),
+					CATEGORIAS[aleatorio.nextInt(CATEGORIAS.length)], STATUS[aleatorio.nextInt(STATUS.length)],
+					i % 89 == 0 ? null : BigDecimal.valueOf(aleatorio.nextInt(100_000), 2)));
+			for (int j = aleatorio.nextInt(4); j > 0; j--) {
+				itens.add(new ArquivoColunarPedidos.LinhaItem(itemId++, id, 1L + aleatorio.nextInt(500),
+						j == 2 ? null : 1 + aleatorio.nextInt(5), BigDecimal.valueOf(-aleatorio.nextInt(3), 0).add(new BigDecimal("9.90"))));
+			}
+		}
+
+		byte[] arquivo = escrever(pedidos, itens);
+		List<ArquivoColunarPedidos.LinhaPedido> lidosPedidos = new ArrayList<>();
+		List<ArquivoColunarPedidos.LinhaItem> lidosItens = new ArrayList<>();
+		ArquivoColunarPedidos.Rodape rodape = ArquivoColunarPedidos.ler(new ByteArrayInputStream(arquivo), lidosPedidos::add, lidosItens::add);
+
+		assertEquals(new ArquivoColunarPedidos.Rodape(pedidos.size(), itens.size()), rodape);
+		assertEquals(pedidos.size(), lidosPedidos.size());
+		for (int i = 0; i < pedidos.size(); i++) {
+			assertIgual(pedidos.get(i), lidosPedidos.get(i));
+		}
+		assertEquals(itens.size(), lidosItens.size());
+		for (int i = 0; i < itens.size(); i++) {
+			ArquivoColunarPedidos.LinhaItem esperado = itens.get(i);
+			ArquivoColunarPedidos.LinhaItem lido = lidosItens.get(i);
+			assertEquals(esperado.id(), lido.id());
+			assertEquals(esperado.pedidoId(), lido.pedidoId());
+			assertEquals(esperado.produtoId(), lido.produtoId());
+			assertEquals(esperado.quantidade(), lido.quantidade());
+			assertEquals(0, esperado.precoUnitario().compareTo(lido.precoUnitario()));
+		}
+
+		Path caminho = diretorio.resolve("pedidos.pcol");
+		Files.write(caminho, arquivo);
+		assertEquals(rodape, ArquivoColunarPedidos.lerRodape(caminho));
+	}
+
+	@Test
+	void arquivoVazioDeveTerSoCabecalhoERodape() throws IOException {
+		byte[] arquivo = escrever(List.of(), List.of());
+
+		assertEquals(7 + 23, arquivo.length);
+		assertEquals(new ArquivoColunarPedidos.Rodape(0, 0),
+				ArquivoColunarPedidos.ler(new ByteArrayInputStream(arquivo), pedido -> fail(), item -> fail()));
+	}
+
+	@Test
+	void arquivoTruncadoOuDeOutroFormatoDeveSerRecusado() throws IOException {
+		List<ArquivoColunarPedidos.LinhaPedido> pedidos = new ArrayList<>();
+		for (int i = 0; i < 1_000; i++) {
+			pedidos.add(new ArquivoColunarPedidos.LinhaPedido(i, LocalDateTime.of(2026, 3, 1, 0, 0).plusMinutes(i), 1L, 2L,
+					"Lanches", "ENTREGUE", new BigDecimal("10.00")));
+		}
+		byte[] arquivo = escrever(pedidos, List.of());
+
+		for (int tamanho : new int[]{arquivo.length - 1, arquivo.length - 24, arquivo.length / 2, 10}) {
+			byte[] truncado = Arrays.copyOf(arquivo, tamanho);
+			assertThrows(IOException.class, () -> ArquivoColunarPedidos.ler(new ByteArrayInputStream(truncado), p -> { }, i -> { }));
+			Path caminho = diretorio.resolve("truncado-" + tamanho + ".pcol");
+			Files.write(caminho, truncado);
+			assertThrows(IOException.class, () -> ArquivoColunarPedidos.lerRodape(caminho));
+		}
+		assertThrows(IOException.class, () -> ArquivoColunarPedidos.ler(
+				new ByteArrayInputStream("{\"id\":1}\n".getBytes()), p -> { }, i -> { }));
+	}
+
+	// =================== AUXILIARES ===================
+
+	private static byte[] escrever(List<ArquivoColunarPedidos.LinhaPedido> pedidos, List<ArquivoColunarPedidos.LinhaItem> itens) throws IOException {
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		try (ArquivoColunarPedidos.Escritor escritor = new ArquivoColunarPedidos.Escritor(saida)) {
+			// Intercalados como na exportação: cada pedido seguido dos seus itens
+			int item = 0;
+			for (ArquivoColunarPedidos.LinhaPedido pedido : pedidos) {
+				escritor.pedido(pedido.id(), pedido.dataPedido(), pedido.clienteId(), pedido.restauranteId(),
+						pedido.categoria(), pedido.status(), pedido.total());
+				while (item < itens.size() && itens.get(item).pedidoId() == pedido.id()) {
+					ArquivoColunarPedidos.LinhaItem linha = itens.get(item++);
+					escritor.item(linha.id(), linha.pedidoId(), linha.produtoId(), linha.quantidade(), linha.precoUnitario());
+				}
+			}
+			assertEquals(itens.size(), item);
+		}
+		return saida.toByteArray();
+	}
+
+	private static void assertIgual(ArquivoColunarPedidos.LinhaPedido esperado, ArquivoColunarPedidos.LinhaPedido lido) {
+		assertEquals(esperado.id(), lido.id());
+		assertEquals(esperado.dataPedido(), lido.dataPedido());
+		assertEquals(esperado.clienteId(), lido.clienteId());
+		assertEquals(esperado.restauranteId(), lido.restauranteId());
+		assertEquals(esperado.categoria(), lido.categoria());
+		assertEquals(esperado.status(), lido.status());
+		if (esperado.total() == null) {
+			assertNull(lido.total());
+		} else {
+			assertEquals(0, esperado.total().compareTo(lido.total()));
+		}
+	}
+}
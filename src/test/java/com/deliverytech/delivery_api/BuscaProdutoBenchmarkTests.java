@@ -0,0 +1,119 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.service.BuscaProdutoService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Benchmark da busca de produtos com 1 milhão de produtos: índice em memória
+ * (BuscaProdutoService, 20 resultados por relevância) contra LIKE '%termo%' no banco,
+ * tanto na forma antiga (findByNomeContainingIgnoreCase, todas as linhas) quanto limitada
+ * a 20 IDs sem ordenação.
+ *
+ * Executar com: ./mvnw test -Dtest=BuscaProdutoBenchmarkTests -Dbenchmark=true
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:busca-benchmark",
+		"spring.jpa.show-sql=false",
+		"logging.level.org.springframework.web=INFO"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BuscaProdutoBenchmarkTests {
+
+	private static final int PRODUTOS = 1_000_000;
+	private static final int LIMITE = 20;
+	private static final int RODADAS = 5;
+	private static final List<String> CONSULTAS = List.of("margherita", "frango grelhado", "choc", "acai", "queijo especial");
+
+	@Autowired private RestauranteRepository restauranteRepository;
+	@Autowired private ProdutoRepository produtoRepository;
+	@Autowired private BuscaProdutoService buscaProdutoService;
+	@Autowired private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void compararIndiceEmMemoriaComLike() {
+		Restaurante restaurante = new Restaurante();
+		restaurante.setNome("Restaurante Busca");
+		restaurante.setAtivo(true);
+		restauranteRepository.save(restaurante);
+
+		// Nomes e descrições combinando listas de palavras (com acentos) pelo número da linha
+		jdbcTemplate.update("INSERT INTO produtos (id, nome, descricao, preco, ativo, restaurante_id) " +
+				"SELECT 10000000 + X, " +
+				"ARRAY['Pizza', 'Hambúrguer', 'Salada', 'Suco', 'Torta', 'Lasanha', 'Sanduíche', 'Açaí', 'Bolo', 'Pastel', " +
+				"'Esfiha', 'Tapioca', 'Crepe', 'Risoto', 'Yakisoba', 'Burrito', 'Panqueca', 'Omelete', 'Wrap', 'Sopa'][MOD(X, 20) + 1] " +
+				"|| ' ' || ARRAY['Margherita', 'Calabresa', 'de Frango', 'de Queijo', 'de Chocolate', 'Vegana', 'Especial', " +
+				"'da Casa', 'Tradicional', 'Caprese', 'Mineira', 'Baiana', 'Paulista', 'Light', 'Picante'][MOD(X / 20, 15) + 1] " +
+				"|| ' ' || ARRAY['Pequeno', 'Médio', 'Grande', 'Família', 'Individual', 'Duplo', 'Kids'][MOD(X / 300, 7) + 1], " +
+				"ARRAY['Feito com', 'Preparado com', 'Servido com', 'Acompanha', 'Leva'][MOD(X, 5) + 1] " +
+				"|| ' ' || ARRAY['tomate', 'manjericão', 'frango grelhado', 'queijo minas', 'chocolate belga', 'cebola roxa', " +
+				"'azeite', 'cogumelos', 'presunto', 'palmito', 'catupiry', 'rúcula', 'bacon', 'milho'][MOD(X / 7, 14) + 1] " +
+				"|| ' e ' || ARRAY['orégano', 'granola', 'mel', 'alho', 'pimenta', 'limão', 'gergelim', 'molho especial'][MOD(X / 11, 8) + 1], " +
+				"19.90, TRUE, ? FROM SYSTEM_RANGE(1, ?)", restaurante.getId(), PRODUTOS);
+
+		long inicio = System.nanoTime();
+		int indexados = buscaProdutoService.reconstruir();
+		long montagem = System.nanoTime() - inicio;
+		assertEquals(PRODUTOS, indexados);
+
+		// O índice encontra todas as consultas; o LIKE não encontra "acai" (o nome é "Açaí")
+		CONSULTAS.forEach(consulta -> assertFalse(buscaProdutoService.buscar(consulta, LIMITE).isEmpty(), consulta));
+
+		// Aquecimento
+		medir(termo -> buscaProdutoService.buscar(termo, LIMITE));
+		medir(this::likeLimitado);
+
+		long indice = 0;
+		long likeLimitado = 0;
+		for (int rodada = 0; rodada < RODADAS; rodada++) {
+			indice += medir(termo -> buscaProdutoService.buscar(termo, LIMITE));
+			likeLimitado += medir(this::likeLimitado);
+		}
+		// A forma antiga traz dezenas de milhares de entidades por consulta: uma rodada basta
+		long likeCompleto = medir(termo -> produtoRepository.findByNomeContainingIgnoreCase(termo.split(" ")[0]));
+
+		System.out.printf("Busca em %d produtos (%d consultas): montagem do índice %.0f ms | " +
+						"índice %.2f ms/consulta | LIKE limitado %.2f ms/consulta | LIKE completo %.2f ms/consulta%n",
+				PRODUTOS, CONSULTAS.size(), montagem / 1e6,
+				indice / RODADAS / CONSULTAS.size() / 1e6,
+				likeLimitado / RODADAS / CONSULTAS.size() / 1e6,
+				likeCompleto / CONSULTAS.size() / 1e6);
+	}
+
+	// Tempo total das consultas
+	private long medir(Function<String, List<?>> busca) {
+		long inicio = System.nanoTime();
+		for (String consulta : CONSULTAS) {
+			busca.apply(consulta);
+		}
+		return System.nanoTime() - inicio;
+	}
+
+	// O que o LIKE consegue de melhor sem índice textual: primeiras 20 linhas, sem relevância nem acentos
+	private List<Long> likeLimitado(String consulta) {
+		StringBuilder sql = new StringBuilder("SELECT id FROM produtos WHERE 1 = 1");
+		String[] termos = consulta.split(" ");
+		for (int i = 0; i < termos.length; i++) {
+			sql.append(" AND (LOWER(nome) LIKE ? OR LOWER(descricao) LIKE ?)");
+		}
+		sql.append(" LIMIT ").append(LIMITE);
+		Object[] parametros = new Object[termos.length * 2];
+		for (int i = 0; i < termos.length; i++) {
+			parametros[2 * i] = "%" + termos[i] + "%";
+			parametros[2 * i + 1] = "%" + termos[i] + "%";
+		}
+		return jdbcTemplate.queryForList(sql.toString(), Long.class, parametros);
+	}
+}
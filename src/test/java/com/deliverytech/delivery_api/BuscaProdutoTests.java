@@ -0,0 +1,176 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.service.BuscaProdutoService;
+import com.deliverytech.delivery_api.service.IndiceBuscaProduto;
+import com.deliverytech.delivery_api.service.ProdutoService;
+import com.deliverytech.delivery_api.service.RestauranteService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sem @Transactional: o índice só recebe as alterações depois do commit
+@ActiveProfiles("test")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:busca-produto;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class BuscaProdutoTests {
+
+	@Autowired private RestauranteService restauranteService;
+	@Autowired private ProdutoService produtoService;
+	@Autowired private BuscaProdutoService buscaProdutoService;
+	@Autowired private ObjectMapper objectMapper;
+	@Autowired private MockMvc mockMvc;
+
+	private Restaurante restaurante;
+	private String marca;
+
+	// Cada teste usa uma palavra própria, para não enxergar os produtos dos outros
+	@BeforeEach
+	void criarRestaurante() {
+		marca = "marca" + UUID.randomUUID().toString().replace("-", "").substring(0, 10);
+		Restaurante novo = new Restaurante();
+		novo.setNome("Empório " + marca);
+		novo.setCategoria("Lanches");
+		restaurante = restauranteService.cadastrar(novo);
+	}
+
+	@Test
+	void buscaDeveIgnorarAcentosEMaiusculas() throws Exception {
+		cadastrar("Açaí " + marca, "Com granola e banana");
+		cadastrar("Pão de Queijo " + marca, null);
+
+		assertEquals(List.of("Açaí " + marca), nomes("ACAI " + marca));
+		assertEquals(List.of("Pão de Queijo " + marca), nomes("pao queijo " + marca));
+		assertEquals(List.of("Açaí " + marca), nomes("granola " + marca));
+	}
+
+	@Test
+	void trechosDePalavraDevemCasar() throws Exception {
+		cadastrar("Pizza Margherita " + marca, "Molho de tomate e manjericão");
+		cadastrar("Pizza Calabresa " + marca, "Calabresa fatiada e cebola");
+
+		assertEquals(List.of("Pizza Margherita " + marca), nomes("marg " + marca));
+		assertEquals(List.of("Pizza Margherita " + marca), nomes("herita " + marca));
+		assertEquals(List.of("Pizza Margherita " + marca), nomes("manjeric " + marca));
+		assertEquals(2, nomes("izz " + marca).size());
+		assertTrue(nomes("sushi " + marca).isEmpty());
+	}
+
+	@Test
+	void resultadosDevemVirPorRelevanciaERespeitarOLimite() throws Exception {
+		cadastrar("Suco natural " + marca, "Laranja espremida na hora");
+		cadastrar("Laranjada " + marca, null);
+		cadastrar("Bolo de laranja " + marca, "Cobertura de chocolate");
+		cadastrar("Laranja " + marca, null);
+
+		// Nome exato > nome com prefixo > descrição; entre os de nome exato, o nome mais curto primeiro
+		assertEquals(List.of("Laranja " + marca, "Bolo de laranja " + marca, "Laranjada " + marca, "Suco natural " + marca),
+				nomes("laranja " + marca));
+
+		JsonNode limitado = objectMapper.readTree(mockMvc.perform(get("/api/produtos/buscar")
+						.param("nome", "laranja " + marca)
+						.param("limite", "2"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray());
+		assertEquals(2, limitado.size());
+		assertEquals("Laranja " + marca, limitado.get(0).get("nome").asText());
+		assertEquals(restaurante.getNome(), limitado.get(0).get("restauranteNome").asText());
+	}
+
+	@Test
+	void indiceDeveAcompanharCadastroAtualizacaoERemocao() throws Exception {
+		Produto produto = cadastrar("Esfiha de carne " + marca, null);
+		assertEquals(1, nomes("esfiha " + marca).size());
+
+		Produto novosDados = new Produto();
+		novosDados.setNome("Kibe frito " + marca);
+		novosDados.setPreco(new BigDecimal("8.00"));
+		novosDados.setAtivo(true);
+		produtoService.atualizar(produto.getId(), novosDados);
+		assertTrue(nomes("esfiha " + marca).isEmpty());
+		assertEquals(List.of("Kibe frito " + marca), nomes("kibe " + marca));
+
+		produtoService.deletar(produto.getId());
+		assertTrue(nomes("kibe " + marca).isEmpty());
+	}
+
+	@Test
+	void removerORestauranteDeveTirarSeusProdutosDoIndice() throws Exception {
+		cadastrar("Coxinha " + marca, null);
+		cadastrar("Quibe " + marca, "Coxinha de outro jeito");
+		int tamanho = buscaProdutoService.tamanho();
+
+		restauranteService.deletar(restaurante.getId());
+
+		assertEquals(tamanho - 2, buscaProdutoService.tamanho());
+		assertTrue(nomes("coxinha " + marca).isEmpty());
+	}
+
+	@Test
+	void reconstruirDeveIncluirProdutosJaGravados() throws Exception {
+		cadastrar("Tapioca " + marca, null);
+
+		int indexados = buscaProdutoService.reconstruir();
+
+		assertTrue(indexados >= 1);
+		assertEquals(indexados, buscaProdutoService.tamanho());
+		assertEquals(List.of("Tapioca " + marca), nomes("tapioca " + marca));
+	}
+
+	@Test
+	void compactarNaoDeveAlterarOsResultados() {
+		IndiceBuscaProduto indice = new IndiceBuscaProduto();
+		for (long id = 1; id <= 100; id++) {
+			indice.indexar(id, "Produto " + id, id % 2 == 0 ? "par" : "ímpar");
+		}
+		for (long id = 1; id <= 100; id += 2) {
+			indice.indexar(id, "Produto " + id, "atualizado");
+		}
+		for (long id = 1; id <= 100; id += 4) {
+			indice.remover(id);
+		}
+		List<IndiceBuscaProduto.Resultado> antes = indice.buscar("produto", 100);
+		int vocabularioAntes = indice.tamanhoVocabulario();
+
+		indice.compactar();
+
+		assertEquals(antes, indice.buscar("produto", 100));
+		assertEquals(75, indice.tamanho());
+		assertEquals(25, indice.buscar("atualizado", 100).size());
+		assertTrue(indice.buscar("impar", 100).isEmpty());
+		assertTrue(indice.tamanhoVocabulario() < vocabularioAntes, "Termos sem documentos devem sair do vocabulário");
+	}
+
+	private List<String> nomes(String termo) throws Exception {
+		JsonNode resposta = objectMapper.readTree(mockMvc.perform(get("/api/produtos/buscar").param("nome", termo))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray());
+		List<String> nomes = new ArrayList<>();
+		resposta.forEach(produto -> nomes.add(produto.get("nome").asText()));
+		return nomes;
+	}
+
+	private Produto cadastrar(String nome, String descricao) {
+		Produto novo = new Produto();
+		novo.setNome(nome);
+		novo.setDescricao(descricao);
+		novo.setPreco(new BigDecimal("10.00"));
+		return produtoService.cadastrar(restaurante.getId(), novo);
+	}
+}
@@ -0,0 +1,137 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.dto.EstatisticaCacheDTO;
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.service.CacheService;
+import com.deliverytech.delivery_api.service.ProdutoService;
+import com.deliverytech.delivery_api.service.RestauranteService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sem @Transactional: o cache de segundo nível só é atualizado no commit.
+// Banco próprio, para não deixar dados commitados no banco compartilhado pelos outros testes.
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:cache-segundo-nivel;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector=com.deliverytech.delivery_api.ContadorSql"
+})
+class CacheSegundoNivelTests {
+
+	@Autowired private RestauranteService restauranteService;
+	@Autowired private ProdutoService produtoService;
+	@Autowired private RestauranteRepository restauranteRepository;
+	@Autowired private CacheService cacheService;
+	@Autowired private PlatformTransactionManager transactionManager;
+
+	private Restaurante restaurante;
+	private Produto produto;
+
+	@BeforeEach
+	void criarRestauranteEProduto() {
+		Restaurante novo = new Restaurante();
+		novo.setNome("Cantina Cache " + UUID.randomUUID());
+		novo.setCategoria("Italiana");
+		restaurante = restauranteService.cadastrar(novo);
+		produto = produtoService.cadastrar(restaurante.getId(), Cadastros.produto("Lasanha", "42.00"));
+	}
+
+	@Test
+	void leiturasRepetidasDevemSerServidasPeloCache() {
+		produtoService.buscarPorId(produto.getId());
+		restauranteService.buscarPorId(restaurante.getId());
+
+		cacheService.zerarEstatisticas();
+		ContadorSql.zerar();
+		assertEquals("Lasanha", produtoService.buscarPorId(produto.getId()).getNome());
+		assertEquals(restaurante.getNome(), restauranteService.buscarPorId(restaurante.getId()).getNome());
+
+		assertEquals(0, ContadorSql.getSelects());
+		assertTrue(regiao("produtos").getAcertos() > 0);
+		assertTrue(regiao("restaurantes").getAcertos() > 0);
+	}
+
+	@Test
+	void escritasEmProdutoDevemInvalidarOCache() {
+		produtoService.buscarPorId(produto.getId());
+		produtoService.buscarPorRestaurante(restaurante.getId());
+
+		Produto novosDados = Cadastros.produto("Lasanha à bolonhesa", "45.50");
+		produtoService.atualizar(produto.getId(), novosDados);
+
+		Produto lido = produtoService.buscarPorId(produto.getId());
+		assertEquals("Lasanha à bolonhesa", lido.getNome());
+		assertEquals(0, new BigDecimal("45.50").compareTo(lido.getPreco()));
+		assertEquals("Lasanha à bolonhesa", produtoService.buscarPorRestaurante(restaurante.getId()).get(0).getNome());
+
+		produtoService.alterarDisponibilidade(produto.getId(), false);
+		assertFalse(produtoService.buscarPorId(produto.getId()).isAtivo());
+		assertFalse(produtoService.buscarPorRestaurante(restaurante.getId()).get(0).isAtivo());
+	}
+
+	@Test
+	void escritasEmRestauranteDevemInvalidarOCache() {
+		restauranteService.buscarPorId(restaurante.getId());
+
+		Restaurante novosDados = new Restaurante();
+		novosDados.setNome(restaurante.getNome() + " (nova)");
+		novosDados.setCategoria("Massas");
+		restauranteService.atualizar(restaurante.getId(), novosDados);
+
+		Restaurante lido = restauranteService.buscarPorId(restaurante.getId());
+		assertEquals(restaurante.getNome() + " (nova)", lido.getNome());
+		assertEquals("Massas", lido.getCategoria());
+
+		restauranteService.alterarStatus(restaurante.getId(), false);
+		assertFalse(restauranteService.buscarPorId(restaurante.getId()).isAtivo());
+	}
+
+	@Test
+	void colecaoDeProdutosDoRestauranteDeveSerInvalidadaAoCadastrarProduto() {
+		assertEquals(List.of("Lasanha"), nomesDosProdutos());
+
+		ContadorSql.zerar();
+		assertEquals(List.of("Lasanha"), nomesDosProdutos());
+		assertEquals(0, ContadorSql.getSelects(), "Restaurante e coleção deveriam vir do cache");
+
+		produtoService.cadastrar(restaurante.getId(), Cadastros.produto("Nhoque", "38.00"));
+		assertEquals(List.of("Lasanha", "Nhoque"), nomesDosProdutos());
+	}
+
+	@Test
+	void consultaDeCardapioDeveUsarOCacheDeConsultas() {
+		produtoService.buscarPorRestaurante(restaurante.getId());
+
+		ContadorSql.zerar();
+		assertEquals(1, produtoService.buscarPorRestaurante(restaurante.getId()).size());
+		assertEquals(0, ContadorSql.getSelects());
+		assertTrue(regiao("consultas-produtos").getAcertos() > 0);
+	}
+
+	private List<String> nomesDosProdutos() {
+		return new TransactionTemplate(transactionManager).execute(status ->
+				restauranteRepository.findById(restaurante.getId()).orElseThrow().getProdutos().stream()
+						.map(Produto::getNome)
+						.sorted()
+						.toList());
+	}
+
+	private EstatisticaCacheDTO regiao(String nome) {
+		return cacheService.estatisticas().stream()
+				.filter(r -> r.getRegiao().equals(nome))
+				.findFirst()
+				.orElseThrow(() -> new AssertionError("Região " + nome + " não encontrada"));
+	}
+}
@@ -0,0 +1,77 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Clientes, restaurantes e produtos ativos para os testes, gravados pelos repositórios (na
+ * transação do teste, se ele tiver uma). Sem nome informado, o nome é único: testes que
+ * compartilham o banco não se enxergam.
+ */
+@Component
+public class Cadastros {
+
+	private final ClienteRepository clienteRepository;
+	private final RestauranteRepository restauranteRepository;
+	private final ProdutoRepository produtoRepository;
+
+	public Cadastros(ClienteRepository clienteRepository,
+	                 RestauranteRepository restauranteRepository,
+	                 ProdutoRepository produtoRepository) {
+		this.clienteRepository = clienteRepository;
+		this.restauranteRepository = restauranteRepository;
+		this.produtoRepository = produtoRepository;
+	}
+
+	public Cliente novoCliente() {
+		return novoCliente("Cliente [" + UUID.randomUUID() + "]");
+	}
+
+	public Cliente novoCliente(String nome) {
+		Cliente cliente = new Cliente();
+		cliente.setNome(nome);
+		cliente.setAtivo(true);
+		return clienteRepository.save(cliente);
+	}
+
+	public Restaurante novoRestaurante() {
+		return novoRestaurante("Restaurante [" + UUID.randomUUID() + "]");
+	}
+
+	public Restaurante novoRestaurante(String nome) {
+		Restaurante restaurante = new Restaurante();
+		restaurante.setNome(nome);
+		restaurante.setCategoria("Lanches");
+		restaurante.setAtivo(true);
+		return restauranteRepository.save(restaurante);
+	}
+
+	public Produto novoProduto(Restaurante restaurante) {
+		return novoProduto(restaurante, "Lanche", "10.00");
+	}
+
+	public Produto novoProduto(Restaurante restaurante, String nome, String preco) {
+		Produto produto = produto(nome, preco);
+		produto.setRestaurante(restaurante);
+		return produtoRepository.save(produto);
+	}
+
+	/**
+	 * Dados de um produto ainda não gravado, para o ProdutoService cadastrar ou atualizar.
+	 */
+	public static Produto produto(String nome, String preco) {
+		Produto produto = new Produto();
+		produto.setNome(nome);
+		produto.setPreco(new BigDecimal(preco));
+		produto.setAtivo(true);
+		return produto;
+	}
+}
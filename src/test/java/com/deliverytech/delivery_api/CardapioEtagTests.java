@@ -0,0 +1,151 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.service.ProdutoService;
+import com.deliverytech.delivery_api.service.RestauranteService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sem @Transactional: as invalidações acontecem depois do commit
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:cardapio-etag;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector=com.deliverytech.delivery_api.ContadorSql"
+})
+@AutoConfigureMockMvc
+class CardapioEtagTests {
+
+	@Autowired private RestauranteService restauranteService;
+	@Autowired private ProdutoService produtoService;
+	@Autowired private ObjectMapper objectMapper;
+	@Autowired private MockMvc mockMvc;
+
+	private Restaurante restaurante;
+	private Produto produto;
+	private String cardapio;
+
+	@BeforeEach
+	void criarRestaurante() {
+		Restaurante novo = new Restaurante();
+		novo.setNome("Tapiocaria " + UUID.randomUUID());
+		novo.setCategoria("Nordestina");
+		restaurante = restauranteService.cadastrar(novo);
+		produto = produtoService.cadastrar(restaurante.getId(), Cadastros.produto("Tapioca de queijo", "14.00"));
+		produtoService.cadastrar(restaurante.getId(), Cadastros.produto("Cuscuz", "12.00"));
+		cardapio = "/api/produtos/restaurantes/" + restaurante.getId() + "/produtos";
+	}
+
+	@Test
+	void cardapioDeveResponder304SemConsultarOBanco() throws Exception {
+		MvcResult primeira = mockMvc.perform(get(cardapio))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+				.andReturn();
+		String etag = primeira.getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotNull(etag);
+		assertFalse(etag.startsWith("W/"), "O ETag deve ser forte");
+		assertEquals(2, objectMapper.readTree(primeira.getResponse().getContentAsByteArray()).size());
+
+		ContadorSql.zerar();
+		mockMvc.perform(get(cardapio).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag));
+		assertEquals(0, ContadorSql.getTotal());
+	}
+
+	@Test
+	void variantesGzipEJsonDevemTerOMesmoConteudoEETagsDistintos() throws Exception {
+		MvcResult json = mockMvc.perform(get(cardapio)).andExpect(status().isOk()).andReturn();
+		MvcResult gzip = mockMvc.perform(get(cardapio).header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+				.andReturn();
+
+		assertEquals(objectMapper.readTree(json.getResponse().getContentAsByteArray()),
+				objectMapper.readTree(descompactar(gzip.getResponse().getContentAsByteArray())));
+		assertNotEquals(json.getResponse().getHeader(HttpHeaders.ETAG), gzip.getResponse().getHeader(HttpHeaders.ETAG));
+
+		mockMvc.perform(get(cardapio).header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+	}
+
+	@Test
+	void alteracoesEmProdutoDevemGerarNovoETag() throws Exception {
+		String etag = etagDe(cardapio);
+
+		produtoService.atualizar(produto.getId(), Cadastros.produto("Tapioca de coco", "15.00"));
+		String aposAtualizar = etagDe(cardapio);
+		assertNotEquals(etag, aposAtualizar);
+		MvcResult resposta = mockMvc.perform(get(cardapio).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andReturn();
+		assertTrue(resposta.getResponse().getContentAsString().contains("Tapioca de coco"));
+
+		produtoService.alterarDisponibilidade(produto.getId(), false);
+		String aposIndisponivel = etagDe(cardapio);
+		assertNotEquals(aposAtualizar, aposIndisponivel);
+
+		produtoService.cadastrar(restaurante.getId(), Cadastros.produto("Bolo de rolo", "9.00"));
+		String aposCadastrar = etagDe(cardapio);
+		assertNotEquals(aposIndisponivel, aposCadastrar);
+
+		produtoService.deletar(produto.getId());
+		assertNotEquals(aposCadastrar, etagDe(cardapio));
+		assertEquals(2, objectMapper.readTree(mockMvc.perform(get(cardapio)).andReturn()
+				.getResponse().getContentAsByteArray()).size());
+	}
+
+	@Test
+	void detalheDoRestauranteDeveTerETagEAcompanharOCardapio() throws Exception {
+		String detalhe = "/api/restaurantes/" + restaurante.getId();
+		MvcResult primeira = mockMvc.perform(get(detalhe)).andExpect(status().isOk()).andReturn();
+		JsonNode corpo = objectMapper.readTree(primeira.getResponse().getContentAsByteArray());
+		assertEquals(restaurante.getNome(), corpo.get("nome").asText());
+		assertEquals(2, corpo.get("produtos").size());
+		String etag = primeira.getResponse().getHeader(HttpHeaders.ETAG);
+
+		ContadorSql.zerar();
+		mockMvc.perform(get(detalhe).header(HttpHeaders.IF_NONE_MATCH, "\"outro\", " + etag))
+				.andExpect(status().isNotModified());
+		assertEquals(0, ContadorSql.getTotal());
+
+		produtoService.alterarDisponibilidade(produto.getId(), false);
+		assertNotEquals(etag, etagDe(detalhe));
+
+		String antesDoStatus = etagDe(detalhe);
+		restauranteService.alterarStatus(restaurante.getId(), false);
+		assertNotEquals(antesDoStatus, etagDe(detalhe));
+	}
+
+	private String etagDe(String url) throws Exception {
+		return mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+
+	private static byte[] descompactar(byte[] gzip) throws IOException {
+		try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+			return entrada.readAllBytes();
+		}
+	}
+}
@@ -0,0 +1,212 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.dto.ClientesDistintosDTO;
+import com.deliverytech.delivery_api.dto.ClientesDistintosRestauranteDTO;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.service.ClientesDistintosService;
+import com.deliverytech.delivery_api.service.PedidoService;
+import com.deliverytech.delivery_api.service.ResumoCardinalidade;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sem @Transactional: os resumos em memória só mudam depois do commit de cada pedido
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:clientes-distintos;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector=com.deliverytech.delivery_api.ContadorSql"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ClientesDistintosTests {
+
+	private static final int CLIENTES = 10_000;
+	private static final int PEDIDOS = 30_000;
+	// Pedidos espalhados pelos 15 dias até esta data
+	private static final LocalDate REFERENCIA = LocalDate.of(2026, 3, 1);
+
+	@Autowired private Cadastros cadastros;
+	@Autowired private PedidoService pedidoService;
+	@Autowired private ClientesDistintosService clientesDistintosService;
+	@Autowired private JdbcTemplate jdbcTemplate;
+	@Autowired private TransactionTemplate transactionTemplate;
+	@Autowired private ObjectMapper objectMapper;
+	@Autowired private MockMvc mockMvc;
+
+	private final List<Restaurante> historicos = new ArrayList<>();
+
+	@BeforeAll
+	void cadastrarHistorico() {
+		for (int i = 0; i < 3; i++) {
+			historicos.add(cadastros.novoRestaurante());
+		}
+
+		// Gravados direto no banco: só entram nos resumos pela reconstrução
+		jdbcTemplate.update("INSERT INTO clientes (id, nome, ativo) SELECT 3000000 + X, 'Cliente ' || X, TRUE FROM SYSTEM_RANGE(1, ?)",
+				CLIENTES);
+		jdbcTemplate.update("INSERT INTO pedidos (id, cliente_id, restaurante_id, data_pedido, total, status) " +
+				"SELECT 3000000 + X, 3000001 + MOD(X * 7919, ?), CASE MOD(X, 3) WHEN 0 THEN ? WHEN 1 THEN ? ELSE ? END, " +
+				"DATEADD('MINUTE', MOD(X, 1440), DATEADD('DAY', -MOD(X / 3, 15), CAST(? AS TIMESTAMP))), 10.00, 'ENTREGUE' " +
+				"FROM SYSTEM_RANGE(1, ?)",
+				CLIENTES, historicos.get(0).getId(), historicos.get(1).getId(), historicos.get(2).getId(),
+				Date.valueOf(REFERENCIA), PEDIDOS);
+		assertEquals(45, clientesDistintosService.reconstruir());
+		// Uma linha por restaurante e dia, não uma por registrador
+		assertEquals(45, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM resumo_clientes_dia", Integer.class));
+	}
+
+	@Test
+	void estimativaDeveBaterComAContagemExataEmQualquerRecorte() {
+		List<Long> todos = historicos.stream().map(Restaurante::getId).toList();
+		List<Object[]> casos = List.of(
+				new Object[]{REFERENCIA.minusDays(14), REFERENCIA, todos},
+				new Object[]{REFERENCIA.minusDays(14), REFERENCIA, List.of(todos.get(0))},
+				new Object[]{REFERENCIA.minusDays(6), REFERENCIA, todos.subList(1, 3)},
+				new Object[]{REFERENCIA, REFERENCIA, List.of(todos.get(2))});
+
+		for (Object[] caso : casos) {
+			LocalDate inicio = (LocalDate) caso[0];
+			LocalDate fim = (LocalDate) caso[1];
+			@SuppressWarnings("unchecked")
+			List<Long> restauranteIds = (List<Long>) caso[2];
+			ClientesDistintosDTO resultado = clientesDistintosService.contar(inicio, fim, restauranteIds);
+
+			assertRelativo(exatos(inicio, fim, restauranteIds), resultado.getClientesEstimados());
+			assertEquals(restauranteIds.size(), resultado.getRestaurantes().size());
+			for (ClientesDistintosRestauranteDTO restaurante : resultado.getRestaurantes()) {
+				assertRelativo(exatos(inicio, fim, List.of(restaurante.getRestauranteId())), restaurante.getClientesEstimados());
+			}
+		}
+
+		// Sem restaurantes informados: todos os que têm pedidos no período
+		ClientesDistintosDTO geral = clientesDistintosService.contar(REFERENCIA.minusDays(14), REFERENCIA, null);
+		assertTrue(geral.getRestaurantes().stream().map(ClientesDistintosRestauranteDTO::getRestauranteId).toList().containsAll(todos));
+		assertTrue(geral.getTempoCalculoMicros() >= 0);
+	}
+
+	@Test
+	void pedidoDeClienteNovoDeveContarEORepetidoNaoDeveGravarNada() {
+		Restaurante restaurante = cadastros.novoRestaurante();
+		Produto produto = cadastros.novoProduto(restaurante);
+		Cliente primeiro = cadastros.novoCliente();
+		Cliente segundo = cadastros.novoCliente();
+		LocalDate hoje = LocalDate.now();
+
+		pedidoService.criarPedido(primeiro.getId(), restaurante.getId(), Map.of(produto.getId(), 1));
+		assertEquals(1L, clientesDistintosService.contar(hoje, hoje, List.of(restaurante.getId())).getClientesEstimados());
+
+		// Cliente repetido no mesmo dia: o registrador já está no valor, nenhum comando no resumo
+		ContadorSql.zerar();
+		pedidoService.criarPedido(primeiro.getId(), restaurante.getId(), Map.of(produto.getId(), 2));
+		assertFalse(ContadorSql.getComandos().stream().anyMatch(sql -> sql.contains("resumo_clientes_dia")),
+				ContadorSql.getComandos().toString());
+		assertEquals(1L, clientesDistintosService.contar(hoje, hoje, List.of(restaurante.getId())).getClientesEstimados());
+
+		pedidoService.criarPedido(segundo.getId(), restaurante.getId(), Map.of(produto.getId(), 1));
+		assertEquals(2L, clientesDistintosService.contar(hoje, hoje, List.of(restaurante.getId())).getClientesEstimados());
+
+		// O que foi gravado incrementalmente é o mesmo que a reconstrução grava
+		Set<String> incrementais = registradores(restaurante);
+		clientesDistintosService.reconstruir();
+		assertEquals(incrementais, registradores(restaurante));
+		assertEquals(2L, clientesDistintosService.contar(hoje, hoje, List.of(restaurante.getId())).getClientesEstimados());
+	}
+
+	@Test
+	void pedidoConfirmadoDuranteAReconstrucaoNaoDeveSePerder() {
+		Restaurante restaurante = cadastros.novoRestaurante();
+		Produto produto = cadastros.novoProduto(restaurante);
+		Cliente cliente = cadastros.novoCliente();
+		LocalDate hoje = LocalDate.now();
+
+		// O pedido é confirmado depois que a reconstrução leu os pedidos e antes do commit dela
+		transactionTemplate.executeWithoutResult(transacao -> {
+			clientesDistintosService.reconstruir();
+			CompletableFuture.runAsync(() ->
+					pedidoService.criarPedido(cliente.getId(), restaurante.getId(), Map.of(produto.getId(), 1))).join();
+			assertEquals(1L, clientesDistintosService.contar(hoje, hoje, List.of(restaurante.getId())).getClientesEstimados());
+		});
+
+		assertEquals(1L, clientesDistintosService.contar(hoje, hoje, List.of(restaurante.getId())).getClientesEstimados());
+	}
+
+	@Test
+	void endpointDeveUnirOsRestaurantesInformados() throws Exception {
+		Long primeiro = historicos.get(0).getId();
+		Long segundo = historicos.get(1).getId();
+		ClientesDistintosDTO resultado = objectMapper.readValue(mockMvc.perform(get("/api/relatorios/clientes-distintos")
+						.param("inicio", REFERENCIA.minusDays(9).toString())
+						.param("fim", REFERENCIA.toString())
+						.param("restauranteIds", primeiro + "," + segundo))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray(), ClientesDistintosDTO.class);
+
+		assertEquals(Set.of(primeiro, segundo), resultado.getRestaurantes().stream()
+				.map(ClientesDistintosRestauranteDTO::getRestauranteId).collect(Collectors.toSet()));
+		assertEquals(ResumoCardinalidade.ERRO_PADRAO, resultado.getErroPadrao());
+		assertRelativo(exatos(REFERENCIA.minusDays(9), REFERENCIA, List.of(primeiro, segundo)), resultado.getClientesEstimados());
+	}
+
+	@Test
+	void periodosInvalidosDevemSerRejeitados() {
+		assertThrows(RegraNegocioException.class, () -> clientesDistintosService.contar(REFERENCIA, REFERENCIA.minusDays(1), null));
+		assertThrows(RegraNegocioException.class, () -> clientesDistintosService.contar(null, REFERENCIA, null));
+		assertThrows(RegraNegocioException.class, () -> clientesDistintosService.contar(REFERENCIA, null, null));
+
+		ClientesDistintosDTO semPedidos = clientesDistintosService.contar(REFERENCIA.plusYears(1), REFERENCIA.plusYears(1), null);
+		assertEquals(0L, semPedidos.getClientesEstimados());
+		assertTrue(semPedidos.getRestaurantes().isEmpty());
+	}
+
+	// Contagem exata no banco, para comparar com a estimativa
+	private long exatos(LocalDate inicio, LocalDate fim, List<Long> restauranteIds) {
+		String marcadores = restauranteIds.stream().map(id -> "?").collect(Collectors.joining(", "));
+		List<Object> parametros = new ArrayList<>(restauranteIds);
+		parametros.add(Date.valueOf(inicio));
+		parametros.add(Date.valueOf(fim.plusDays(1)));
+		return jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT cliente_id) FROM pedidos WHERE restaurante_id IN (" + marcadores + ") " +
+				"AND data_pedido >= ? AND data_pedido < ?", Long.class, parametros.toArray());
+	}
+
+	// Registradores preenchidos de cada dia, como "dia:registro:valor"
+	private Set<String> registradores(Restaurante restaurante) {
+		Set<String> registradores = new HashSet<>();
+		jdbcTemplate.query("SELECT dia, registradores FROM resumo_clientes_dia WHERE restaurante_id = ?", linha -> {
+			byte[] valores = new byte[ResumoCardinalidade.REGISTROS];
+			ResumoCardinalidade.ler(linha.getBytes("registradores")).mesclarEm(valores);
+			for (int i = 0; i < valores.length; i++) {
+				if (valores[i] != 0) {
+					registradores.add(linha.getDate("dia") + ":" + i + ":" + valores[i]);
+				}
+			}
+		}, restaurante.getId());
+		return registradores;
+	}
+
+	// Quatro erros padrão: a chance de um falso alarme é desprezível
+	private static void assertRelativo(long esperado, long estimado) {
+		double erro = Math.abs(estimado - esperado) / (double) esperado;
+		assertTrue(erro <= 4 * ResumoCardinalidade.ERRO_PADRAO, esperado + " ~ " + estimado);
+	}
+}
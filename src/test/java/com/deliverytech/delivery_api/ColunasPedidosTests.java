@@ -0,0 +1,178 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.enums.DimensaoConsulta;
+import com.deliverytech.delivery_api.enums.MetricaConsulta;
+import com.deliverytech.delivery_api.service.ColunasPedidos;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColunasPedidosTests {
+
+	private static final String[] STATUS = {"PENDENTE", "CONFIRMADO", "ENTREGUE", "CANCELADO"};
+	private static final LocalDateTime REFERENCIA = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+	private record Fato(long id, long restauranteId, long clienteId, String status, LocalDateTime dataPedido, long centavos, int itens) { }
+
+	@Test
+	void agrupamentosDevemBaterComAVarreduraSimples() {
+		// Mais de três blocos, para cruzar as fronteiras de bloco e de lote
+		List<Fato> fatos = gerar(3 * ColunasPedidos.TAMANHO_BLOCO + 1_234, 11);
+		ColunasPedidos colunas = carregar(fatos);
+		assertEquals(fatos.size(), colunas.tamanho());
+
+		List<ColunasPedidos.Filtro> filtros = List.of(
+				new ColunasPedidos.Filtro(null, null, null, null, null),
+				new ColunasPedidos.Filtro(REFERENCIA.minusDays(40).plusMinutes(17), REFERENCIA.minusDays(3), List.of(3L, 7L, 999L), null, null),
+				new ColunasPedidos.Filtro(null, REFERENCIA.minusDays(60), null, null, List.of("ENTREGUE", "CANCELADO")),
+				new ColunasPedidos.Filtro(null, null, null, List.of(10L, 20L, 30L), List.of("ENTREGUE")));
+		List<List<DimensaoConsulta>> agrupamentos = List.of(
+				List.of(),
+				List.of(DimensaoConsulta.RESTAURANTE),
+				List.of(DimensaoConsulta.STATUS, DimensaoConsulta.MES),
+				List.of(DimensaoConsulta.DIA, DimensaoConsulta.CLIENTE),
+				List.of(DimensaoConsulta.DIA_DA_SEMANA, DimensaoConsulta.HORA_DO_DIA),
+				List.of(DimensaoConsulta.HORA));
+
+		for (ColunasPedidos.Filtro filtro : filtros) {
+			for (List<DimensaoConsulta> dimensoes : agrupamentos) {
+				conferir(colunas, fatos, filtro, dimensoes);
+			}
+		}
+	}
+
+	@Test
+	void combinacoesDemaisDevemIrParaATabelaHash() {
+		// Vinte anos de pedidos, poucos por hora: horas x clientes não cabem em arrays diretos
+		List<Fato> fatos = new ArrayList<>();
+		Random aleatorio = new Random(17);
+		for (int i = 0; i < 20_000; i++) {
+			fatos.add(new Fato(i + 1, 1 + aleatorio.nextInt(5), 1 + aleatorio.nextInt(5_000), STATUS[aleatorio.nextInt(STATUS.length)],
+					REFERENCIA.minusMinutes(aleatorio.nextInt(20 * 365 * 1440)), 100 + aleatorio.nextInt(10_000), 1));
+		}
+		ColunasPedidos colunas = carregar(fatos);
+		ColunasPedidos.Filtro semFiltro = new ColunasPedidos.Filtro(null, null, null, null, null);
+		conferir(colunas, fatos, semFiltro, List.of(DimensaoConsulta.HORA));
+		conferir(colunas, fatos, semFiltro, List.of(DimensaoConsulta.DIA, DimensaoConsulta.CLIENTE));
+		conferir(colunas, fatos, semFiltro, List.of(DimensaoConsulta.CLIENTE, DimensaoConsulta.HORA));
+		conferir(colunas, fatos, semFiltro, List.of(DimensaoConsulta.MES, DimensaoConsulta.STATUS));
+	}
+
+	@Test
+	void limiteDeveManterOsMaioresNaOrdemDaMetrica() {
+		ColunasPedidos colunas = carregar(gerar(50_000, 5));
+		ColunasPedidos.Resultado todos = colunas.consultar(new ColunasPedidos.Filtro(null, null, null, null, null),
+				List.of(DimensaoConsulta.CLIENTE), MetricaConsulta.ITENS, Integer.MAX_VALUE);
+		ColunasPedidos.Resultado primeiros = colunas.consultar(new ColunasPedidos.Filtro(null, null, null, null, null),
+				List.of(DimensaoConsulta.CLIENTE), MetricaConsulta.ITENS, 10);
+
+		assertEquals(todos.gruposEncontrados(), primeiros.gruposEncontrados());
+		assertEquals(todos.grupos().subList(0, 10), primeiros.grupos());
+	}
+
+	@Test
+	void mudancaDeStatusEReinsercaoDevemSubstituirALinha() {
+		ColunasPedidos colunas = new ColunasPedidos();
+		colunas.adicionar(1, 10, 100, "PENDENTE", REFERENCIA, new BigDecimal("12.34"), 2);
+		colunas.adicionar(2, 10, 101, "PENDENTE", REFERENCIA.plusDays(40), new BigDecimal("20.00"), 1);
+
+		assertTrue(colunas.alterarStatus(1, "ENTREGUE"));
+		assertFalse(colunas.alterarStatus(3, "ENTREGUE"));
+		// O mesmo pedido de novo: substitui, não duplica
+		colunas.adicionar(2, 10, 101, "CANCELADO", REFERENCIA.plusDays(40), new BigDecimal("20.00"), 1);
+		assertEquals(2, colunas.tamanho());
+
+		ColunasPedidos.Resultado resultado = colunas.consultar(new ColunasPedidos.Filtro(null, null, null, null, null),
+				List.of(DimensaoConsulta.STATUS, DimensaoConsulta.MES), MetricaConsulta.FATURAMENTO, 10);
+		assertEquals(List.of(
+				new ColunasPedidos.Grupo(List.of("CANCELADO", YearMonth.of(2026, 4)), 1, 2_000, 1),
+				new ColunasPedidos.Grupo(List.of("ENTREGUE", YearMonth.of(2026, 3)), 1, 1_234, 2)), resultado.grupos());
+
+		// Status desconhecido no filtro não aceita nada
+		assertEquals(0, colunas.consultar(new ColunasPedidos.Filtro(null, null, null, null, List.of("INEXISTENTE")),
+				List.of(), MetricaConsulta.PEDIDOS, 10).linhasFiltradas());
+	}
+
+	// =================== AUXILIARES ===================
+
+	private static List<Fato> gerar(int quantidade, long semente) {
+		Random aleatorio = new Random(semente);
+		List<Fato> fatos = new ArrayList<>(quantidade);
+		for (int i = 0; i < quantidade; i++) {
+			fatos.add(new Fato(1_000_000L + i, 1 + aleatorio.nextInt(12), 1 + aleatorio.nextInt(400),
+					STATUS[aleatorio.nextInt(STATUS.length)],
+					REFERENCIA.minusMinutes(aleatorio.nextInt(120 * 1440)).withSecond(aleatorio.nextInt(60)),
+					500 + aleatorio.nextInt(20_000), 1 + aleatorio.nextInt(6)));
+		}
+		return fatos;
+	}
+
+	private static ColunasPedidos carregar(List<Fato> fatos) {
+		ColunasPedidos colunas = new ColunasPedidos();
+		for (Fato fato : fatos) {
+			colunas.adicionar(fato.id(), fato.restauranteId(), fato.clienteId(), fato.status(), fato.dataPedido(),
+					BigDecimal.valueOf(fato.centavos(), 2), fato.itens());
+		}
+		return colunas;
+	}
+
+	private static void conferir(ColunasPedidos colunas, List<Fato> fatos, ColunasPedidos.Filtro filtro, List<DimensaoConsulta> dimensoes) {
+		Map<List<Object>, long[]> esperado = varrer(fatos, filtro, dimensoes);
+		ColunasPedidos.Resultado resultado = colunas.consultar(filtro, dimensoes, MetricaConsulta.FATURAMENTO, Integer.MAX_VALUE);
+
+		assertEquals(esperado.size(), resultado.gruposEncontrados(), filtro + " " + dimensoes);
+		assertEquals(esperado.values().stream().mapToLong(somas -> somas[0]).sum(), resultado.linhasFiltradas());
+		Map<List<Object>, long[]> obtido = new HashMap<>();
+		for (ColunasPedidos.Grupo grupo : resultado.grupos()) {
+			obtido.put(grupo.chave(), new long[]{grupo.pedidos(), grupo.centavos(), grupo.itens()});
+		}
+		assertEquals(texto(esperado), texto(obtido), filtro + " " + dimensoes);
+		for (int i = 1; i < resultado.grupos().size(); i++) {
+			assertTrue(resultado.grupos().get(i - 1).centavos() >= resultado.grupos().get(i).centavos());
+		}
+	}
+
+	// Referência: filtro e agrupamento linha a linha, com objetos
+	private static Map<List<Object>, long[]> varrer(List<Fato> fatos, ColunasPedidos.Filtro filtro, List<DimensaoConsulta> dimensoes) {
+		Map<List<Object>, long[]> grupos = new HashMap<>();
+		for (Fato fato : fatos) {
+			LocalDateTime minuto = fato.dataPedido().withSecond(0);
+			if ((filtro.inicio() != null && minuto.isBefore(filtro.inicio().withSecond(0)))
+					|| (filtro.fim() != null && !minuto.isBefore(filtro.fim().withSecond(0)))
+					|| (filtro.restauranteIds() != null && !filtro.restauranteIds().contains(fato.restauranteId()))
+					|| (filtro.clienteIds() != null && !filtro.clienteIds().contains(fato.clienteId()))
+					|| (filtro.status() != null && !filtro.status().contains(fato.status()))) {
+				continue;
+			}
+			List<Object> chave = new ArrayList<>();
+			for (DimensaoConsulta dimensao : dimensoes) {
+				chave.add(switch (dimensao) {
+					case RESTAURANTE -> fato.restauranteId();
+					case CLIENTE -> fato.clienteId();
+					case STATUS -> fato.status();
+					case HORA -> minuto.withMinute(0);
+					case DIA -> minuto.toLocalDate();
+					case MES -> YearMonth.from(minuto);
+					case DIA_DA_SEMANA -> minuto.getDayOfWeek();
+					case HORA_DO_DIA -> minuto.getHour();
+				});
+			}
+			long[] somas = grupos.computeIfAbsent(chave, c -> new long[3]);
+			somas[0]++;
+			somas[1] += fato.centavos();
+			somas[2] += fato.itens();
+		}
+		return grupos;
+	}
+
+	private static Map<String, String> texto(Map<List<Object>, long[]> grupos) {
+		Map<String, String> texto = new TreeMap<>();
+		grupos.forEach((chave, somas) -> texto.put(chave.toString(), Arrays.toString(somas)));
+		return texto;
+	}
+}
@@ -0,0 +1,68 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.enums.DimensaoConsulta;
+import com.deliverytech.delivery_api.enums.MetricaConsulta;
+import com.deliverytech.delivery_api.service.ColunasPedidos;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark das consultas colunares com 10 milhões de pedidos (1.000 restaurantes, 1 milhão de
+ * clientes, um ano): agrupamentos comuns, com e sem filtro.
+ *
+ * Executar com: ./mvnw test -Dtest=ConsultaColunarBenchmarkTests -Dbenchmark=true [-Dbenchmark.pedidos=20000000]
+ * (a partir de 10 milhões, com -Xmx de pelo menos 2 GB em argLine)
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ConsultaColunarBenchmarkTests {
+
+	private static final String[] STATUS = {"PENDENTE", "CONFIRMADO", "PREPARANDO", "SAIU_PARA_ENTREGA", "ENTREGUE", "CANCELADO"};
+	private static final LocalDateTime REFERENCIA = LocalDateTime.of(2026, 3, 1, 0, 0);
+	private static final int REPETICOES = 5;
+
+	@Test
+	void medirConsultas() {
+		int pedidos = Integer.getInteger("benchmark.pedidos", 10_000_000);
+		Random aleatorio = new Random(3);
+		ColunasPedidos colunas = new ColunasPedidos();
+		long inicio = System.nanoTime();
+		for (int i = 0; i < pedidos; i++) {
+			colunas.adicionar(i + 1L, 1 + aleatorio.nextInt(1_000), 1 + aleatorio.nextInt(1_000_000),
+					STATUS[aleatorio.nextInt(STATUS.length)], REFERENCIA.minusMinutes(aleatorio.nextInt(365 * 1440)),
+					BigDecimal.valueOf(1_000 + aleatorio.nextInt(20_000), 2), 1 + aleatorio.nextInt(5));
+		}
+		System.out.printf("Carga de %d pedidos: %.0f ms%n", pedidos, (System.nanoTime() - inicio) / 1e6);
+
+		ColunasPedidos.Filtro semFiltro = new ColunasPedidos.Filtro(null, null, null, null, null);
+		ColunasPedidos.Filtro ultimoMes = new ColunasPedidos.Filtro(REFERENCIA.minusDays(30), REFERENCIA, null, null, List.of("ENTREGUE"));
+		medir(colunas, "total geral", semFiltro, List.of());
+		medir(colunas, "por restaurante", semFiltro, List.of(DimensaoConsulta.RESTAURANTE));
+		medir(colunas, "por status e mês", semFiltro, List.of(DimensaoConsulta.STATUS, DimensaoConsulta.MES));
+		medir(colunas, "por dia da semana e hora", semFiltro, List.of(DimensaoConsulta.DIA_DA_SEMANA, DimensaoConsulta.HORA_DO_DIA));
+		medir(colunas, "por cliente (1 milhão de grupos)", semFiltro, List.of(DimensaoConsulta.CLIENTE));
+		medir(colunas, "entregues do último mês por restaurante e dia", ultimoMes, List.of(DimensaoConsulta.RESTAURANTE, DimensaoConsulta.DIA));
+		medir(colunas, "5 restaurantes por hora", new ColunasPedidos.Filtro(null, null, List.of(1L, 2L, 3L, 4L, 5L), null, null),
+				List.of(DimensaoConsulta.HORA));
+	}
+
+	private static void medir(ColunasPedidos colunas, String nome, ColunasPedidos.Filtro filtro, List<DimensaoConsulta> dimensoes) {
+		// Aquecimento e conferência
+		ColunasPedidos.Resultado resultado = colunas.consultar(filtro, dimensoes, MetricaConsulta.FATURAMENTO, 10);
+		assertEquals(colunas.tamanho(), resultado.linhasAnalisadas());
+
+		long inicio = System.nanoTime();
+		for (int i = 0; i < REPETICOES; i++) {
+			resultado = colunas.consultar(filtro, dimensoes, MetricaConsulta.FATURAMENTO, 10);
+		}
+		double ms = (System.nanoTime() - inicio) / 1e6 / REPETICOES;
+		System.out.printf("%-50s %8.1f ms | %,d linhas filtradas | %,d grupos | %.0f M linhas/s%n",
+				nome, ms, resultado.linhasFiltradas(), resultado.gruposEncontrados(), colunas.tamanho() / ms / 1e3);
+	}
+}
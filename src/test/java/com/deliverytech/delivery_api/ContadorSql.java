@@ -0,0 +1,49 @@
+package com.deliverytech.delivery_api;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * StatementInspector usado nos testes para contar os comandos SQL
+ * preparados pelo Hibernate (registrado via spring.jpa.properties).
+ * Com JDBC batching, um lote de INSERTs conta como um único comando.
+ */
+public class ContadorSql implements StatementInspector {
+
+    private static final List<String> comandos = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        comandos.add(sql.trim().toLowerCase());
+        return sql;
+    }
+
+    public static void zerar() {
+        comandos.clear();
+    }
+
+    /**
+     * Consultas de dados; as chamadas às sequences ficam de fora, pois o
+     * otimizador pooled as amortiza (uma a cada allocationSize IDs).
+     */
+    public static int getSelects() {
+        return contarComPrefixo("select") - contarComPrefixo("select next value for");
+    }
+
+    /**
+     * Comandos na ordem em que foram preparados (em minúsculas).
+     */
+    public static List<String> getComandos() {
+        return List.copyOf(comandos);
+    }
+
+    public static int getTotal() {
+        return comandos.size();
+    }
+
+    public static int contarComPrefixo(String prefixo) {
+        return (int) comandos.stream().filter(sql -> sql.startsWith(prefixo)).count();
+    }
+}
@@ -0,0 +1,193 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.dto.ExportacaoColunarDTO;
+import com.deliverytech.delivery_api.dto.ParticaoExportacaoDTO;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.exception.EntidadeNaoEncontradaException;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.service.ArquivoColunarPedidos;
+import com.deliverytech.delivery_api.service.ExportacaoColunarService;
+import com.deliverytech.delivery_api.service.ExportacaoPedidoService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:exportacao-colunar;DB_CLOSE_DELAY=-1",
+		"delivery.exportacao.colunar.diretorio=${java.io.tmpdir}/exportacao-colunar-${random.uuid}"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExportacaoColunarTests {
+
+	private static final int PEDIDOS = 6_000;
+	// Um pedido a cada minuto, para trás a partir do fim do dia 3: ~4 dias e um pouco
+	private static final LocalDate PRIMEIRO_DIA = LocalDate.of(2026, 2, 26);
+	private static final LocalDate ULTIMO_DIA = LocalDate.of(2026, 3, 1);
+
+	@Autowired private ClienteRepository clienteRepository;
+	@Autowired private RestauranteRepository restauranteRepository;
+	@Autowired private ProdutoRepository produtoRepository;
+	@Autowired private ExportacaoColunarService exportacaoColunarService;
+	@Autowired private ExportacaoPedidoService exportacaoPedidoService;
+	@Autowired private JdbcTemplate jdbcTemplate;
+	@Autowired private MockMvc mockMvc;
+
+	@BeforeAll
+	void cadastrarHistorico() {
+		Cliente cliente = new Cliente();
+		cliente.setNome("Cliente Exportação [" + UUID.randomUUID() + "]");
+		cliente.setAtivo(true);
+		clienteRepository.save(cliente);
+		Restaurante[] restaurantes = new Restaurante[3];
+		String[] categorias = {"Lanches", "Pizzaria", "Japonesa"};
+		for (int i = 0; i < restaurantes.length; i++) {
+			restaurantes[i] = new Restaurante();
+			restaurantes[i].setNome("Restaurante Exportação [" + UUID.randomUUID() + "]");
+			restaurantes[i].setCategoria(categorias[i]);
+			restaurantes[i].setAtivo(true);
+			restauranteRepository.save(restaurantes[i]);
+		}
+		Produto produto = new Produto();
+		produto.setNome("Lanche");
+		produto.setPreco(new BigDecimal("10.00"));
+		produto.setRestaurante(restaurantes[0]);
+		produto.setAtivo(true);
+		produtoRepository.save(produto);
+
+		jdbcTemplate.update("INSERT INTO pedidos (id, cliente_id, restaurante_id, data_pedido, total, status) " +
+						"SELECT 9000000 + X, ?, CASE MOD(X, 3) WHEN 0 THEN ? WHEN 1 THEN ? ELSE ? END, " +
+						"DATEADD('SECOND', -X * 60 - MOD(X, 7), CAST(? AS TIMESTAMP)), 12.00 + MOD(X, 13) + 0.45, " +
+						"ARRAY['PENDENTE', 'CONFIRMADO', 'ENTREGUE', 'CANCELADO'][MOD(X, 4) + 1] FROM SYSTEM_RANGE(1, ?)",
+				cliente.getId(), restaurantes[0].getId(), restaurantes[1].getId(), restaurantes[2].getId(),
+				Timestamp.valueOf(ULTIMO_DIA.plusDays(1).atStartOfDay()), PEDIDOS);
+		// Até três itens por pedido; os múltiplos de 5 ficam sem itens
+		for (int item = 0; item < 3; item++) {
+			jdbcTemplate.update("INSERT INTO itens_pedido (id, pedido_id, produto_id, quantidade, preco_unitario) " +
+							"SELECT 9000000 + ? * 100000 + X, 9000000 + X, ?, MOD(X, 4) + 1, 10.00 + ? FROM SYSTEM_RANGE(1, ?) " +
+							"WHERE MOD(X, 5) <> 0 AND MOD(X, 3) >= ?",
+					item, produto.getId(), item, PEDIDOS, item);
+		}
+	}
+
+	@Test
+	void arquivosDevemTrazerOsPedidosEItensDeCadaDia() throws Exception {
+		ExportacaoColunarDTO exportacao = exportacaoColunarService.exportar(PRIMEIRO_DIA, ULTIMO_DIA, true);
+
+		assertEquals(4, exportacao.getParticoesGeradas());
+		long pedidos = 0;
+		for (ParticaoExportacaoDTO particao : exportacao.getParticoes()) {
+			LocalDate dia = particao.getDia();
+			Path arquivo = exportacaoColunarService.buscarArquivo(dia);
+			assertEquals(Files.size(arquivo), particao.getTamanhoBytes());
+
+			List<String> lidosPedidos = new ArrayList<>();
+			List<String> lidosItens = new ArrayList<>();
+			try (InputStream entrada = Files.newInputStream(arquivo)) {
+				ArquivoColunarPedidos.ler(entrada,
+						p -> lidosPedidos.add(p.id() + " " + p.dataPedido() + " " + p.clienteId() + " " + p.restauranteId() + " "
+								+ p.categoria() + " " + p.status() + " " + p.total().stripTrailingZeros().toPlainString()),
+						i -> lidosItens.add(i.id() + " " + i.pedidoId() + " " + i.produtoId() + " " + i.quantidade() + " "
+								+ i.precoUnitario().stripTrailingZeros().toPlainString()));
+			}
+
+			Timestamp inicio = Timestamp.valueOf(dia.atStartOfDay());
+			Timestamp fim = Timestamp.valueOf(dia.plusDays(1).atStartOfDay());
+			List<String> esperadosPedidos = jdbcTemplate.query("SELECT p.id, p.data_pedido, p.cliente_id, p.restaurante_id, r.categoria, " +
+							"p.status, p.total FROM pedidos p JOIN restaurantes r ON r.id = p.restaurante_id " +
+							"WHERE p.data_pedido >= ? AND p.data_pedido < ? ORDER BY p.data_pedido, p.id",
+					(linha, n) -> linha.getLong(1) + " " + linha.getTimestamp(2).toLocalDateTime() + " " + linha.getLong(3) + " "
+							+ linha.getLong(4) + " " + linha.getString(5) + " " + linha.getString(6) + " "
+							+ linha.getBigDecimal(7).stripTrailingZeros().toPlainString(), inicio, fim);
+			List<String> esperadosItens = jdbcTemplate.query("SELECT i.id, i.pedido_id, i.produto_id, i.quantidade, i.preco_unitario " +
+							"FROM itens_pedido i JOIN pedidos p ON p.id = i.pedido_id " +
+							"WHERE p.data_pedido >= ? AND p.data_pedido < ? ORDER BY p.data_pedido, p.id, i.id",
+					(linha, n) -> linha.getLong(1) + " " + linha.getLong(2) + " " + linha.getLong(3) + " " + linha.getInt(4) + " "
+							+ linha.getBigDecimal(5).stripTrailingZeros().toPlainString(), inicio, fim);
+
+			assertEquals(esperadosPedidos, lidosPedidos, dia.toString());
+			assertEquals(esperadosItens, lidosItens, dia.toString());
+			assertEquals(esperadosPedidos.size(), particao.getPedidos());
+			assertEquals(esperadosItens.size(), particao.getItens());
+			pedidos += particao.getPedidos();
+		}
+		assertTrue(pedidos > 4 * 1_400);
+
+		// Bem menor que a exportação em NDJSON dos mesmos pedidos
+		ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+		exportacaoPedidoService.exportarPedidosPorPeriodo(PRIMEIRO_DIA.atStartOfDay(), ULTIMO_DIA.plusDays(1).atStartOfDay(), ndjson);
+		long colunar = exportacao.getParticoes().stream().mapToLong(ParticaoExportacaoDTO::getTamanhoBytes).sum();
+		assertTrue(colunar * 10 < ndjson.size(), colunar + " bytes contra " + ndjson.size() + " em NDJSON");
+	}
+
+	@Test
+	void exportacaoRepetidaDeveRetomarSoOsDiasQueFaltam() throws Exception {
+		exportacaoColunarService.exportar(PRIMEIRO_DIA, ULTIMO_DIA, true);
+		Path segundo = exportacaoColunarService.buscarArquivo(PRIMEIRO_DIA.plusDays(1));
+		byte[] original = Files.readAllBytes(segundo);
+		// Como se a exportação anterior tivesse parado antes do segundo dia
+		Files.delete(segundo);
+		assertThrows(EntidadeNaoEncontradaException.class, () -> exportacaoColunarService.buscarArquivo(PRIMEIRO_DIA.plusDays(1)));
+
+		ExportacaoColunarDTO retomada = exportacaoColunarService.exportar(PRIMEIRO_DIA, ULTIMO_DIA, false);
+
+		assertEquals(1, retomada.getParticoesGeradas());
+		assertEquals(3, retomada.getParticoesExistentes());
+		assertEquals(List.of("EXISTENTE", "GERADA", "EXISTENTE", "EXISTENTE"),
+				retomada.getParticoes().stream().map(ParticaoExportacaoDTO::getSituacao).toList());
+		assertArrayEquals(original, Files.readAllBytes(segundo));
+		// Os totais das partições existentes vêm do rodapé
+		assertTrue(retomada.getParticoes().get(0).getPedidos() > 0);
+		try (var arquivos = Files.list(segundo.getParent())) {
+			assertTrue(arquivos.noneMatch(arquivo -> arquivo.toString().endsWith(".tmp")));
+		}
+	}
+
+	@Test
+	void endpointsEValidacoes() throws Exception {
+		String corpo = mockMvc.perform(post("/api/relatorios/exportacao-colunar")
+						.param("inicio", PRIMEIRO_DIA.toString())
+						.param("fim", PRIMEIRO_DIA.plusDays(1).toString()))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertTrue(corpo.contains("\"particoes\""));
+
+		byte[] baixado = mockMvc.perform(get("/api/relatorios/exportacao-colunar/{dia}", PRIMEIRO_DIA.toString()))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray();
+		assertArrayEquals(Files.readAllBytes(exportacaoColunarService.buscarArquivo(PRIMEIRO_DIA)), baixado);
+		assertTrue(ArquivoColunarPedidos.ler(new ByteArrayInputStream(baixado), p -> { }, i -> { }).pedidos() > 0);
+
+		assertThrows(RegraNegocioException.class, () -> exportacaoColunarService.exportar(LocalDate.now().minusDays(2), LocalDate.now(), false));
+		assertThrows(RegraNegocioException.class, () -> exportacaoColunarService.exportar(ULTIMO_DIA, PRIMEIRO_DIA, false));
+		assertThrows(RegraNegocioException.class, () -> exportacaoColunarService.exportar(null, ULTIMO_DIA, false));
+	}
+}
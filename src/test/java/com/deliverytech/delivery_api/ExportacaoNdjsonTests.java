@@ -0,0 +1,129 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.service.ExportacaoPedidoService;
+import com.deliverytech.delivery_api.service.PedidoService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		// Banco em arquivo: o teste de 1 milhão de pedidos não pode ocupar o heap medido
+		"spring.datasource.url=jdbc:h2:file:./target/h2/exportacao-ndjson",
+		"spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+class ExportacaoNdjsonTests {
+
+	private static final int UM_MILHAO = 1_000_000;
+	private static final long LIMITE_HEAP_RETIDO = 64L * 1024 * 1024;
+
+	@Autowired private Cadastros cadastros;
+	@Autowired private PedidoService pedidoService;
+	@Autowired private ExportacaoPedidoService exportacaoPedidoService;
+	@Autowired private JdbcTemplate jdbcTemplate;
+	@Autowired private ObjectMapper objectMapper;
+	@Autowired private MockMvc mockMvc;
+
+	@Test
+	void deveExportarUmPedidoPorLinhaComSeusItens() throws Exception {
+		Restaurante restaurante = cadastros.novoRestaurante("Restaurante NDJSON");
+		Cliente cliente = cadastros.novoCliente();
+		Produto pizza = cadastros.novoProduto(restaurante, "Pizza", "40.00");
+		Produto suco = cadastros.novoProduto(restaurante, "Suco", "8.00");
+		pedidoService.criarPedido(cliente.getId(), restaurante.getId(), Map.of(pizza.getId(), 1, suco.getId(), 2));
+		pedidoService.criarPedido(cliente.getId(), restaurante.getId(), Map.of(suco.getId(), 3));
+
+		String corpo = mockMvc.perform(get("/api/pedidos")
+						.param("status", "PENDENTE")
+						.accept(MediaType.APPLICATION_NDJSON))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+				.andReturn().getResponse().getContentAsString();
+
+		String[] linhas = corpo.split("\n");
+		assertEquals(2, linhas.length);
+		int itens = 0;
+		for (String linha : linhas) {
+			JsonNode pedido = objectMapper.readTree(linha);
+			assertEquals("PENDENTE", pedido.get("status").asText());
+			assertEquals(restaurante.getId(), pedido.get("restauranteId").asLong());
+			itens += pedido.get("itens").size();
+		}
+		assertEquals(3, itens);
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void deveExportarUmMilhaoDePedidosComHeapConstante() {
+		Restaurante restaurante = cadastros.novoRestaurante("Restaurante Milhão");
+		Cliente cliente = cadastros.novoCliente();
+		Produto produto = cadastros.novoProduto(restaurante, "Combo", "15.00");
+
+		// Inserção direta no banco, fora do Hibernate: 1 milhão de pedidos com 2 itens cada
+		long base = 100_000_000L;
+		jdbcTemplate.update("INSERT INTO pedidos (id, cliente_id, restaurante_id, data_pedido, total, status) " +
+				"SELECT ? + X, ?, ?, DATEADD('SECOND', X, TIMESTAMP '2025-01-01 00:00:00'), 30.00, 'ENTREGUE' " +
+				"FROM SYSTEM_RANGE(1, ?)", base, cliente.getId(), restaurante.getId(), UM_MILHAO);
+		jdbcTemplate.update("INSERT INTO itens_pedido (id, pedido_id, produto_id, quantidade, preco_unitario) " +
+				"SELECT ? + X, ? + (X + 1) / 2, ?, 1, 15.00 FROM SYSTEM_RANGE(1, ?)",
+				base, base, produto.getId(), 2 * UM_MILHAO);
+
+		MedidorDeHeap saida = new MedidorDeHeap();
+		long exportados = exportacaoPedidoService.exportarPedidosPorPeriodo(
+				LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 12, 31, 0, 0), saida);
+
+		assertEquals(UM_MILHAO, exportados);
+		assertEquals(UM_MILHAO, saida.linhas);
+		long retido = saida.maximoRetido - saida.inicial;
+		System.out.printf("Exportação de %d pedidos: %d bytes, heap retido máximo %.1f MB%n",
+				exportados, saida.bytes, retido / (1024.0 * 1024));
+		assertTrue(retido < LIMITE_HEAP_RETIDO, "Heap retido cresceu " + retido + " bytes durante a exportação");
+	}
+
+	/**
+	 * Descarta os bytes, conta as linhas e mede o heap retido (após GC) a cada 100 mil linhas.
+	 */
+	private static class MedidorDeHeap extends OutputStream {
+		private final MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+		private final long inicial = medir();
+		private long maximoRetido = inicial;
+		private long linhas;
+		private long bytes;
+
+		@Override
+		public void write(int b) {
+			bytes++;
+			if (b == '\n' && ++linhas % 100_000 == 0) {
+				maximoRetido = Math.max(maximoRetido, medir());
+			}
+		}
+
+		private long medir() {
+			System.gc();
+			return memoria.getHeapMemoryUsage().getUsed();
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.dto.projection.ResumoRestaurante;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.PedidoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.service.CursorPedido;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.sql.Types;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * As consultas com filtros opcionais só levam as condições informadas, e o plano do H2
+ * (EXPLAIN sobre o SQL gerado pelo Hibernate) usa o índice de cada combinação.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:filtros-indice;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector=com.deliverytech.delivery_api.ContadorSql"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FiltrosIndiceTests {
+
+	private static final int PEDIDOS = 5_000;
+
+	@Autowired private RestauranteRepository restauranteRepository;
+	@Autowired private ClienteRepository clienteRepository;
+	@Autowired private PedidoRepository pedidoRepository;
+	@Autowired private JdbcTemplate jdbcTemplate;
+
+	private Restaurante restaurante;
+	private Cliente cliente;
+
+	@BeforeAll
+	void cadastrarPedidos() {
+		restaurante = new Restaurante();
+		restaurante.setNome("Restaurante Filtros");
+		restaurante.setCategoria("Açaí & Sucos");
+		restauranteRepository.save(restaurante);
+
+		cliente = new Cliente();
+		cliente.setNome("Cliente Filtros");
+		clienteRepository.save(cliente);
+
+		// Volume suficiente para o otimizador preferir os índices à varredura
+		jdbcTemplate.update("INSERT INTO pedidos (id, cliente_id, restaurante_id, data_pedido, total, status) " +
+				"SELECT 1000000 + X, ?, ?, DATEADD('MINUTE', -X, TIMESTAMP '2026-01-01 12:00:00'), 30.00, " +
+				"ARRAY['PENDENTE', 'CONFIRMADO', 'ENTREGUE', 'CANCELADO'][MOD(X, 4) + 1] FROM SYSTEM_RANGE(1, ?)",
+				cliente.getId(), restaurante.getId(), PEDIDOS);
+		jdbcTemplate.execute("ANALYZE");
+	}
+
+	@Test
+	void filtroDeStatusDeveUsarOIndiceDeStatusEData() {
+		String sql = ultimoSelect(() -> pedidoRepository.findPaginaComFiltros(
+				"ENTREGUE", null, null, CursorPedido.INICIO.dataPedido(), CursorPedido.INICIO.id(), Limit.of(20)));
+
+		assertFalse(sql.contains("is null"), sql);
+		assertTrue(plano(sql).contains("idx_pedidos_status_data"), plano(sql));
+	}
+
+	@Test
+	void semFiltrosOSqlSoDeveTerOCursor() {
+		String sql = ultimoSelect(() -> pedidoRepository.findPaginaComFiltros(
+				null, null, null, CursorPedido.INICIO.dataPedido(), CursorPedido.INICIO.id(), Limit.of(20)));
+
+		String where = sql.substring(sql.indexOf(" where "));
+		assertFalse(where.contains("is null"), where);
+		assertFalse(where.contains("status"), where);
+	}
+
+	@Test
+	void listagensPorRestauranteEClienteDevemUsarSeusIndices() {
+		String porRestaurante = ultimoSelect(() -> pedidoRepository.findPaginaPorRestaurante(
+				restaurante.getId(), CursorPedido.INICIO.dataPedido(), CursorPedido.INICIO.id(), Limit.of(20)));
+		String porCliente = ultimoSelect(() -> pedidoRepository.findPaginaPorCliente(
+				cliente.getId(), CursorPedido.INICIO.dataPedido(), CursorPedido.INICIO.id(), Limit.of(20)));
+
+		// O H2 pode escolher o índice que ele mesmo cria para a chave estrangeira, que começa
+		// pela mesma coluna: o que importa é a busca pelo índice, sem varrer a tabela
+		assertTrue(usaIndice(plano(porRestaurante), "restaurante_id"), plano(porRestaurante));
+		assertTrue(usaIndice(plano(porCliente), "cliente_id"), plano(porCliente));
+	}
+
+	@Test
+	void filtroDeCategoriaDeveUsarAColunaNormalizada() {
+		for (int i = 0; i < 200; i++) {
+			Restaurante outro = new Restaurante();
+			outro.setNome("Outro " + i);
+			outro.setCategoria("Categoria " + UUID.randomUUID());
+			restauranteRepository.save(outro);
+		}
+		jdbcTemplate.execute("ANALYZE");
+
+		List<ResumoRestaurante> encontrados = restauranteRepository.findPaginaResumos("  ACAI &  sucos", null, 0L, Limit.of(10));
+		assertEquals(List.of(restaurante.getId()), encontrados.stream().map(ResumoRestaurante::id).toList());
+
+		// Outra categoria a cada chamada, para não ser atendida pelo cache de consultas
+		String sql = ultimoSelect(() -> restauranteRepository.findPaginaResumos("Categoria " + UUID.randomUUID(), true, 0L, Limit.of(10)));
+		assertFalse(sql.contains("lower("), sql);
+		assertTrue(plano(sql).contains("idx_restaurantes_categoria"), plano(sql));
+	}
+
+	// Condição de índice no comentário do plano, como "/* public.idx_...: coluna = ?1 */"
+	private static boolean usaIndice(String plano, String coluna) {
+		return plano.matches("(?s).*/\\* public\\.[a-z0-9_]+: " + coluna + " = .*") && !plano.contains("tablescan");
+	}
+
+	private String ultimoSelect(Runnable consulta) {
+		ContadorSql.zerar();
+		consulta.run();
+		List<String> selects = ContadorSql.getComandos().stream().filter(sql -> sql.startsWith("select")).toList();
+		assertFalse(selects.isEmpty());
+		return selects.get(selects.size() - 1).replaceAll("\\s+", " ");
+	}
+
+	// Plano do H2 para o SQL, com os parâmetros nulos (só a escolha de índices interessa)
+	private String plano(String sql) {
+		return jdbcTemplate.execute((Connection conexao) -> {
+			try (var comando = conexao.prepareStatement("EXPLAIN " + sql)) {
+				for (int i = 1; i <= comando.getParameterMetaData().getParameterCount(); i++) {
+					comando.setNull(i, Types.NULL);
+				}
+				try (var resultado = comando.executeQuery()) {
+					resultado.next();
+					return resultado.getString(1).toLowerCase();
+				}
+			}
+		});
+	}
+}
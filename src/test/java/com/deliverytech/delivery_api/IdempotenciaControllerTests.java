@@ -0,0 +1,118 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.dto.ItemPedidoRequestDTO;
+import com.deliverytech.delivery_api.dto.PedidoRequestDTO;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.service.IdempotenciaService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sem @Transactional: o pedido criado pela primeira requisição precisa ser gravado
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:idempotencia-controller;DB_CLOSE_DELAY=-1",
+		"delivery.idempotencia.espera-maxima=PT0.2S"
+})
+@AutoConfigureMockMvc
+class IdempotenciaControllerTests {
+
+	@Autowired private Cadastros cadastros;
+	@Autowired private IdempotenciaService idempotenciaService;
+	@Autowired private ObjectMapper objectMapper;
+	@Autowired private MockMvc mockMvc;
+
+	private Cliente cliente;
+	private Restaurante restaurante;
+	private Produto produto;
+
+	@BeforeEach
+	void cadastrar() {
+		cliente = cadastros.novoCliente();
+		restaurante = cadastros.novoRestaurante();
+		produto = cadastros.novoProduto(restaurante);
+	}
+
+	@Test
+	void chaveReutilizadaComOutraRequisicaoDeveResponder422() throws Exception {
+		String chave = UUID.randomUUID().toString();
+
+		mockMvc.perform(post("/api/pedidos").header("Idempotency-Key", chave)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(pedido(1))))
+				.andExpect(status().isCreated())
+				.andExpect(header().string("Idempotent-Replayed", "false"));
+		mockMvc.perform(post("/api/pedidos").header("Idempotency-Key", chave)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(pedido(1))))
+				.andExpect(status().isCreated())
+				.andExpect(header().string("Idempotent-Replayed", "true"));
+
+		mockMvc.perform(post("/api/pedidos").header("Idempotency-Key", chave)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(pedido(2))))
+				.andExpect(status().isUnprocessableEntity());
+	}
+
+	@Test
+	void requisicaoOriginalAindaEmProcessamentoDeveResponder409() throws Exception {
+		String chave = UUID.randomUUID().toString();
+		CountDownLatch iniciou = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+
+		// A requisição original segura a chave até o fim do teste
+		Future<?> original = executor.submit(() -> idempotenciaService.executar(chave, pedido(1), () -> {
+			iniciou.countDown();
+			try {
+				liberar.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return null;
+		}));
+		assertTrue(iniciou.await(5, TimeUnit.SECONDS));
+
+		try {
+			mockMvc.perform(post("/api/pedidos").header("Idempotency-Key", chave)
+							.contentType(MediaType.APPLICATION_JSON)
+							.content(objectMapper.writeValueAsString(pedido(1))))
+					.andExpect(status().isConflict());
+		} finally {
+			liberar.countDown();
+			original.get(5, TimeUnit.SECONDS);
+			executor.shutdown();
+		}
+	}
+
+	private PedidoRequestDTO pedido(int quantidade) {
+		ItemPedidoRequestDTO item = new ItemPedidoRequestDTO();
+		item.setProdutoId(produto.getId());
+		item.setQuantidade(quantidade);
+
+		PedidoRequestDTO dto = new PedidoRequestDTO();
+		dto.setClienteId(cliente.getId());
+		dto.setRestauranteId(restaurante.getId());
+		dto.setItens(List.of(item));
+		return dto;
+	}
+}
@@ -0,0 +1,207 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.exception.ChaveIdempotenciaReutilizadaException;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.exception.RequisicaoEmAndamentoException;
+import com.deliverytech.delivery_api.service.IdempotenciaService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotenciaServiceTests {
+
+	@Test
+	void deveDevolverResultadoGuardadoSemExecutarNovamente() {
+		IdempotenciaService service = new IdempotenciaService(100, 4, Duration.ofHours(1), Duration.ofSeconds(5), Clock.systemUTC());
+		AtomicInteger execucoes = new AtomicInteger();
+
+		IdempotenciaService.Resultado<Integer> primeira = service.executar("chave", "req", execucoes::incrementAndGet);
+		IdempotenciaService.Resultado<Integer> repetida = service.executar("chave", "req", execucoes::incrementAndGet);
+
+		assertEquals(1, execucoes.get());
+		assertFalse(primeira.repetido());
+		assertTrue(repetida.repetido());
+		assertEquals(primeira.valor(), repetida.valor());
+	}
+
+	@Test
+	void requisicoesConcorrentesDevemAguardarAPrimeira() throws Exception {
+		IdempotenciaService service = new IdempotenciaService(100, 4, Duration.ofHours(1), Duration.ofSeconds(5), Clock.systemUTC());
+		AtomicInteger execucoes = new AtomicInteger();
+		CountDownLatch largada = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+
+		List<Future<IdempotenciaService.Resultado<Integer>>> futuros = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			futuros.add(executor.submit(() -> {
+				largada.await();
+				return service.executar("mesma-chave", "req", () -> {
+					try {
+						Thread.sleep(100);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return execucoes.incrementAndGet();
+				});
+			}));
+		}
+		largada.countDown();
+
+		for (Future<IdempotenciaService.Resultado<Integer>> futuro : futuros) {
+			assertEquals(1, futuro.get(5, TimeUnit.SECONDS).valor());
+		}
+		executor.shutdown();
+		assertEquals(1, execucoes.get());
+	}
+
+	@Test
+	void falhaDeveLiberarAChave() {
+		IdempotenciaService service = new IdempotenciaService(100, 4, Duration.ofHours(1), Duration.ofSeconds(5), Clock.systemUTC());
+
+		assertThrows(RegraNegocioException.class, () -> service.executar("chave", "req", () -> {
+			throw new RegraNegocioException("Cliente inativo");
+		}));
+
+		assertEquals(7, service.executar("chave", "req", () -> 7).valor());
+	}
+
+	@Test
+	void deveRejeitarChaveReutilizadaComOutraRequisicao() {
+		IdempotenciaService service = new IdempotenciaService(100, 4, Duration.ofHours(1), Duration.ofSeconds(5), Clock.systemUTC());
+		service.executar("chave", "req-a", () -> 1);
+
+		assertThrows(ChaveIdempotenciaReutilizadaException.class, () -> service.executar("chave", "req-b", () -> 2));
+	}
+
+	@Test
+	void entradasDevemExpirarPeloTtlERespeitarACapacidade() {
+		RelogioAjustavel relogio = new RelogioAjustavel();
+		IdempotenciaService service = new IdempotenciaService(4, 1, Duration.ofMinutes(10), Duration.ofSeconds(5), relogio);
+
+		service.executar("a", "req", () -> 1);
+		relogio.avancar(Duration.ofMinutes(11));
+		assertEquals(2, service.executar("a", "req", () -> 2).valor(), "A entrada expirada deve ser executada de novo");
+
+		for (int i = 0; i < 10; i++) {
+			service.executar("k" + i, "req", () -> 0);
+		}
+		assertEquals(4, service.tamanho());
+	}
+
+	@Test
+	void capacidadeNaoDeveDescartarOperacaoEmAndamento() throws Exception {
+		IdempotenciaService service = new IdempotenciaService(2, 1, Duration.ofHours(1), Duration.ofSeconds(5), Clock.systemUTC());
+		AtomicInteger execucoes = new AtomicInteger();
+		CountDownLatch iniciou = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+
+		Future<IdempotenciaService.Resultado<Integer>> original = executor.submit(() -> service.executar("lenta", "req", () -> {
+			iniciou.countDown();
+			try {
+				liberar.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return execucoes.incrementAndGet();
+		}));
+		assertTrue(iniciou.await(5, TimeUnit.SECONDS));
+
+		// Bem mais chaves concluídas que a capacidade enquanto "lenta" executa
+		for (int i = 0; i < 10; i++) {
+			service.executar("k" + i, "req", () -> 0);
+		}
+		liberar.countDown();
+
+		IdempotenciaService.Resultado<Integer> repetida = service.executar("lenta", "req", execucoes::incrementAndGet);
+		assertEquals(1, original.get(5, TimeUnit.SECONDS).valor());
+		assertTrue(repetida.repetido());
+		assertEquals(1, execucoes.get());
+		executor.shutdown();
+	}
+
+	@Test
+	void errorNaOperacaoDeveLiberarQuemAguarda() throws Exception {
+		IdempotenciaService service = new IdempotenciaService(100, 4, Duration.ofHours(1), Duration.ofSeconds(5), Clock.systemUTC());
+		CountDownLatch iniciou = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		Future<?> original = executor.submit(() -> service.executar("chave", "req", () -> {
+			iniciou.countDown();
+			try {
+				liberar.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			throw new StackOverflowError("simulado");
+		}));
+		assertTrue(iniciou.await(5, TimeUnit.SECONDS));
+		Future<?> repetida = executor.submit(() -> service.executar("chave", "req", () -> 1));
+		Thread.sleep(50);
+		liberar.countDown();
+
+		ExecutionException falhaOriginal = assertThrows(ExecutionException.class, () -> original.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(StackOverflowError.class, falhaOriginal.getCause());
+		// Ou aguardou e recebeu o mesmo Error, ou chegou depois e executou de novo com a chave livre
+		try {
+			assertEquals(1, ((IdempotenciaService.Resultado<?>) repetida.get(5, TimeUnit.SECONDS)).valor());
+		} catch (ExecutionException e) {
+			assertInstanceOf(StackOverflowError.class, e.getCause());
+		}
+		executor.shutdown();
+	}
+
+	@Test
+	void esperaPelaPrimeiraDeveSerLimitada() throws Exception {
+		IdempotenciaService service = new IdempotenciaService(100, 4, Duration.ofHours(1), Duration.ofMillis(100), Clock.systemUTC());
+		CountDownLatch iniciou = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+
+		Future<IdempotenciaService.Resultado<Integer>> original = executor.submit(() -> service.executar("chave", "req", () -> {
+			iniciou.countDown();
+			try {
+				liberar.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return 1;
+		}));
+		assertTrue(iniciou.await(5, TimeUnit.SECONDS));
+
+		assertThrows(RequisicaoEmAndamentoException.class, () -> service.executar("chave", "req", () -> 2));
+		liberar.countDown();
+
+		// A chave continua da primeira execução
+		assertEquals(1, original.get(5, TimeUnit.SECONDS).valor());
+		assertEquals(1, service.executar("chave", "req", () -> 2).valor());
+		executor.shutdown();
+	}
+
+	private static class RelogioAjustavel extends Clock {
+		private Instant agora = Instant.parse("2025-01-01T00:00:00Z");
+
+		void avancar(Duration duracao) {
+			agora = agora.plus(duracao);
+		}
+
+		@Override public ZoneId getZone() { return ZoneId.of("UTC"); }
+		@Override public Clock withZone(ZoneId zone) { return this; }
+		@Override public Instant instant() { return agora; }
+	}
+}
@@ -0,0 +1,88 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.service.PedidoService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Benchmark de inserção de pedidos com 1, 10 e 50 itens.
+ * Compara a vazão sem lote (batch size 1) e com o lote configurado em hibernate.jdbc.batch_size.
+ *
+ * Limitação: as duas colunas usam as mesmas sequences com allocationSize = 50. A coluna "sem lote"
+ * só desliga o lote; ela não reproduz o mapeamento IDENTITY antigo, em que cada insert também
+ * devolvia a chave gerada. O ganho medido é só o do lote, e não inclui o da troca de IDENTITY por
+ * sequence.
+ *
+ * Executar com: ./mvnw test -Dtest=PedidoInsercaoBenchmarkTests -Dbenchmark=true
+ */
+// Grava milhares de pedidos: banco próprio, para não sujar o dos outros testes
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:insercao-benchmark;DB_CLOSE_DELAY=-1",
+		"spring.jpa.show-sql=false",
+		"logging.level.org.springframework.web=INFO"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PedidoInsercaoBenchmarkTests {
+
+	private static final int PEDIDOS_AQUECIMENTO = 200;
+	private static final int PEDIDOS_MEDICAO = 1_000;
+
+	@Autowired private Cadastros cadastros;
+	@Autowired private PedidoService pedidoService;
+	@Autowired private EntityManager entityManager;
+	@Autowired private TransactionTemplate transactionTemplate;
+
+	@Test
+	void compararVazaoDeInsercaoComESemLote() {
+		Cliente cliente = cadastros.novoCliente("Cliente Benchmark");
+		Restaurante restaurante = cadastros.novoRestaurante("Restaurante Benchmark");
+
+		Map<Integer, Map<Long, Integer>> pedidosPorTamanho = new HashMap<>();
+		for (int tamanho : new int[]{1, 10, 50}) {
+			Map<Long, Integer> itens = new HashMap<>();
+			for (int i = 0; i < tamanho; i++) {
+				Produto produto = cadastros.novoProduto(restaurante, "Produto " + tamanho + "-" + i, "10.00");
+				itens.put(produto.getId(), 1);
+			}
+			pedidosPorTamanho.put(tamanho, itens);
+		}
+
+		System.out.printf("%-8s %18s %18s%n", "itens", "sem lote (ped/s)", "com lote (ped/s)");
+		for (int tamanho : new int[]{1, 10, 50}) {
+			Map<Long, Integer> itens = pedidosPorTamanho.get(tamanho);
+			medir(cliente.getId(), restaurante.getId(), itens, 1, PEDIDOS_AQUECIMENTO);
+			double semLote = medir(cliente.getId(), restaurante.getId(), itens, 1, PEDIDOS_MEDICAO);
+			medir(cliente.getId(), restaurante.getId(), itens, null, PEDIDOS_AQUECIMENTO);
+			double comLote = medir(cliente.getId(), restaurante.getId(), itens, null, PEDIDOS_MEDICAO);
+			System.out.printf("%-8d %18.1f %18.1f%n", tamanho, semLote, comLote);
+		}
+	}
+
+	/**
+	 * Cria {@code quantidade} pedidos, cada um em sua transação, e devolve pedidos/segundo.
+	 * Um {@code batchSize} nulo mantém o valor configurado na aplicação.
+	 */
+	private double medir(Long clienteId, Long restauranteId, Map<Long, Integer> itens,
+						 Integer batchSize, int quantidade) {
+		long inicio = System.nanoTime();
+		for (int i = 0; i < quantidade; i++) {
+			transactionTemplate.executeWithoutResult(status -> {
+				entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+				pedidoService.criarPedido(clienteId, restauranteId, itens);
+			});
+		}
+		double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+		return quantidade / segundos;
+	}
+}
@@ -0,0 +1,179 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.dto.ItemPedidoResponseDTO;
+import com.deliverytech.delivery_api.dto.PaginaCursorDTO;
+import com.deliverytech.delivery_api.dto.PedidoResponseDTO;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.PedidoRepository;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.service.PedidoService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark de leitura de 10 mil pedidos (3 itens cada) em páginas de 100:
+ * caminho por entidades (Pedido + itens + produtos gerenciados, mapeados para DTO)
+ * contra o caminho por projeção usado pelos GETs de PedidoController.
+ *
+ * Executar com: ./mvnw test -Dtest=PedidoLeituraBenchmarkTests -Dbenchmark=true
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:leitura-benchmark",
+		"spring.jpa.show-sql=false",
+		"logging.level.org.springframework.web=INFO"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PedidoLeituraBenchmarkTests {
+
+	private static final int PEDIDOS = 10_000;
+	private static final int PAGINA = 100;
+	private static final int RODADAS = 5;
+
+	@Autowired private ClienteRepository clienteRepository;
+	@Autowired private RestauranteRepository restauranteRepository;
+	@Autowired private ProdutoRepository produtoRepository;
+	@Autowired private PedidoRepository pedidoRepository;
+	@Autowired private PedidoService pedidoService;
+	@Autowired private JdbcTemplate jdbcTemplate;
+	@Autowired private PlatformTransactionManager transactionManager;
+	@Autowired private EntityManager entityManager;
+
+	@Test
+	void compararLeituraPorEntidadeEPorProjecao() {
+		Restaurante restaurante = new Restaurante();
+		restaurante.setNome("Restaurante Leitura");
+		restaurante.setAtivo(true);
+		restauranteRepository.save(restaurante);
+
+		Cliente cliente = new Cliente();
+		cliente.setNome("Cliente Leitura");
+		cliente.setAtivo(true);
+		clienteRepository.save(cliente);
+
+		List<Long> produtoIds = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			Produto produto = new Produto();
+			produto.setNome("Produto " + i);
+			produto.setPreco(new BigDecimal("12.00"));
+			produto.setRestaurante(restaurante);
+			produto.setAtivo(true);
+			produtoIds.add(produtoRepository.save(produto).getId());
+		}
+
+		long base = 50_000_000L;
+		jdbcTemplate.update("INSERT INTO pedidos (id, cliente_id, restaurante_id, data_pedido, total, status) " +
+				"SELECT ? + X, ?, ?, DATEADD('MINUTE', X, TIMESTAMP '2025-01-01 00:00:00'), 36.00, 'ENTREGUE' " +
+				"FROM SYSTEM_RANGE(1, ?)", base, cliente.getId(), restaurante.getId(), PEDIDOS);
+		for (int i = 0; i < 3; i++) {
+			jdbcTemplate.update("INSERT INTO itens_pedido (id, pedido_id, produto_id, quantidade, preco_unitario) " +
+					"SELECT ? + X, ? + X, ?, 1, 12.00 FROM SYSTEM_RANGE(1, ?)",
+					base * (i + 2), base, produtoIds.get(i), PEDIDOS);
+		}
+
+		// Índice do keyset: sem ele, o custo de ordenar a tabela a cada página encobre a diferença medida
+		jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_bench_pedidos_restaurante_data " +
+				"ON pedidos (restaurante_id, data_pedido, id)");
+
+		TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+		leitura.setReadOnly(true);
+
+		// Aquecimento
+		lerPorEntidades(leitura, restaurante.getId());
+		lerPorProjecao(restaurante.getId());
+
+		long entidades = 0;
+		long projecao = 0;
+		for (int rodada = 0; rodada < RODADAS; rodada++) {
+			long inicio = System.nanoTime();
+			assertEquals(PEDIDOS, lerPorEntidades(leitura, restaurante.getId()));
+			entidades += System.nanoTime() - inicio;
+
+			inicio = System.nanoTime();
+			assertEquals(PEDIDOS, lerPorProjecao(restaurante.getId()));
+			projecao += System.nanoTime() - inicio;
+		}
+
+		System.out.printf("Leitura de %d pedidos (média de %d rodadas): entidades %.1f ms | projeção %.1f ms%n",
+				PEDIDOS, RODADAS, entidades / RODADAS / 1e6, projecao / RODADAS / 1e6);
+	}
+
+	// Mesma consulta keyset da projeção, mas devolvendo entidades gerenciadas
+	private int lerPorEntidades(TransactionTemplate leitura, Long restauranteId) {
+		int total = 0;
+		LocalDateTime cursorData = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+		Long cursorId = Long.MAX_VALUE;
+		while (true) {
+			LocalDateTime data = cursorData;
+			Long id = cursorId;
+			List<PedidoResponseDTO> pagina = leitura.execute(status -> entityManager.createQuery(
+							"SELECT p FROM Pedido p WHERE p.restaurante.id = :restauranteId " +
+							"AND (p.dataPedido < :data OR (p.dataPedido = :data AND p.id < :id)) " +
+							"ORDER BY p.dataPedido DESC, p.id DESC", Pedido.class)
+					.setParameter("restauranteId", restauranteId)
+					.setParameter("data", data)
+					.setParameter("id", id)
+					.setMaxResults(PAGINA)
+					.getResultStream()
+					.map(this::paraResposta)
+					.toList());
+			total += pagina.size();
+			if (pagina.size() < PAGINA) {
+				return total;
+			}
+			cursorData = pagina.get(PAGINA - 1).getDataPedido();
+			cursorId = pagina.get(PAGINA - 1).getId();
+		}
+	}
+
+	private int lerPorProjecao(Long restauranteId) {
+		int total = 0;
+		String cursor = null;
+		do {
+			PaginaCursorDTO<PedidoResponseDTO> pagina = pedidoService.buscarPorRestaurante(restauranteId, cursor, PAGINA);
+			total += pagina.getItens().size();
+			cursor = pagina.getNextCursor();
+		} while (cursor != null);
+		return total;
+	}
+
+	// Mesmo mapeamento de PedidoResponseDTO.de
+	private PedidoResponseDTO paraResposta(Pedido pedido) {
+		PedidoResponseDTO dto = new PedidoResponseDTO();
+		dto.setId(pedido.getId());
+		dto.setClienteId(pedido.getCliente().getId());
+		dto.setClienteNome(pedido.getCliente().getNome());
+		dto.setRestauranteId(pedido.getRestaurante().getId());
+		dto.setRestauranteNome(pedido.getRestaurante().getNome());
+		dto.setTotal(pedido.getTotal());
+		dto.setStatus(pedido.getStatus());
+		dto.setDataPedido(pedido.getDataPedido());
+		dto.setItens(pedido.getItens().stream().map(item -> {
+			ItemPedidoResponseDTO itemDto = new ItemPedidoResponseDTO();
+			itemDto.setNomeProduto(item.getProduto().getNome());
+			itemDto.setQuantidade(item.getQuantidade());
+			itemDto.setPrecoUnitario(item.getPrecoUnitario());
+			itemDto.setSubtotal(item.getSubtotal());
+			return itemDto;
+		}).collect(Collectors.toList()));
+		return dto;
+	}
+}
@@ -0,0 +1,134 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.dto.ItemPedidoRequestDTO;
+import com.deliverytech.delivery_api.dto.PedidoLoteResultadoDTO;
+import com.deliverytech.delivery_api.dto.PedidoRequestDTO;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.PedidoRepository;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.service.PedidoLoteService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		// Banco próprio: este teste faz commit e não pode afetar as contagens dos demais
+		"spring.datasource.url=jdbc:h2:mem:pedidos-lote",
+		"delivery.pedidos.lote.tamanho-bloco=3"
+})
+class PedidoLoteServiceTests {
+
+	@Autowired private ClienteRepository clienteRepository;
+	@Autowired private RestauranteRepository restauranteRepository;
+	@Autowired private ProdutoRepository produtoRepository;
+	@Autowired private PedidoRepository pedidoRepository;
+	@Autowired private PedidoLoteService pedidoLoteService;
+
+	@Test
+	void deveCriarPedidosValidosEReportarErrosPorPedido() {
+		Cliente cliente = new Cliente();
+		cliente.setNome("Parceiro Lote");
+		cliente.setAtivo(true);
+		clienteRepository.save(cliente);
+
+		Restaurante restaurante = new Restaurante();
+		restaurante.setNome("Restaurante Lote");
+		restaurante.setAtivo(true);
+		restauranteRepository.save(restaurante);
+
+		Produto produto = new Produto();
+		produto.setNome("Marmita");
+		produto.setPreco(new BigDecimal("20.00"));
+		produto.setRestaurante(restaurante);
+		produto.setAtivo(true);
+		produtoRepository.save(produto);
+
+		long pedidosAntes = pedidoRepository.count();
+
+		// 7 pedidos em blocos de 3: os de índice 2 e 5 são inválidos
+		List<PedidoRequestDTO> lote = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			lote.add(pedido(cliente.getId(), restaurante.getId(), produto.getId(), 2));
+		}
+		lote.set(2, pedido(cliente.getId(), restaurante.getId(), 999_999L, 1));
+		lote.set(5, pedido(cliente.getId(), restaurante.getId(), produto.getId(), 0));
+
+		List<PedidoLoteResultadoDTO> resultados = pedidoLoteService.criarPedidos(lote);
+
+		assertEquals(7, resultados.size());
+		for (int i = 0; i < resultados.size(); i++) {
+			assertEquals(i, resultados.get(i).getIndice());
+		}
+		assertFalse(resultados.get(2).getSucesso());
+		assertEquals("Produto 999999 não encontrado", resultados.get(2).getErro());
+		assertFalse(resultados.get(5).getSucesso());
+		assertEquals("A quantidade do produto " + produto.getId() + " deve ser positiva", resultados.get(5).getErro());
+
+		long criados = resultados.stream().filter(PedidoLoteResultadoDTO::getSucesso).count();
+		assertEquals(5, criados);
+		assertTrue(resultados.stream().filter(PedidoLoteResultadoDTO::getSucesso).allMatch(r -> r.getPedidoId() != null));
+		assertEquals(pedidosAntes + 5, pedidoRepository.count());
+	}
+
+	@Test
+	void falhaInesperadaNoBlocoDeveReportarTodosOsPedidosDele() {
+		Cliente cliente = new Cliente();
+		cliente.setNome("Parceiro Lote Falho");
+		cliente.setAtivo(true);
+		clienteRepository.save(cliente);
+
+		Restaurante restaurante = new Restaurante();
+		restaurante.setNome("Restaurante Lote Falho");
+		restaurante.setAtivo(true);
+		restauranteRepository.save(restaurante);
+
+		long pedidosAntes = pedidoRepository.count();
+
+		// Um item nulo derruba a carga dos produtos do primeiro bloco antes de qualquer validação
+		PedidoRequestDTO quebrado = pedido(cliente.getId(), restaurante.getId(), 1L, 1);
+		quebrado.setItens(Arrays.asList((ItemPedidoRequestDTO) null));
+		List<PedidoRequestDTO> lote = List.of(
+				pedido(cliente.getId(), restaurante.getId(), 999_999L, 1),
+				quebrado,
+				pedido(cliente.getId(), restaurante.getId(), 999_999L, 1),
+				pedido(cliente.getId(), 999_999L, 999_999L, 1));
+
+		List<PedidoLoteResultadoDTO> resultados = pedidoLoteService.criarPedidos(lote);
+
+		assertEquals(4, resultados.size());
+		for (int i = 0; i < 3; i++) {
+			assertNotNull(resultados.get(i));
+			assertEquals(i, resultados.get(i).getIndice());
+			assertFalse(resultados.get(i).getSucesso());
+			assertTrue(resultados.get(i).getErro().startsWith("Falha ao gravar o bloco"));
+		}
+		// O bloco seguinte é processado normalmente
+		assertEquals("Restaurante não encontrado", resultados.get(3).getErro());
+		assertEquals(pedidosAntes, pedidoRepository.count());
+	}
+
+	private PedidoRequestDTO pedido(Long clienteId, Long restauranteId, Long produtoId, int quantidade) {
+		ItemPedidoRequestDTO item = new ItemPedidoRequestDTO();
+		item.setProdutoId(produtoId);
+		item.setQuantidade(quantidade);
+
+		PedidoRequestDTO dto = new PedidoRequestDTO();
+		dto.setClienteId(clienteId);
+		dto.setRestauranteId(restauranteId);
+		dto.setItens(List.of(item));
+		return dto;
+	}
+}
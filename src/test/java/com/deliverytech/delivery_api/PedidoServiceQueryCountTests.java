@@ -0,0 +1,217 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.dto.PaginaCursorDTO;
+import com.deliverytech.delivery_api.dto.PedidoResponseDTO;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.exception.EntidadeNaoEncontradaException;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.service.PedidoService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties =
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector=com.deliverytech.delivery_api.ContadorSql")
+class PedidoServiceQueryCountTests {
+
+	@Autowired private Cadastros cadastros;
+	@Autowired private ClienteRepository clienteRepository;
+	@Autowired private RestauranteRepository restauranteRepository;
+	@Autowired private ProdutoRepository produtoRepository;
+	@Autowired private PedidoService pedidoService;
+	@Autowired private EntityManager entityManager;
+
+	@Test
+	@Transactional
+	void criarPedidoDeveExecutarNumeroConstanteDeSelects() {
+		int selectsUmItem = selectsParaCriarPedidoCom(1);
+		int selectsCincoItens = selectsParaCriarPedidoCom(5);
+		int selectsTrintaItens = selectsParaCriarPedidoCom(30);
+
+		// cliente + restaurante + produtos (uma única consulta)
+		assertEquals(3, selectsUmItem);
+		assertEquals(selectsUmItem, selectsCincoItens, "O nº de SELECTs não deve depender do nº de itens");
+		assertEquals(selectsUmItem, selectsTrintaItens, "O nº de SELECTs não deve depender do nº de itens");
+	}
+
+	@Test
+	@Transactional
+	void criarPedidoDeveInserirItensEmLote() {
+		selectsParaCriarPedidoCom(30);
+		entityManager.flush();
+
+		// Com IDs de sequence e hibernate.jdbc.batch_size, os 30 itens saem em um único lote
+		assertEquals(1, ContadorSql.contarComPrefixo("insert into itens_pedido"));
+		assertEquals(1, ContadorSql.contarComPrefixo("insert into pedidos"));
+	}
+
+	@Test
+	@Transactional
+	void criarPedidoDeveLancarExcecaoQuandoProdutoNaoExiste() {
+		Cliente cliente = cadastros.novoCliente();
+		Restaurante restaurante = cadastros.novoRestaurante();
+
+		EntidadeNaoEncontradaException ex = assertThrows(EntidadeNaoEncontradaException.class, () ->
+				pedidoService.criarPedido(cliente.getId(), restaurante.getId(), Map.of(999_999L, 1)));
+		assertEquals("Produto 999999 não encontrado", ex.getMessage());
+	}
+
+	@Test
+	@Transactional
+	void paginacaoPorCursorDevePercorrerTodosOsPedidosComSelectsConstantes() {
+		Cliente cliente = cadastros.novoCliente();
+		Restaurante restaurante = cadastros.novoRestaurante();
+		Produto produto1 = cadastros.novoProduto(restaurante, "Esfiha", "7.50");
+		Produto produto2 = cadastros.novoProduto(restaurante, "Quibe", "7.50");
+
+		// 25 pedidos, vários com a mesma data para exercitar o desempate pelo id
+		LocalDateTime base = LocalDateTime.of(2025, 3, 1, 12, 0);
+		for (int i = 0; i < 25; i++) {
+			Pedido pedido = pedidoService.criarPedido(cliente.getId(), restaurante.getId(),
+					Map.of(produto1.getId(), 1, produto2.getId(), 2));
+			pedido.setDataPedido(base.minusMinutes(i / 3));
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		Set<Long> vistos = new HashSet<>();
+		List<Integer> selectsPorPagina = new ArrayList<>();
+		LocalDateTime anterior = LocalDateTime.MAX;
+		String cursor = null;
+		int paginas = 0;
+		do {
+			ContadorSql.zerar();
+			PaginaCursorDTO<PedidoResponseDTO> pagina = pedidoService.buscarPorRestaurante(restaurante.getId(), cursor, 10);
+			pagina.getItens().forEach(p -> assertEquals(2, p.getItens().size()));
+			selectsPorPagina.add(ContadorSql.getSelects());
+			assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount(),
+					"A leitura por projeção não deve colocar entidades no contexto de persistência");
+
+			for (PedidoResponseDTO pedido : pagina.getItens()) {
+				assertTrue(vistos.add(pedido.getId()), "Pedido repetido entre páginas");
+				assertFalse(pedido.getDataPedido().isAfter(anterior), "Pedidos fora de ordem");
+				anterior = pedido.getDataPedido();
+			}
+			cursor = pagina.getNextCursor();
+			paginas++;
+			entityManager.clear();
+		} while (cursor != null);
+
+		assertEquals(3, paginas);
+		assertEquals(25, vistos.size());
+		// existsById + cabeçalhos da página + itens da página (em lote)
+		selectsPorPagina.forEach(selects -> assertEquals(3, selects));
+	}
+
+	@Test
+	@Transactional
+	void cadaMetodoDeLeituraDeveExecutarNumeroFixoDeComandos() {
+		Cliente cliente = cadastros.novoCliente();
+		Restaurante restaurante = cadastros.novoRestaurante();
+		Produto produto1 = cadastros.novoProduto(restaurante, "Pastel", "7.50");
+		Produto produto2 = cadastros.novoProduto(restaurante, "Caldo de cana", "7.50");
+		Map<Long, Integer> itens = Map.of(produto1.getId(), 2, produto2.getId(), 1);
+		Long pedidoId = null;
+		for (int i = 0; i < 3; i++) {
+			pedidoId = pedidoService.criarPedido(cliente.getId(), restaurante.getId(), itens).getId();
+		}
+		Long id = pedidoId;
+
+		// Leitura por entidade com o grafo completo, inclusive a conversão para DTO
+		assertEquals(1, comandos(() -> assertEquals(2, PedidoResponseDTO.de(pedidoService.buscarPorIdCompleto(id)).getItens().size())));
+		// Projeções: cabeçalho + itens
+		assertEquals(2, comandos(() -> pedidoService.buscarResumoPorId(id)));
+		assertEquals(2, comandos(() -> pedidoService.listarComFiltros("PENDENTE", null, null, null, 10)));
+		// existsById + cabeçalho + itens
+		assertEquals(3, comandos(() -> pedidoService.buscarPorCliente(cliente.getId(), null, 10)));
+		assertEquals(3, comandos(() -> pedidoService.buscarPorRestaurante(restaurante.getId(), null, 10)));
+		// Produtos em uma única consulta
+		assertEquals(1, comandos(() -> pedidoService.calcularTotal(restaurante.getId(), itens)));
+	}
+
+	@Test
+	@Transactional
+	void cadaMetodoDeEscritaDeveExecutarNumeroFixoDeComandos() {
+		Cliente cliente = cadastros.novoCliente();
+		Restaurante restaurante = cadastros.novoRestaurante();
+		Produto produto = cadastros.novoProduto(restaurante, "Coxinha", "7.50");
+		Long atualizadoId = pedidoService.criarPedido(cliente.getId(), restaurante.getId(), Map.of(produto.getId(), 3)).getId();
+		Long canceladoId = pedidoService.criarPedido(cliente.getId(), restaurante.getId(), Map.of(produto.getId(), 1)).getId();
+
+		// Busca completa (um SELECT) + UPDATE + um MERGE por resumo (hora e dia) das séries temporais;
+		// o retorno já vira DTO sem novas consultas
+		assertEquals(4, comandos(() -> PedidoResponseDTO.de(pedidoService.atualizarStatus(atualizadoId, "CONFIRMADO"))));
+		assertEquals(2, ContadorSql.contarComPrefixo("merge into resumo_pedidos_"));
+		// O mesmo para o cancelamento
+		assertEquals(4, comandos(() -> pedidoService.cancelarPedido(canceladoId)));
+		assertEquals(1, ContadorSql.contarComPrefixo("update pedidos"));
+
+		// Validação e montagem trabalham só em memória
+		Cliente clienteCarregado = clienteRepository.findById(cliente.getId()).orElseThrow();
+		Restaurante restauranteCarregado = restauranteRepository.findById(restaurante.getId()).orElseThrow();
+		Produto produtoCarregado = produtoRepository.findById(produto.getId()).orElseThrow();
+		ContadorSql.zerar();
+		pedidoService.validarPedido(clienteCarregado, restauranteCarregado, Map.of(produto.getId(), 1));
+		pedidoService.montarPedido(clienteCarregado, restauranteCarregado, Map.of(produto.getId(), 1),
+				Map.of(produto.getId(), produtoCarregado));
+		assertEquals(0, ContadorSql.getTotal());
+	}
+
+	// Executa a ação com o contexto de persistência vazio e devolve o nº de comandos SQL (inclusive o flush)
+	private int comandos(Runnable acao) {
+		entityManager.flush();
+		entityManager.clear();
+		ContadorSql.zerar();
+		acao.run();
+		entityManager.flush();
+		return ContadorSql.getTotal();
+	}
+
+	private int selectsParaCriarPedidoCom(int quantidadeItens) {
+		Cliente cliente = cadastros.novoCliente();
+		Restaurante restaurante = cadastros.novoRestaurante();
+
+		Map<Long, Integer> itens = new HashMap<>();
+		for (int i = 0; i < quantidadeItens; i++) {
+			Produto produto = new Produto();
+			produto.setNome("Produto " + i);
+			produto.setPreco(new BigDecimal("10.00"));
+			produto.setRestaurante(restaurante);
+			produto.setAtivo(true);
+			produtoRepository.save(produto);
+			itens.put(produto.getId(), 1);
+		}
+
+		// Esvazia o contexto de persistência para que todas as buscas vão ao banco
+		entityManager.flush();
+		entityManager.clear();
+		ContadorSql.zerar();
+
+		Pedido pedido = pedidoService.criarPedido(cliente.getId(), restaurante.getId(), itens);
+		int selects = ContadorSql.getSelects();
+
+		assertEquals(quantidadeItens, pedido.getItens().size());
+		return selects;
+	}
+}
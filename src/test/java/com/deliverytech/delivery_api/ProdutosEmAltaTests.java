@@ -0,0 +1,143 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.dto.ProdutoEmAltaDTO;
+import com.deliverytech.delivery_api.dto.ProdutosEmAltaDTO;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.service.PedidoService;
+import com.deliverytech.delivery_api.service.ProdutosEmAltaService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sem @Transactional: os pedidos só entram nas janelas depois do commit
+@ActiveProfiles("test")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:produtos-em-alta;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class ProdutosEmAltaTests {
+
+	@Autowired private ClienteRepository clienteRepository;
+	@Autowired private RestauranteRepository restauranteRepository;
+	@Autowired private ProdutoRepository produtoRepository;
+	@Autowired private PedidoService pedidoService;
+	@Autowired private ProdutosEmAltaService produtosEmAltaService;
+	@Autowired private TransactionTemplate transactionTemplate;
+	@Autowired private ObjectMapper objectMapper;
+	@Autowired private MockMvc mockMvc;
+
+	private Cliente cliente;
+	private Restaurante pizzaria;
+	private Restaurante lanchonete;
+	private Produto pizza;
+	private Produto refrigerante;
+	private Produto lanche;
+
+	@BeforeEach
+	void cadastrar() {
+		cliente = new Cliente();
+		cliente.setNome("Cliente [" + UUID.randomUUID() + "]");
+		cliente.setAtivo(true);
+		clienteRepository.save(cliente);
+
+		pizzaria = restaurante("Pizzaria");
+		lanchonete = restaurante("Lanchonete");
+		pizza = produto(pizzaria, "Pizza");
+		refrigerante = produto(pizzaria, "Refrigerante");
+		lanche = produto(lanchonete, "Lanche");
+	}
+
+	@Test
+	void pedidosCriadosDevemEntrarNoRankingGeralEDoRestaurante() throws Exception {
+		pedidoService.criarPedido(cliente.getId(), pizzaria.getId(), Map.of(pizza.getId(), 1, refrigerante.getId(), 3));
+		pedidoService.criarPedido(cliente.getId(), pizzaria.getId(), Map.of(pizza.getId(), 1));
+		pedidoService.criarPedido(cliente.getId(), lanchonete.getId(), Map.of(lanche.getId(), 2));
+
+		ProdutosEmAltaDTO daPizzaria = emAlta("/api/relatorios/produtos-em-alta?restauranteId=" + pizzaria.getId());
+		assertEquals(15, daPizzaria.getJanelaMinutos());
+		assertEquals(5L, daPizzaria.getTotalItens());
+		assertEquals(0L, daPizzaria.getErroMaximo());
+		assertEquals(List.of(refrigerante.getId(), pizza.getId()),
+				daPizzaria.getProdutos().stream().map(ProdutoEmAltaDTO::getProdutoId).toList());
+		ProdutoEmAltaDTO primeiro = daPizzaria.getProdutos().get(0);
+		assertEquals(refrigerante.getNome(), primeiro.getNomeProduto());
+		assertEquals(pizzaria.getId(), primeiro.getRestauranteId());
+		assertEquals(3L, primeiro.getQuantidadeEstimada());
+		assertEquals(3L, primeiro.getQuantidadeMinima());
+		assertTrue(primeiro.getGarantido());
+
+		// No ranking geral entram os produtos de todos os restaurantes
+		ProdutosEmAltaDTO geral = emAlta("/api/relatorios/produtos-em-alta?minutos=60&limite=256");
+		assertEquals(2L, quantidade(geral, lanche));
+		assertEquals(2L, quantidade(geral, pizza));
+		assertEquals(3L, quantidade(geral, refrigerante));
+	}
+
+	@Test
+	void pedidoDesfeitoNaoDeveContar() {
+		transactionTemplate.executeWithoutResult(status -> {
+			pedidoService.criarPedido(cliente.getId(), lanchonete.getId(), Map.of(lanche.getId(), 5));
+			status.setRollbackOnly();
+		});
+
+		assertTrue(produtosEmAltaService.emAlta(lanchonete.getId(), 60, 10).getProdutos().isEmpty());
+		assertNull(quantidade(produtosEmAltaService.emAlta(null, 60, 256), lanche));
+	}
+
+	@Test
+	void janelaELimiteForaDaFaixaDevemSerRejeitados() {
+		assertThrows(RegraNegocioException.class, () -> produtosEmAltaService.emAlta(null, 0, 10));
+		assertThrows(RegraNegocioException.class, () -> produtosEmAltaService.emAlta(null, 61, 10));
+		assertThrows(RegraNegocioException.class, () -> produtosEmAltaService.emAlta(null, 15, 0));
+		assertThrows(RegraNegocioException.class, () -> produtosEmAltaService.emAlta(pizzaria.getId(), 15, 33));
+	}
+
+	private ProdutosEmAltaDTO emAlta(String url) throws Exception {
+		return objectMapper.readValue(mockMvc.perform(get(url))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray(), ProdutosEmAltaDTO.class);
+	}
+
+	private static Long quantidade(ProdutosEmAltaDTO emAlta, Produto produto) {
+		return emAlta.getProdutos().stream()
+				.filter(item -> item.getProdutoId().equals(produto.getId()))
+				.map(ProdutoEmAltaDTO::getQuantidadeEstimada)
+				.findFirst().orElse(null);
+	}
+
+	private Restaurante restaurante(String nome) {
+		Restaurante restaurante = new Restaurante();
+		restaurante.setNome(nome + " [" + UUID.randomUUID() + "]");
+		restaurante.setCategoria("Categoria");
+		restaurante.setAtivo(true);
+		return restauranteRepository.save(restaurante);
+	}
+
+	private Produto produto(Restaurante restaurante, String nome) {
+		Produto produto = new Produto();
+		produto.setNome(nome + " [" + UUID.randomUUID() + "]");
+		produto.setPreco(new BigDecimal("10.00"));
+		produto.setRestaurante(restaurante);
+		produto.setAtivo(true);
+		return produtoRepository.save(produto);
+	}
+}
@@ -0,0 +1,75 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.service.IndiceEspacial;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark do índice espacial com 50 mil restaurantes (a maioria na Grande São Paulo):
+ * k vizinhos mais próximos e busca por raio, contra a varredura de todos os pontos.
+ *
+ * Executar com: ./mvnw test -Dtest=ProximidadeBenchmarkTests -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProximidadeBenchmarkTests {
+
+	private static final int RESTAURANTES = 50_000;
+	private static final int CONSULTAS = 20_000;
+
+	@Test
+	void compararIndiceComVarredura() {
+		Random aleatorio = new Random(7);
+		double[] latitudes = new double[RESTAURANTES];
+		double[] longitudes = new double[RESTAURANTES];
+		IndiceEspacial<Boolean> indice = new IndiceEspacial<>(0.02);
+		for (int i = 0; i < RESTAURANTES; i++) {
+			boolean capital = i % 10 != 0;
+			latitudes[i] = capital ? -23.8 + aleatorio.nextDouble() * 0.6 : -30 + aleatorio.nextDouble() * 28;
+			longitudes[i] = capital ? -46.95 + aleatorio.nextDouble() * 0.6 : -60 + aleatorio.nextDouble() * 25;
+			indice.inserir(i, latitudes[i], longitudes[i], i % 5 != 0);
+		}
+
+		double[][] origens = new double[CONSULTAS][];
+		for (int i = 0; i < CONSULTAS; i++) {
+			origens[i] = new double[]{-23.8 + aleatorio.nextDouble() * 0.6, -46.95 + aleatorio.nextDouble() * 0.6};
+		}
+
+		// Aquecimento e conferência
+		for (double[] origem : origens) {
+			indice.proximos(origem[0], origem[1], 10, Double.POSITIVE_INFINITY, ativo -> ativo);
+		}
+		assertEquals(10, indice.proximos(origens[0][0], origens[0][1], 10, Double.POSITIVE_INFINITY, ativo -> ativo).size());
+
+		long inicio = System.nanoTime();
+		for (double[] origem : origens) {
+			indice.proximos(origem[0], origem[1], 10, Double.POSITIVE_INFINITY, ativo -> ativo);
+		}
+		long vizinhos = System.nanoTime() - inicio;
+
+		inicio = System.nanoTime();
+		for (double[] origem : origens) {
+			indice.proximos(origem[0], origem[1], 100, 2.0, ativo -> true);
+		}
+		long raio = System.nanoTime() - inicio;
+
+		int amostra = CONSULTAS / 20;
+		inicio = System.nanoTime();
+		double soma = 0;
+		for (int c = 0; c < amostra; c++) {
+			double menor = Double.MAX_VALUE;
+			for (int i = 0; i < RESTAURANTES; i++) {
+				menor = Math.min(menor, IndiceEspacial.distanciaKm(origens[c][0], origens[c][1], latitudes[i], longitudes[i]));
+			}
+			soma += menor;
+		}
+		long varredura = System.nanoTime() - inicio;
+
+		System.out.printf("Índice espacial com %d restaurantes: 10 mais próximos %.1f µs | raio de 2 km %.1f µs | " +
+						"varredura completa %.1f µs (por consulta; soma de controle %.1f)%n",
+				RESTAURANTES, vizinhos / 1e3 / CONSULTAS, raio / 1e3 / CONSULTAS, varredura / 1e3 / amostra, soma);
+	}
+}
@@ -0,0 +1,170 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.dto.RestauranteProximoDTO;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.exception.EntidadeNaoEncontradaException;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.service.IndiceEspacial;
+import com.deliverytech.delivery_api.service.ProximidadeService;
+import com.deliverytech.delivery_api.service.RestauranteService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sem @Transactional: o índice só recebe as alterações depois do commit
+@ActiveProfiles("test")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:proximidade;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class ProximidadeTests {
+
+	// Avenida Paulista (prefixo 01310 na tabela local de CEPs)
+	private static final String CEP_PAULISTA = "01310-100";
+
+	@Autowired private RestauranteService restauranteService;
+	@Autowired private ProximidadeService proximidadeService;
+	@Autowired private ObjectMapper objectMapper;
+	@Autowired private MockMvc mockMvc;
+
+	// Cada teste usa uma categoria própria, para não enxergar os restaurantes dos outros
+	private String categoria;
+
+	@BeforeEach
+	void criarCategoria() {
+		categoria = "Categoria " + UUID.randomUUID();
+	}
+
+	@Test
+	void deveOrdenarPelaDistanciaAteOCep() throws Exception {
+		Restaurante perto = cadastrar("Perto", -23.5630, -46.6540);     // ~0,3 km
+		Restaurante medio = cadastrar("Médio", -23.5880, -46.6390);     // ~3,4 km
+		Restaurante longe = cadastrar("Longe", -22.9068, -43.1729);     // Rio de Janeiro
+
+		JsonNode resposta = objectMapper.readTree(mockMvc.perform(get("/api/restaurantes/proximos/" + CEP_PAULISTA)
+						.param("categoria", categoria.toUpperCase()))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray());
+
+		assertEquals(3, resposta.size());
+		assertEquals(perto.getId(), resposta.get(0).get("id").asLong());
+		assertEquals(medio.getId(), resposta.get(1).get("id").asLong());
+		assertEquals(longe.getId(), resposta.get(2).get("id").asLong());
+		assertTrue(resposta.get(0).get("distanciaKm").asDouble() < 1);
+		assertTrue(resposta.get(2).get("distanciaKm").asDouble() > 300);
+	}
+
+	@Test
+	void deveRespeitarRaioLimiteEStatus() {
+		cadastrar("A", -23.5620, -46.6560);
+		Restaurante b = cadastrar("B", -23.5700, -46.6600);
+		cadastrar("C", -23.6500, -46.7000);
+		restauranteService.alterarStatus(b.getId(), false);
+
+		assertEquals(List.of("A", "B"), nomes(proximidadeService.buscarProximos(CEP_PAULISTA, 10, 5.0, null, categoria)));
+		assertEquals(List.of("A"), nomes(proximidadeService.buscarProximos(CEP_PAULISTA, 10, 5.0, true, categoria)));
+		assertEquals(List.of("B"), nomes(proximidadeService.buscarProximos(CEP_PAULISTA, 10, null, false, categoria)));
+		assertEquals(List.of("A", "B"), nomes(proximidadeService.buscarProximos(CEP_PAULISTA, 2, null, null, categoria)));
+		assertFalse(proximidadeService.buscarProximos(CEP_PAULISTA, 10, null, null, categoria).get(1).getAtivo());
+	}
+
+	@Test
+	void coordenadasDevemVirDoCepQuandoNaoInformadas() {
+		Restaurante novo = new Restaurante();
+		novo.setNome("Sem coordenadas [" + UUID.randomUUID() + "]");
+		novo.setCategoria(categoria);
+		novo.setCep("30130-010");
+		Restaurante salvo = restauranteService.cadastrar(novo);
+
+		// Prefixo 30130 (Funcionários, Belo Horizonte)
+		assertEquals("30130010", salvo.getCep());
+		assertEquals(-19.9227, salvo.getLatitude(), 1e-9);
+		assertEquals(-43.9451, salvo.getLongitude(), 1e-9);
+		assertEquals(List.of("Sem coordenadas"), nomes(proximidadeService.buscarProximos("30140-000", 10, 5.0, null, categoria)));
+	}
+
+	@Test
+	void indiceDeveAcompanharAtualizacaoERemocao() {
+		Restaurante restaurante = cadastrar("Muda de endereço", -23.5620, -46.6560);
+
+		Restaurante novosDados = new Restaurante();
+		novosDados.setNome(restaurante.getNome());
+		novosDados.setCategoria(categoria);
+		novosDados.setCep("22021001"); // Copacabana
+		restauranteService.atualizar(restaurante.getId(), novosDados);
+
+		assertTrue(proximidadeService.buscarProximos(CEP_PAULISTA, 10, 50.0, null, categoria).isEmpty());
+		assertEquals(1, proximidadeService.buscarProximos("22010-000", 10, 5.0, null, categoria).size());
+
+		restauranteService.deletar(restaurante.getId());
+		assertTrue(proximidadeService.buscarProximos("22010-000", 10, null, null, categoria).isEmpty());
+	}
+
+	@Test
+	void cepInvalidoOuForaDaTabelaDeveSerRejeitado() {
+		assertThrows(RegraNegocioException.class, () -> proximidadeService.buscarProximos("123", 10, null, null, null));
+		assertThrows(EntidadeNaoEncontradaException.class, () -> proximidadeService.buscarProximos("99999-999", 10, null, null, null));
+		assertThrows(RegraNegocioException.class, () -> proximidadeService.buscarProximos(CEP_PAULISTA, 0, null, null, null));
+	}
+
+	@Test
+	void indiceDeveConcordarComABuscaExaustiva() {
+		IndiceEspacial<Integer> indice = new IndiceEspacial<>(0.02);
+		Random aleatorio = new Random(42);
+		List<double[]> pontos = new ArrayList<>();
+		for (int i = 0; i < 5_000; i++) {
+			// Concentrados na Grande São Paulo, com alguns espalhados pelo país
+			double[] ponto = i % 50 == 0
+					? new double[]{-30 + aleatorio.nextDouble() * 28, -60 + aleatorio.nextDouble() * 25}
+					: new double[]{-23.7 + aleatorio.nextDouble() * 0.4, -46.9 + aleatorio.nextDouble() * 0.5};
+			pontos.add(ponto);
+			indice.inserir(i, ponto[0], ponto[1], i % 3);
+		}
+
+		for (int consulta = 0; consulta < 200; consulta++) {
+			double latitude = consulta % 4 == 0 ? -3.1 : -23.7 + aleatorio.nextDouble() * 0.4;
+			double longitude = consulta % 4 == 0 ? -60.0 : -46.9 + aleatorio.nextDouble() * 0.5;
+			double raio = consulta % 2 == 0 ? Double.POSITIVE_INFINITY : 3.0;
+
+			List<Long> esperado = new ArrayList<>();
+			for (int i = 0; i < pontos.size(); i++) {
+				double distancia = IndiceEspacial.distanciaKm(latitude, longitude, pontos.get(i)[0], pontos.get(i)[1]);
+				if (i % 3 == 0 && distancia <= raio) esperado.add((long) i);
+			}
+			esperado.sort(Comparator.comparingDouble((Long i) -> IndiceEspacial.distanciaKm(
+					latitude, longitude, pontos.get(i.intValue())[0], pontos.get(i.intValue())[1])).thenComparing(i -> i));
+
+			List<Long> encontrado = indice.proximos(latitude, longitude, 15, raio, valor -> valor == 0).stream()
+					.map(IndiceEspacial.Vizinho::id)
+					.toList();
+			assertEquals(esperado.subList(0, Math.min(15, esperado.size())), encontrado);
+		}
+	}
+
+	private List<String> nomes(List<RestauranteProximoDTO> restaurantes) {
+		return restaurantes.stream().map(r -> r.getNome().substring(0, r.getNome().indexOf(" ["))).toList();
+	}
+
+	private Restaurante cadastrar(String nome, double latitude, double longitude) {
+		Restaurante novo = new Restaurante();
+		novo.setNome(nome + " [" + UUID.randomUUID() + "]");
+		novo.setCategoria(categoria);
+		novo.setLatitude(latitude);
+		novo.setLongitude(longitude);
+		return restauranteService.cadastrar(novo);
+	}
+}
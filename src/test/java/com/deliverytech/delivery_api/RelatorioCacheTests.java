@@ -0,0 +1,224 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.dto.EstatisticaRelatorioCacheDTO;
+import com.deliverytech.delivery_api.dto.projection.RelatorioProdutosMaisVendidos;
+import com.deliverytech.delivery_api.dto.projection.RelatorioVendasRestaurante;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.service.PedidoService;
+import com.deliverytech.delivery_api.service.RelatorioCacheService;
+import com.deliverytech.delivery_api.service.RelatorioService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sem @Transactional: o cache só guarda o que já foi confirmado no banco
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:relatorio-cache;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector=com.deliverytech.delivery_api.ContadorSql",
+		"delivery.relatorios.cache.vendas-por-restaurante.ttl=300ms"
+})
+@AutoConfigureMockMvc
+class RelatorioCacheTests {
+
+	@Autowired private ClienteRepository clienteRepository;
+	@Autowired private RestauranteRepository restauranteRepository;
+	@Autowired private ProdutoRepository produtoRepository;
+	@Autowired private PedidoService pedidoService;
+	@Autowired private RelatorioService relatorioService;
+	@Autowired private RelatorioCacheService relatorioCacheService;
+	@Autowired private JdbcTemplate jdbcTemplate;
+	@Autowired private ObjectMapper objectMapper;
+	@Autowired private MockMvc mockMvc;
+
+	private Cliente cliente;
+	private Restaurante restaurante;
+	private Produto produto;
+
+	@BeforeEach
+	void cadastrar() {
+		String sufixo = " [" + UUID.randomUUID() + "]";
+		cliente = new Cliente();
+		cliente.setNome("Cliente" + sufixo);
+		cliente.setAtivo(true);
+		clienteRepository.save(cliente);
+
+		restaurante = new Restaurante();
+		restaurante.setNome("Restaurante" + sufixo);
+		restaurante.setCategoria("Categoria" + sufixo);
+		restaurante.setAtivo(true);
+		restauranteRepository.save(restaurante);
+
+		produto = new Produto();
+		produto.setNome("Produto" + sufixo);
+		produto.setPreco(new BigDecimal("20.00"));
+		produto.setRestaurante(restaurante);
+		produto.setAtivo(true);
+		produtoRepository.save(produto);
+	}
+
+	@Test
+	void leiturasRepetidasNaoDevemConsultarOBanco() {
+		relatorioCacheService.invalidarTodos();
+		ContadorSql.zerar();
+		relatorioService.getRankingClientes();
+		relatorioService.getFaturamentoPorCategoria();
+		assertEquals(2, ContadorSql.getTotal());
+
+		ContadorSql.zerar();
+		for (int i = 0; i < 10; i++) {
+			relatorioService.getRankingClientes();
+			relatorioService.getFaturamentoPorCategoria();
+		}
+		assertEquals(0, ContadorSql.getTotal());
+	}
+
+	@Test
+	void falhasConcorrentesDevemFazerUmaSoConsulta() throws Exception {
+		relatorioCacheService.invalidarTodos();
+		long cargasAntes = estatistica("produtos-mais-vendidos").getCargas();
+		ContadorSql.zerar();
+
+		int leitores = 16;
+		CountDownLatch largada = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(leitores);
+		try {
+			List<Future<List<RelatorioProdutosMaisVendidos>>> leituras = new ArrayList<>();
+			for (int i = 0; i < leitores; i++) {
+				leituras.add(executor.submit(() -> {
+					largada.await();
+					return relatorioService.getProdutosMaisVendidos();
+				}));
+			}
+			largada.countDown();
+
+			List<RelatorioProdutosMaisVendidos> primeira = leituras.get(0).get();
+			for (Future<List<RelatorioProdutosMaisVendidos>> leitura : leituras) {
+				assertSame(primeira, leitura.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(1, ContadorSql.contarComPrefixo("select"));
+		assertEquals(cargasAntes + 1, estatistica("produtos-mais-vendidos").getCargas());
+	}
+
+	@Test
+	void entregaDeveInvalidarSoOsRelatoriosDeVendas() {
+		Pedido pedido = pedidoService.criarPedido(cliente.getId(), restaurante.getId(), Map.of(produto.getId(), 2));
+		assertNull(vendasDoRestaurante());
+		relatorioService.getRankingClientes();
+
+		pedidoService.atualizarStatus(pedido.getId(), "ENTREGUE");
+
+		ContadorSql.zerar();
+		assertValor("40.00", vendasDoRestaurante());
+		assertEquals(2L, vendidos());
+		relatorioService.getRankingClientes();
+		assertEquals(2, ContadorSql.getTotal());
+		ContadorSql.getComandos().forEach(sql -> assertTrue(sql.contains("vendas_"), sql));
+	}
+
+	@Test
+	void depoisDoTtlDeveEntregarOAnteriorERevalidarEmSegundoPlano() throws Exception {
+		Pedido pedido = pedidoService.criarPedido(cliente.getId(), restaurante.getId(), Map.of(produto.getId(), 1));
+		pedidoService.atualizarStatus(pedido.getId(), "ENTREGUE");
+		assertValor("20.00", vendasDoRestaurante());
+
+		// Alteração por fora do serviço: nada invalida o cache, só o TTL (300ms) a alcança
+		jdbcTemplate.update("UPDATE vendas_restaurante SET total_vendas = total_vendas + 5 WHERE restaurante_id = ?", restaurante.getId());
+		assertValor("20.00", vendasDoRestaurante());
+		Thread.sleep(400);
+
+		// Depois do TTL as leituras são acertos: recebem o valor guardado (ou o da revalidação, se
+		// ela já terminou) e nenhuma espera uma carga
+		long falhas = estatistica("vendas-por-restaurante").getFalhas();
+		BigDecimal atual = vendasDoRestaurante();
+		assertTrue(atual.compareTo(new BigDecimal("20.00")) == 0 || atual.compareTo(new BigDecimal("25.00")) == 0, String.valueOf(atual));
+		long limite = System.currentTimeMillis() + 5_000;
+		while (atual.compareTo(new BigDecimal("25.00")) != 0 && System.currentTimeMillis() < limite) {
+			Thread.sleep(20);
+			atual = vendasDoRestaurante();
+		}
+		assertEquals(falhas, estatistica("vendas-por-restaurante").getFalhas());
+		assertValor("25.00", atual);
+	}
+
+	@Test
+	void estatisticasDevemExporAcertosECargas() throws Exception {
+		mockMvc.perform(delete("/api/cache/relatorios"))
+				.andExpect(status().isNoContent());
+		EstatisticaRelatorioCacheDTO antes = estatistica("faturamento-por-categoria");
+		relatorioService.getFaturamentoPorCategoria();
+		relatorioService.getFaturamentoPorCategoria();
+		relatorioService.getFaturamentoPorCategoria();
+
+		EstatisticaRelatorioCacheDTO depois = estatistica("faturamento-por-categoria");
+		assertEquals(antes.getAcertos() + 2, depois.getAcertos());
+		assertEquals(antes.getFalhas() + 1, depois.getFalhas());
+		assertEquals(antes.getCargas() + 1, depois.getCargas());
+		assertTrue(depois.getInvalidacoes() > 0);
+		assertTrue(depois.getTaxaAcerto() > 0 && depois.getTaxaAcerto() < 1);
+		assertTrue(depois.getTempoMedioCargaMs() > 0);
+		// TTL configurado só para vendas por restaurante; os demais ficam com o padrão
+		assertEquals(0L, estatistica("vendas-por-restaurante").getTtlSegundos());
+		assertEquals(60L, estatistica("clientes-ativos").getTtlSegundos());
+	}
+
+	private EstatisticaRelatorioCacheDTO estatistica(String relatorio) throws Exception {
+		EstatisticaRelatorioCacheDTO[] estatisticas = objectMapper.readValue(mockMvc.perform(get("/api/cache/relatorios"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray(), EstatisticaRelatorioCacheDTO[].class);
+		assertEquals(4, estatisticas.length);
+		return List.of(estatisticas).stream()
+				.filter(e -> e.getRelatorio().equals(relatorio))
+				.findFirst().orElseThrow();
+	}
+
+	private BigDecimal vendasDoRestaurante() {
+		return relatorioService.getVendasPorRestaurante().stream()
+				.filter(linha -> linha.getRestauranteNome().equals(restaurante.getNome()))
+				.map(RelatorioVendasRestaurante::getTotalVendas)
+				.findFirst().orElse(null);
+	}
+
+	private Long vendidos() {
+		return relatorioService.getProdutosMaisVendidos().stream()
+				.filter(linha -> linha.getNomeProduto().equals(produto.getNome()))
+				.map(RelatorioProdutosMaisVendidos::getQuantidadeVendida)
+				.findFirst().orElse(null);
+	}
+
+	private static void assertValor(String esperado, BigDecimal valor) {
+		assertNotNull(valor);
+		assertEquals(0, valor.compareTo(new BigDecimal(esperado)), String.valueOf(valor));
+	}
+}
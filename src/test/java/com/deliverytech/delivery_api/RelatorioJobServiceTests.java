@@ -0,0 +1,273 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.dto.RelatorioJobDTO;
+import com.deliverytech.delivery_api.dto.RelatorioJobRequestDTO;
+import com.deliverytech.delivery_api.enums.StatusJob;
+import com.deliverytech.delivery_api.enums.TipoRelatorioJob;
+import com.deliverytech.delivery_api.exception.EntidadeNaoEncontradaException;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.service.RelatorioJobService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.*;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RelatorioJobServiceTests {
+
+	private static final LocalDateTime REFERENCIA = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+	@TempDir
+	Path diretorio;
+
+	@Test
+	void pedidosIguaisEmAndamentoDevemVirarUmJobSo() throws Exception {
+		CountDownLatch liberar = new CountDownLatch(1);
+		AtomicInteger execucoes = new AtomicInteger();
+		RelatorioJobService service = novoService((especificacao, saida) -> {
+			execucoes.incrementAndGet();
+			aguardar(liberar);
+			saida.write("ok".getBytes(StandardCharsets.UTF_8));
+		}, 2, 10, Duration.ofHours(1), Clock.systemDefaultZone());
+		try {
+			RelatorioJobDTO primeiro = service.submeter(pedido(TipoRelatorioJob.VENDAS_POR_PERIODO, 30));
+			// Campo que o tipo não usa não muda a especificação
+			RelatorioJobRequestDTO igual = pedido(TipoRelatorioJob.VENDAS_POR_PERIODO, 30);
+			igual.setRestauranteId(99L);
+			RelatorioJobDTO repetido = service.submeter(igual);
+			RelatorioJobDTO outro = service.submeter(pedido(TipoRelatorioJob.VENDAS_POR_PERIODO, 31));
+
+			assertEquals(primeiro.getId(), repetido.getId());
+			assertNotEquals(primeiro.getId(), outro.getId());
+			liberar.countDown();
+			assertEquals(StatusJob.CONCLUIDO, esperar(service, primeiro.getId()).getStatus());
+			assertEquals(StatusJob.CONCLUIDO, esperar(service, outro.getId()).getStatus());
+			assertEquals(2, execucoes.get());
+
+			// Terminado, o mesmo pedido gera um job novo
+			RelatorioJobDTO depois = service.submeter(pedido(TipoRelatorioJob.VENDAS_POR_PERIODO, 30));
+			assertNotEquals(primeiro.getId(), depois.getId());
+			esperar(service, depois.getId());
+			assertEquals(3, execucoes.get());
+		} finally {
+			service.encerrar();
+		}
+	}
+
+	@Test
+	void filaCheiaDeveRecusarNovosJobs() throws Exception {
+		CountDownLatch liberar = new CountDownLatch(1);
+		RelatorioJobService service = novoService((especificacao, saida) -> aguardar(liberar), 1, 1,
+				Duration.ofHours(1), Clock.systemDefaultZone());
+		try {
+			RelatorioJobDTO executando = service.submeter(pedido(TipoRelatorioJob.VENDAS_POR_PERIODO, 10));
+			RelatorioJobDTO naFila = service.submeter(pedido(TipoRelatorioJob.VENDAS_POR_PERIODO, 20));
+
+			assertThrows(RegraNegocioException.class, () -> service.submeter(pedido(TipoRelatorioJob.VENDAS_POR_PERIODO, 40)));
+			// Repetir um job aceito não ocupa lugar na fila
+			assertEquals(naFila.getId(), service.submeter(pedido(TipoRelatorioJob.VENDAS_POR_PERIODO, 20)).getId());
+			assertEquals(StatusJob.NA_FILA, service.buscar(naFila.getId()).getStatus());
+			assertThrows(RegraNegocioException.class, () -> service.buscarResultado(naFila.getId()));
+
+			liberar.countDown();
+			assertEquals(StatusJob.CONCLUIDO, esperar(service, executando.getId()).getStatus());
+			assertEquals(StatusJob.CONCLUIDO, esperar(service, naFila.getId()).getStatus());
+			service.submeter(pedido(TipoRelatorioJob.VENDAS_POR_PERIODO, 40));
+		} finally {
+			service.encerrar();
+		}
+	}
+
+	@Test
+	void resultadoDeveFicarCompactadoEmDiscoAteARetencao() throws Exception {
+		RelogioAjustavel relogio = new RelogioAjustavel();
+		String conteudo = "{\"linha\":\"" + "x".repeat(10_000) + "\"}";
+		RelatorioJobService service = novoService((especificacao, saida) -> saida.write(conteudo.getBytes(StandardCharsets.UTF_8)),
+				1, 10, Duration.ofHours(2), relogio);
+		try {
+			RelatorioJobDTO job = esperar(service, service.submeter(pedido(TipoRelatorioJob.SERIE_TEMPORAL, 7)).getId());
+
+			assertEquals(StatusJob.CONCLUIDO, job.getStatus());
+			assertEquals(job.getConcluidoEm().plusHours(2), job.getExpiraEm());
+			Path resultado = service.buscarResultado(job.getId());
+			assertEquals(Files.size(resultado), job.getTamanhoBytes());
+			assertTrue(job.getTamanhoBytes() < conteudo.length() / 10);
+			assertEquals(conteudo, descompactar(resultado));
+			assertEquals(List.of(job.getId() + ".gz", job.getId() + ".json"), arquivos());
+
+			relogio.avancar(Duration.ofHours(2));
+			assertEquals(1, service.descartarExpirados());
+			assertThrows(EntidadeNaoEncontradaException.class, () -> service.buscar(job.getId()));
+			assertEquals(List.of(), arquivos());
+		} finally {
+			service.encerrar();
+		}
+	}
+
+	@Test
+	void jobsConcluidosDevemSobreviverAoReinicio() throws Exception {
+		RelatorioJobService antes = novoService((especificacao, saida) -> saida.write("resultado".getBytes(StandardCharsets.UTF_8)),
+				1, 10, Duration.ofHours(1), Clock.systemDefaultZone());
+		RelatorioJobDTO job;
+		try {
+			job = esperar(antes, antes.submeter(pedido(TipoRelatorioJob.PEDIDOS_POR_PERIODO, 3)).getId());
+		} finally {
+			antes.encerrar();
+		}
+		// Restos de jobs interrompidos no meio
+		Files.writeString(diretorio.resolve("interrompido.gz.tmp"), "parcial");
+		Files.writeString(diretorio.resolve("sem-dados.gz"), "parcial");
+
+		RelatorioJobService depois = novoService((especificacao, saida) -> fail("não deveria executar"),
+				1, 10, Duration.ofHours(1), Clock.systemDefaultZone());
+		try {
+			depois.carregarAoIniciar();
+
+			RelatorioJobDTO recuperado = depois.buscar(job.getId());
+			assertEquals(StatusJob.CONCLUIDO, recuperado.getStatus());
+			assertEquals(job.getEspecificacao(), recuperado.getEspecificacao());
+			assertEquals("resultado", descompactar(depois.buscarResultado(job.getId())));
+			assertEquals(List.of(job.getId() + ".gz", job.getId() + ".json"), arquivos());
+		} finally {
+			depois.encerrar();
+		}
+	}
+
+	@Test
+	void jobComDadosIlegiveisNaoDeveImpedirASubida() throws Exception {
+		RelatorioJobService antes = novoService((especificacao, saida) -> saida.write("resultado".getBytes(StandardCharsets.UTF_8)),
+				1, 10, Duration.ofHours(1), Clock.systemDefaultZone());
+		RelatorioJobDTO job;
+		try {
+			job = esperar(antes, antes.submeter(pedido(TipoRelatorioJob.PEDIDOS_POR_PERIODO, 3)).getId());
+		} finally {
+			antes.encerrar();
+		}
+		// Dados truncados, JSON de outro formato e dados com o id de outro job
+		Files.writeString(diretorio.resolve("truncado.json"), "{\"id\": \"trunc");
+		Files.writeString(diretorio.resolve("truncado.gz"), "parcial");
+		Files.writeString(diretorio.resolve("lista.json"), "[1, 2]");
+		Files.copy(diretorio.resolve(job.getId() + ".json"), diretorio.resolve("copia.json"));
+		Files.writeString(diretorio.resolve("copia.gz"), "parcial");
+
+		RelatorioJobService depois = novoService((especificacao, saida) -> fail("não deveria executar"),
+				1, 10, Duration.ofHours(1), Clock.systemDefaultZone());
+		try {
+			depois.carregarAoIniciar();
+
+			assertEquals(StatusJob.CONCLUIDO, depois.buscar(job.getId()).getStatus());
+			assertThrows(EntidadeNaoEncontradaException.class, () -> depois.buscar("truncado"));
+			assertThrows(EntidadeNaoEncontradaException.class, () -> depois.buscar("copia"));
+			assertEquals(List.of(job.getId() + ".gz", job.getId() + ".json"), arquivos());
+		} finally {
+			depois.encerrar();
+		}
+	}
+
+	@Test
+	void falhaEValidacoes() throws Exception {
+		RelatorioJobService service = novoService((especificacao, saida) -> {
+			saida.write("meio relatório".getBytes(StandardCharsets.UTF_8));
+			throw new RegraNegocioException("Intervalo grande demais");
+		}, 1, 10, Duration.ofHours(1), Clock.systemDefaultZone());
+		try {
+			RelatorioJobDTO job = esperar(service, service.submeter(pedido(TipoRelatorioJob.SERIE_TEMPORAL, 5)).getId());
+
+			assertEquals(StatusJob.FALHOU, job.getStatus());
+			assertEquals("Intervalo grande demais", job.getErro());
+			assertThrows(RegraNegocioException.class, () -> service.buscarResultado(job.getId()));
+			assertEquals(List.of(), arquivos());
+
+			assertThrows(RegraNegocioException.class, () -> service.submeter(pedido(null, 5)));
+			RelatorioJobRequestDTO invertido = pedido(TipoRelatorioJob.VENDAS_POR_PERIODO, 5);
+			invertido.setFim(invertido.getInicio());
+			assertThrows(RegraNegocioException.class, () -> service.submeter(invertido));
+			assertThrows(EntidadeNaoEncontradaException.class, () -> service.buscar("inexistente"));
+		} finally {
+			service.encerrar();
+		}
+	}
+
+	// =================== AUXILIARES ===================
+
+	private RelatorioJobService novoService(RelatorioJobService.Gerador gerador, int threads, int fila, Duration retencao, Clock clock) {
+		return new RelatorioJobService(gerador, objectMapper, diretorio, threads, fila, retencao, clock);
+	}
+
+	private static RelatorioJobRequestDTO pedido(TipoRelatorioJob tipo, int dias) {
+		RelatorioJobRequestDTO pedido = new RelatorioJobRequestDTO();
+		pedido.setTipo(tipo);
+		pedido.setInicio(REFERENCIA.minusDays(dias));
+		pedido.setFim(REFERENCIA);
+		return pedido;
+	}
+
+	private static RelatorioJobDTO esperar(RelatorioJobService service, String id) throws InterruptedException {
+		long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		RelatorioJobDTO job = service.buscar(id);
+		while (!job.getStatus().isFinal()) {
+			assertTrue(System.nanoTime() < limite, "job não terminou: " + job);
+			Thread.sleep(10);
+			job = service.buscar(id);
+		}
+		return job;
+	}
+
+	private static void aguardar(CountDownLatch liberar) {
+		try {
+			assertTrue(liberar.await(10, TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static String descompactar(Path arquivo) throws IOException {
+		try (InputStream entrada = new GZIPInputStream(Files.newInputStream(arquivo))) {
+			return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private List<String> arquivos() throws IOException {
+		try (Stream<Path> arquivos = Files.list(diretorio)) {
+			return arquivos.map(arquivo -> arquivo.getFileName().toString()).sorted().toList();
+		}
+	}
+
+	private static class RelogioAjustavel extends Clock {
+		private volatile Instant agora = Instant.parse("2026-03-01T12:00:00Z");
+
+		void avancar(Duration duracao) {
+			agora = agora.plus(duracao);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return agora;
+		}
+	}
+}
@@ -0,0 +1,160 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:relatorio-jobs;DB_CLOSE_DELAY=-1",
+		"delivery.relatorios.jobs.diretorio=${java.io.tmpdir}/relatorio-jobs-${random.uuid}"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RelatorioJobTests {
+
+	private static final int PEDIDOS = 2_000;
+	private static final LocalDateTime REFERENCIA = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+	@Autowired private ClienteRepository clienteRepository;
+	@Autowired private RestauranteRepository restauranteRepository;
+	@Autowired private JdbcTemplate jdbcTemplate;
+	@Autowired private ObjectMapper objectMapper;
+	@Autowired private MockMvc mockMvc;
+
+	@BeforeAll
+	void cadastrarHistorico() {
+		Cliente cliente = new Cliente();
+		cliente.setNome("Cliente Jobs [" + UUID.randomUUID() + "]");
+		cliente.setAtivo(true);
+		clienteRepository.save(cliente);
+		Restaurante[] restaurantes = new Restaurante[2];
+		for (int i = 0; i < restaurantes.length; i++) {
+			restaurantes[i] = new Restaurante();
+			restaurantes[i].setNome("Restaurante Jobs [" + UUID.randomUUID() + "]");
+			restaurantes[i].setCategoria("Lanches");
+			restaurantes[i].setAtivo(true);
+			restauranteRepository.save(restaurantes[i]);
+		}
+		// Um pedido a cada hora, para trás a partir da referência
+		jdbcTemplate.update("INSERT INTO pedidos (id, cliente_id, restaurante_id, data_pedido, total, status) " +
+						"SELECT 8000000 + X, ?, CASE MOD(X, 2) WHEN 0 THEN ? ELSE ? END, DATEADD('HOUR', -X, CAST(? AS TIMESTAMP)), " +
+						"20.00 + MOD(X, 9), ARRAY['ENTREGUE', 'CANCELADO'][MOD(X, 2) + 1] FROM SYSTEM_RANGE(1, ?)",
+				cliente.getId(), restaurantes[0].getId(), restaurantes[1].getId(), Timestamp.valueOf(REFERENCIA), PEDIDOS);
+	}
+
+	@Test
+	void jobDeVendasDeveEntregarOMesmoRelatorioDoEndpointSincrono() throws Exception {
+		LocalDateTime inicio = REFERENCIA.minusDays(60);
+		String id = submeter("{\"tipo\":\"VENDAS_POR_PERIODO\",\"inicio\":\"" + inicio + "\",\"fim\":\"" + REFERENCIA + "\"}");
+		assertEquals("CONCLUIDO", esperar(id).get("status").asText());
+
+		MockHttpServletResponse resposta = mockMvc.perform(get("/api/relatorios/jobs/{id}/resultado", id))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Content-Encoding", "gzip"))
+				.andReturn().getResponse();
+		assertEquals(MediaType.APPLICATION_JSON_VALUE, resposta.getContentType());
+		JsonNode resultado = objectMapper.readTree(descompactar(resposta.getContentAsByteArray()));
+
+		JsonNode sincrono = objectMapper.readTree(mockMvc.perform(get("/api/relatorios/vendas-por-periodo")
+						.param("inicio", inicio.toString())
+						.param("fim", REFERENCIA.toString()))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+		assertEquals(2, resultado.get("restaurantes").size());
+		assertEquals(sincrono.get("restaurantes"), resultado.get("restaurantes"));
+	}
+
+	@Test
+	void jobDePedidosDeveGerarUmaLinhaPorPedido() throws Exception {
+		LocalDateTime inicio = REFERENCIA.minusDays(30);
+		String id = submeter("{\"tipo\":\"PEDIDOS_POR_PERIODO\",\"inicio\":\"" + inicio + "\",\"fim\":\"" + REFERENCIA + "\"}");
+		JsonNode job = esperar(id);
+		assertEquals("CONCLUIDO", job.get("status").asText());
+
+		MockHttpServletResponse resposta = mockMvc.perform(get("/api/relatorios/jobs/{id}/resultado", id))
+				.andExpect(status().isOk())
+				.andReturn().getResponse();
+		assertEquals(job.get("tamanhoBytes").asLong(), resposta.getContentAsByteArray().length);
+		String[] linhas = descompactar(resposta.getContentAsByteArray()).split("\n");
+
+		Long esperado = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pedidos WHERE data_pedido BETWEEN ? AND ?", Long.class,
+				Timestamp.valueOf(inicio), Timestamp.valueOf(REFERENCIA));
+		assertEquals(esperado, (long) linhas.length);
+		assertTrue(objectMapper.readTree(linhas[0]).has("restauranteNome"));
+	}
+
+	@Test
+	void jobDeSerieComFalhaDeveTrazerOErro() throws Exception {
+		// Mais pontos por hora do que a série aceita: a validação acontece na execução
+		String id = submeter("{\"tipo\":\"SERIE_TEMPORAL\",\"granularidade\":\"HORA\",\"inicio\":\"2000-01-01T00:00:00\",\"fim\":\""
+				+ REFERENCIA + "\"}");
+		JsonNode job = esperar(id);
+
+		assertEquals("FALHOU", job.get("status").asText());
+		assertFalse(job.get("erro").asText().isBlank());
+	}
+
+	// =================== AUXILIARES ===================
+
+	private String submeter(String corpo) throws Exception {
+		MockHttpServletResponse resposta = mockMvc.perform(post("/api/relatorios/jobs")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(corpo))
+				.andExpect(status().isAccepted())
+				.andReturn().getResponse();
+		String id = objectMapper.readTree(resposta.getContentAsString()).get("id").asText();
+		assertEquals("/api/relatorios/jobs/" + id, resposta.getHeader("Location"));
+		return id;
+	}
+
+	private JsonNode esperar(String id) throws Exception {
+		long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		while (true) {
+			JsonNode job = objectMapper.readTree(mockMvc.perform(get("/api/relatorios/jobs/{id}", id))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString());
+			String situacao = job.get("status").asText();
+			if (situacao.equals("CONCLUIDO") || situacao.equals("FALHOU")) {
+				return job;
+			}
+			assertTrue(System.nanoTime() < limite, "job não terminou: " + job);
+			Thread.sleep(20);
+		}
+	}
+
+	private static String descompactar(byte[] conteudo) throws Exception {
+		try (InputStream entrada = new GZIPInputStream(new ByteArrayInputStream(conteudo))) {
+			return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.dto.PedidoResponseDTO;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.PedidoRepository;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.service.PedidoService;
+import com.deliverytech.delivery_api.service.RelatorioCacheService;
+import com.deliverytech.delivery_api.service.RelatorioService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@Transactional
+@SpringBootTest(properties =
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector=com.deliverytech.delivery_api.ContadorSql")
+class RelatorioServiceQueryCountTests {
+
+	@Autowired private ClienteRepository clienteRepository;
+	@Autowired private RestauranteRepository restauranteRepository;
+	@Autowired private ProdutoRepository produtoRepository;
+	@Autowired private PedidoRepository pedidoRepository;
+	@Autowired private PedidoService pedidoService;
+	@Autowired private RelatorioService relatorioService;
+	@Autowired private RelatorioCacheService relatorioCacheService;
+	@Autowired private EntityManager entityManager;
+
+	private LocalDateTime inicio;
+
+	// Cinco pedidos de clientes e restaurantes distintos: com associações EAGER,
+	// cada um deles custaria SELECTs secundários
+	@BeforeEach
+	void criarPedidos() {
+		inicio = LocalDateTime.now().minusMinutes(1);
+		for (int i = 0; i < 5; i++) {
+			Cliente cliente = new Cliente();
+			cliente.setNome("Cliente Relatório " + i);
+			cliente.setAtivo(true);
+			clienteRepository.save(cliente);
+
+			Restaurante restaurante = new Restaurante();
+			restaurante.setNome("Restaurante Relatório " + i);
+			restaurante.setCategoria("Categoria " + i);
+			restaurante.setAtivo(true);
+			restauranteRepository.save(restaurante);
+
+			Produto produto = new Produto();
+			produto.setNome("Produto Relatório " + i);
+			produto.setPreco(new BigDecimal("15.00"));
+			produto.setRestaurante(restaurante);
+			produto.setAtivo(true);
+			produtoRepository.save(produto);
+
+			Pedido pedido = pedidoService.criarPedido(cliente.getId(), restaurante.getId(), Map.of(produto.getId(), 2));
+			// Pelo serviço, para que os agregados de vendas recebam o pedido
+			pedidoService.atualizarStatus(pedido.getId(), "ENTREGUE");
+		}
+	}
+
+	@Test
+	void agregacoesDevemExecutarUmUnicoSelect() {
+		// Cache vazio: a primeira leitura de cada relatório vai ao banco
+		relatorioCacheService.invalidarTodos();
+		assertEquals(1, comandos(() -> relatorioService.getVendasPorRestaurante()));
+		assertEquals(1, comandos(() -> relatorioService.getProdutosMaisVendidos()));
+		assertEquals(1, comandos(() -> relatorioService.getRankingClientes()));
+		assertEquals(1, comandos(() -> relatorioService.getFaturamentoPorCategoria()));
+	}
+
+	@Test
+	void pedidosPorPeriodoDevemVirDoGrafoCompletoEmUmSelect() {
+		int[] total = new int[1];
+		assertEquals(1, comandos(() -> {
+			List<PedidoResponseDTO> pedidos = relatorioService.getPedidosPorPeriodo(inicio, LocalDateTime.now().plusMinutes(1))
+					.stream().map(PedidoResponseDTO::de).toList();
+			pedidos.forEach(p -> assertEquals(1, p.getItens().size()));
+			total[0] = pedidos.size();
+			return pedidos;
+		}));
+		assertTrue(total[0] >= 5);
+	}
+
+	@Test
+	void consultasDeRelatorioDoRepositorioNaoDevemDispararSelectsSecundarios() {
+		// Grafo de cabeçalho: cliente e restaurante vêm no mesmo SELECT
+		assertEquals(1, comandos(() -> nomes(pedidoRepository.findByStatus("ENTREGUE"))));
+		assertEquals(1, comandos(() -> nomes(pedidoRepository.findPedidosComValorAcimaDe(BigDecimal.ZERO))));
+		assertEquals(1, comandos(() -> nomes(pedidoRepository.findRelatorioPorPeriodoEStatus(
+				inicio, LocalDateTime.now().plusMinutes(1), "ENTREGUE"))));
+	}
+
+	private List<String> nomes(List<Pedido> pedidos) {
+		assertFalse(pedidos.isEmpty());
+		return pedidos.stream()
+				.map(p -> p.getCliente().getNome() + " @ " + p.getRestaurante().getNome())
+				.toList();
+	}
+
+	// Executa a consulta com o contexto de persistência vazio e devolve o nº de comandos SQL
+	private int comandos(Supplier<?> consulta) {
+		entityManager.flush();
+		entityManager.clear();
+		ContadorSql.zerar();
+		consulta.get();
+		return ContadorSql.getTotal();
+	}
+}
@@ -0,0 +1,124 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.service.ProdutoService;
+import com.deliverytech.delivery_api.service.RestauranteService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:restaurante-listagem;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector=com.deliverytech.delivery_api.ContadorSql"
+})
+@AutoConfigureMockMvc
+class RestauranteListagemTests {
+
+	@Autowired private RestauranteService restauranteService;
+	@Autowired private ProdutoService produtoService;
+	@Autowired private ObjectMapper objectMapper;
+	@Autowired private MockMvc mockMvc;
+
+	// Cada teste usa uma categoria própria, para não enxergar os restaurantes dos outros
+	private String categoria;
+	private List<Restaurante> restaurantes;
+
+	@BeforeEach
+	void cadastrarRestaurantes() {
+		categoria = "Categoria " + UUID.randomUUID();
+		restaurantes = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			Restaurante novo = new Restaurante();
+			novo.setNome("Restaurante " + i + " [" + UUID.randomUUID() + "]");
+			novo.setCategoria(categoria);
+			novo.setTaxaEntrega(new BigDecimal("4.50"));
+			Restaurante salvo = restauranteService.cadastrar(novo);
+			restaurantes.add(salvo);
+
+			for (int p = 0; p < 2; p++) {
+				Produto produto = new Produto();
+				produto.setNome("Produto " + p);
+				produto.setPreco(new BigDecimal("10.00"));
+				produtoService.cadastrar(salvo.getId(), produto);
+			}
+		}
+	}
+
+	@Test
+	void listagemPadraoDeveTrazerResumosPaginadosSemProdutos() throws Exception {
+		ContadorSql.zerar();
+		JsonNode primeira = listar(get("/api/restaurantes").param("categoria", categoria).param("limite", "2"));
+		assertEquals(1, ContadorSql.getSelects());
+
+		assertEquals(2, primeira.get("itens").size());
+		JsonNode item = primeira.get("itens").get(0);
+		assertEquals(restaurantes.get(0).getId(), item.get("id").asLong());
+		assertEquals(categoria, item.get("categoria").asText());
+		assertEquals(4.5, item.get("taxaEntrega").asDouble());
+		assertFalse(item.has("produtos"));
+		assertFalse(item.has("cnpj"));
+
+		JsonNode segunda = listar(get("/api/restaurantes").param("categoria", categoria).param("limite", "2")
+				.param("cursor", primeira.get("nextCursor").asText()));
+		assertEquals(1, segunda.get("itens").size());
+		assertEquals(restaurantes.get(2).getId(), segunda.get("itens").get(0).get("id").asLong());
+		assertTrue(segunda.get("nextCursor").isNull());
+	}
+
+	@Test
+	void includeProdutosDeveTrazerOCardapioEmUmaSegundaConsulta() throws Exception {
+		ContadorSql.zerar();
+		JsonNode pagina = listar(get("/api/restaurantes").param("categoria", categoria).param("include", "produtos"));
+		assertEquals(2, ContadorSql.getSelects());
+
+		assertEquals(3, pagina.get("itens").size());
+		for (int i = 0; i < 3; i++) {
+			JsonNode item = pagina.get("itens").get(i);
+			assertEquals(restaurantes.get(i).getId(), item.get("id").asLong());
+			assertEquals(2, item.get("produtos").size());
+		}
+		assertTrue(pagina.get("nextCursor").isNull());
+	}
+
+	@Test
+	void listagemPorCategoriaDeveTrazerResumos() throws Exception {
+		JsonNode lista = objectMapper.readTree(mockMvc.perform(get("/api/restaurantes/categoria/" + categoria))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray());
+
+		assertEquals(3, lista.size());
+		assertFalse(lista.get(0).has("produtos"));
+	}
+
+	@Test
+	void limiteECursorInvalidosDevemSerRejeitados() {
+		assertThrows(RegraNegocioException.class, () -> restauranteService.listarComFiltros(categoria, null, null, 0));
+		assertThrows(RegraNegocioException.class, () -> restauranteService.listarComFiltros(categoria, null, null, 101));
+		assertThrows(RegraNegocioException.class, () -> restauranteService.listarComProdutos(categoria, null, "@@", 10));
+	}
+
+	private JsonNode listar(MockHttpServletRequestBuilder requisicao) throws Exception {
+		return objectMapper.readTree(mockMvc.perform(requisicao)
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray());
+	}
+}
@@ -0,0 +1,114 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.service.ResumoCardinalidade;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumoCardinalidadeTests {
+
+	@Test
+	void estimativaDeveFicarDentroDoErroPadrao() {
+		for (int distintos : new int[]{1_000, 20_000, 200_000}) {
+			ResumoCardinalidade resumo = new ResumoCardinalidade();
+			// Cada ID registrado três vezes: repetições não mudam a estimativa
+			for (int repeticao = 0; repeticao < 3; repeticao++) {
+				for (long id = 1; id <= distintos; id++) {
+					resumo.registrarId(id);
+				}
+			}
+			assertRelativo(distintos, resumo.estimar());
+		}
+	}
+
+	@Test
+	void pequenasQuantidadesDevemSerPraticamenteExatas() {
+		ResumoCardinalidade resumo = new ResumoCardinalidade();
+		assertEquals(0, resumo.estimar());
+		for (long id = 1; id <= 50; id++) {
+			resumo.registrarId(id * 7_919);
+		}
+		assertTrue(Math.abs(resumo.estimar() - 50) <= 1, String.valueOf(resumo.estimar()));
+	}
+
+	@Test
+	void uniaoDeveContarUmaVezQuemEstaEmMaisDeUmResumo() {
+		// 30 mil IDs em comum, 20 mil só no primeiro e 10 mil só no segundo
+		ResumoCardinalidade primeiro = new ResumoCardinalidade();
+		ResumoCardinalidade segundo = new ResumoCardinalidade();
+		for (long id = 1; id <= 50_000; id++) {
+			primeiro.registrarId(id);
+		}
+		for (long id = 20_001; id <= 60_000; id++) {
+			segundo.registrarId(id);
+		}
+
+		byte[] uniao = new byte[ResumoCardinalidade.REGISTROS];
+		primeiro.mesclarEm(uniao);
+		segundo.mesclarEm(uniao);
+		assertRelativo(60_000, ResumoCardinalidade.estimar(uniao));
+	}
+
+	@Test
+	void representacaoEsparsaEDensaDevemGuardarOsMesmosRegistradores() {
+		ResumoCardinalidade resumo = new ResumoCardinalidade();
+		byte[] esperado = new byte[ResumoCardinalidade.REGISTROS];
+		// Passa da esparsa para a densa no meio do caminho
+		for (long id = 1; id <= 5_000; id++) {
+			long hash = ResumoCardinalidade.hash(id);
+			int registro = ResumoCardinalidade.registro(hash);
+			int valor = ResumoCardinalidade.valor(hash);
+			assertEquals(valor > esperado[registro], resumo.elevar(registro, valor));
+			esperado[registro] = (byte) Math.max(esperado[registro], valor);
+			if (id % 500 == 0) {
+				byte[] atual = new byte[ResumoCardinalidade.REGISTROS];
+				resumo.mesclarEm(atual);
+				assertArrayEquals(esperado, atual, "id " + id);
+			}
+		}
+		for (int registro = 0; registro < ResumoCardinalidade.REGISTROS; registro++) {
+			assertEquals(esperado[registro], resumo.valorDe(registro));
+		}
+	}
+
+	@Test
+	void formaSerializadaDeveGuardarOsMesmosRegistradores() {
+		ResumoCardinalidade resumo = new ResumoCardinalidade();
+		assertArrayEquals(new byte[]{0}, resumo.serializar());
+		for (long id = 1; id <= 5_000; id++) {
+			resumo.registrarId(id);
+			if (id == 50 || id == 5_000) {
+				byte[] dados = resumo.serializar();
+				// Esparsa com poucos clientes, densa depois
+				assertTrue(id == 50 ? dados.length <= 1 + 3 * 50 : dados.length == 1 + ResumoCardinalidade.REGISTROS);
+				byte[] esperado = new byte[ResumoCardinalidade.REGISTROS];
+				resumo.mesclarEm(esperado);
+				byte[] lido = new byte[ResumoCardinalidade.REGISTROS];
+				ResumoCardinalidade.ler(dados).mesclarEm(lido);
+				assertArrayEquals(esperado, lido, "id " + id);
+			}
+		}
+		assertThrows(IllegalArgumentException.class, () -> ResumoCardinalidade.ler(new byte[]{0, 1}));
+	}
+
+	@Test
+	void mesclarDeveFicarComOMaiorDeCadaRegistrador() {
+		ResumoCardinalidade primeiro = new ResumoCardinalidade();
+		ResumoCardinalidade segundo = new ResumoCardinalidade();
+		primeiro.elevar(7, 3);
+		primeiro.elevar(9, 5);
+		segundo.elevar(7, 4);
+		segundo.elevar(9, 2);
+
+		assertTrue(primeiro.mesclar(segundo));
+		assertEquals(4, primeiro.valorDe(7));
+		assertEquals(5, primeiro.valorDe(9));
+		assertFalse(primeiro.mesclar(segundo));
+	}
+
+	// Quatro erros padrão: a chance de um falso alarme é desprezível
+	private static void assertRelativo(long esperado, long estimado) {
+		double erro = Math.abs(estimado - esperado) / (double) esperado;
+		assertTrue(erro <= 4 * ResumoCardinalidade.ERRO_PADRAO, esperado + " ~ " + estimado);
+	}
+}
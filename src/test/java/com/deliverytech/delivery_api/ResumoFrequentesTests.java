@@ -0,0 +1,88 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.service.JanelaFrequentes;
+import com.deliverytech.delivery_api.service.ResumoFrequentes;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumoFrequentesTests {
+
+	@Test
+	void estimativasDevemRespeitarOsLimitesDeErro() {
+		int capacidade = 100;
+		JanelaFrequentes janela = new JanelaFrequentes(capacidade);
+		Map<Long, Long> reais = new HashMap<>();
+		Random random = new Random(42);
+
+		// 10 produtos campeões no meio de 20 mil pedidos de 5 mil produtos raros, espalhados por 10 minutos
+		for (int i = 0; i < 20_000; i++) {
+			boolean campeao = random.nextInt(4) == 0;
+			Long id = campeao ? (long) random.nextInt(10) : 1_000L + random.nextInt(5_000);
+			long peso = 1 + random.nextInt(3);
+			janela.registrar(i % 10, id, peso);
+			reais.merge(id, peso, Long::sum);
+		}
+
+		ResumoFrequentes.Top top = janela.top(9, 10, capacidade);
+		long total = reais.values().stream().mapToLong(Long::longValue).sum();
+		assertEquals(total, top.total());
+		assertTrue(top.erroMaximo() <= total / capacidade, top.erroMaximo() + " > " + total / capacidade);
+
+		Set<Long> listados = new HashSet<>();
+		for (ResumoFrequentes.Estimativa estimativa : top.itens()) {
+			long real = reais.getOrDefault(estimativa.id(), 0L);
+			assertTrue(estimativa.minima() <= real && real <= estimativa.contagem(), estimativa + " real=" + real);
+			assertTrue(estimativa.erro() <= top.erroMaximo());
+			listados.add(estimativa.id());
+		}
+		// Quem passa do erro máximo está no resumo de algum minuto; os campeões passam com folga
+		for (long id = 0; id < 10; id++) {
+			assertTrue(reais.get(id) > top.erroMaximo() && listados.contains(id), id + " real=" + reais.get(id));
+		}
+
+		// Os 10 campeões lideram, com a posição garantida
+		List<ResumoFrequentes.Estimativa> primeiros = janela.top(9, 10, 10).itens();
+		assertEquals(10, primeiros.size());
+		for (ResumoFrequentes.Estimativa estimativa : primeiros) {
+			assertTrue(estimativa.id() < 10, estimativa.toString());
+			assertTrue(janela.top(9, 10, 10).garantido(estimativa), estimativa.toString());
+		}
+	}
+
+	@Test
+	void memoriaDeveFicarLimitadaACapacidade() {
+		ResumoFrequentes resumo = new ResumoFrequentes(8);
+		for (long id = 0; id < 10_000; id++) {
+			resumo.registrar(id, 1);
+		}
+		assertEquals(8, resumo.tamanho());
+		assertEquals(10_000, resumo.total());
+		assertTrue(resumo.minimo() <= 10_000 / 8);
+	}
+
+	@Test
+	void janelaDeveDeslizarMinutoAMinuto() {
+		JanelaFrequentes janela = new JanelaFrequentes(10);
+		janela.registrar(0, 1L, 100);
+		janela.registrar(30, 2L, 50);
+
+		assertEquals(List.of(2L), ids(janela.top(30, 15, 10)));
+		assertEquals(List.of(1L, 2L), ids(janela.top(30, 31, 10)));
+		assertEquals(List.of(2L), ids(janela.top(70, 60, 10)));
+
+		// O minuto 60 ocupa a posição do minuto 0 no anel
+		janela.registrar(60, 3L, 10);
+		assertEquals(List.of(2L, 3L), ids(janela.top(60, 60, 10)));
+		assertEquals(60, janela.top(60, 60, 10).total());
+
+		assertFalse(janela.vazia(119));
+		assertTrue(janela.vazia(120));
+	}
+
+	private static List<Long> ids(ResumoFrequentes.Top top) {
+		return top.itens().stream().map(ResumoFrequentes.Estimativa::id).toList();
+	}
+}
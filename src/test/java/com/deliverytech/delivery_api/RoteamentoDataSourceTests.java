@@ -0,0 +1,191 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.config.DataSourceRoteado;
+import com.deliverytech.delivery_api.config.LeituraAposEscrita;
+import com.deliverytech.delivery_api.config.LeituraNoPrimario;
+import com.deliverytech.delivery_api.config.ReplicaH2Local;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.service.RestauranteService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Réplica alimentada só quando o teste pede (intervalo zero): até lá ela fica atrasada
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:roteamento-primario;DB_CLOSE_DELAY=-1",
+		"delivery.datasource.replica.url=jdbc:h2:mem:roteamento-replica",
+		"delivery.datasource.replica.username=leitura",
+		"delivery.datasource.replica.password=leitura",
+		"delivery.datasource.replica.copiar-do-primario=true",
+		"delivery.datasource.replica.janela-leitura-propria=PT1M"
+})
+@AutoConfigureMockMvc
+class RoteamentoDataSourceTests {
+
+	@Autowired private RestauranteService restauranteService;
+	@Autowired private ClienteRepository clienteRepository;
+	@Autowired private Cadastros cadastros;
+	@Autowired private ReplicaH2Local replicaH2Local;
+	@Autowired private DataSourceRoteado dataSourceRoteado;
+	@Autowired private LeituraAposEscrita leituraAposEscrita;
+	@Autowired private JdbcTemplate jdbcTemplate;
+	@Autowired private PlatformTransactionManager transactionManager;
+	@Autowired private ObjectMapper objectMapper;
+	@Autowired private MockMvc mockMvc;
+
+	@Test
+	void leiturasDevemIrParaAReplicaAteACopia() {
+		long leiturasNaReplica = dataSourceRoteado.conexoesLeitura(DataSourceRoteado.Destino.REPLICA);
+		String categoria = cadastrar();
+
+		// A escrita foi para o primário; a leitura (transação readOnly) vai para a réplica
+		assertEquals(0, listar(categoria));
+		assertTrue(dataSourceRoteado.conexoesLeitura(DataSourceRoteado.Destino.REPLICA) > leiturasNaReplica);
+
+		// O resultado vazio da réplica não ficou no cache de consultas
+		replicaH2Local.sincronizar();
+		assertEquals(1, listar(categoria));
+	}
+
+	@Test
+	void soTransacoesSomenteLeituraDaAplicacaoDevemIrParaAReplica() {
+		Cliente cliente = cadastros.novoCliente();
+		TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+		leitura.setReadOnly(true);
+
+		// Sem transação, métodos herdados (transação readOnly do Spring Data) e consultas declaradas vão ao primário
+		assertTrue(clienteRepository.findById(cliente.getId()).isPresent());
+		assertTrue(clienteRepository.existsById(cliente.getId()));
+		assertEquals(1, clienteRepository.findByNomeContainingIgnoreCase(cliente.getNome()).size());
+
+		// Na transação readOnly da aplicação, os dois vão à réplica, que ainda não tem o cliente
+		List<Cliente> naReplica = leitura.execute(status -> clienteRepository.findByNomeContainingIgnoreCase(cliente.getNome()));
+		assertTrue(naReplica.isEmpty());
+		assertNull(leitura.execute(status -> clienteRepository.findById(cliente.getId()).orElse(null)));
+	}
+
+	@Test
+	void leituraNoPrimarioNaoDeveUsarAReplica() {
+		String categoria = cadastrar();
+
+		assertEquals(0, listar(categoria));
+		assertEquals(1, LeituraNoPrimario.executar(() -> listar(categoria)));
+		assertEquals(0, listar(categoria));
+	}
+
+	@Test
+	void sessaoQueEscreveuDeveLerDoPrimarioDuranteAJanela() throws Exception {
+		String categoria = cadastrar();
+		String sessao = UUID.randomUUID().toString();
+		String outraSessao = UUID.randomUUID().toString();
+
+		// Antes de escrever, a sessão também lê da réplica
+		assertEquals(0, leituraAposEscrita.executarNaSessao(sessao, () -> listar(categoria)));
+
+		String outraCategoria = "Roteamento " + UUID.randomUUID();
+		mockMvc.perform(post("/api/restaurantes")
+						.header(LeituraAposEscrita.CABECALHO, sessao)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"nome\":\"Restaurante " + UUID.randomUUID() + "\",\"categoria\":\"" + outraCategoria + "\",\"taxaEntrega\":5.00}"))
+				.andExpect(status().isCreated());
+
+		// Outras sessões (e quem não manda o cabeçalho) continuam na réplica
+		assertEquals(0, contar(get("/api/restaurantes").param("categoria", outraCategoria).header(LeituraAposEscrita.CABECALHO, outraSessao)));
+		assertEquals(0, contar(get("/api/restaurantes").param("categoria", outraCategoria)));
+		assertEquals(1, contar(get("/api/restaurantes").param("categoria", outraCategoria).header(LeituraAposEscrita.CABECALHO, sessao)));
+		assertEquals(1, contar(get("/api/restaurantes").param("categoria", categoria).header(LeituraAposEscrita.CABECALHO, sessao)));
+	}
+
+	@Test
+	void escritaEmTransacaoSomenteLeituraDeveFalharNaReplica() {
+		TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+		leitura.setReadOnly(true);
+
+		// O usuário da réplica só tem SELECT
+		assertThrows(DataAccessException.class, () -> leitura.executeWithoutResult(status ->
+				jdbcTemplate.update("UPDATE restaurantes SET avaliacao = avaliacao")));
+		assertNotNull(leitura.execute(status -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM restaurantes", Long.class)));
+	}
+
+	@Test
+	void metricasDevemSepararOsPools() throws Exception {
+		listar("Roteamento " + UUID.randomUUID());
+		cadastrar();
+
+		JsonNode pools = objectMapper.readTree(mockMvc.perform(get("/api/datasource/pools"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+		assertEquals(2, pools.size());
+		JsonNode primario = pools.get(0);
+		JsonNode replica = pools.get(1);
+		assertEquals("primario", primario.get("pool").asText());
+		assertEquals("replica", replica.get("pool").asText());
+		assertEquals("jdbc:h2:mem:roteamento-replica", replica.get("url").asText());
+
+		assertTrue(primario.get("conexoesEscrita").asLong() > 0);
+		assertTrue(replica.get("conexoesLeitura").asLong() > 0);
+		assertEquals(0, replica.get("conexoesEscrita").asLong());
+		assertEquals(0, replica.get("conexoesAtivas").asInt());
+		assertTrue(replica.get("conexoesTotais").asInt() > 0);
+		assertEquals(10, replica.get("maximoConexoes").asInt());
+	}
+
+	@Test
+	void sincronizacaoSobDemandaDeveCopiarTodasAsTabelas() throws Exception {
+		cadastrar();
+		JsonNode copia = objectMapper.readTree(mockMvc.perform(post("/api/datasource/replica/sincronizar"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+
+		Long tabelas = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES " +
+				"WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE'", Long.class);
+		assertEquals(tabelas, copia.get("tabelas").asLong());
+		assertTrue(copia.get("linhas").asLong() >= jdbcTemplate.queryForObject("SELECT COUNT(*) FROM restaurantes", Long.class));
+	}
+
+	// =================== AUXILIARES ===================
+
+	// Cadastra um restaurante de categoria nova (no primário) e devolve a categoria
+	private String cadastrar() {
+		Restaurante restaurante = new Restaurante();
+		restaurante.setNome("Restaurante " + UUID.randomUUID());
+		restaurante.setCategoria("Roteamento " + UUID.randomUUID());
+		restaurante.setTaxaEntrega(new BigDecimal("5.00"));
+		restauranteService.cadastrar(restaurante);
+		return restaurante.getCategoria();
+	}
+
+	// Listagem de restaurantes da categoria, em transação readOnly
+	private int listar(String categoria) {
+		return restauranteService.listarComFiltros(categoria, null, null, 10).getItens().size();
+	}
+
+	private int contar(MockHttpServletRequestBuilder requisicao) throws Exception {
+		return objectMapper.readTree(mockMvc.perform(requisicao)
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString()).get("itens").size();
+	}
+}
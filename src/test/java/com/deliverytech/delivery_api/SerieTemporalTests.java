@@ -0,0 +1,270 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.dto.PedidoLoteResultadoDTO;
+import com.deliverytech.delivery_api.dto.PedidoRequestDTO;
+import com.deliverytech.delivery_api.dto.PedidosRestauranteDTO;
+import com.deliverytech.delivery_api.dto.ItemPedidoRequestDTO;
+import com.deliverytech.delivery_api.dto.PontoSerieDTO;
+import com.deliverytech.delivery_api.dto.SerieTemporalDTO;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Pedido;
+import com.deliverytech.delivery_api.entity.Produto;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.enums.GranularidadeSerie;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.service.PedidoLoteService;
+import com.deliverytech.delivery_api.service.PedidoService;
+import com.deliverytech.delivery_api.service.SerieTemporalService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sem @Transactional: os resumos são gravados junto com cada pedido, em transações próprias
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:serie-temporal;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector=com.deliverytech.delivery_api.ContadorSql"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SerieTemporalTests {
+
+	private static final int PEDIDOS = 2_000;
+	// Um pedido a cada 71 minutos, para trás a partir desta data: ~98 dias
+	private static final LocalDateTime REFERENCIA = LocalDateTime.of(2026, 3, 1, 0, 0);
+	private static final String[] STATUS = {"PENDENTE", "CONFIRMADO", "ENTREGUE", "CANCELADO"};
+
+	@Autowired private Cadastros cadastros;
+	@Autowired private PedidoService pedidoService;
+	@Autowired private PedidoLoteService pedidoLoteService;
+	@Autowired private SerieTemporalService serieTemporalService;
+	@Autowired private JdbcTemplate jdbcTemplate;
+	@Autowired private ObjectMapper objectMapper;
+	@Autowired private MockMvc mockMvc;
+
+	private Cliente cliente;
+	private Restaurante historico;
+
+	@BeforeAll
+	void cadastrarHistorico() {
+		cliente = cadastros.novoCliente("Cliente Série");
+		historico = cadastros.novoRestaurante();
+		Produto produto = cadastros.novoProduto(historico);
+
+		// Gravado direto no banco: só entra nos resumos pela reconstrução
+		jdbcTemplate.update("INSERT INTO pedidos (id, cliente_id, restaurante_id, data_pedido, total, status) " +
+				"SELECT 2000000 + X, ?, ?, DATEADD('MINUTE', -X * 71, CAST(? AS TIMESTAMP)), 10.00 + MOD(X, 7), " +
+				"ARRAY['PENDENTE', 'CONFIRMADO', 'ENTREGUE', 'CANCELADO'][MOD(X, 4) + 1] FROM SYSTEM_RANGE(1, ?)",
+				cliente.getId(), historico.getId(), Timestamp.valueOf(REFERENCIA), PEDIDOS);
+		jdbcTemplate.update("INSERT INTO itens_pedido (id, pedido_id, produto_id, quantidade, preco_unitario) " +
+				"SELECT 2000000 + X, 2000000 + X, ?, MOD(X, 3) + 1, 10.00 FROM SYSTEM_RANGE(1, ?)",
+				produto.getId(), PEDIDOS);
+		serieTemporalService.reconstruir();
+	}
+
+	@Test
+	void serieDeveBaterComOsPedidosEmQualquerIntervalo() {
+		List<Object[]> casos = List.of(
+				// 90 dias por dia, com pontas quebradas em minutos
+				new Object[]{GranularidadeSerie.DIA, REFERENCIA.minusDays(90).plusMinutes(517), REFERENCIA.minusMinutes(13)},
+				// Dias inteiros
+				new Object[]{GranularidadeSerie.DIA, REFERENCIA.minusDays(30), REFERENCIA},
+				// Menos de um dia, por dia: horas inteiras no meio e pedidos nas pontas
+				new Object[]{GranularidadeSerie.DIA, REFERENCIA.minusHours(20).plusMinutes(5), REFERENCIA.minusHours(2).plusMinutes(50)},
+				// Três dias por hora
+				new Object[]{GranularidadeSerie.HORA, REFERENCIA.minusDays(3).plusMinutes(41), REFERENCIA.minusMinutes(7)},
+				// Dentro de uma única hora: só pedidos
+				new Object[]{GranularidadeSerie.HORA, REFERENCIA.minusHours(5).plusMinutes(3), REFERENCIA.minusHours(5).plusMinutes(58)});
+
+		for (Object[] caso : casos) {
+			GranularidadeSerie granularidade = (GranularidadeSerie) caso[0];
+			LocalDateTime inicio = (LocalDateTime) caso[1];
+			LocalDateTime fim = (LocalDateTime) caso[2];
+			for (String status : new String[]{null, "ENTREGUE"}) {
+				SerieTemporalDTO serie = serieTemporalService.serie(granularidade, inicio, fim, historico.getId(), status);
+				assertEquals(esperada(granularidade, inicio, fim, status), pontos(serie), granularidade + " " + inicio + " " + fim + " " + status);
+			}
+		}
+	}
+
+	@Test
+	void custoNaoDeveCrescerComOIntervalo() {
+		LocalDateTime fim = REFERENCIA.minusMinutes(13);
+
+		ContadorSql.zerar();
+		serieTemporalService.serie(GranularidadeSerie.DIA, fim.minusDays(10), fim, historico.getId(), null);
+		int comandosDezDias = ContadorSql.getTotal();
+
+		ContadorSql.zerar();
+		serieTemporalService.serie(GranularidadeSerie.DIA, fim.minusDays(90), fim, historico.getId(), null);
+		assertEquals(comandosDezDias, ContadorSql.getTotal());
+		// De 23:47 a 23:47: resumo por dia dos dias inteiros, por hora das 00:00 às 23:00 do
+		// último dia e os pedidos só nos 13 minutos do início e nos 47 do fim
+		assertEquals(4, ContadorSql.getTotal());
+		assertEquals(1, contarSelects("from resumo_pedidos_dia"));
+		assertEquals(1, contarSelects("from resumo_pedidos_hora"));
+		assertEquals(2, contarSelects("from pedidos"));
+	}
+
+	@Test
+	void pedidosNovosEMudancasDeStatusDevemChegarAosResumos() throws Exception {
+		Restaurante restaurante = cadastros.novoRestaurante();
+		Produto produto = cadastros.novoProduto(restaurante);
+
+		Pedido pedido = pedidoService.criarPedido(cliente.getId(), restaurante.getId(), Map.of(produto.getId(), 2));
+		Pedido cancelado = pedidoService.criarPedido(cliente.getId(), restaurante.getId(), Map.of(produto.getId(), 1));
+		List<PedidoLoteResultadoDTO> lote = pedidoLoteService.criarPedidos(List.of(requisicao(restaurante, produto, 3), requisicao(restaurante, produto, 4)));
+		assertTrue(lote.stream().allMatch(resultado -> resultado.getPedidoId() != null), lote.toString());
+
+		pedidoService.atualizarStatus(pedido.getId(), "CONFIRMADO");
+		pedidoService.atualizarStatus(pedido.getId(), "ENTREGUE");
+		pedidoService.cancelarPedido(cancelado.getId());
+
+		// Horas inteiras de ontem até a próxima: tudo vem dos resumos, nada dos pedidos
+		LocalDateTime hora = pedido.getDataPedido().truncatedTo(ChronoUnit.HOURS);
+		LocalDateTime inicio = hora.minusDays(1);
+		LocalDateTime fim = hora.plusHours(2);
+		ContadorSql.zerar();
+		assertTotais(serieTemporalService.serie(GranularidadeSerie.HORA, inicio, fim, restaurante.getId(), null), 4, "100.00", 10);
+		assertEquals(0, contarSelects("from pedidos"));
+
+		assertTotais(serieTemporalService.serie(GranularidadeSerie.HORA, inicio, fim, restaurante.getId(), "PENDENTE"), 2, "70.00", 7);
+		assertTotais(serieTemporalService.serie(GranularidadeSerie.HORA, inicio, fim, restaurante.getId(), "ENTREGUE"), 1, "20.00", 2);
+		assertTotais(serieTemporalService.serie(GranularidadeSerie.HORA, inicio, fim, restaurante.getId(), "CONFIRMADO"), 0, "0", 0);
+		assertTotais(serieTemporalService.serie(GranularidadeSerie.DIA, inicio, fim, restaurante.getId(), "CANCELADO"), 1, "10.00", 1);
+
+		// Reconstruir do zero chega no mesmo resultado
+		serieTemporalService.reconstruir();
+		assertTotais(serieTemporalService.serie(GranularidadeSerie.HORA, inicio, fim, restaurante.getId(), "PENDENTE"), 2, "70.00", 7);
+
+		JsonNode serie = objectMapper.readTree(mockMvc.perform(get("/api/relatorios/serie-temporal")
+						.param("inicio", inicio.toString())
+						.param("fim", fim.toString())
+						.param("granularidade", "HORA")
+						.param("restauranteId", restaurante.getId().toString()))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray());
+		assertEquals("HORA", serie.get("granularidade").asText());
+		assertEquals(26, serie.get("pontos").size());
+		assertEquals(4, serie.get("pontos").get(24).get("pedidos").asLong() + serie.get("pontos").get(25).get("pedidos").asLong());
+	}
+
+	@Test
+	void pedidosPorRestauranteDevemBaterComOsPedidos() throws Exception {
+		LocalDateTime inicio = REFERENCIA.minusDays(90).plusMinutes(517);
+		LocalDateTime fim = REFERENCIA.minusMinutes(13);
+
+		for (String status : new String[]{null, "ENTREGUE"}) {
+			ContadorSql.zerar();
+			List<PedidosRestauranteDTO> totais = serieTemporalService.pedidosPorRestaurante(inicio, fim, status);
+			// Os pedidos só nas bordas menores que uma hora
+			assertEquals(2, contarSelects("from pedidos"));
+
+			assertEquals(1, totais.size());
+			PedidosRestauranteDTO total = totais.get(0);
+			assertEquals(historico.getId(), total.getRestauranteId());
+			assertEquals(historico.getNome(), total.getRestauranteNome());
+			List<String> pontos = esperada(GranularidadeSerie.DIA, inicio, fim, status);
+			long pedidos = pontos.stream().mapToLong(ponto -> Long.parseLong(ponto.split(" ")[1])).sum();
+			BigDecimal faturamento = pontos.stream().map(ponto -> new BigDecimal(ponto.split(" ")[2])).reduce(BigDecimal.ZERO, BigDecimal::add);
+			long itens = pontos.stream().mapToLong(ponto -> Long.parseLong(ponto.split(" ")[3])).sum();
+			assertEquals(pedidos, total.getPedidos());
+			assertEquals(0, faturamento.compareTo(total.getFaturamento()));
+			assertEquals(itens, total.getItens());
+		}
+
+		JsonNode resposta = objectMapper.readTree(mockMvc.perform(get("/api/relatorios/pedidos-por-restaurante")
+						.param("inicio", inicio.toString())
+						.param("fim", fim.toString())
+						.param("status", "CANCELADO"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray());
+		assertEquals(1, resposta.size());
+		assertEquals(historico.getId().longValue(), resposta.get(0).get("restauranteId").asLong());
+		assertTrue(resposta.get(0).get("pedidos").asLong() > 0);
+	}
+
+	@Test
+	void intervalosInvalidosDevemSerRejeitados() {
+		assertThrows(RegraNegocioException.class, () -> serieTemporalService.serie(GranularidadeSerie.DIA, REFERENCIA, REFERENCIA, null, null));
+		assertThrows(RegraNegocioException.class, () -> serieTemporalService.serie(GranularidadeSerie.DIA, REFERENCIA, REFERENCIA.minusDays(1), null, null));
+		assertThrows(RegraNegocioException.class, () -> serieTemporalService.serie(GranularidadeSerie.DIA, null, REFERENCIA, null, null));
+		assertThrows(RegraNegocioException.class, () -> serieTemporalService.serie(GranularidadeSerie.HORA,
+				REFERENCIA.minusHours(SerieTemporalService.MAXIMO_PONTOS).minusMinutes(1), REFERENCIA, null, null));
+		assertEquals(SerieTemporalService.MAXIMO_PONTOS, serieTemporalService.serie(GranularidadeSerie.HORA,
+				REFERENCIA.minusHours(SerieTemporalService.MAXIMO_PONTOS), REFERENCIA, null, null).getPontos().size());
+	}
+
+	// Série calculada direto dos pedidos, com os mesmos pontos (zerados onde não há pedidos)
+	private List<String> esperada(GranularidadeSerie granularidade, LocalDateTime inicio, LocalDateTime fim, String status) {
+		Map<LocalDateTime, Object[]> pontos = new TreeMap<>();
+		for (LocalDateTime ponto = granularidade.truncar(inicio); ponto.isBefore(fim); ponto = ponto.plus(granularidade.getDuracao())) {
+			pontos.put(ponto, new Object[]{0L, BigDecimal.ZERO, 0L});
+		}
+		jdbcTemplate.query("SELECT p.data_pedido, p.total, p.status, i.quantidade FROM pedidos p JOIN itens_pedido i ON i.pedido_id = p.id " +
+						"WHERE p.restaurante_id = ? AND p.data_pedido >= ? AND p.data_pedido < ?",
+				linha -> {
+					if (status != null && !status.equals(linha.getString(3))) {
+						return;
+					}
+					Object[] ponto = pontos.get(granularidade.truncar(linha.getTimestamp(1).toLocalDateTime()));
+					ponto[0] = (Long) ponto[0] + 1;
+					ponto[1] = ((BigDecimal) ponto[1]).add(linha.getBigDecimal(2));
+					ponto[2] = (Long) ponto[2] + linha.getLong(4);
+				},
+				historico.getId(), Timestamp.valueOf(inicio), Timestamp.valueOf(fim));
+		List<String> esperada = new ArrayList<>();
+		pontos.forEach((inicioPonto, ponto) -> esperada.add(texto(inicioPonto, (Long) ponto[0], (BigDecimal) ponto[1], (Long) ponto[2])));
+		return esperada;
+	}
+
+	private static List<String> pontos(SerieTemporalDTO serie) {
+		return serie.getPontos().stream()
+				.map(ponto -> texto(ponto.getInicio(), ponto.getPedidos(), ponto.getFaturamento(), ponto.getItens()))
+				.toList();
+	}
+
+	private static String texto(LocalDateTime inicio, Long pedidos, BigDecimal faturamento, Long itens) {
+		return inicio + " " + pedidos + " " + faturamento.stripTrailingZeros().toPlainString() + " " + itens;
+	}
+
+	private static void assertTotais(SerieTemporalDTO serie, long pedidos, String faturamento, long itens) {
+		assertEquals(pedidos, serie.getPontos().stream().mapToLong(PontoSerieDTO::getPedidos).sum());
+		assertEquals(0, serie.getPontos().stream().map(PontoSerieDTO::getFaturamento).reduce(BigDecimal.ZERO, BigDecimal::add)
+				.compareTo(new BigDecimal(faturamento)));
+		assertEquals(itens, serie.getPontos().stream().mapToLong(PontoSerieDTO::getItens).sum());
+	}
+
+	private static int contarSelects(String trecho) {
+		return (int) ContadorSql.getComandos().stream().filter(sql -> sql.startsWith("select") && sql.contains(trecho)).count();
+	}
+
+	private PedidoRequestDTO requisicao(Restaurante restaurante, Produto produto, int quantidade) {
+		ItemPedidoRequestDTO item = new ItemPedidoRequestDTO();
+		item.setProdutoId(produto.getId());
+		item.setQuantidade(quantidade);
+		PedidoRequestDTO requisicao = new PedidoRequestDTO();
+		requisicao.setClienteId(cliente.getId());
+		requisicao.setRestauranteId(restaurante.getId());
+		requisicao.setItens(List.of(item));
+		return requisicao;
+	}
+}
@@ -0,0 +1,212 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.dto.CotacaoTaxaDTO;
+import com.deliverytech.delivery_api.entity.RegraTaxaEntrega;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.enums.TipoRegraTaxa;
+import com.deliverytech.delivery_api.exception.EntidadeNaoEncontradaException;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.service.RestauranteService;
+import com.deliverytech.delivery_api.service.TaxaEntregaService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sem @Transactional: a tabela de taxas só recebe as alterações depois do commit
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:taxa-entrega;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector=com.deliverytech.delivery_api.ContadorSql"
+})
+@AutoConfigureMockMvc
+class TaxaEntregaTests {
+
+	// Distâncias a partir da Avenida Paulista pela tabela local de CEPs
+	private static final String CEP_PAULISTA = "01310-100";       // ~0 km
+	private static final String CEP_VILA_MARIANA = "04100-000";   // ~3,4 km
+	private static final String CEP_BUTANTA = "05500-000";        // ~5,5 km
+	private static final String CEP_COPACABANA = "22010-000";     // ~360 km
+	private static final String CEP_FORA_DA_TABELA = "99999-999";
+
+	@Autowired private RestauranteService restauranteService;
+	@Autowired private TaxaEntregaService taxaEntregaService;
+	@Autowired private ObjectMapper objectMapper;
+	@Autowired private MockMvc mockMvc;
+
+	@Test
+	void semRegrasDeveValerATaxaBase() throws Exception {
+		Restaurante restaurante = cadastrar("7.50");
+
+		for (String cep : List.of(CEP_PAULISTA, CEP_COPACABANA, CEP_FORA_DA_TABELA)) {
+			String taxa = mockMvc.perform(get("/api/restaurantes/" + restaurante.getId() + "/taxa-entrega/" + cep))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString();
+			assertEquals(0, new BigDecimal(taxa).compareTo(new BigDecimal("7.50")), cep);
+		}
+	}
+
+	@Test
+	void faixaDeCepDevePrevalecerSobreAsFaixasDeDistancia() {
+		Restaurante restaurante = cadastrar("5.00");
+		taxaEntregaService.substituirRegras(restaurante.getId(), List.of(
+				distancia(5.0, "3.00"),
+				distancia(2.0, "0.00"),
+				distancia(8.0, "6.00"),
+				faixaCep("22000-000", "22099-999", "25.00"),
+				faixaCep("04100-000", "04100-999", "4.00")));
+
+		assertTaxa("5.00", restaurante, CEP_PAULISTA);
+		assertTaxa("11.00", restaurante, CEP_BUTANTA);
+		assertTaxa("4.00", restaurante, CEP_VILA_MARIANA);
+		assertTaxa("25.00", restaurante, CEP_COPACABANA);
+		assertTaxa("25.00", restaurante, "22099-999");
+		// Fora das faixas de CEP e longe demais (ou sem coordenadas para medir)
+		assertThrows(RegraNegocioException.class, () -> restauranteService.calcularTaxaEntrega(restaurante.getId(), "22100-000"));
+		assertThrows(RegraNegocioException.class, () -> restauranteService.calcularTaxaEntrega(restaurante.getId(), CEP_FORA_DA_TABELA));
+		assertThrows(RegraNegocioException.class, () -> restauranteService.calcularTaxaEntrega(restaurante.getId(), "123"));
+		assertThrows(EntidadeNaoEncontradaException.class, () -> restauranteService.calcularTaxaEntrega(-1L, CEP_PAULISTA));
+	}
+
+	@Test
+	void regrasInvalidasDevemSerRejeitadasSemAlterarAsAtuais() {
+		Restaurante restaurante = cadastrar("5.00");
+		taxaEntregaService.substituirRegras(restaurante.getId(), List.of(distancia(2.0, "1.00")));
+
+		List<List<RegraTaxaEntrega>> invalidas = List.of(
+				List.of(faixaCep("01000-000", "01999-999", "9.00"), faixaCep("01310-000", "01310-999", "3.00")),
+				List.of(faixaCep("02000-000", "01000-000", "9.00")),
+				List.of(distancia(0.0, "1.00")),
+				List.of(distancia(3.0, "1.00"), distancia(3.0, "2.00")),
+				List.of(distancia(3.0, "-1.00")));
+		for (List<RegraTaxaEntrega> regras : invalidas) {
+			assertThrows(RegraNegocioException.class, () -> taxaEntregaService.substituirRegras(restaurante.getId(), regras));
+		}
+		// A validação não mexe nas regras recebidas
+		assertEquals("02000-000", invalidas.get(1).get(0).getCepInicial());
+
+		assertEquals(1, taxaEntregaService.listarRegras(restaurante.getId()).size());
+		assertTaxa("6.00", restaurante, CEP_PAULISTA);
+	}
+
+	@Test
+	void faixasDeCepDevemSerGravadasNormalizadas() {
+		Restaurante restaurante = cadastrar("5.00");
+		taxaEntregaService.substituirRegras(restaurante.getId(), List.of(faixaCep("22000-000", "22099-999", "25.00")));
+
+		RegraTaxaEntrega gravada = taxaEntregaService.listarRegras(restaurante.getId()).get(0);
+		assertEquals("22000000", gravada.getCepInicial());
+		assertEquals("22099999", gravada.getCepFinal());
+		// A reconstrução compila as regras gravadas (entidades gerenciadas) sem alterá-las
+		assertTrue(taxaEntregaService.reconstruir() > 0);
+		assertTaxa("25.00", restaurante, CEP_COPACABANA);
+	}
+
+	@Test
+	void cotacaoNaoDeveConsultarOBanco() {
+		Restaurante a = cadastrar("5.00");
+		Restaurante b = cadastrar("6.00");
+		taxaEntregaService.substituirRegras(a.getId(), List.of(distancia(4.0, "1.00"), faixaCep("22000-000", "22999-999", "30.00")));
+
+		ContadorSql.zerar();
+		restauranteService.calcularTaxaEntrega(a.getId(), CEP_VILA_MARIANA);
+		taxaEntregaService.cotar(CEP_COPACABANA, List.of(a.getId(), b.getId()));
+		assertEquals(0, ContadorSql.getTotal());
+	}
+
+	@Test
+	void cotacaoEmLoteDeveSeguirAOrdemPedida() throws Exception {
+		Restaurante perto = cadastrar("5.00");
+		Restaurante limitado = cadastrar("4.00");
+		Restaurante inativo = cadastrar("3.00");
+		taxaEntregaService.substituirRegras(limitado.getId(), List.of(distancia(2.0, "0.50")));
+		restauranteService.alterarStatus(inativo.getId(), false);
+
+		String ids = limitado.getId() + "," + perto.getId() + ",-1," + inativo.getId() + "," + perto.getId();
+		CotacaoTaxaDTO[] cotacoes = objectMapper.readValue(mockMvc.perform(get("/api/restaurantes/taxa-entrega/" + CEP_VILA_MARIANA)
+						.param("restauranteIds", ids))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray(), CotacaoTaxaDTO[].class);
+
+		assertEquals(List.of(limitado.getId(), perto.getId(), inativo.getId()),
+				List.of(cotacoes).stream().map(CotacaoTaxaDTO::getRestauranteId).toList());
+		assertFalse(cotacoes[0].getAtende());
+		assertNull(cotacoes[0].getTaxa());
+		assertTrue(cotacoes[1].getAtende());
+		assertEquals("BASE", cotacoes[1].getRegra());
+		assertEquals(0, cotacoes[1].getTaxa().compareTo(new BigDecimal("5.00")));
+		assertEquals("04100000", cotacoes[1].getCep());
+		assertEquals(3.4, cotacoes[1].getDistanciaKm(), 0.2);
+		assertFalse(cotacoes[2].getAtende());
+	}
+
+	@Test
+	void alteracoesDoRestauranteDevemChegarNaTabela() throws Exception {
+		Restaurante restaurante = cadastrar("5.00");
+
+		JsonNode regras = objectMapper.readTree(mockMvc.perform(put("/api/restaurantes/" + restaurante.getId() + "/regras-taxa")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("[{\"tipo\":\"FAIXA_CEP\",\"cepInicial\":\"01310-000\",\"cepFinal\":\"01310-999\",\"valor\":2.00}]"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray());
+		assertEquals("01310000", regras.get(0).get("cepInicial").asText());
+		assertTaxa("2.00", restaurante, CEP_PAULISTA);
+		assertTaxa("5.00", restaurante, CEP_BUTANTA);
+
+		Restaurante novosDados = new Restaurante();
+		novosDados.setNome(restaurante.getNome());
+		novosDados.setCategoria(restaurante.getCategoria());
+		novosDados.setCep(restaurante.getCep());
+		novosDados.setTaxaEntrega(new BigDecimal("9.90"));
+		restauranteService.atualizar(restaurante.getId(), novosDados);
+		assertTaxa("9.90", restaurante, CEP_BUTANTA);
+
+		restauranteService.deletar(restaurante.getId());
+		assertThrows(EntidadeNaoEncontradaException.class, () -> restauranteService.calcularTaxaEntrega(restaurante.getId(), CEP_PAULISTA));
+	}
+
+	private void assertTaxa(String esperada, Restaurante restaurante, String cep) {
+		BigDecimal taxa = restauranteService.calcularTaxaEntrega(restaurante.getId(), cep);
+		assertEquals(0, taxa.compareTo(new BigDecimal(esperada)), cep + ": " + taxa);
+	}
+
+	private Restaurante cadastrar(String taxaBase) {
+		Restaurante novo = new Restaurante();
+		novo.setNome("Restaurante [" + UUID.randomUUID() + "]");
+		novo.setCategoria("Lanches");
+		novo.setCep(CEP_PAULISTA);
+		novo.setTaxaEntrega(new BigDecimal(taxaBase));
+		return restauranteService.cadastrar(novo);
+	}
+
+	private static RegraTaxaEntrega distancia(double limiteKm, String acrescimo) {
+		RegraTaxaEntrega regra = new RegraTaxaEntrega();
+		regra.setTipo(TipoRegraTaxa.FAIXA_DISTANCIA);
+		regra.setLimiteKm(limiteKm);
+		regra.setValor(new BigDecimal(acrescimo));
+		return regra;
+	}
+
+	private static RegraTaxaEntrega faixaCep(String inicial, String fim, String valor) {
+		RegraTaxaEntrega regra = new RegraTaxaEntrega();
+		regra.setTipo(TipoRegraTaxa.FAIXA_CEP);
+		regra.setCepInicial(inicial);
+		regra.setCepFinal(fim);
+		regra.setValor(new BigDecimal(valor));
+		return regra;
+	}
+}
@@ -0,0 +1,96 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.dto.VendasPeriodoDTO;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.PedidoRepository;
+import com.deliverytech.delivery_api.service.VendasPeriodoService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark do relatório de vendas por período: um ano de pedidos (1 milhão, 1.000
+ * restaurantes) somado em uma consulta só e em trechos, com 1, 2, 4 e 8 threads.
+ *
+ * O ganho depende dos núcleos livres: com um núcleo só as consultas paralelas dividem a mesma CPU.
+ *
+ * Executar com: ./mvnw test -Dtest=VendasPeriodoBenchmarkTests -Dbenchmark=true [-Dbenchmark.pedidos=200000]
+ */
+@SpringBootTest(properties = {
+		// Sem reaproveitar o resultado anterior de uma consulta repetida (o H2 faz isso por sessão)
+		"spring.datasource.url=jdbc:h2:mem:vendas-periodo-benchmark;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE",
+		"spring.jpa.show-sql=false",
+		"logging.level.org.springframework.web=INFO"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VendasPeriodoBenchmarkTests {
+
+	private static final LocalDateTime REFERENCIA = LocalDateTime.of(2026, 3, 1, 0, 0);
+	private static final int RESTAURANTES = 1_000;
+	private static final int RODADAS = 5;
+
+	@Autowired private ClienteRepository clienteRepository;
+	@Autowired private PedidoRepository pedidoRepository;
+	@Autowired private PlatformTransactionManager transactionManager;
+	@Autowired private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void compararConsultaUnicaEParalela() {
+		int pedidos = Integer.getInteger("benchmark.pedidos", 1_000_000);
+		Cliente cliente = new Cliente();
+		cliente.setNome("Cliente Benchmark Período");
+		cliente.setAtivo(true);
+		clienteRepository.save(cliente);
+
+		long inicioCarga = System.nanoTime();
+		// Restaurantes gravados só pelo id: o relatório não lê a tabela de restaurantes
+		jdbcTemplate.update("INSERT INTO restaurantes (id, nome, ativo) SELECT 7000000 + X, 'Restaurante ' || X, TRUE " +
+				"FROM SYSTEM_RANGE(1, ?)", RESTAURANTES);
+		jdbcTemplate.update("INSERT INTO pedidos (id, cliente_id, restaurante_id, data_pedido, total, status) " +
+						"SELECT 7000000 + X, ?, 7000001 + MOD(X * 7919, ?), DATEADD('SECOND', -MOD(X * 104729, 31536000), CAST(? AS TIMESTAMP)), " +
+						"10.00 + MOD(X, 50), ARRAY['PENDENTE', 'ENTREGUE', 'ENTREGUE', 'CANCELADO'][MOD(X, 4) + 1] FROM SYSTEM_RANGE(1, ?)",
+				cliente.getId(), RESTAURANTES, Timestamp.valueOf(REFERENCIA), pedidos);
+		System.out.printf("Carga de %d pedidos: %.0f ms (%d núcleos)%n", pedidos, (System.nanoTime() - inicioCarga) / 1e6,
+				Runtime.getRuntime().availableProcessors());
+
+		LocalDateTime inicio = REFERENCIA.minusYears(1);
+		VendasPeriodoService unica = new VendasPeriodoService(pedidoRepository, transactionManager, 1, 2);
+		double base;
+		try {
+			base = medir("consulta única", unica, inicio, pedidos, false, 0);
+		} finally {
+			unica.encerrar();
+		}
+		for (int paralelismo : new int[]{1, 2, 4, 8}) {
+			VendasPeriodoService service = new VendasPeriodoService(pedidoRepository, transactionManager, paralelismo, paralelismo + 1);
+			try {
+				medir("paralelismo " + paralelismo, service, inicio, pedidos, true, base);
+			} finally {
+				service.encerrar();
+			}
+		}
+	}
+
+	private static double medir(String nome, VendasPeriodoService service, LocalDateTime inicio, int pedidos, boolean paralelo, double base) {
+		// Aquecimento e conferência
+		VendasPeriodoDTO vendas = service.vendasPorRestaurante(inicio, REFERENCIA, null, paralelo);
+		assertEquals(pedidos, vendas.getRestaurantes().stream().mapToLong(r -> r.getPedidos()).sum());
+
+		long comeco = System.nanoTime();
+		for (int i = 0; i < RODADAS; i++) {
+			vendas = service.vendasPorRestaurante(inicio, REFERENCIA, null, paralelo);
+		}
+		double ms = (System.nanoTime() - comeco) / 1e6 / RODADAS;
+		System.out.printf("%-16s (%3d trechos): %8.1f ms | %.2fx%n", nome, vendas.getParticoes(), ms, base == 0 ? 1 : base / ms);
+		return ms;
+	}
+}
@@ -0,0 +1,180 @@
+package com.deliverytech.delivery_api;
+
+import com.deliverytech.delivery_api.dto.VendasPeriodoDTO;
+import com.deliverytech.delivery_api.dto.VendasPeriodoRestauranteDTO;
+import com.deliverytech.delivery_api.entity.Cliente;
+import com.deliverytech.delivery_api.entity.Restaurante;
+import com.deliverytech.delivery_api.exception.RegraNegocioException;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.service.RelatorioService;
+import com.deliverytech.delivery_api.service.VendasPeriodoService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:vendas-periodo;DB_CLOSE_DELAY=-1",
+		"delivery.relatorios.paralelismo=3",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector=com.deliverytech.delivery_api.ContadorSql"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class VendasPeriodoTests {
+
+	private static final int PEDIDOS = 12_000;
+	// Um pedido a cada 23 minutos, para trás a partir desta data: ~190 dias
+	private static final LocalDateTime REFERENCIA = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+	@Autowired private ClienteRepository clienteRepository;
+	@Autowired private RestauranteRepository restauranteRepository;
+	@Autowired private RelatorioService relatorioService;
+	@Autowired private VendasPeriodoService vendasPeriodoService;
+	@Autowired private JdbcTemplate jdbcTemplate;
+	@Autowired private ObjectMapper objectMapper;
+	@Autowired private MockMvc mockMvc;
+
+	private final List<Long> restauranteIds = new ArrayList<>();
+
+	@BeforeAll
+	void cadastrarHistorico() {
+		Cliente cliente = new Cliente();
+		cliente.setNome("Cliente Período [" + UUID.randomUUID() + "]");
+		cliente.setAtivo(true);
+		clienteRepository.save(cliente);
+		for (int i = 0; i < 4; i++) {
+			Restaurante restaurante = new Restaurante();
+			restaurante.setNome("Restaurante Período [" + UUID.randomUUID() + "]");
+			restaurante.setCategoria("Lanches");
+			restaurante.setAtivo(true);
+			restauranteIds.add(restauranteRepository.save(restaurante).getId());
+		}
+
+		// Mais pedidos nos dias recentes (um restaurante só vende no começo do período)
+		jdbcTemplate.update("INSERT INTO pedidos (id, cliente_id, restaurante_id, data_pedido, total, status) " +
+						"SELECT 6000000 + X, ?, CASE WHEN X > 10000 THEN ? WHEN MOD(X, 3) = 0 THEN ? WHEN MOD(X, 3) = 1 THEN ? ELSE ? END, " +
+						"DATEADD('MINUTE', -X * 23, CAST(? AS TIMESTAMP)), 15.00 + MOD(X, 11) + 0.10, " +
+						"ARRAY['PENDENTE', 'ENTREGUE', 'ENTREGUE', 'CANCELADO'][MOD(X, 4) + 1] FROM SYSTEM_RANGE(1, ?)",
+				cliente.getId(), restauranteIds.get(3), restauranteIds.get(0), restauranteIds.get(1), restauranteIds.get(2),
+				Timestamp.valueOf(REFERENCIA), PEDIDOS);
+	}
+
+	@Test
+	void paraleloDeveBaterComAConsultaUnicaEComOBanco() {
+		// Bordas fora do minuto dos pedidos e pedidos caindo exatamente nos cortes dos trechos
+		LocalDateTime inicio = REFERENCIA.minusDays(170).plusSeconds(7);
+		LocalDateTime fim = REFERENCIA.minusDays(2);
+
+		VendasPeriodoDTO unica = relatorioService.getVendasPorPeriodo(inicio, fim, null, false);
+		VendasPeriodoDTO paralela = relatorioService.getVendasPorPeriodo(inicio, fim, null, true);
+
+		assertEquals(1, unica.getParticoes());
+		assertEquals(3, paralela.getParalelismo());
+		assertEquals(3 * VendasPeriodoService.PARTICOES_POR_THREAD, paralela.getParticoes());
+		assertEquals(unica.getRestaurantes(), paralela.getRestaurantes());
+		assertEquals(noBanco(inicio, fim, null), texto(paralela));
+		assertEquals(4, paralela.getRestaurantes().size());
+		for (int i = 1; i < paralela.getRestaurantes().size(); i++) {
+			assertTrue(paralela.getRestaurantes().get(i - 1).getFaturamento()
+					.compareTo(paralela.getRestaurantes().get(i).getFaturamento()) >= 0);
+		}
+	}
+
+	@Test
+	void filtroDeStatusETrechosExatos() {
+		// 12 dias em 12 trechos de um dia, começando no horário exato de um pedido
+		LocalDateTime inicio = REFERENCIA.minusMinutes(23 * 3000);
+		LocalDateTime fim = inicio.plusDays(12);
+
+		VendasPeriodoDTO entregues = relatorioService.getVendasPorPeriodo(inicio, fim, "ENTREGUE", true);
+
+		assertEquals(12, entregues.getParticoes());
+		assertEquals(noBanco(inicio, fim, "ENTREGUE"), texto(entregues));
+		assertEquals(relatorioService.getVendasPorPeriodo(inicio, fim, "ENTREGUE", false).getRestaurantes(),
+				entregues.getRestaurantes());
+	}
+
+	@Test
+	void periodoCurtoDeveUsarUmaConsultaSo() {
+		ContadorSql.zerar();
+		VendasPeriodoDTO horas = relatorioService.getVendasPorPeriodo(REFERENCIA.minusHours(30), REFERENCIA, null, true);
+
+		assertEquals(1, horas.getParticoes());
+		assertEquals(1, horas.getParalelismo());
+		assertEquals(noBanco(REFERENCIA.minusHours(30), REFERENCIA, null), texto(horas));
+		// Sem filtro de status, a consulta não leva condição nenhuma sobre ele
+		List<String> consultas = ContadorSql.getComandos().stream().filter(sql -> sql.contains(" from pedidos")).toList();
+		assertEquals(1, consultas.size());
+		assertFalse(consultas.get(0).contains("status"), consultas.get(0));
+	}
+
+	@Test
+	void endpointEValidacoes() throws Exception {
+		String corpo = mockMvc.perform(get("/api/relatorios/vendas-por-periodo")
+						.param("inicio", REFERENCIA.minusDays(100).toString())
+						.param("fim", REFERENCIA.toString())
+						.param("status", "CANCELADO"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		JsonNode resposta = objectMapper.readTree(corpo);
+		assertEquals("CANCELADO", resposta.get("status").asText());
+		assertEquals(vendasPeriodoService.getParalelismo() * VendasPeriodoService.PARTICOES_POR_THREAD,
+				resposta.get("particoes").asInt());
+		long pedidos = 0;
+		for (JsonNode restaurante : resposta.get("restaurantes")) {
+			pedidos += restaurante.get("pedidos").asLong();
+		}
+		assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pedidos WHERE status = 'CANCELADO' " +
+						"AND data_pedido >= ? AND data_pedido < ?", Long.class,
+				Timestamp.valueOf(REFERENCIA.minusDays(100)), Timestamp.valueOf(REFERENCIA)), pedidos);
+
+		assertThrows(RegraNegocioException.class, () -> relatorioService.getVendasPorPeriodo(REFERENCIA, REFERENCIA, null, true));
+		assertThrows(RegraNegocioException.class, () -> relatorioService.getVendasPorPeriodo(null, REFERENCIA, null, true));
+	}
+
+	// =================== AUXILIARES ===================
+
+	private Map<Long, String> noBanco(LocalDateTime inicio, LocalDateTime fim, String status) {
+		Map<Long, String> esperado = new TreeMap<>();
+		// Sem status, todos os pedidos do período
+		Object[] parametros = status == null
+				? new Object[]{Timestamp.valueOf(inicio), Timestamp.valueOf(fim)}
+				: new Object[]{Timestamp.valueOf(inicio), Timestamp.valueOf(fim), status};
+		jdbcTemplate.query("SELECT restaurante_id, COUNT(*), SUM(total), MIN(data_pedido), MAX(data_pedido) FROM pedidos " +
+						"WHERE data_pedido >= ? AND data_pedido < ?" + (status == null ? "" : " AND status = ?") +
+						" GROUP BY restaurante_id",
+				linha -> {
+					esperado.put(linha.getLong(1), linha.getLong(2) + " " + linha.getBigDecimal(3).stripTrailingZeros().toPlainString()
+							+ " " + linha.getTimestamp(4).toLocalDateTime() + " " + linha.getTimestamp(5).toLocalDateTime());
+				},
+				parametros);
+		return esperado;
+	}
+
+	private static Map<Long, String> texto(VendasPeriodoDTO vendas) {
+		Map<Long, String> obtido = new TreeMap<>();
+		for (VendasPeriodoRestauranteDTO restaurante : vendas.getRestaurantes()) {
+			obtido.put(restaurante.getRestauranteId(), restaurante.getPedidos() + " "
+					+ restaurante.getFaturamento().stripTrailingZeros().toPlainString() + " "
+					+ restaurante.getPrimeiroPedido() + " " + restaurante.getUltimoPedido());
+		}
+		return obtido;
+	}
+}